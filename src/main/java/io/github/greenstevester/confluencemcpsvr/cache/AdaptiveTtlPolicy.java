@@ -0,0 +1,68 @@
+package io.github.greenstevester.confluencemcpsvr.cache;
+
+import java.time.Duration;
+
+/**
+ * Derives a per-page cache TTL from the change rate observed through version numbers.
+ * <p>
+ * Edits to a page are treated as a Poisson process with rate {@code λ}. The TTL is the
+ * window {@code T} for which the probability of at least one edit, {@code 1 - e^(-λT)},
+ * stays at the configured target staleness. Pages that have not changed while observed
+ * only give an upper bound on {@code λ}, so their TTL grows the longer they stay quiet.
+ */
+public class AdaptiveTtlPolicy {
+    
+    private final long defaultTtlMillis;
+    private final long minTtlMillis;
+    private final long maxTtlMillis;
+    private final double stalenessFactor;
+    
+    public AdaptiveTtlPolicy(Duration defaultTtl, Duration minTtl, Duration maxTtl, double targetStaleness) {
+        if (targetStaleness <= 0 || targetStaleness >= 1) {
+            throw new IllegalArgumentException("Target staleness must be between 0 and 1: " + targetStaleness);
+        }
+        this.minTtlMillis = minTtl.toMillis();
+        this.maxTtlMillis = Math.max(minTtlMillis, maxTtl.toMillis());
+        this.defaultTtlMillis = clamp(defaultTtl.toMillis());
+        this.stalenessFactor = -Math.log(1 - targetStaleness);
+    }
+    
+    /**
+     * Compute the TTL in milliseconds for a page with the given change history
+     */
+    public long ttlMillis(PageChangeHistory history, long nowMillis) {
+        if (history == null) {
+            return defaultTtlMillis;
+        }
+        
+        double changesPerMilli = estimateChangeRate(history, nowMillis);
+        if (changesPerMilli <= 0) {
+            return defaultTtlMillis;
+        }
+        
+        return clamp((long) (stalenessFactor / changesPerMilli));
+    }
+    
+    /**
+     * Estimate edits per millisecond, or 0 when there is not enough evidence
+     */
+    double estimateChangeRate(PageChangeHistory history, long nowMillis) {
+        int changes = history.lastVersion() - history.firstVersion();
+        long observedSpan = history.lastSeenAt() - history.firstSeenAt();
+        
+        if (changes > 0 && observedSpan > 0) {
+            return (double) changes / observedSpan;
+        }
+        
+        // No edits observed: the quiet period bounds the rate at one edit per period
+        long quietPeriod = observedSpan;
+        if (history.lastModifiedAt() > 0) {
+            quietPeriod = Math.max(quietPeriod, nowMillis - history.lastModifiedAt());
+        }
+        return quietPeriod > 0 ? 1.0 / quietPeriod : 0;
+    }
+    
+    private long clamp(long ttlMillis) {
+        return Math.max(minTtlMillis, Math.min(maxTtlMillis, ttlMillis));
+    }
+}
\ No newline at end of file
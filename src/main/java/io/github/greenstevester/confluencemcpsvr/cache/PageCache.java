@@ -0,0 +1,266 @@
+package io.github.greenstevester.confluencemcpsvr.cache;
+
+import io.github.greenstevester.confluencemcpsvr.config.CacheProperties;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageDetailed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of page details with a TTL learned per page from its modification frequency
+ */
+@Component
+public class PageCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PageCache.class);
+    
+    private static final String ANSI_MAGENTA = "\u001B[35m";
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    private final Map<String, CachedPage> entries = new ConcurrentHashMap<>();
+    private final AdaptiveTtlPolicy ttlPolicy;
+    private final boolean enabled;
+    private final int maxEntries;
+    
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong servedAgeMillis = new AtomicLong(0);
+    private final AtomicLong maxServedAgeMillis = new AtomicLong(0);
+    private final AtomicLong refreshes = new AtomicLong(0);
+    private final AtomicLong changedRefreshes = new AtomicLong(0);
+    private final AtomicLong staleWindowMillis = new AtomicLong(0);
+    
+    public PageCache(CacheProperties cacheProperties) {
+        this.enabled = cacheProperties.enabled();
+        this.maxEntries = cacheProperties.maxEntries();
+        this.ttlPolicy = new AdaptiveTtlPolicy(
+            cacheProperties.defaultTtl(),
+            cacheProperties.minTtl(),
+            cacheProperties.maxTtl(),
+            cacheProperties.targetStaleness());
+    }
+    
+    /**
+     * Get a cached page if present and still fresh, otherwise null
+     */
+    public PageDetailed get(String pageId) {
+        if (!enabled || pageId == null) {
+            return null;
+        }
+        
+        CachedPage entry = entries.get(pageId);
+        long now = System.currentTimeMillis();
+        
+        if (entry == null || entry.page() == null || now >= entry.expiresAt()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        
+        long age = now - entry.fetchedAt();
+        hits.incrementAndGet();
+        servedAgeMillis.addAndGet(age);
+        maxServedAgeMillis.accumulateAndGet(age, Math::max);
+        return entry.page();
+    }
+    
+    /**
+     * Store a freshly fetched page and recompute its TTL from the observed version
+     */
+    public void put(PageDetailed page) {
+        if (!enabled || page == null || page.id() == null) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        int version = page.version() != null ? page.version().number() : 0;
+        long modifiedAt = page.version() != null && page.version().when() != null
+            ? page.version().when().toInstant().toEpochMilli() : 0;
+        
+        entries.compute(page.id(), (id, previous) -> {
+            PageChangeHistory history;
+            if (previous == null) {
+                history = PageChangeHistory.first(version, now, modifiedAt);
+            } else {
+                history = previous.history().observe(version, now, modifiedAt);
+                recordRefresh(previous, version, now);
+            }
+            
+            long ttl = ttlPolicy.ttlMillis(history, now);
+            logger.debug("Caching page {} (version {}) for {} ms", id, version, ttl);
+            return new CachedPage(page, history, now, now + ttl);
+        });
+        
+        if (entries.size() > maxEntries) {
+            evictSoonestExpiring();
+        }
+    }
+    
+    /**
+     * Drop the cached body of a page while keeping its change history
+     */
+    public void invalidate(String pageId) {
+        if (pageId == null) {
+            return;
+        }
+        entries.computeIfPresent(pageId, (id, entry) ->
+            new CachedPage(null, entry.history(), entry.fetchedAt(), 0));
+    }
+    
+    /**
+     * Forget a page entirely, including its change history (used when a page is deleted)
+     */
+    public void evict(String pageId) {
+        if (pageId != null) {
+            entries.remove(pageId);
+        }
+    }
+    
+    /**
+     * Whether a readable copy of the page is currently held, regardless of freshness
+     */
+    public boolean contains(String pageId) {
+        CachedPage entry = pageId != null ? entries.get(pageId) : null;
+        return entry != null && entry.page() != null;
+    }
+    
+    /**
+     * Current TTL assigned to a page in milliseconds, or -1 if the page is not cached
+     */
+    public long currentTtlMillis(String pageId) {
+        CachedPage entry = entries.get(pageId);
+        return entry != null && entry.page() != null ? entry.expiresAt() - entry.fetchedAt() : -1;
+    }
+    
+    /**
+     * Snapshot of cache effectiveness statistics
+     */
+    public CacheStats getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        long refreshCount = refreshes.get();
+        long changedCount = changedRefreshes.get();
+        
+        return new CacheStats(
+            entries.size(),
+            hitCount,
+            missCount,
+            lookups > 0 ? (double) hitCount / lookups : 0,
+            hitCount > 0 ? servedAgeMillis.get() / hitCount : 0,
+            maxServedAgeMillis.get(),
+            refreshCount,
+            changedCount,
+            changedCount > 0 ? staleWindowMillis.get() / changedCount : 0
+        );
+    }
+    
+    /**
+     * Get formatted cache statistics for the monitoring report
+     */
+    public String getFormattedStats() {
+        CacheStats stats = getStats();
+        StringBuilder sb = new StringBuilder();
+        
+        sb.append(ANSI_BOLD).append(ANSI_MAGENTA).append("🗄️ Page Cache Statistics").append(ANSI_RESET).append("\n");
+        
+        if (!enabled) {
+            sb.append("   └─ ").append(ANSI_CYAN).append("Page cache disabled").append(ANSI_RESET);
+            return sb.toString();
+        }
+        
+        sb.append("   ├─ Entries: ").append(ANSI_YELLOW).append(stats.entries()).append(ANSI_RESET).append("\n");
+        sb.append("   ├─ Hit Rate: ").append(ANSI_YELLOW).append(String.format("%.1f%%", stats.hitRate() * 100))
+          .append(ANSI_RESET).append(" (").append(stats.hits()).append(" hits, ").append(stats.misses()).append(" misses)\n");
+        sb.append("   ├─ Served Age: ").append(ANSI_YELLOW).append(formatMillis(stats.averageServedAgeMillis()))
+          .append(ANSI_RESET).append(" avg, ").append(ANSI_YELLOW).append(formatMillis(stats.maxServedAgeMillis()))
+          .append(ANSI_RESET).append(" max\n");
+        sb.append("   └─ Stale Refreshes: ").append(ANSI_YELLOW).append(stats.changedRefreshes()).append(ANSI_RESET)
+          .append(" of ").append(stats.refreshes()).append(" (avg window ")
+          .append(formatMillis(stats.averageStaleWindowMillis())).append(")");
+        
+        return sb.toString();
+    }
+    
+    /**
+     * Reset statistics
+     */
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+        servedAgeMillis.set(0);
+        maxServedAgeMillis.set(0);
+        refreshes.set(0);
+        changedRefreshes.set(0);
+        staleWindowMillis.set(0);
+    }
+    
+    /**
+     * Track whether a refresh found a newer version than the copy we were serving.
+     * The time since that copy was fetched bounds how long stale content may have been served.
+     */
+    private void recordRefresh(CachedPage previous, int version, long now) {
+        if (previous.page() == null || previous.page().version() == null) {
+            return;
+        }
+        refreshes.incrementAndGet();
+        if (version > previous.page().version().number()) {
+            changedRefreshes.incrementAndGet();
+            staleWindowMillis.addAndGet(now - previous.fetchedAt());
+        }
+    }
+    
+    private void evictSoonestExpiring() {
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        entries.entrySet().stream()
+            .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt()))
+            .limit(excess)
+            .map(Map.Entry::getKey)
+            .toList()
+            .forEach(entries::remove);
+        logger.debug("Evicted {} page cache entries", excess);
+    }
+    
+    private String formatMillis(long millis) {
+        if (millis < 1000) {
+            return millis + "ms";
+        } else if (millis < 60_000) {
+            return String.format("%.1fs", millis / 1000.0);
+        } else if (millis < 3_600_000) {
+            return String.format("%.1fm", millis / 60_000.0);
+        }
+        return String.format("%.1fh", millis / 3_600_000.0);
+    }
+    
+    /**
+     * Cached page together with its change history and freshness window
+     */
+    private record CachedPage(
+        PageDetailed page,
+        PageChangeHistory history,
+        long fetchedAt,
+        long expiresAt
+    ) {}
+    
+    /**
+     * Cache effectiveness statistics
+     */
+    public record CacheStats(
+        int entries,
+        long hits,
+        long misses,
+        double hitRate,
+        long averageServedAgeMillis,
+        long maxServedAgeMillis,
+        long refreshes,
+        long changedRefreshes,
+        long averageStaleWindowMillis
+    ) {}
+}
\ No newline at end of file
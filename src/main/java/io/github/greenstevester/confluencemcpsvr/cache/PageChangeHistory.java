@@ -0,0 +1,38 @@
+package io.github.greenstevester.confluencemcpsvr.cache;
+
+/**
+ * Version observations for a single page, used to estimate how often it changes
+ *
+ * @param firstVersion   version number when the page was first seen
+ * @param firstSeenAt    epoch millis of the first observation
+ * @param lastVersion    most recently observed version number
+ * @param lastSeenAt     epoch millis of the most recent observation
+ * @param lastModifiedAt epoch millis of the latest edit reported by Confluence, or 0 if unknown
+ */
+public record PageChangeHistory(
+    int firstVersion,
+    long firstSeenAt,
+    int lastVersion,
+    long lastSeenAt,
+    long lastModifiedAt
+) {
+    
+    /**
+     * Start a history from a first observation
+     */
+    public static PageChangeHistory first(int version, long seenAt, long lastModifiedAt) {
+        return new PageChangeHistory(version, seenAt, version, seenAt, lastModifiedAt);
+    }
+    
+    /**
+     * Record another observation of the page
+     */
+    public PageChangeHistory observe(int version, long seenAt, long modifiedAt) {
+        if (version < lastVersion) {
+            // Page was recreated or restored; restart the history
+            return first(version, seenAt, modifiedAt);
+        }
+        return new PageChangeHistory(firstVersion, firstSeenAt, version, seenAt,
+            modifiedAt > 0 ? modifiedAt : lastModifiedAt);
+    }
+}
\ No newline at end of file
@@ -17,6 +17,8 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -63,9 +65,12 @@ public class ConfluencePagesClient {
         if (request.title() != null) {
             queryParams.add("title", request.title());
         }
+        // Version and space are always expanded so listings carry freshness metadata
+        String expand = "version,space";
         if (request.bodyFormat() != null) {
-            queryParams.add("expand", "body." + request.bodyFormat().getValue());
+            expand += ",body." + request.bodyFormat().getValue();
         }
+        queryParams.add("expand", expand);
         if (request.cursor() != null) {
             queryParams.add("cursor", request.cursor());
         }
@@ -96,8 +101,18 @@ public class ConfluencePagesClient {
         
         MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
         
+        List<String> expand = new ArrayList<>();
         if (request.bodyFormat() != null) {
-            queryParams.add("expand", "body." + request.bodyFormat().getValue());
+            expand.add("body." + request.bodyFormat().getValue());
+        }
+        if (Boolean.TRUE.equals(request.includeVersion())) {
+            expand.add("version");
+        }
+        if (Boolean.TRUE.equals(request.includeLabels())) {
+            expand.add("metadata.labels");
+        }
+        if (!expand.isEmpty()) {
+            queryParams.add("expand", String.join(",", expand));
         }
         if (request.getDraft() != null) {
             queryParams.add("status", request.getDraft() ? "draft" : "current");
@@ -145,6 +160,132 @@ public class ConfluencePagesClient {
             .doOnError(error -> logger.error("Error getting page {}", pageId, error));
     }
     
+    /**
+     * List one page of the direct children of a page
+     */
+    public Mono<PaginatedResponse<Page>> listChildPages(String pageId, int start, int limit) {
+        String uri = UriComponentsBuilder.fromPath(API_PATH + "/content/" + pageId + "/child/page")
+            .queryParam("start", start)
+            .queryParam("limit", limit)
+            .queryParam("expand", "version")
+            .toUriString();
+            
+        logger.debug("Making request to: {}", uri);
+        
+        return webClient.get()
+            .uri(uri)
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<PaginatedResponse<Page>>() {})
+            .doOnError(error -> logger.error("Error listing child pages of {}", pageId, error));
+    }
+    
+    /**
+     * List one page of the top-level pages of a space
+     */
+    public Mono<PaginatedResponse<Page>> listRootPages(String spaceKey, int start, int limit) {
+        String uri = UriComponentsBuilder.fromPath(API_PATH + "/space/" + spaceKey + "/content/page")
+            .queryParam("depth", "root")
+            .queryParam("start", start)
+            .queryParam("limit", limit)
+            .queryParam("expand", "version")
+            .toUriString();
+            
+        logger.debug("Making request to: {}", uri);
+        
+        return webClient.get()
+            .uri(uri)
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<PaginatedResponse<Page>>() {})
+            .doOnError(error -> logger.error("Error listing root pages of space {}", spaceKey, error));
+    }
+    
+    /**
+     * List one page of a space's current pages with version metadata but no bodies
+     */
+    public Mono<PaginatedResponse<Page>> listSpacePages(String spaceKey, int start, int limit) {
+        String uri = UriComponentsBuilder.fromPath(API_PATH + "/content")
+            .queryParam("type", "page")
+            .queryParam("spaceKey", spaceKey)
+            .queryParam("status", "current")
+            .queryParam("start", start)
+            .queryParam("limit", limit)
+            .queryParam("expand", "version,space")
+            .toUriString();
+            
+        logger.debug("Making request to: {}", uri);
+        
+        return webClient.get()
+            .uri(uri)
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<PaginatedResponse<Page>>() {})
+            .doOnError(error -> logger.error("Error listing pages of space {}", spaceKey, error));
+    }
+    
+    /**
+     * List one page of a space's current pages with their storage bodies, for full-content scans
+     */
+    public Mono<PaginatedResponse<Page>> listSpacePagesWithBodies(String spaceKey, int start, int limit) {
+        String uri = UriComponentsBuilder.fromPath(API_PATH + "/content")
+            .queryParam("type", "page")
+            .queryParam("spaceKey", spaceKey)
+            .queryParam("status", "current")
+            .queryParam("start", start)
+            .queryParam("limit", limit)
+            .queryParam("expand", "body.storage,version,space")
+            .toUriString();
+            
+        logger.debug("Making request to: {}", uri);
+        
+        return webClient.get()
+            .uri(uri)
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<PaginatedResponse<Page>>() {})
+            .doOnError(error -> logger.error("Error listing pages of space {}", spaceKey, error));
+    }
+    
+    /**
+     * List one page of a space's current pages with everything the local mirror keeps:
+     * storage body, version with author, and labels
+     */
+    public Mono<PaginatedResponse<PageDetailed>> listSpacePagesForMirror(String spaceKey, int start, int limit) {
+        String uri = UriComponentsBuilder.fromPath(API_PATH + "/content")
+            .queryParam("type", "page")
+            .queryParam("spaceKey", spaceKey)
+            .queryParam("status", "current")
+            .queryParam("start", start)
+            .queryParam("limit", limit)
+            .queryParam("expand", "body.storage,version,metadata.labels")
+            .toUriString();
+            
+        logger.debug("Making request to: {}", uri);
+        
+        return webClient.get()
+            .uri(uri)
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<PaginatedResponse<PageDetailed>>() {})
+            .doOnError(error -> logger.error("Error listing pages of space {}", spaceKey, error));
+    }
+    
+    /**
+     * Get several pages with storage bodies and versions in one CQL content search.
+     * Pages that do not exist or are not visible are simply absent from the results.
+     */
+    public Mono<PaginatedResponse<PageDetailed>> getPagesByIds(List<String> pageIds) {
+        String uri = UriComponentsBuilder.fromPath(API_PATH + "/content/search")
+            .queryParam("cql", "id in (" + String.join(",", pageIds) + ")")
+            .queryParam("limit", pageIds.size())
+            .queryParam("expand", "body.storage,version")
+            .toUriString();
+            
+        logger.debug("Making request to: {}", uri);
+        
+        return webClient.get()
+            .uri(uri)
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<PaginatedResponse<PageDetailed>>() {})
+            .doOnError(error -> logger.error("Error getting {} pages by ID", pageIds.size(), error));
+    }
+    
     /**
      * Create a new page in Confluence
      */
@@ -57,6 +57,9 @@ public class ConfluenceSearchClient {
         if (request.excerpt() != null) {
             queryParams.add("excerpt", request.excerpt().getValue());
         }
+        if (request.expand() != null) {
+            queryParams.add("expand", request.expand());
+        }
         
         String uri = UriComponentsBuilder.fromPath(API_PATH + "/search")
             .queryParams(queryParams)
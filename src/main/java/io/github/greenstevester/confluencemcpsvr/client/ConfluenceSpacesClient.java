@@ -78,6 +78,25 @@ public class ConfluenceSpacesClient {
             .doOnError(error -> logger.error("Error listing spaces", error));
     }
     
+    /**
+     * List one page of all current spaces by offset, for crawls that walk the whole instance
+     */
+    public Mono<PaginatedResponse<Space>> listSpacesPage(int start, int limit) {
+        String uri = UriComponentsBuilder.fromPath(API_PATH + "/space")
+            .queryParam("status", "current")
+            .queryParam("start", start)
+            .queryParam("limit", limit)
+            .toUriString();
+            
+        logger.debug("Making request to: {}", uri);
+        
+        return webClient.get()
+            .uri(uri)
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<PaginatedResponse<Space>>() {})
+            .doOnError(error -> logger.error("Error listing spaces at offset {}", start, error));
+    }
+    
     /**
      * Get a specific space by ID
      */
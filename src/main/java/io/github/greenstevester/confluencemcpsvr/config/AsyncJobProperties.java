@@ -0,0 +1,30 @@
+package io.github.greenstevester.confluencemcpsvr.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+
+/**
+ * Configuration properties for tools run as asynchronous jobs
+ *
+ * @param workers jobs running at the same time
+ * @param queueCapacity jobs waiting for a worker; submissions beyond this are rejected
+ * @param timeout longest a job may run before it fails
+ * @param resultTtl how long a finished job's output stays available
+ * @param maxRetainedJobs finished jobs kept before the oldest are dropped, whatever their age
+ * @param outputChunkSize characters of output returned per job-result call
+ */
+@ConfigurationProperties(prefix = "confluence.jobs")
+@Validated
+public record AsyncJobProperties(
+    @Positive int workers,
+    @PositiveOrZero int queueCapacity,
+    @NotNull Duration timeout,
+    @NotNull Duration resultTtl,
+    @Positive int maxRetainedJobs,
+    @Positive int outputChunkSize
+) {}
\ No newline at end of file
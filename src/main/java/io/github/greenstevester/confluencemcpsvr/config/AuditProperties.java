@@ -0,0 +1,27 @@
+package io.github.greenstevester.confluencemcpsvr.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+
+/**
+ * Configuration properties for documentation audits: streamed passes, CQL query fan-out and
+ * per-section deadlines of the documentation audit report
+ */
+@ConfigurationProperties(prefix = "confluence.audit")
+@Validated
+public record AuditProperties(
+    @Positive int concurrency,
+    @Positive int pageSize,
+    @Positive int maxPages,
+    @Positive int queryParallelism,
+    @NotNull Duration queryTimeout,
+    @NotNull Duration sectionTimeout,
+    boolean incremental,
+    @NotBlank String stateDir,
+    @Positive int snapshotRetention
+) {}
\ No newline at end of file
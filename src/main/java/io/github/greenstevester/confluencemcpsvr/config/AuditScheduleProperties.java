@@ -0,0 +1,32 @@
+package io.github.greenstevester.confluencemcpsvr.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Configuration properties for audits precomputed in the background on a cron schedule
+ *
+ * @param zone time zone the cron is evaluated in; the system time zone when not set
+ */
+@ConfigurationProperties(prefix = "confluence.audit.schedule")
+@Validated
+public record AuditScheduleProperties(
+    boolean enabled,
+    @NotBlank String cron,
+    boolean documentationAudit,
+    List<String> checklists,
+    @Positive int maxResults,
+    @Positive int limitPerQuery,
+    boolean runOnStartup,
+    ZoneId zone
+) {
+    
+    public ZoneId cronZone() {
+        return zone != null ? zone : ZoneId.systemDefault();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package io.github.greenstevester.confluencemcpsvr.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+
+/**
+ * Configuration properties for batch page updates
+ *
+ * @param readChunkSize pages fetched per bulk read request
+ * @param readConcurrency bulk reads in flight at the same time
+ * @param writeConcurrency page updates in flight at the same time
+ * @param writeInterval minimum gap between two page updates, across all running batches
+ * @param maxConflictRetries times a page is re-read and re-written after a 409 version conflict
+ * @param journalDir directory holding the write-ahead journal of each batch job
+ * @param journalRetention journals of finished or cancelled jobs kept before the oldest are deleted
+ */
+@ConfigurationProperties(prefix = "confluence.batch")
+@Validated
+public record BatchProperties(
+    @Positive int readChunkSize,
+    @Positive int readConcurrency,
+    @Positive int writeConcurrency,
+    @NotNull Duration writeInterval,
+    @PositiveOrZero int maxConflictRetries,
+    @NotBlank String journalDir,
+    @Positive int journalRetention
+) {}
\ No newline at end of file
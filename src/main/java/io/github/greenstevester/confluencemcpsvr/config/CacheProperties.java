@@ -0,0 +1,22 @@
+package io.github.greenstevester.confluencemcpsvr.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+
+/**
+ * Configuration properties for the local Confluence response caches
+ */
+@ConfigurationProperties(prefix = "confluence.cache")
+@Validated
+public record CacheProperties(
+    boolean enabled,
+    @Positive int maxEntries,
+    @NotNull Duration defaultTtl,
+    @NotNull Duration minTtl,
+    @NotNull Duration maxTtl,
+    @Positive double targetStaleness
+) {}
\ No newline at end of file
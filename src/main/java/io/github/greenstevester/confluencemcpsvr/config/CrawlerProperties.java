@@ -0,0 +1,33 @@
+package io.github.greenstevester.confluencemcpsvr.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration properties for the whole-instance crawler that fills the local mirror
+ *
+ * @param concurrency spaces crawled at the same time
+ * @param requestInterval minimum gap between two requests of all crawl workers together
+ * @param maxRetries retries of a request rejected with 429 or a server error, with exponential backoff
+ * @param checkpointInterval how often changed pages are logged and crawl progress is written to disk
+ * @param recrawlInterval how long after a completed crawl the next full crawl starts
+ * @param spaceKeys spaces to crawl; empty crawls every space of the instance
+ */
+@ConfigurationProperties(prefix = "confluence.crawler")
+@Validated
+public record CrawlerProperties(
+    boolean enabled,
+    @Positive int concurrency,
+    @Positive int pageSize,
+    @NotNull Duration requestInterval,
+    @PositiveOrZero int maxRetries,
+    @NotNull Duration checkpointInterval,
+    @NotNull Duration recrawlInterval,
+    List<String> spaceKeys
+) {}
\ No newline at end of file
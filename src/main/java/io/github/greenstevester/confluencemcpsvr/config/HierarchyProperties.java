@@ -0,0 +1,20 @@
+package io.github.greenstevester.confluencemcpsvr.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+
+/**
+ * Configuration properties for crawling and caching the page hierarchy of spaces
+ */
+@ConfigurationProperties(prefix = "confluence.hierarchy")
+@Validated
+public record HierarchyProperties(
+    @Positive int concurrency,
+    @Positive int pageSize,
+    @Positive int maxPages,
+    @NotNull Duration ttl
+) {}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package io.github.greenstevester.confluencemcpsvr.config;
+
+import io.github.greenstevester.confluencemcpsvr.index.CompletionIndex;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MCP prompts for page writes, with argument completion for their space and page arguments.
+ * <p>
+ * MCP completion applies to prompt and resource-template arguments, so the write workflows are
+ * offered as prompts whose {@code spaceKey}, {@code pageId} and {@code parentId} arguments are
+ * completed from the local {@link CompletionIndex} instead of exploratory list calls.
+ */
+@Configuration
+public class McpCompletionConfiguration {
+    
+    private static final Logger logger = LoggerFactory.getLogger(McpCompletionConfiguration.class);
+    
+    static final String CREATE_PAGE_PROMPT = "create-page-in-space";
+    static final String UPDATE_PAGE_PROMPT = "update-existing-page";
+    
+    // The MCP specification caps a completion response at 100 values
+    private static final int MAX_COMPLETIONS = 100;
+    
+    @Bean
+    public List<McpServerFeatures.SyncPromptSpecification> confluenceWritePrompts() {
+        McpSchema.Prompt createPage = new McpSchema.Prompt(
+            CREATE_PAGE_PROMPT,
+            "Create a new Confluence page in a space, optionally under a parent page",
+            List.of(
+                new McpSchema.PromptArgument("spaceKey", "Key of the space to create the page in", true),
+                new McpSchema.PromptArgument("parentId", "ID of the parent page (optional)", false),
+                new McpSchema.PromptArgument("topic", "What the new page should cover", true)
+            )
+        );
+        McpSchema.Prompt updatePage = new McpSchema.Prompt(
+            UPDATE_PAGE_PROMPT,
+            "Update the content of an existing Confluence page",
+            List.of(
+                new McpSchema.PromptArgument("pageId", "ID of the page to update", true),
+                new McpSchema.PromptArgument("change", "The change to make to the page", true)
+            )
+        );
+        
+        return List.of(
+            new McpServerFeatures.SyncPromptSpecification(createPage, (exchange, request) -> {
+                Map<String, Object> arguments = request.arguments();
+                String parentId = argument(arguments, "parentId");
+                String text = "Create a new Confluence page about: " + argument(arguments, "topic") + "\n"
+                    + "Space key: " + argument(arguments, "spaceKey") + "\n"
+                    + (parentId != null && !parentId.isBlank() ? "Parent page ID: " + parentId + "\n" : "")
+                    + "Use the create-page tool with content in Confluence storage format.";
+                return promptResult(createPage.description(), text);
+            }),
+            new McpServerFeatures.SyncPromptSpecification(updatePage, (exchange, request) -> {
+                Map<String, Object> arguments = request.arguments();
+                String text = "Update Confluence page " + argument(arguments, "pageId") + ": "
+                    + argument(arguments, "change") + "\n"
+                    + "Read the current content and version with get-page first, then use the update-page tool.";
+                return promptResult(updatePage.description(), text);
+            })
+        );
+    }
+    
+    @Bean
+    public List<McpServerFeatures.SyncCompletionSpecification> confluenceArgumentCompletions(CompletionIndex completionIndex) {
+        return List.of(
+            completionFor(CREATE_PAGE_PROMPT, completionIndex),
+            completionFor(UPDATE_PAGE_PROMPT, completionIndex)
+        );
+    }
+    
+    private McpServerFeatures.SyncCompletionSpecification completionFor(String promptName, CompletionIndex completionIndex) {
+        return new McpServerFeatures.SyncCompletionSpecification(
+            new McpSchema.PromptReference("ref/prompt", promptName),
+            (exchange, request) -> {
+                String name = request.argument().name();
+                String value = request.argument().value() != null ? request.argument().value() : "";
+                
+                CompletionIndex.Completion completion = switch (name) {
+                    case "spaceKey" -> completionIndex.completeSpaceKey(value, MAX_COMPLETIONS);
+                    case "pageId", "parentId" -> completionIndex.completePageId(value, MAX_COMPLETIONS);
+                    default -> new CompletionIndex.Completion(List.of(), false, 0);
+                };
+                logger.debug("Completed {}.{} '{}' with {} values in {} µs",
+                    promptName, name, value, completion.values().size(), completion.tookMicros());
+                
+                return new McpSchema.CompleteResult(new McpSchema.CompleteResult.CompleteCompletion(
+                    completion.values(), completion.values().size(), completion.hasMore()));
+            }
+        );
+    }
+    
+    private static String argument(Map<String, Object> arguments, String name) {
+        Object value = arguments != null ? arguments.get(name) : null;
+        return value != null ? value.toString() : null;
+    }
+    
+    private static McpSchema.GetPromptResult promptResult(String description, String text) {
+        return new McpSchema.GetPromptResult(description,
+            List.of(new McpSchema.PromptMessage(McpSchema.Role.USER, new McpSchema.TextContent(text))));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package io.github.greenstevester.confluencemcpsvr.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration properties for the background sync that mirrors Confluence pages locally
+ */
+@ConfigurationProperties(prefix = "confluence.sync")
+@Validated
+public record SyncProperties(
+    boolean enabled,
+    @NotNull Duration interval,
+    @NotNull Duration overlap,
+    @NotNull Duration maxStaleness,
+    @NotNull Duration deletionCheckInterval,
+    @Positive int concurrency,
+    @Positive int pageSize,
+    List<String> spaceKeys,
+    @NotBlank String stateDir
+) {}
\ No newline at end of file
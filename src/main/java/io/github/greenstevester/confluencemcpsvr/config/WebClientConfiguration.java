@@ -15,11 +15,14 @@ import reactor.netty.http.client.HttpClient;
  * Configuration for WebClient used to communicate with Confluence API
  */
 @Configuration
-@EnableConfigurationProperties({ConfluenceProperties.class, McpServerProperties.class})
+@EnableConfigurationProperties({ConfluenceProperties.class, McpServerProperties.class, CacheProperties.class,
+    WebhookProperties.class, SyncProperties.class, HierarchyProperties.class, AuditProperties.class,
+    AuditScheduleProperties.class, CrawlerProperties.class, BatchProperties.class,
+    AsyncJobProperties.class})
 public class WebClientConfiguration {
-
+    
     private static final Logger logger = LoggerFactory.getLogger(WebClientConfiguration.class);
-
+    
     @Bean
     public WebClient confluenceWebClient(ConfluenceProperties confluenceProperties) {
         // Create HttpClient with redirect handling
@@ -0,0 +1,33 @@
+package io.github.greenstevester.confluencemcpsvr.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * Configuration properties for the Confluence webhook receiver
+ */
+@ConfigurationProperties(prefix = "confluence.webhook")
+@Validated
+public record WebhookProperties(
+    boolean enabled,
+    String secret,
+    @NotNull Duration batchWindow,
+    boolean refreshOnUpdate
+) {
+    
+    /**
+     * An enabled receiver can remove pages from the mirror, so it must not start without a secret
+     */
+    @AssertTrue(message = "confluence.webhook.secret must be set when confluence.webhook.enabled=true")
+    public boolean isSecretConfiguredWhenEnabled() {
+        return !enabled || hasSecret();
+    }
+    
+    public boolean hasSecret() {
+        return secret != null && !secret.isBlank();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package io.github.greenstevester.confluencemcpsvr.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.greenstevester.confluencemcpsvr.config.WebhookProperties;
+import io.github.greenstevester.confluencemcpsvr.model.webhook.WebhookEvent;
+import io.github.greenstevester.confluencemcpsvr.service.WebhookInvalidationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Receives Confluence webhook events and queues the affected cache entries for invalidation
+ */
+@RestController
+public class ConfluenceWebhookController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConfluenceWebhookController.class);
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    
+    private final WebhookInvalidationService invalidationService;
+    private final WebhookProperties webhookProperties;
+    private final ObjectMapper objectMapper;
+    
+    public ConfluenceWebhookController(
+            WebhookInvalidationService invalidationService,
+            WebhookProperties webhookProperties,
+            ObjectMapper objectMapper) {
+        this.invalidationService = invalidationService;
+        this.webhookProperties = webhookProperties;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Accept a single webhook event. Processing is asynchronous, so a 202 only means the event was queued.
+     */
+    @PostMapping(value = "/webhooks/confluence",
+                 consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> receive(
+            @RequestBody String payload,
+            @RequestHeader(value = "X-Hub-Signature", required = false) String signature) {
+        
+        if (!webhookProperties.enabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("status", "disabled"));
+        }
+        
+        if (!isSignatureValid(payload, signature)) {
+            logger.warn("Rejected webhook with missing or invalid signature");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("status", "invalid signature"));
+        }
+        
+        WebhookEvent event;
+        try {
+            event = objectMapper.readValue(payload, WebhookEvent.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Rejected malformed webhook payload: {}", e.getOriginalMessage());
+            return ResponseEntity.badRequest().body(Map.of("status", "malformed payload"));
+        }
+        
+        boolean queued = invalidationService.submit(event);
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", queued ? "queued" : "ignored");
+        response.put("event", event.event() != null ? event.event() : "unknown");
+        response.put("pending", invalidationService.pendingCount());
+        
+        return ResponseEntity.accepted().body(response);
+    }
+    
+    /**
+     * Verify the HMAC-SHA256 signature Confluence sends when the webhook has a secret.
+     * Without a configured secret every request is rejected.
+     */
+    private boolean isSignatureValid(String payload, String signature) {
+        if (!webhookProperties.hasSecret()) {
+            return false;
+        }
+        String secret = webhookProperties.secret();
+        if (signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+            return false;
+        }
+        
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            byte[] provided = HexFormat.of().parseHex(signature.substring(SIGNATURE_PREFIX.length()));
+            return MessageDigest.isEqual(expected, provided);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            logger.debug("Could not verify webhook signature", e);
+            return false;
+        }
+    }
+}
\ No newline at end of file
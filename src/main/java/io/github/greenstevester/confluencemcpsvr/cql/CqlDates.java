@@ -0,0 +1,80 @@
+package io.github.greenstevester.confluencemcpsvr.cql;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves CQL date values (absolute dates and {@code now("-4w")}) to instants.
+ * Dates are interpreted in UTC, the zone the mirror stores timestamps in.
+ */
+final class CqlDates {
+    
+    private static final List<DateTimeFormatter> DATE_TIME_FORMATS = List.of(
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"),
+        DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm"));
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+        DateTimeFormatter.ofPattern("yyyy-MM-dd"),
+        DateTimeFormatter.ofPattern("yyyy/MM/dd"));
+    private static final Pattern NOW = Pattern.compile("(?i)now\\(\\s*(?:([+-]?\\d+)([yMwdhm]))?\\s*\\)");
+    
+    private CqlDates() {
+    }
+    
+    /**
+     * Resolve a CQL date value, or return null if the format is not supported locally
+     */
+    static Instant resolve(String value, Instant now) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        
+        Matcher matcher = NOW.matcher(trimmed);
+        if (matcher.matches()) {
+            if (matcher.group(1) == null) {
+                return now;
+            }
+            long amount = Long.parseLong(matcher.group(1));
+            ZonedDateTime base = now.atZone(ZoneOffset.UTC);
+            return switch (matcher.group(2)) {
+                case "y" -> base.plusYears(amount).toInstant();
+                case "M" -> base.plusMonths(amount).toInstant();
+                case "w" -> base.plusWeeks(amount).toInstant();
+                case "d" -> base.plusDays(amount).toInstant();
+                case "h" -> base.plusHours(amount).toInstant();
+                default -> base.plusMinutes(amount).toInstant();
+            };
+        }
+        
+        for (DateTimeFormatter format : DATE_TIME_FORMATS) {
+            try {
+                return LocalDateTime.parse(trimmed, format).toInstant(ZoneOffset.UTC);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(trimmed, format).atStartOfDay(ZoneOffset.UTC).toInstant();
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Whether the value names a whole day rather than an instant
+     */
+    static boolean isDateOnly(String value) {
+        return value != null && value.trim().length() == 10 && !NOW.matcher(value.trim()).matches();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package io.github.greenstevester.confluencemcpsvr.cql;
+
+import java.util.List;
+
+/**
+ * Node of a parsed CQL where-clause
+ */
+public sealed interface CqlNode {
+    
+    record And(List<CqlNode> children) implements CqlNode {}
+    
+    record Or(List<CqlNode> children) implements CqlNode {}
+    
+    record Not(CqlNode child) implements CqlNode {}
+    
+    /**
+     * A single {@code field operator value} comparison. Field names are lowercased;
+     * function values such as {@code now("-4w")} are kept as {@code now(-4w)}.
+     */
+    record Clause(String field, CqlOperator operator, List<String> values) implements CqlNode {
+        
+        public String value() {
+            return values.isEmpty() ? null : values.get(0);
+        }
+    }
+}
\ No newline at end of file
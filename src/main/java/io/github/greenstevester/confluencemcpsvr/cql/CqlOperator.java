@@ -0,0 +1,43 @@
+package io.github.greenstevester.confluencemcpsvr.cql;
+
+/**
+ * Comparison operators supported by the CQL parser
+ */
+public enum CqlOperator {
+    EQUALS("="),
+    NOT_EQUALS("!="),
+    CONTAINS("~"),
+    NOT_CONTAINS("!~"),
+    GREATER_THAN(">"),
+    GREATER_THAN_OR_EQUALS(">="),
+    LESS_THAN("<"),
+    LESS_THAN_OR_EQUALS("<="),
+    IN("in"),
+    NOT_IN("not in");
+    
+    private final String symbol;
+    
+    CqlOperator(String symbol) {
+        this.symbol = symbol;
+    }
+    
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    /**
+     * Whether the operator selects the complement of its positive form
+     */
+    public boolean isNegated() {
+        return this == NOT_EQUALS || this == NOT_CONTAINS || this == NOT_IN;
+    }
+    
+    public static CqlOperator fromSymbol(String symbol) {
+        for (CqlOperator operator : values()) {
+            if (operator.symbol.equals(symbol)) {
+                return operator;
+            }
+        }
+        throw new IllegalArgumentException("Unknown CQL operator: " + symbol);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package io.github.greenstevester.confluencemcpsvr.cql;
+
+/**
+ * Thrown when a CQL string cannot be parsed by the local parser
+ */
+public class CqlParseException extends RuntimeException {
+    
+    public CqlParseException(String message, String cql, int position) {
+        super(String.format("%s at position %d in CQL: %s", message, position, cql));
+    }
+}
\ No newline at end of file
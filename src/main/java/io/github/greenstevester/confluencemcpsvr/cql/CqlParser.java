@@ -0,0 +1,249 @@
+package io.github.greenstevester.confluencemcpsvr.cql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recursive-descent parser for Confluence Query Language.
+ * <pre>
+ * query   := or [ORDER BY field [ASC|DESC] (, field [ASC|DESC])*]
+ * or      := and (OR and)*
+ * and     := not (AND not)*
+ * not     := NOT not | '(' or ')' | clause
+ * clause  := field op value | field [NOT] IN '(' value (, value)* ')'
+ * value   := 'string' | "string" | word | word '(' [value (, value)*] ')'
+ * </pre>
+ * The grammar covers any field name; deciding which fields can be evaluated locally is left to {@link CqlPlanner}.
+ */
+public final class CqlParser {
+    
+    private enum TokenType { WORD, STRING, OPERATOR, LPAREN, RPAREN, COMMA, END }
+    
+    private record Token(TokenType type, String text, int position) {
+        
+        boolean isKeyword(String keyword) {
+            return type == TokenType.WORD && text.equalsIgnoreCase(keyword);
+        }
+    }
+    
+    private final String cql;
+    private final List<Token> tokens;
+    private int index;
+    
+    private CqlParser(String cql) {
+        this.cql = cql;
+        this.tokens = tokenize(cql);
+    }
+    
+    public static CqlQuery parse(String cql) {
+        if (cql == null || cql.isBlank()) {
+            throw new CqlParseException("Empty query", String.valueOf(cql), 0);
+        }
+        return new CqlParser(cql).parseQuery();
+    }
+    
+    private CqlQuery parseQuery() {
+        CqlNode where = parseOr();
+        List<CqlQuery.OrderBy> orderBy = new ArrayList<>();
+        
+        if (peek().isKeyword("order")) {
+            next();
+            expectKeyword("by");
+            do {
+                String field = expect(TokenType.WORD).text().toLowerCase(Locale.ROOT);
+                boolean ascending = true;
+                if (peek().isKeyword("asc")) {
+                    next();
+                } else if (peek().isKeyword("desc")) {
+                    next();
+                    ascending = false;
+                }
+                orderBy.add(new CqlQuery.OrderBy(field, ascending));
+            } while (accept(TokenType.COMMA));
+        }
+        
+        expect(TokenType.END);
+        return new CqlQuery(where, orderBy);
+    }
+    
+    private CqlNode parseOr() {
+        List<CqlNode> children = new ArrayList<>();
+        children.add(parseAnd());
+        while (peek().isKeyword("or")) {
+            next();
+            children.add(parseAnd());
+        }
+        return children.size() == 1 ? children.get(0) : new CqlNode.Or(children);
+    }
+    
+    private CqlNode parseAnd() {
+        List<CqlNode> children = new ArrayList<>();
+        children.add(parseNot());
+        while (peek().isKeyword("and")) {
+            next();
+            children.add(parseNot());
+        }
+        return children.size() == 1 ? children.get(0) : new CqlNode.And(children);
+    }
+    
+    private CqlNode parseNot() {
+        if (peek().isKeyword("not")) {
+            next();
+            return new CqlNode.Not(parseNot());
+        }
+        if (accept(TokenType.LPAREN)) {
+            CqlNode inner = parseOr();
+            expect(TokenType.RPAREN);
+            return inner;
+        }
+        return parseClause();
+    }
+    
+    private CqlNode parseClause() {
+        String field = expect(TokenType.WORD).text().toLowerCase(Locale.ROOT);
+        
+        Token token = next();
+        CqlOperator operator;
+        if (token.isKeyword("in")) {
+            operator = CqlOperator.IN;
+        } else if (token.isKeyword("not") && peek().isKeyword("in")) {
+            next();
+            operator = CqlOperator.NOT_IN;
+        } else if (token.type() == TokenType.OPERATOR) {
+            operator = CqlOperator.fromSymbol(token.text());
+        } else {
+            throw new CqlParseException("Expected operator after '" + field + "'", cql, token.position());
+        }
+        
+        List<String> values = new ArrayList<>();
+        if (operator == CqlOperator.IN || operator == CqlOperator.NOT_IN) {
+            expect(TokenType.LPAREN);
+            do {
+                values.add(parseValue());
+            } while (accept(TokenType.COMMA));
+            expect(TokenType.RPAREN);
+        } else {
+            values.add(parseValue());
+        }
+        
+        return new CqlNode.Clause(field, operator, values);
+    }
+    
+    private String parseValue() {
+        Token token = next();
+        if (token.type() == TokenType.STRING) {
+            return token.text();
+        }
+        if (token.type() != TokenType.WORD) {
+            throw new CqlParseException("Expected value", cql, token.position());
+        }
+        if (!accept(TokenType.LPAREN)) {
+            return token.text();
+        }
+        
+        // Function call such as now("-4w") or currentUser()
+        List<String> arguments = new ArrayList<>();
+        if (!accept(TokenType.RPAREN)) {
+            do {
+                arguments.add(parseValue());
+            } while (accept(TokenType.COMMA));
+            expect(TokenType.RPAREN);
+        }
+        return token.text() + "(" + String.join(",", arguments) + ")";
+    }
+    
+    private Token peek() {
+        return tokens.get(index);
+    }
+    
+    private Token next() {
+        Token token = tokens.get(index);
+        if (token.type() != TokenType.END) {
+            index++;
+        }
+        return token;
+    }
+    
+    private boolean accept(TokenType type) {
+        if (peek().type() == type) {
+            next();
+            return true;
+        }
+        return false;
+    }
+    
+    private Token expect(TokenType type) {
+        Token token = next();
+        if (token.type() != type) {
+            throw new CqlParseException("Expected " + type + " but found '" + token.text() + "'", cql, token.position());
+        }
+        return token;
+    }
+    
+    private void expectKeyword(String keyword) {
+        Token token = next();
+        if (!token.isKeyword(keyword)) {
+            throw new CqlParseException("Expected '" + keyword + "'", cql, token.position());
+        }
+    }
+    
+    private static List<Token> tokenize(String cql) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        
+        while (i < cql.length()) {
+            char c = cql.charAt(i);
+            
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(') {
+                tokens.add(new Token(TokenType.LPAREN, "(", i++));
+            } else if (c == ')') {
+                tokens.add(new Token(TokenType.RPAREN, ")", i++));
+            } else if (c == ',') {
+                tokens.add(new Token(TokenType.COMMA, ",", i++));
+            } else if (c == '\'' || c == '"') {
+                int start = i++;
+                StringBuilder value = new StringBuilder();
+                while (i < cql.length() && cql.charAt(i) != c) {
+                    if (cql.charAt(i) == '\\' && i + 1 < cql.length()) {
+                        i++;
+                    }
+                    value.append(cql.charAt(i++));
+                }
+                if (i >= cql.length()) {
+                    throw new CqlParseException("Unterminated string", cql, start);
+                }
+                i++;
+                tokens.add(new Token(TokenType.STRING, value.toString(), start));
+            } else if (c == '=' || c == '~') {
+                tokens.add(new Token(TokenType.OPERATOR, String.valueOf(c), i++));
+            } else if (c == '!' || c == '<' || c == '>') {
+                int start = i++;
+                if (i < cql.length() && (cql.charAt(i) == '=' || (c == '!' && cql.charAt(i) == '~'))) {
+                    i++;
+                } else if (c == '!') {
+                    throw new CqlParseException("Expected '=' or '~' after '!'", cql, start);
+                }
+                tokens.add(new Token(TokenType.OPERATOR, cql.substring(start, i), start));
+            } else {
+                int start = i;
+                while (i < cql.length() && isWordChar(cql.charAt(i))) {
+                    i++;
+                }
+                if (start == i) {
+                    throw new CqlParseException("Unexpected character '" + c + "'", cql, i);
+                }
+                tokens.add(new Token(TokenType.WORD, cql.substring(start, i), start));
+            }
+        }
+        
+        tokens.add(new Token(TokenType.END, "<end>", cql.length()));
+        return tokens;
+    }
+    
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '.' || c == '_' || c == '-' || c == ':' || c == '/' || c == '+';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package io.github.greenstevester.confluencemcpsvr.cql;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decides whether a parsed CQL query can be answered entirely from the local mirror.
+ * The mirror only holds pages, so the query must be restricted to {@code type=page} at the top level,
+ * and every clause must use a field and operator that {@link LocalCqlEvaluator} understands.
+ * When the mirror only holds some spaces, the query must also be restricted to those spaces.
+ */
+public final class CqlPlanner {
+    
+    private static final Set<CqlOperator> MEMBERSHIP = EnumSet.of(
+        CqlOperator.EQUALS, CqlOperator.NOT_EQUALS, CqlOperator.IN, CqlOperator.NOT_IN);
+    private static final Set<CqlOperator> COMPARISON = EnumSet.of(
+        CqlOperator.EQUALS, CqlOperator.NOT_EQUALS,
+        CqlOperator.GREATER_THAN, CqlOperator.GREATER_THAN_OR_EQUALS,
+        CqlOperator.LESS_THAN, CqlOperator.LESS_THAN_OR_EQUALS);
+    
+    static final Map<String, Set<CqlOperator>> LOCAL_FIELDS = Map.of(
+        "type", EnumSet.of(CqlOperator.EQUALS, CqlOperator.IN),
+        "space", MEMBERSHIP,
+        "space.key", MEMBERSHIP,
+        "label", MEMBERSHIP,
+        "title", EnumSet.of(CqlOperator.EQUALS, CqlOperator.NOT_EQUALS, CqlOperator.CONTAINS, CqlOperator.NOT_CONTAINS),
+        "text", EnumSet.of(CqlOperator.CONTAINS, CqlOperator.NOT_CONTAINS),
+        "lastmodified", COMPARISON);
+    
+    static final Set<String> LOCAL_ORDER_FIELDS = Set.of("lastmodified", "title");
+    
+    private CqlPlanner() {
+    }
+    
+    /**
+     * Where a query should run and why
+     */
+    public record QueryPlan(boolean local, String reason) {
+        
+        static QueryPlan remote(String reason) {
+            return new QueryPlan(false, reason);
+        }
+    }
+    
+    public static QueryPlan plan(CqlQuery query) {
+        if (!isRestrictedToPages(query.where())) {
+            return QueryPlan.remote("query is not restricted to type=page");
+        }
+        
+        String unsupported = findUnsupportedClause(query.where());
+        if (unsupported != null) {
+            return QueryPlan.remote(unsupported);
+        }
+        
+        for (CqlQuery.OrderBy orderBy : query.orderBy()) {
+            if (!LOCAL_ORDER_FIELDS.contains(orderBy.field())) {
+                return QueryPlan.remote("ordering by " + orderBy.field() + " is not available locally");
+            }
+        }
+        
+        return new QueryPlan(true, "all clauses are answerable from the mirror");
+    }
+    
+    /**
+     * Plan a query against a mirror that may only hold some spaces. A query that could match pages
+     * outside those spaces has to run remotely, or its results would look complete while missing pages.
+     *
+     * @param mirroredSpaces spaces the mirror holds, or null or empty when it holds every space
+     */
+    public static QueryPlan plan(CqlQuery query, Collection<String> mirroredSpaces) {
+        QueryPlan plan = plan(query);
+        if (!plan.local() || mirroredSpaces == null || mirroredSpaces.isEmpty()) {
+            return plan;
+        }
+        
+        Set<String> mirrored = mirroredSpaces.stream()
+            .map(key -> key.trim().toUpperCase(Locale.ROOT))
+            .collect(Collectors.toSet());
+        if (!isCoveredBy(query.where(), mirrored)) {
+            return QueryPlan.remote("query is not restricted to the synced spaces " + mirrored);
+        }
+        return plan;
+    }
+    
+    /**
+     * Whether every page the node can match lies in one of the given spaces: a positive space clause
+     * naming only those spaces, a conjunction with such a clause, or a disjunction of covered branches
+     */
+    private static boolean isCoveredBy(CqlNode node, Set<String> spaces) {
+        return switch (node) {
+            case CqlNode.And and -> and.children().stream().anyMatch(child -> isCoveredBy(child, spaces));
+            case CqlNode.Or or -> or.children().stream().allMatch(child -> isCoveredBy(child, spaces));
+            case CqlNode.Not not -> false;
+            case CqlNode.Clause clause -> (clause.field().equals("space") || clause.field().equals("space.key"))
+                && (clause.operator() == CqlOperator.EQUALS || clause.operator() == CqlOperator.IN)
+                && clause.values().stream().allMatch(value -> spaces.contains(value.toUpperCase(Locale.ROOT)));
+        };
+    }
+    
+    private static boolean isRestrictedToPages(CqlNode node) {
+        if (node instanceof CqlNode.Clause clause) {
+            return clause.field().equals("type");
+        }
+        if (node instanceof CqlNode.And and) {
+            return and.children().stream().anyMatch(CqlPlanner::isRestrictedToPages);
+        }
+        return false;
+    }
+    
+    private static String findUnsupportedClause(CqlNode node) {
+        return switch (node) {
+            case CqlNode.And and -> and.children().stream()
+                .map(CqlPlanner::findUnsupportedClause).filter(reason -> reason != null).findFirst().orElse(null);
+            case CqlNode.Or or -> or.children().stream()
+                .map(CqlPlanner::findUnsupportedClause).filter(reason -> reason != null).findFirst().orElse(null);
+            case CqlNode.Not not -> findUnsupportedClause(not.child());
+            case CqlNode.Clause clause -> checkClause(clause);
+        };
+    }
+    
+    private static String checkClause(CqlNode.Clause clause) {
+        Set<CqlOperator> operators = LOCAL_FIELDS.get(clause.field());
+        if (operators == null) {
+            return "field " + clause.field() + " is not mirrored";
+        }
+        if (!operators.contains(clause.operator())) {
+            return "operator " + clause.operator().getSymbol() + " on " + clause.field() + " is not supported locally";
+        }
+        if (clause.field().equals("type")
+                && !clause.values().stream().allMatch(value -> value.equalsIgnoreCase("page"))) {
+            return "only pages are mirrored";
+        }
+        if (clause.field().equals("lastmodified") && CqlDates.resolve(clause.value(), Instant.now()) == null) {
+            return "date value " + clause.value() + " is not supported locally";
+        }
+        return null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package io.github.greenstevester.confluencemcpsvr.cql;
+
+import java.util.List;
+
+/**
+ * Parsed CQL query: a where-clause plus optional ordering
+ */
+public record CqlQuery(
+    CqlNode where,
+    List<OrderBy> orderBy
+) {
+    
+    public record OrderBy(String field, boolean ascending) {}
+}
\ No newline at end of file
@@ -0,0 +1,194 @@
+package io.github.greenstevester.confluencemcpsvr.cql;
+
+import io.github.greenstevester.confluencemcpsvr.index.InvertedIndex;
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates planner-approved CQL queries against the local mirror.
+ * Text clauses are answered by the {@link InvertedIndex} and contribute BM25 scores;
+ * metadata clauses inside a conjunction filter the text matches instead of scanning every page.
+ */
+@Component
+public class LocalCqlEvaluator {
+    
+    private final LocalPageStore pageStore;
+    private final InvertedIndex invertedIndex;
+    
+    public LocalCqlEvaluator(LocalPageStore pageStore, InvertedIndex invertedIndex) {
+        this.pageStore = pageStore;
+        this.invertedIndex = invertedIndex;
+    }
+    
+    /**
+     * A matching page and its relevance score (0 when no text clause matched it)
+     */
+    public record ScoredPage(MirroredPage page, double score) {}
+    
+    /**
+     * Evaluate a query and return every match in result order
+     */
+    public List<ScoredPage> evaluate(CqlQuery query) {
+        Map<String, Double> matches = evaluate(query.where(), Instant.now());
+        
+        List<ScoredPage> pages = new ArrayList<>(matches.size());
+        matches.forEach((pageId, score) -> {
+            MirroredPage page = pageStore.get(pageId);
+            if (page != null) {
+                pages.add(new ScoredPage(page, score));
+            }
+        });
+        pages.sort(comparator(query.orderBy()));
+        return pages;
+    }
+    
+    private Map<String, Double> evaluate(CqlNode node, Instant now) {
+        return switch (node) {
+            case CqlNode.And and -> evaluateAnd(and, now);
+            case CqlNode.Or or -> {
+                Map<String, Double> union = new HashMap<>();
+                for (CqlNode child : or.children()) {
+                    evaluate(child, now).forEach((pageId, score) -> union.merge(pageId, score, Double::sum));
+                }
+                yield union;
+            }
+            case CqlNode.Not not -> complement(evaluate(not.child(), now));
+            case CqlNode.Clause clause -> isIndexClause(clause)
+                ? evaluateIndexClause(clause)
+                : scan(List.of(predicate(clause, now)));
+        };
+    }
+    
+    private Map<String, Double> evaluateAnd(CqlNode.And and, Instant now) {
+        List<Predicate<MirroredPage>> filters = new ArrayList<>();
+        Map<String, Double> candidates = null;
+        
+        for (CqlNode child : and.children()) {
+            if (child instanceof CqlNode.Clause clause && !isIndexClause(clause)) {
+                filters.add(predicate(clause, now));
+                continue;
+            }
+            Map<String, Double> childMatches = evaluate(child, now);
+            if (candidates == null) {
+                candidates = new HashMap<>(childMatches);
+            } else {
+                candidates.keySet().retainAll(childMatches.keySet());
+                candidates.replaceAll((pageId, score) -> score + childMatches.get(pageId));
+            }
+        }
+        
+        if (candidates == null) {
+            return scan(filters);
+        }
+        
+        Predicate<MirroredPage> filter = filters.stream().reduce(page -> true, Predicate::and);
+        candidates.keySet().removeIf(pageId -> {
+            MirroredPage page = pageStore.get(pageId);
+            return page == null || !filter.test(page);
+        });
+        return candidates;
+    }
+    
+    private Map<String, Double> evaluateIndexClause(CqlNode.Clause clause) {
+        InvertedIndex.Field field = clause.field().equals("title") ? InvertedIndex.Field.TITLE : InvertedIndex.Field.TEXT;
+        InvertedIndex.SearchHits hits = invertedIndex.search(field, clause.value(), Integer.MAX_VALUE);
+        
+        Map<String, Double> matches = new HashMap<>();
+        hits.hits().forEach(hit -> matches.put(hit.pageId(), hit.score()));
+        return clause.operator().isNegated() ? complement(matches) : matches;
+    }
+    
+    private Map<String, Double> scan(List<Predicate<MirroredPage>> filters) {
+        Predicate<MirroredPage> filter = filters.stream().reduce(page -> true, Predicate::and);
+        Map<String, Double> matches = new HashMap<>();
+        for (MirroredPage page : pageStore.all()) {
+            if (filter.test(page)) {
+                matches.put(page.id(), 0.0);
+            }
+        }
+        return matches;
+    }
+    
+    private Map<String, Double> complement(Map<String, Double> matches) {
+        Map<String, Double> result = new HashMap<>();
+        for (MirroredPage page : pageStore.all()) {
+            if (!matches.containsKey(page.id())) {
+                result.put(page.id(), 0.0);
+            }
+        }
+        return result;
+    }
+    
+    private boolean isIndexClause(CqlNode.Clause clause) {
+        return clause.field().equals("text")
+            || (clause.field().equals("title")
+                && (clause.operator() == CqlOperator.CONTAINS || clause.operator() == CqlOperator.NOT_CONTAINS));
+    }
+    
+    private Predicate<MirroredPage> predicate(CqlNode.Clause clause, Instant now) {
+        Predicate<MirroredPage> positive = switch (clause.field()) {
+            // The planner only lets type=page through and the mirror holds nothing else
+            case "type" -> page -> true;
+            case "space", "space.key" -> page -> clause.values().stream()
+                .anyMatch(value -> value.equalsIgnoreCase(page.spaceKey()));
+            case "label" -> page -> page.labels() != null && page.labels().stream()
+                .anyMatch(label -> clause.values().stream().anyMatch(label::equalsIgnoreCase));
+            case "title" -> page -> clause.value().equalsIgnoreCase(page.title());
+            case "lastmodified" -> dateComparison(clause, now);
+            default -> throw new IllegalArgumentException("Field " + clause.field() + " cannot be evaluated locally");
+        };
+        
+        // Comparison operators are already folded into dateComparison
+        boolean negate = clause.operator().isNegated() && !clause.field().equals("lastmodified");
+        return negate ? positive.negate() : positive;
+    }
+    
+    private Predicate<MirroredPage> dateComparison(CqlNode.Clause clause, Instant now) {
+        Instant instant = CqlDates.resolve(clause.value(), now);
+        // A bare date covers the whole day, so "= 2024-01-01" and "<= 2024-01-01" include all of it
+        Instant end = instant.plus(CqlDates.isDateOnly(clause.value()) ? Duration.ofDays(1) : Duration.ofMinutes(1));
+        
+        Predicate<Instant> comparison = switch (clause.operator()) {
+            case EQUALS -> t -> !t.isBefore(instant) && t.isBefore(end);
+            case NOT_EQUALS -> t -> t.isBefore(instant) || !t.isBefore(end);
+            case GREATER_THAN -> t -> !t.isBefore(end);
+            case GREATER_THAN_OR_EQUALS -> t -> !t.isBefore(instant);
+            case LESS_THAN -> t -> t.isBefore(instant);
+            case LESS_THAN_OR_EQUALS -> t -> t.isBefore(end);
+            default -> throw new IllegalArgumentException("Operator " + clause.operator() + " is not a date comparison");
+        };
+        return page -> page.lastModified() != null && comparison.test(page.lastModified());
+    }
+    
+    private Comparator<ScoredPage> comparator(List<CqlQuery.OrderBy> orderBy) {
+        Comparator<ScoredPage> byLastModified = Comparator.comparing(
+            scored -> scored.page().lastModified(), Comparator.nullsFirst(Comparator.naturalOrder()));
+        
+        if (orderBy.isEmpty()) {
+            return Comparator.comparingDouble(ScoredPage::score).reversed().thenComparing(byLastModified.reversed());
+        }
+        
+        Comparator<ScoredPage> result = null;
+        for (CqlQuery.OrderBy order : orderBy) {
+            Comparator<ScoredPage> next = order.field().equals("title")
+                ? Comparator.comparing(scored -> scored.page().title() != null ? scored.page().title() : "",
+                    String.CASE_INSENSITIVE_ORDER)
+                : byLastModified;
+            if (!order.ascending()) {
+                next = next.reversed();
+            }
+            result = result == null ? next : result.thenComparing(next);
+        }
+        return result;
+    }
+}
\ No newline at end of file
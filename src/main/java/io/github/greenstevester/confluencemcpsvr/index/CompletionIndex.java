@@ -0,0 +1,225 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.model.page.Page;
+import io.github.greenstevester.confluencemcpsvr.model.space.Space;
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
+import io.github.greenstevester.confluencemcpsvr.sync.PageChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix completion over space keys, space names and page titles for MCP argument completion.
+ * <p>
+ * Space keys and names complete to space keys; page titles and IDs complete to page IDs.
+ * Names and titles are also indexed from each word onwards, so "guide" completes
+ * "Deployment Guide". Entries come from the local mirror and from space and page traffic
+ * through this server, so completion never calls Confluence.
+ */
+@Component
+public class CompletionIndex implements PageChangeListener {
+    
+    private static final String ANSI_BLUE = "\u001B[34m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    /**
+     * Completion values for one argument
+     *
+     * @param hasMore whether further values match beyond those returned
+     */
+    public record Completion(
+        List<String> values,
+        boolean hasMore,
+        long tookMicros
+    ) {}
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RadixTrie spaceTrie = new RadixTrie();
+    private final RadixTrie pageTrie = new RadixTrie();
+    private final Map<String, String> spaceNames = new HashMap<>();
+    private final Map<String, String> pageTitles = new HashMap<>();
+    
+    public CompletionIndex(LocalPageStore pageStore) {
+        pageStore.addListener(this);
+    }
+    
+    @Override
+    public void onPageUpserted(MirroredPage page, MirroredPage previous) {
+        recordPage(page.id(), page.title());
+        if (page.spaceKey() != null) {
+            recordSpace(page.spaceKey(), null);
+        }
+    }
+    
+    @Override
+    public void onPageRemoved(MirroredPage page) {
+        removePage(page.id());
+    }
+    
+    public void recordSpaces(Collection<Space> spaces) {
+        if (spaces == null) {
+            return;
+        }
+        for (Space space : spaces) {
+            recordSpace(space.key(), space.name());
+        }
+    }
+    
+    public void recordPages(Collection<Page> pages) {
+        if (pages == null) {
+            return;
+        }
+        for (Page page : pages) {
+            recordPage(page.id(), page.title());
+        }
+    }
+    
+    /**
+     * Adds a space; a null name keeps any name recorded earlier
+     */
+    public void recordSpace(String spaceKey, String name) {
+        if (spaceKey == null || spaceKey.isBlank()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            boolean known = spaceNames.containsKey(spaceKey);
+            String previousName = spaceNames.get(spaceKey);
+            if (known && (name == null || name.equals(previousName))) {
+                return;
+            }
+            if (previousName != null) {
+                for (String key : wordKeys(previousName)) {
+                    spaceTrie.remove(key, spaceKey);
+                }
+            }
+            spaceTrie.insert(normalize(spaceKey), spaceKey);
+            if (name != null) {
+                for (String key : wordKeys(name)) {
+                    spaceTrie.insert(key, spaceKey);
+                }
+            }
+            spaceNames.put(spaceKey, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void recordPage(String pageId, String title) {
+        if (pageId == null || title == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            String previousTitle = pageTitles.get(pageId);
+            if (title.equals(previousTitle)) {
+                return;
+            }
+            if (previousTitle != null) {
+                for (String key : wordKeys(previousTitle)) {
+                    pageTrie.remove(key, pageId);
+                }
+            }
+            pageTrie.insert(pageId, pageId);
+            for (String key : wordKeys(title)) {
+                pageTrie.insert(key, pageId);
+            }
+            pageTitles.put(pageId, title);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void removePage(String pageId) {
+        lock.writeLock().lock();
+        try {
+            String title = pageTitles.remove(pageId);
+            if (title != null) {
+                pageTrie.remove(pageId, pageId);
+                for (String key : wordKeys(title)) {
+                    pageTrie.remove(key, pageId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public Completion completeSpaceKey(String prefix, int limit) {
+        return complete(spaceTrie, prefix, limit);
+    }
+    
+    public Completion completePageId(String prefix, int limit) {
+        return complete(pageTrie, prefix, limit);
+    }
+    
+    public String pageTitle(String pageId) {
+        lock.readLock().lock();
+        try {
+            return pageTitles.get(pageId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public String getFormattedStats() {
+        lock.readLock().lock();
+        try {
+            return ANSI_BOLD + ANSI_BLUE + "⌨️ Argument Completion" + ANSI_RESET + "\n" +
+                   "   ├─ Spaces: " + ANSI_YELLOW + spaceNames.size() + ANSI_RESET +
+                   " (" + spaceTrie.nodeCount() + " trie nodes)\n" +
+                   "   └─ Pages: " + ANSI_YELLOW + pageTitles.size() + ANSI_RESET +
+                   " (" + pageTrie.nodeCount() + " trie nodes)";
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private Completion complete(RadixTrie trie, String prefix, int limit) {
+        long start = System.nanoTime();
+        Set<String> values = new LinkedHashSet<>();
+        boolean hasMore;
+        
+        lock.readLock().lock();
+        try {
+            hasMore = trie.collect(normalize(prefix), limit, values);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new Completion(new ArrayList<>(values), hasMore, (System.nanoTime() - start) / 1000);
+    }
+    
+    /**
+     * The normalised text and every suffix of it that starts at a word
+     */
+    private static List<String> wordKeys(String text) {
+        String normalized = normalize(text);
+        List<String> keys = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = 1; i < normalized.length(); i++) {
+            if (normalized.charAt(i - 1) == ' ' && normalized.charAt(i) != ' ') {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+    
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
\ No newline at end of file
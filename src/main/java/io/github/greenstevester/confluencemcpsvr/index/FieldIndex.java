@@ -0,0 +1,44 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Term dictionary and per-document lengths for one indexed field
+ */
+final class FieldIndex {
+    
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final IntList docLengths = new IntList(64);
+    
+    void addDocument(int docId, List<String> tokens) {
+        Map<String, IntList> positions = new HashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            positions.computeIfAbsent(tokens.get(i), term -> new IntList(2)).add(i);
+        }
+        positions.forEach((term, termPositions) ->
+            postings.computeIfAbsent(term, key -> new PostingList()).add(docId, termPositions));
+        docLengths.set(docId, tokens.size());
+    }
+    
+    PostingList postings(String term) {
+        return postings.get(term);
+    }
+    
+    int docLength(int docId) {
+        return docId < docLengths.size() ? docLengths.get(docId) : 0;
+    }
+    
+    int termCount() {
+        return postings.size();
+    }
+    
+    long memoryBytes() {
+        long bytes = docLengths.memoryBytes();
+        for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+            bytes += 40L + 2L * entry.getKey().length() + entry.getValue().memoryBytes();
+        }
+        return bytes;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from non-negative int keys to float values, used for term weights and
+ * score accumulators where a boxed map would allocate per entry
+ */
+final class IntFloatHashMap {
+    
+    private static final int EMPTY = -1;
+    
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(int key, float value);
+    }
+    
+    private int[] keys;
+    private float[] values;
+    private int size;
+    
+    IntFloatHashMap() {
+        this(16);
+    }
+    
+    IntFloatHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new float[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+    
+    /**
+     * Adds {@code delta} to the key's value, starting from zero
+     */
+    void add(int key, float delta) {
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            values[slot] = delta;
+            if (++size * 4 > keys.length * 3) {
+                grow();
+            }
+        } else {
+            values[slot] += delta;
+        }
+    }
+    
+    void put(int key, float value) {
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size * 4 > keys.length * 3) {
+                grow();
+            }
+        } else {
+            values[slot] = value;
+        }
+    }
+    
+    float get(int key) {
+        int slot = slot(key);
+        return keys[slot] == EMPTY ? 0f : values[slot];
+    }
+    
+    boolean containsKey(int key) {
+        return keys[slot(key)] != EMPTY;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+    
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int hash = key * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    private void grow() {
+        int[] oldKeys = keys;
+        float[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new float[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
\ No newline at end of file
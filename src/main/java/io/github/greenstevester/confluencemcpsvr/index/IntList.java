@@ -0,0 +1,58 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, used where boxed collections would dominate index memory
+ */
+final class IntList {
+    
+    private int[] values;
+    private int size;
+    
+    IntList() {
+        this(8);
+    }
+    
+    IntList(int capacity) {
+        this.values = new int[Math.max(1, capacity)];
+    }
+    
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+    
+    int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return values[index];
+    }
+    
+    void set(int index, int value) {
+        while (index >= values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[index] = value;
+        size = Math.max(size, index + 1);
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    void clear() {
+        size = 0;
+    }
+    
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+    
+    long memoryBytes() {
+        return 16L + 4L * values.length;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,383 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
+import io.github.greenstevester.confluencemcpsvr.sync.PageChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text inverted index over the locally mirrored pages, ranked with BM25.
+ * <p>
+ * Every version of a page gets a fresh internal doc ID so posting lists stay append-only;
+ * replaced or removed versions are tombstoned and skipped at query time, and the index is
+ * rebuilt from the mirror once tombstones outnumber live documents.
+ */
+@Component
+public class InvertedIndex implements PageChangeListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InvertedIndex.class);
+    
+    private static final String ANSI_MAGENTA = "\u001B[35m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    // Standard BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_TOMBSTONES_FOR_COMPACTION = 1000;
+    
+    /**
+     * Searchable fields; TEXT covers the title and the body, like CQL {@code text~}
+     */
+    public enum Field {
+        TEXT,
+        TITLE
+    }
+    
+    private final LocalPageStore pageStore;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private FieldIndex textField;
+    private FieldIndex titleField;
+    private List<String> docPageIds;
+    private Map<String, Integer> pageDocIds;
+    private BitSet liveDocs;
+    private long liveTextLength;
+    private long liveTitleLength;
+    private int tombstones;
+    
+    public InvertedIndex(LocalPageStore pageStore) {
+        this.pageStore = pageStore;
+        reset();
+        pageStore.addListener(this);
+    }
+    
+    @Override
+    public void onPageUpserted(MirroredPage page, MirroredPage previous) {
+        lock.writeLock().lock();
+        try {
+            Integer oldDocId = pageDocIds.get(page.id());
+            if (oldDocId != null) {
+                tombstone(oldDocId);
+            }
+            addDocument(page);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void onPageRemoved(MirroredPage page) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = pageDocIds.remove(page.id());
+            if (docId != null) {
+                tombstone(docId);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Run a text query and return the best matches by BM25 score
+     */
+    public SearchHits search(Field field, String query, int limit) {
+        return search(field, TextQuery.parse(query), limit);
+    }
+    
+    public SearchHits search(Field field, TextQuery query, int limit) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Matches matches = Matches.EMPTY;
+            for (TextQuery.Clause clause : query.clauses()) {
+                matches = matches.union(evaluateClause(field, clause));
+            }
+            
+            List<Hit> hits = topHits(matches, limit);
+            return new SearchHits(hits, matches.size(), (System.nanoTime() - start) / 1000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return pageDocIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public IndexStats getStats() {
+        lock.readLock().lock();
+        try {
+            return new IndexStats(
+                pageDocIds.size(),
+                tombstones,
+                textField.termCount(),
+                textField.memoryBytes() + titleField.memoryBytes()
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Get formatted index statistics for the monitoring report
+     */
+    public String getFormattedStats() {
+        IndexStats stats = getStats();
+        return ANSI_BOLD + ANSI_MAGENTA + "🔎 Full-Text Index" + ANSI_RESET + "\n" +
+               "   ├─ Documents: " + ANSI_YELLOW + stats.documents() + ANSI_RESET +
+               " (" + stats.tombstones() + " tombstoned)\n" +
+               "   └─ Terms: " + ANSI_YELLOW + stats.terms() + ANSI_RESET +
+               ", ~" + (stats.memoryBytes() / 1024) + "KB postings";
+    }
+    
+    private void addDocument(MirroredPage page) {
+        int docId = docPageIds.size();
+        docPageIds.add(page.id());
+        pageDocIds.put(page.id(), docId);
+        liveDocs.set(docId);
+        
+        List<String> titleTokens = TextAnalyzer.tokenize(page.title());
+        List<String> textTokens = new ArrayList<>(titleTokens);
+        textTokens.addAll(TextAnalyzer.tokenize(TextAnalyzer.stripMarkup(page.body())));
+        
+        titleField.addDocument(docId, titleTokens);
+        textField.addDocument(docId, textTokens);
+        liveTitleLength += titleTokens.size();
+        liveTextLength += textTokens.size();
+    }
+    
+    private void tombstone(int docId) {
+        if (liveDocs.get(docId)) {
+            liveDocs.clear(docId);
+            liveTitleLength -= titleField.docLength(docId);
+            liveTextLength -= textField.docLength(docId);
+            tombstones++;
+        }
+    }
+    
+    private void compactIfNeeded() {
+        if (tombstones < MIN_TOMBSTONES_FOR_COMPACTION || tombstones < pageDocIds.size()) {
+            return;
+        }
+        int removed = tombstones;
+        reset();
+        pageStore.all().forEach(this::addDocument);
+        logger.debug("Compacted full-text index, dropped {} tombstoned documents", removed);
+    }
+    
+    private void reset() {
+        textField = new FieldIndex();
+        titleField = new FieldIndex();
+        docPageIds = new ArrayList<>();
+        pageDocIds = new HashMap<>();
+        liveDocs = new BitSet();
+        liveTextLength = 0;
+        liveTitleLength = 0;
+        tombstones = 0;
+    }
+    
+    private Matches evaluateClause(Field field, TextQuery.Clause clause) {
+        Matches matches = null;
+        for (List<String> phrase : clause.phrases()) {
+            Matches phraseMatches = evaluatePhrase(field, phrase);
+            matches = matches == null ? phraseMatches : matches.intersect(phraseMatches);
+            if (matches.size() == 0) {
+                break;
+            }
+        }
+        return matches != null ? matches : Matches.EMPTY;
+    }
+    
+    /**
+     * Find documents containing the tokens consecutively and score them with BM25,
+     * treating the phrase as a single term whose frequency is the number of occurrences
+     */
+    private Matches evaluatePhrase(Field field, List<String> tokens) {
+        FieldIndex index = field == Field.TITLE ? titleField : textField;
+        PostingList.Cursor[] cursors = new PostingList.Cursor[tokens.size()];
+        for (int i = 0; i < tokens.size(); i++) {
+            PostingList postings = index.postings(tokens.get(i));
+            if (postings == null) {
+                return Matches.EMPTY;
+            }
+            cursors[i] = postings.cursor();
+            if (!cursors[i].next()) {
+                return Matches.EMPTY;
+            }
+        }
+        
+        IntList docs = new IntList();
+        IntList frequencies = new IntList();
+        
+        // Leapfrog join: advance every cursor to the largest current doc ID until they agree
+        int target = cursors[0].docId();
+        boolean exhausted = false;
+        while (!exhausted) {
+            boolean aligned = true;
+            for (PostingList.Cursor cursor : cursors) {
+                if (!cursor.advance(target)) {
+                    exhausted = true;
+                    break;
+                }
+                if (cursor.docId() > target) {
+                    target = cursor.docId();
+                    aligned = false;
+                }
+            }
+            if (exhausted) {
+                break;
+            }
+            if (!aligned) {
+                continue;
+            }
+            
+            if (liveDocs.get(target)) {
+                int frequency = phraseFrequency(cursors);
+                if (frequency > 0) {
+                    docs.add(target);
+                    frequencies.add(frequency);
+                }
+            }
+            if (!cursors[0].next()) {
+                break;
+            }
+            target = cursors[0].docId();
+        }
+        
+        int liveCount = pageDocIds.size();
+        long totalLength = field == Field.TITLE ? liveTitleLength : liveTextLength;
+        double averageLength = liveCount > 0 ? Math.max(1.0, (double) totalLength / liveCount) : 1.0;
+        double idf = Math.log(1 + (liveCount - docs.size() + 0.5) / (docs.size() + 0.5));
+        
+        double[] scores = new double[docs.size()];
+        for (int i = 0; i < docs.size(); i++) {
+            double tf = frequencies.get(i);
+            double norm = 1 - B + B * index.docLength(docs.get(i)) / averageLength;
+            scores[i] = idf * tf * (K1 + 1) / (tf + K1 * norm);
+        }
+        return new Matches(docs.toArray(), scores);
+    }
+    
+    private int phraseFrequency(PostingList.Cursor[] cursors) {
+        if (cursors.length == 1) {
+            return cursors[0].frequency();
+        }
+        
+        int count = 0;
+        int[] first = cursors[0].positions();
+        for (int p = 0; p < cursors[0].frequency(); p++) {
+            boolean match = true;
+            for (int i = 1; i < cursors.length && match; i++) {
+                match = Arrays.binarySearch(cursors[i].positions(), 0, cursors[i].frequency(), first[p] + i) >= 0;
+            }
+            if (match) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private List<Hit> topHits(Matches matches, int limit) {
+        Integer[] order = new Integer[matches.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(matches.scores()[b], matches.scores()[a]));
+        
+        List<Hit> hits = new ArrayList<>(Math.min(limit, order.length));
+        for (int i = 0; i < order.length && hits.size() < limit; i++) {
+            int index = order[i];
+            hits.add(new Hit(docPageIds.get(matches.docs()[index]), matches.scores()[index]));
+        }
+        return hits;
+    }
+    
+    /**
+     * Sorted doc IDs with their scores
+     */
+    private record Matches(int[] docs, double[] scores) {
+        
+        static final Matches EMPTY = new Matches(new int[0], new double[0]);
+        
+        int size() {
+            return docs.length;
+        }
+        
+        Matches intersect(Matches other) {
+            IntList resultDocs = new IntList();
+            double[] resultScores = new double[Math.min(size(), other.size())];
+            int i = 0;
+            int j = 0;
+            while (i < size() && j < other.size()) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    resultScores[resultDocs.size()] = scores[i] + other.scores[j];
+                    resultDocs.add(docs[i]);
+                    i++;
+                    j++;
+                }
+            }
+            return new Matches(resultDocs.toArray(), Arrays.copyOf(resultScores, resultDocs.size()));
+        }
+        
+        Matches union(Matches other) {
+            int[] resultDocs = new int[size() + other.size()];
+            double[] resultScores = new double[resultDocs.length];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < size() || j < other.size()) {
+                if (j >= other.size() || (i < size() && docs[i] < other.docs[j])) {
+                    resultDocs[n] = docs[i];
+                    resultScores[n++] = scores[i++];
+                } else if (i >= size() || docs[i] > other.docs[j]) {
+                    resultDocs[n] = other.docs[j];
+                    resultScores[n++] = other.scores[j++];
+                } else {
+                    resultDocs[n] = docs[i];
+                    resultScores[n++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new Matches(Arrays.copyOf(resultDocs, n), Arrays.copyOf(resultScores, n));
+        }
+    }
+    
+    /**
+     * A matching page and its relevance score
+     */
+    public record Hit(String pageId, double score) {}
+    
+    /**
+     * Ranked hits plus the total number of matching pages
+     */
+    public record SearchHits(List<Hit> hits, int totalHits, long tookMicros) {}
+    
+    /**
+     * Index size statistics
+     */
+    public record IndexStats(int documents, int tombstones, int terms, long memoryBytes) {}
+}
\ No newline at end of file
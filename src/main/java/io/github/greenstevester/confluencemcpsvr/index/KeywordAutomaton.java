@@ -0,0 +1,330 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton that finds every occurrence of a set of keywords in one pass over a text.
+ * <p>
+ * Each keyword belongs to a category, and a scan counts hits per category and keeps the first few
+ * match positions. Matching is case-insensitive, runs of whitespace in the text match a single
+ * space in a keyword, and a match must start and end on a word boundary, except that a trailing
+ * "s" is accepted so plurals match the way CQL's stemmed {@code text~} does. The automaton is
+ * immutable and shared; all per-scan state lives in a reusable {@link Hits}, so scanning allocates
+ * nothing per character or per match.
+ */
+public final class KeywordAutomaton {
+    
+    private static final int NONE = -1;
+    private static final int ROOT = 0;
+    private static final int ASCII = 128;
+    
+    // Transitions in CSR form: the edges of state s are [edgeStart[s], edgeStart[s + 1]), sorted by char
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    // The root's transitions are also kept dense for ASCII, since most characters restart there
+    private final int[] rootAscii;
+    private final int[] failure;
+    // First keyword ending at a state, the next keyword ending at the same state, and the nearest
+    // state on the failure chain that has keywords of its own
+    private final int[] firstKeyword;
+    private final int[] nextKeyword;
+    private final int[] outputLink;
+    
+    private final String[] keywords;
+    private final int[] keywordLengths;
+    private final int[] keywordCategories;
+    private final int categoryCount;
+    private final int maxKeywordLength;
+    
+    private KeywordAutomaton(Builder builder) {
+        this.keywords = builder.keywords.toArray(String[]::new);
+        this.keywordCategories = builder.categories.stream().mapToInt(Integer::intValue).toArray();
+        this.keywordLengths = Arrays.stream(keywords).mapToInt(String::length).toArray();
+        this.categoryCount = builder.categoryCount;
+        this.maxKeywordLength = Arrays.stream(keywordLengths).max().orElse(1);
+        
+        // Build the trie with sorted maps, then flatten it
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        List<Integer> terminal = new ArrayList<>();
+        terminal.add(NONE);
+        nextKeyword = new int[keywords.length];
+        for (int k = 0; k < keywords.length; k++) {
+            int state = ROOT;
+            for (int i = 0; i < keywords[k].length(); i++) {
+                char c = keywords[k].charAt(i);
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(state).put(c, next);
+                    trie.add(new TreeMap<>());
+                    terminal.add(NONE);
+                }
+                state = next;
+            }
+            nextKeyword[k] = terminal.get(state);
+            terminal.set(state, k);
+        }
+        
+        int states = trie.size();
+        edgeStart = new int[states + 1];
+        int edges = 0;
+        for (int s = 0; s < states; s++) {
+            edgeStart[s] = edges;
+            edges += trie.get(s).size();
+        }
+        edgeStart[states] = edges;
+        edgeChars = new char[edges];
+        edgeTargets = new int[edges];
+        for (int s = 0; s < states; s++) {
+            int e = edgeStart[s];
+            for (Map.Entry<Character, Integer> edge : trie.get(s).entrySet()) {
+                edgeChars[e] = edge.getKey();
+                edgeTargets[e++] = edge.getValue();
+            }
+        }
+        rootAscii = new int[ASCII];
+        Arrays.fill(rootAscii, NONE);
+        for (Map.Entry<Character, Integer> edge : trie.get(ROOT).entrySet()) {
+            if (edge.getKey() < ASCII) {
+                rootAscii[edge.getKey()] = edge.getValue();
+            }
+        }
+        
+        firstKeyword = terminal.stream().mapToInt(Integer::intValue).toArray();
+        failure = new int[states];
+        outputLink = new int[states];
+        Arrays.fill(outputLink, NONE);
+        
+        // Breadth-first, so a state's failure target is always resolved before the state itself
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int e = edgeStart[ROOT]; e < edgeStart[ROOT + 1]; e++) {
+            failure[edgeTargets[e]] = ROOT;
+            queue.add(edgeTargets[e]);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int e = edgeStart[state]; e < edgeStart[state + 1]; e++) {
+                int child = edgeTargets[e];
+                int fallback = failure[state];
+                int target;
+                while ((target = transition(fallback, edgeChars[e])) == NONE && fallback != ROOT) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = target != NONE ? target : ROOT;
+                int link = failure[child];
+                outputLink[child] = firstKeyword[link] != NONE ? link : outputLink[link];
+                queue.add(child);
+            }
+        }
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Collects keywords and their category IDs; categories are numbered from zero
+     */
+    public static final class Builder {
+        
+        private final List<String> keywords = new ArrayList<>();
+        private final List<Integer> categories = new ArrayList<>();
+        private int categoryCount;
+        
+        private Builder() {
+        }
+        
+        public Builder add(String keyword, int category) {
+            if (category < 0) {
+                throw new IllegalArgumentException("Category must not be negative: " + category);
+            }
+            String normalized = normalize(keyword);
+            if (!normalized.isEmpty()) {
+                keywords.add(normalized);
+                categories.add(category);
+                categoryCount = Math.max(categoryCount, category + 1);
+            }
+            return this;
+        }
+        
+        public KeywordAutomaton build() {
+            return new KeywordAutomaton(this);
+        }
+    }
+    
+    /**
+     * Reusable per-scan state: hit counts per category, the first match positions per category and
+     * the window used to map matches back to text offsets. Not thread-safe; keep one per worker.
+     */
+    public static final class Hits {
+        
+        private final int[] counts;
+        private final int[] positions;
+        private final int[] positionCounts;
+        private final int maxPositions;
+        private int[] window;
+        private int offset;
+        
+        Hits(int categories, int maxPositions, int maxKeywordLength) {
+            this.counts = new int[categories];
+            this.positionCounts = new int[categories];
+            this.maxPositions = maxPositions;
+            this.positions = new int[categories * maxPositions];
+            this.window = new int[Integer.highestOneBit(Math.max(1, maxKeywordLength)) << 1];
+        }
+        
+        public void clear() {
+            Arrays.fill(counts, 0);
+            Arrays.fill(positionCounts, 0);
+            offset = 0;
+        }
+        
+        /**
+         * Added to the positions of the next scans, for scanning several fields as one document
+         */
+        public void setOffset(int offset) {
+            this.offset = offset;
+        }
+        
+        public int count(int category) {
+            return counts[category];
+        }
+        
+        public boolean hit(int category) {
+            return counts[category] > 0;
+        }
+        
+        public int positionCount(int category) {
+            return positionCounts[category];
+        }
+        
+        public int position(int category, int index) {
+            return positions[category * maxPositions + index];
+        }
+        
+        public int categories() {
+            return counts.length;
+        }
+        
+        private void record(int category, int position) {
+            counts[category]++;
+            if (positionCounts[category] < maxPositions) {
+                positions[category * maxPositions + positionCounts[category]++] = offset + position;
+            }
+        }
+    }
+    
+    /**
+     * Creates scan state for this automaton that keeps up to {@code maxPositions} positions per category
+     */
+    public Hits newHits(int maxPositions) {
+        return new Hits(categoryCount, Math.max(0, maxPositions), maxKeywordLength);
+    }
+    
+    /**
+     * Scans a text once and adds every keyword match to {@code hits}
+     */
+    public void scan(CharSequence text, Hits hits) {
+        if (text == null || keywords.length == 0) {
+            return;
+        }
+        if (hits.categories() < categoryCount) {
+            throw new IllegalArgumentException("Hits track " + hits.categories() + " categories, automaton has " + categoryCount);
+        }
+        if (hits.window.length < maxKeywordLength) {
+            // Hits shared with an automaton of shorter keywords
+            hits.window = new int[Integer.highestOneBit(maxKeywordLength) << 1];
+        }
+        int[] window = hits.window;
+        int mask = window.length - 1;
+        int normalized = 0;
+        boolean previousSpace = true;
+        int state = ROOT;
+        
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                if (previousSpace) {
+                    continue;
+                }
+                c = ' ';
+                previousSpace = true;
+            } else {
+                c = Character.toLowerCase(c);
+                previousSpace = false;
+            }
+            window[normalized++ & mask] = i;
+            
+            int next;
+            while ((next = transition(state, c)) == NONE && state != ROOT) {
+                state = failure[state];
+            }
+            state = next != NONE ? next : ROOT;
+            
+            for (int s = firstKeyword[state] != NONE ? state : outputLink[state]; s != NONE; s = outputLink[s]) {
+                for (int k = firstKeyword[s]; k != NONE; k = nextKeyword[k]) {
+                    int start = window[(normalized - keywordLengths[k]) & mask];
+                    if (isWordStart(text, start) && isWordEnd(text, i + 1)) {
+                        hits.record(keywordCategories[k], start);
+                    }
+                }
+            }
+        }
+    }
+    
+    public int keywordCount() {
+        return keywords.length;
+    }
+    
+    public int categoryCount() {
+        return categoryCount;
+    }
+    
+    public int stateCount() {
+        return failure.length;
+    }
+    
+    private int transition(int state, char c) {
+        if (state == ROOT && c < ASCII) {
+            return rootAscii[c];
+        }
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char edge = edgeChars[mid];
+            if (edge < c) {
+                low = mid + 1;
+            } else if (edge > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return NONE;
+    }
+    
+    private static boolean isWordStart(CharSequence text, int start) {
+        return start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1));
+    }
+    
+    private static boolean isWordEnd(CharSequence text, int end) {
+        if (end >= text.length() || !Character.isLetterOrDigit(text.charAt(end))) {
+            return true;
+        }
+        char c = text.charAt(end);
+        return (c == 's' || c == 'S') && (end + 1 >= text.length() || !Character.isLetterOrDigit(text.charAt(end + 1)));
+    }
+    
+    private static String normalize(String keyword) {
+        return keyword == null ? "" : keyword.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
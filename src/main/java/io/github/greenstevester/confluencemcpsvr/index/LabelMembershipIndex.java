@@ -0,0 +1,248 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
+import io.github.greenstevester.confluencemcpsvr.sync.PageChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index from labels, spaces and statuses to the mirrored pages that carry them.
+ * <p>
+ * Every page gets a stable ordinal and each attribute value keeps a {@link RoaringBitmap} of
+ * ordinals, so combinations such as "all {@code runbook} pages in OPS that are current" are
+ * answered with a handful of bitmap AND/OR/ANDNOT operations instead of a CQL round trip.
+ * Labels and statuses are matched case-insensitively, space keys exactly.
+ */
+@Component
+public class LabelMembershipIndex implements PageChangeListener {
+    
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    /**
+     * Boolean membership query; null or empty lists do not constrain the result
+     *
+     * @param allLabels labels a page must all carry
+     * @param anyLabels labels of which a page must carry at least one
+     * @param excludedLabels labels a page must not carry
+     * @param spaceKeys spaces a page must be in
+     * @param statuses statuses a page must have
+     */
+    public record MembershipQuery(
+        List<String> allLabels,
+        List<String> anyLabels,
+        List<String> excludedLabels,
+        List<String> spaceKeys,
+        List<String> statuses
+    ) {}
+    
+    public record MembershipResult(
+        List<String> pageIds,
+        int totalMatches,
+        long tookMicros
+    ) {}
+    
+    public record MembershipStats(
+        int pages,
+        int labels,
+        int spaces,
+        int statuses,
+        long memoryBytes
+    ) {}
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> ordinalPageIds = new ArrayList<>();
+    private final RoaringBitmap livePages = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> labels = new HashMap<>();
+    private final Map<String, RoaringBitmap> spaces = new HashMap<>();
+    private final Map<String, RoaringBitmap> statuses = new HashMap<>();
+    
+    public LabelMembershipIndex(LocalPageStore pageStore) {
+        pageStore.addListener(this);
+    }
+    
+    @Override
+    public void onPageUpserted(MirroredPage page, MirroredPage previous) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinals.computeIfAbsent(page.id(), id -> {
+                ordinalPageIds.add(id);
+                return ordinalPageIds.size() - 1;
+            });
+            if (previous != null) {
+                removeMemberships(ordinal, previous);
+            }
+            livePages.add(ordinal);
+            if (page.labels() != null) {
+                for (String label : page.labels()) {
+                    bitmapFor(labels, normalize(label)).add(ordinal);
+                }
+            }
+            if (page.spaceKey() != null) {
+                bitmapFor(spaces, page.spaceKey()).add(ordinal);
+            }
+            if (page.status() != null) {
+                bitmapFor(statuses, normalize(page.status())).add(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void onPageRemoved(MirroredPage page) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(page.id());
+            if (ordinal != null) {
+                livePages.remove(ordinal);
+                removeMemberships(ordinal, page);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Evaluates a membership query, returning page IDs in ordinal (first-mirrored) order
+     *
+     * @param limit maximum number of page IDs to return; the total is always counted
+     */
+    public MembershipResult query(MembershipQuery query, int limit) {
+        long start = System.nanoTime();
+        
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = livePages;
+            if (query.allLabels() != null) {
+                for (String label : query.allLabels()) {
+                    result = RoaringBitmap.and(result, lookup(labels, normalize(label)));
+                }
+            }
+            if (query.anyLabels() != null && !query.anyLabels().isEmpty()) {
+                result = RoaringBitmap.and(result, union(labels, query.anyLabels(), true));
+            }
+            if (query.spaceKeys() != null && !query.spaceKeys().isEmpty()) {
+                result = RoaringBitmap.and(result, union(spaces, query.spaceKeys(), false));
+            }
+            if (query.statuses() != null && !query.statuses().isEmpty()) {
+                result = RoaringBitmap.and(result, union(statuses, query.statuses(), true));
+            }
+            if (query.excludedLabels() != null && !query.excludedLabels().isEmpty()) {
+                result = RoaringBitmap.andNot(result, union(labels, query.excludedLabels(), true));
+            }
+            
+            List<String> pageIds = new ArrayList<>(Math.min(Math.max(limit, 0), 1024));
+            result.forEach(ordinal -> {
+                if (pageIds.size() < limit) {
+                    pageIds.add(ordinalPageIds.get(ordinal));
+                }
+            });
+            return new MembershipResult(pageIds, result.cardinality(), (System.nanoTime() - start) / 1000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * The most used labels across live pages with their page counts, most used first
+     */
+    public Map<String, Integer> topLabels(int limit) {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> result = new LinkedHashMap<>();
+            labels.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().cardinality()))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public MembershipStats getStats() {
+        lock.readLock().lock();
+        try {
+            long memory = livePages.sizeInBytes();
+            for (Map<String, RoaringBitmap> dimension : List.of(labels, spaces, statuses)) {
+                for (RoaringBitmap bitmap : dimension.values()) {
+                    memory += bitmap.sizeInBytes();
+                }
+            }
+            return new MembershipStats(livePages.cardinality(), labels.size(), spaces.size(), statuses.size(), memory);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public String getFormattedStats() {
+        MembershipStats stats = getStats();
+        return ANSI_BOLD + ANSI_CYAN + "🏷️ Label Membership Index" + ANSI_RESET + "\n" +
+               "   ├─ Pages: " + ANSI_YELLOW + stats.pages() + ANSI_RESET + "\n" +
+               "   └─ Bitmaps: " + stats.labels() + " labels, " + stats.spaces() + " spaces, " +
+               stats.statuses() + " statuses (~" + (stats.memoryBytes() / 1024) + "KB)";
+    }
+    
+    private void removeMemberships(int ordinal, MirroredPage page) {
+        if (page.labels() != null) {
+            for (String label : page.labels()) {
+                removeFrom(labels, normalize(label), ordinal);
+            }
+        }
+        if (page.spaceKey() != null) {
+            removeFrom(spaces, page.spaceKey(), ordinal);
+        }
+        if (page.status() != null) {
+            removeFrom(statuses, normalize(page.status()), ordinal);
+        }
+    }
+    
+    private static void removeFrom(Map<String, RoaringBitmap> dimension, String value, int ordinal) {
+        RoaringBitmap bitmap = dimension.get(value);
+        if (bitmap != null) {
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                dimension.remove(value);
+            }
+        }
+    }
+    
+    private static RoaringBitmap bitmapFor(Map<String, RoaringBitmap> dimension, String value) {
+        return dimension.computeIfAbsent(value, key -> new RoaringBitmap());
+    }
+    
+    private static RoaringBitmap lookup(Map<String, RoaringBitmap> dimension, String value) {
+        RoaringBitmap bitmap = dimension.get(value);
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+    
+    private static RoaringBitmap union(Map<String, RoaringBitmap> dimension, Collection<String> values,
+                                       boolean caseInsensitive) {
+        RoaringBitmap result = new RoaringBitmap();
+        for (String value : values) {
+            result = RoaringBitmap.or(result, lookup(dimension, caseInsensitive ? normalize(value) : value));
+        }
+        return result;
+    }
+    
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
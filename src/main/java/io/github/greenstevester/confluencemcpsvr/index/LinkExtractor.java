@@ -0,0 +1,83 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts page link targets from Confluence storage-format bodies.
+ * <p>
+ * Internal links are {@code <ac:link><ri:page ri:content-title="..." ri:space-key="..."/></ac:link>},
+ * where a missing space key means the linking page's own space; newer bodies may carry
+ * {@code ri:content-id} instead. Plain anchors to {@code /pages/<id>} or {@code pageId=<id>} URLs
+ * are picked up as well. Targets are returned as keys that {@link #idKey} and {@link #titleKey}
+ * also produce for the target page itself, so links can be resolved before or after the target
+ * page is seen.
+ */
+final class LinkExtractor {
+    
+    private static final Pattern PAGE_REFERENCE = Pattern.compile("<ri:page\\b([^>]*?)/?>");
+    private static final Pattern ATTRIBUTE = Pattern.compile("ri:(content-title|space-key|content-id)\\s*=\\s*\"([^\"]*)\"");
+    private static final Pattern PAGE_URL = Pattern.compile("href\\s*=\\s*\"[^\"]*?(?:/pages/|[?&](?:amp;)?pageId=)(\\d+)");
+    
+    private LinkExtractor() {
+    }
+    
+    /**
+     * Distinct link target keys in document order
+     */
+    static Set<String> extractTargets(String storageBody, String sourceSpaceKey) {
+        Set<String> targets = new LinkedHashSet<>();
+        if (storageBody == null || storageBody.isEmpty()) {
+            return targets;
+        }
+        
+        Matcher reference = PAGE_REFERENCE.matcher(storageBody);
+        while (reference.find()) {
+            String title = null;
+            String spaceKey = sourceSpaceKey;
+            String contentId = null;
+            Matcher attribute = ATTRIBUTE.matcher(reference.group(1));
+            while (attribute.find()) {
+                String value = unescape(attribute.group(2));
+                switch (attribute.group(1)) {
+                    case "content-title" -> title = value;
+                    case "space-key" -> spaceKey = value;
+                    default -> contentId = value;
+                }
+            }
+            if (contentId != null && !contentId.isBlank()) {
+                targets.add(idKey(contentId));
+            } else if (title != null && !title.isBlank()) {
+                targets.add(titleKey(spaceKey, title));
+            }
+        }
+        
+        Matcher url = PAGE_URL.matcher(storageBody);
+        while (url.find()) {
+            targets.add(idKey(url.group(1)));
+        }
+        return targets;
+    }
+    
+    static String idKey(String pageId) {
+        return "i:" + pageId;
+    }
+    
+    static String titleKey(String spaceKey, String title) {
+        return "t:" + (spaceKey != null ? spaceKey : "") + '\u0000' + title.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static String unescape(String value) {
+        if (value.indexOf('&') < 0) {
+            return value;
+        }
+        return value.replace("&quot;", "\"")
+            .replace("&apos;", "'")
+            .replace("&lt;", "<")
+            .replace("&gt;", ">")
+            .replace("&amp;", "&");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,432 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
+import io.github.greenstevester.confluencemcpsvr.sync.PageChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Near-duplicate detection over mirrored page bodies with MinHash signatures and LSH banding.
+ * <p>
+ * Each page body is cut into overlapping five-word shingles and summarised by 128 MinHash values,
+ * whose agreement rate estimates the Jaccard similarity of two pages' shingle sets. Signatures are
+ * split into 32 bands of 4 rows and every band is hashed into a bucket, so pages only become
+ * candidate pairs when some band matches exactly, which pairs above about 0.5 similarity almost
+ * always do. Finding duplicates then costs one pass over the buckets instead of comparing every
+ * pair of pages. Replaced or removed pages are tombstoned and the buckets are rebuilt from the
+ * kept signatures once tombstones outnumber live pages.
+ */
+@Component
+public class MinHashIndex implements PageChangeListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MinHashIndex.class);
+    
+    private static final String ANSI_MAGENTA = "\u001B[35m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    static final int SIGNATURE_SIZE = 128;
+    static final int BANDS = 32;
+    static final int ROWS_PER_BAND = SIGNATURE_SIZE / BANDS;
+    static final int SHINGLE_WORDS = 5;
+    // Pages shorter than this say too little for a similarity to mean anything
+    static final int MIN_WORDS = 20;
+    private static final int MIN_TOMBSTONES_FOR_COMPACTION = 1000;
+    // Larger buckets (boilerplate shared by many pages) only compare members with the first one
+    private static final int MAX_PAIRWISE_BUCKET = 64;
+    
+    private static final long[] SEEDS = new long[SIGNATURE_SIZE];
+    
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+    
+    public record DuplicatePage(
+        String pageId,
+        String title,
+        String spaceKey,
+        double similarity
+    ) {}
+    
+    /**
+     * Pages that are near-duplicates of the first page, with each one's estimated similarity to it
+     */
+    public record DuplicateCluster(
+        List<DuplicatePage> pages,
+        boolean crossSpace
+    ) {}
+    
+    public record DuplicateReport(
+        List<DuplicateCluster> clusters,
+        int totalClusters,
+        int pagesCompared,
+        int candidatePairs,
+        long tookMicros
+    ) {}
+    
+    public record MinHashStats(
+        int pages,
+        int skippedShortPages,
+        int tombstones,
+        int buckets,
+        long memoryBytes
+    ) {}
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private Map<Long, IntList> buckets;
+    private List<String> docPageIds;
+    private List<String> docTitles;
+    private List<String> docSpaceKeys;
+    private int[] signatures;
+    private Map<String, Integer> pageDocIds;
+    private BitSet liveDocs;
+    private int tombstones;
+    private Set<String> shortPageIds;
+    
+    public MinHashIndex(LocalPageStore pageStore) {
+        reset();
+        pageStore.addListener(this);
+    }
+    
+    @Override
+    public void onPageUpserted(MirroredPage page, MirroredPage previous) {
+        if (previous != null && previous.version() == page.version()) {
+            return;
+        }
+        record(page.id(), page.title(), page.spaceKey(), page.body());
+    }
+    
+    @Override
+    public void onPageRemoved(MirroredPage page) {
+        remove(page.id());
+    }
+    
+    /**
+     * Adds or replaces a page's signature; pages under {@link #MIN_WORDS} words are left out
+     */
+    public void record(String pageId, String title, String spaceKey, String storageBody) {
+        if (pageId == null) {
+            return;
+        }
+        int[] signature = signature(TextAnalyzer.tokenize(TextAnalyzer.stripMarkup(storageBody)));
+        
+        lock.writeLock().lock();
+        try {
+            Integer existing = pageDocIds.remove(pageId);
+            if (existing != null) {
+                liveDocs.clear(existing);
+                tombstones++;
+            }
+            if (signature == null) {
+                shortPageIds.add(pageId);
+            } else {
+                shortPageIds.remove(pageId);
+                addDoc(pageId, title, spaceKey, signature);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(String pageId) {
+        lock.writeLock().lock();
+        try {
+            shortPageIds.remove(pageId);
+            Integer existing = pageDocIds.remove(pageId);
+            if (existing != null) {
+                liveDocs.clear(existing);
+                tombstones++;
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return pageDocIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Clusters of pages whose estimated similarity to another member reaches the threshold
+     *
+     * @param threshold minimum estimated Jaccard similarity (0..1) of shingle sets
+     * @param spaceKeys only report clusters with a page in one of these spaces, or null/empty for all
+     * @param limit maximum clusters returned, largest and most similar first
+     */
+    public DuplicateReport findDuplicates(double threshold, Collection<String> spaceKeys, int limit) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int docCount = docPageIds.size();
+            int[] parent = new int[docCount];
+            for (int i = 0; i < docCount; i++) {
+                parent[i] = i;
+            }
+            
+            int candidatePairs = 0;
+            IntList members = new IntList(16);
+            for (IntList bucket : buckets.values()) {
+                members.clear();
+                for (int i = 0; i < bucket.size(); i++) {
+                    if (liveDocs.get(bucket.get(i))) {
+                        members.add(bucket.get(i));
+                    }
+                }
+                for (int i = 1; i < members.size(); i++) {
+                    int compareUpTo = members.size() > MAX_PAIRWISE_BUCKET ? 1 : i;
+                    for (int j = 0; j < compareUpTo; j++) {
+                        int a = members.get(i);
+                        int b = members.get(j);
+                        if (find(parent, a) == find(parent, b)) {
+                            continue;
+                        }
+                        candidatePairs++;
+                        if (similarity(a, b) >= threshold) {
+                            union(parent, a, b);
+                        }
+                    }
+                }
+            }
+            
+            // Union keeps the lowest doc as the root, so each group starts with its oldest page
+            int[] groupSizes = new int[docCount];
+            for (int doc = liveDocs.nextSetBit(0); doc >= 0; doc = liveDocs.nextSetBit(doc + 1)) {
+                groupSizes[find(parent, doc)]++;
+            }
+            Map<Integer, IntList> groups = new LinkedHashMap<>();
+            for (int doc = liveDocs.nextSetBit(0); doc >= 0; doc = liveDocs.nextSetBit(doc + 1)) {
+                int root = find(parent, doc);
+                if (groupSizes[root] > 1) {
+                    groups.computeIfAbsent(root, key -> new IntList(4)).add(doc);
+                }
+            }
+            
+            List<DuplicateCluster> clusters = new ArrayList<>();
+            for (IntList docs : groups.values()) {
+                DuplicateCluster cluster = toCluster(docs);
+                if (spaceKeys == null || spaceKeys.isEmpty()
+                        || cluster.pages().stream().anyMatch(page -> spaceKeys.contains(page.spaceKey()))) {
+                    clusters.add(cluster);
+                }
+            }
+            clusters.sort(Comparator.comparingInt((DuplicateCluster cluster) -> cluster.pages().size()).reversed()
+                .thenComparing(Comparator.comparingDouble(MinHashIndex::lowestSimilarity).reversed()));
+            
+            int total = clusters.size();
+            List<DuplicateCluster> top = clusters.size() > limit ? List.copyOf(clusters.subList(0, limit)) : clusters;
+            return new DuplicateReport(top, total, pageDocIds.size(), candidatePairs, (System.nanoTime() - start) / 1000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public MinHashStats getStats() {
+        lock.readLock().lock();
+        try {
+            long memory = 4L * signatures.length;
+            for (IntList bucket : buckets.values()) {
+                memory += 64L + bucket.memoryBytes();
+            }
+            return new MinHashStats(pageDocIds.size(), shortPageIds.size(), tombstones, buckets.size(), memory);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public String getFormattedStats() {
+        MinHashStats stats = getStats();
+        return ANSI_BOLD + ANSI_MAGENTA + "🧬 Near-Duplicate Index" + ANSI_RESET + "\n" +
+               "   ├─ Signatures: " + ANSI_YELLOW + stats.pages() + ANSI_RESET +
+               " (" + stats.tombstones() + " tombstoned, " + stats.skippedShortPages() + " short pages skipped)\n" +
+               "   └─ LSH buckets: " + ANSI_YELLOW + stats.buckets() + ANSI_RESET +
+               ", ~" + (stats.memoryBytes() / 1024) + "KB";
+    }
+    
+    /**
+     * MinHash signature of the word shingles of a token stream, or null when it is too short
+     */
+    static int[] signature(List<String> tokens) {
+        if (tokens.size() < MIN_WORDS) {
+            return null;
+        }
+        long[] minimums = new long[SIGNATURE_SIZE];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        
+        long[] wordHashes = new long[tokens.size()];
+        for (int i = 0; i < tokens.size(); i++) {
+            wordHashes[i] = hashWord(tokens.get(i));
+        }
+        for (int i = 0; i + SHINGLE_WORDS <= wordHashes.length; i++) {
+            long shingle = 0;
+            for (int j = 0; j < SHINGLE_WORDS; j++) {
+                shingle = mix(shingle * 31 + wordHashes[i + j]);
+            }
+            for (int h = 0; h < SIGNATURE_SIZE; h++) {
+                // Unsigned comparison keeps the full 64-bit range as one ordering
+                long value = mix(shingle ^ SEEDS[h]);
+                if (Long.compareUnsigned(value, minimums[h]) < 0) {
+                    minimums[h] = value;
+                }
+            }
+        }
+        
+        int[] signature = new int[SIGNATURE_SIZE];
+        for (int h = 0; h < SIGNATURE_SIZE; h++) {
+            signature[h] = (int) (minimums[h] >>> 32);
+        }
+        return signature;
+    }
+    
+    /**
+     * Share of equal signature positions, an estimate of the shingle sets' Jaccard similarity
+     */
+    private double similarity(int docA, int docB) {
+        int offsetA = docA * SIGNATURE_SIZE;
+        int offsetB = docB * SIGNATURE_SIZE;
+        int equal = 0;
+        for (int h = 0; h < SIGNATURE_SIZE; h++) {
+            if (signatures[offsetA + h] == signatures[offsetB + h]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+    
+    private DuplicateCluster toCluster(IntList docs) {
+        int first = docs.get(0);
+        List<DuplicatePage> pages = new ArrayList<>(docs.size());
+        boolean crossSpace = false;
+        for (int i = 0; i < docs.size(); i++) {
+            int doc = docs.get(i);
+            pages.add(new DuplicatePage(docPageIds.get(doc), docTitles.get(doc), docSpaceKeys.get(doc),
+                i == 0 ? 1.0 : similarity(first, doc)));
+            crossSpace |= !Objects.equals(docSpaceKeys.get(doc), docSpaceKeys.get(first));
+        }
+        return new DuplicateCluster(pages, crossSpace);
+    }
+    
+    private static double lowestSimilarity(DuplicateCluster cluster) {
+        return cluster.pages().stream().mapToDouble(DuplicatePage::similarity).min().orElse(0);
+    }
+    
+    private void addDoc(String pageId, String title, String spaceKey, int[] signature) {
+        int doc = docPageIds.size();
+        docPageIds.add(pageId);
+        docTitles.add(title);
+        docSpaceKeys.add(spaceKey);
+        if ((doc + 1) * SIGNATURE_SIZE > signatures.length) {
+            signatures = Arrays.copyOf(signatures, Math.max(signatures.length * 2, (doc + 1) * SIGNATURE_SIZE));
+        }
+        System.arraycopy(signature, 0, signatures, doc * SIGNATURE_SIZE, SIGNATURE_SIZE);
+        pageDocIds.put(pageId, doc);
+        liveDocs.set(doc);
+        
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS_PER_BAND; row++) {
+                key = mix(key * 31 + signature[band * ROWS_PER_BAND + row]);
+            }
+            buckets.computeIfAbsent(key, k -> new IntList(2)).add(doc);
+        }
+    }
+    
+    private void compactIfNeeded() {
+        if (tombstones < MIN_TOMBSTONES_FOR_COMPACTION || tombstones <= pageDocIds.size()) {
+            return;
+        }
+        List<String> pageIds = docPageIds;
+        List<String> titles = docTitles;
+        List<String> spaceKeys = docSpaceKeys;
+        int[] oldSignatures = signatures;
+        BitSet live = liveDocs;
+        Set<String> shortPages = shortPageIds;
+        
+        reset();
+        shortPageIds = shortPages;
+        int[] signature = new int[SIGNATURE_SIZE];
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            System.arraycopy(oldSignatures, doc * SIGNATURE_SIZE, signature, 0, SIGNATURE_SIZE);
+            addDoc(pageIds.get(doc), titles.get(doc), spaceKeys.get(doc), signature);
+        }
+        logger.debug("Compacted near-duplicate index to {} signatures", pageDocIds.size());
+    }
+    
+    private void reset() {
+        buckets = new HashMap<>();
+        docPageIds = new ArrayList<>();
+        docTitles = new ArrayList<>();
+        docSpaceKeys = new ArrayList<>();
+        signatures = new int[64 * SIGNATURE_SIZE];
+        pageDocIds = new HashMap<>();
+        liveDocs = new BitSet();
+        tombstones = 0;
+        shortPageIds = new HashSet<>();
+    }
+    
+    private static int find(int[] parent, int doc) {
+        while (parent[doc] != doc) {
+            parent[doc] = parent[parent[doc]];
+            doc = parent[doc];
+        }
+        return doc;
+    }
+    
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        // Keep the older page as the root so clusters are reported relative to the original
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        } else {
+            parent[rootA] = rootB;
+        }
+    }
+    
+    private static long hashWord(String word) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            hash ^= word.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+    
+    /**
+     * SplitMix64 finaliser
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,360 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cached page hierarchy of each crawled space.
+ * <p>
+ * Every space is held as a {@link SpaceTree}: parent lookup is a single array read, and the
+ * pre-order Euler tour turns "is this page under that one" into an interval check and a subtree
+ * listing into a contiguous scan. Trees are built off-lock from a crawl and swapped in whole;
+ * pages created through this server are added to an already cached tree in place.
+ */
+@Component
+public class PageHierarchy {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PageHierarchy.class);
+    
+    private static final String ANSI_GREEN = "\u001B[32m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    private static final int LARGEST_SUBTREES = 5;
+    
+    public record HierarchyEntry(
+        String pageId,
+        String parentId,
+        String title
+    ) {}
+    
+    public record TreeNode(
+        String pageId,
+        String title,
+        int depth,
+        int childCount,
+        int subtreeSize
+    ) {}
+    
+    public record PageTree(
+        String spaceKey,
+        String rootPageId,
+        List<TreeNode> nodes,
+        int totalPages,
+        boolean truncated,
+        boolean partial,
+        Instant crawledAt,
+        long tookMicros
+    ) {}
+    
+    public record HierarchyStats(
+        String spaceKey,
+        int pages,
+        int roots,
+        int maxDepth,
+        double averageDepth,
+        int leaves,
+        List<TreeNode> largestSubtrees,
+        boolean partial,
+        Instant crawledAt
+    ) {}
+    
+    private static final class CachedSpace {
+        final SpaceTree tree;
+        final Instant crawledAt;
+        final boolean partial;
+        
+        CachedSpace(SpaceTree tree, Instant crawledAt, boolean partial) {
+            this.tree = tree;
+            this.crawledAt = crawledAt;
+            this.partial = partial;
+        }
+    }
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, CachedSpace> spaces = new HashMap<>();
+    private final Map<String, String> pageSpaces = new HashMap<>();
+    
+    /**
+     * Replaces the cached tree of a space with a freshly crawled one.
+     * Entries may arrive in any order; pages whose parent was not crawled become roots.
+     */
+    public void replaceSpace(String spaceKey, List<HierarchyEntry> entries, boolean partial) {
+        SpaceTree tree = new SpaceTree();
+        // Register every page first so parents that arrive after their children still resolve
+        for (HierarchyEntry entry : entries) {
+            tree.put(entry.pageId(), null, entry.title());
+        }
+        for (HierarchyEntry entry : entries) {
+            tree.put(entry.pageId(), entry.parentId(), null);
+        }
+        tree.rebuildTour();
+        
+        lock.writeLock().lock();
+        try {
+            CachedSpace previous = spaces.put(spaceKey, new CachedSpace(tree, Instant.now(), partial));
+            if (previous != null) {
+                for (int node = 0; node < previous.tree.size(); node++) {
+                    pageSpaces.remove(previous.tree.pageId(node), spaceKey);
+                }
+            }
+            for (int node = 0; node < tree.size(); node++) {
+                pageSpaces.put(tree.pageId(node), spaceKey);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Cached hierarchy of space {}: {} pages, {} roots{}", spaceKey, tree.size(), tree.roots(),
+            partial ? " (partial)" : "");
+    }
+    
+    /**
+     * Adds or moves a page in the cached tree of its space; ignored when the space is not cached
+     */
+    public boolean recordPage(String spaceKey, String pageId, String parentId, String title) {
+        if (spaceKey == null || pageId == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            CachedSpace cached = spaces.get(spaceKey);
+            if (cached == null) {
+                return false;
+            }
+            cached.tree.put(pageId, parentId, title);
+            cached.tree.rebuildTour();
+            pageSpaces.put(pageId, spaceKey);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void evictSpace(String spaceKey) {
+        lock.writeLock().lock();
+        try {
+            CachedSpace previous = spaces.remove(spaceKey);
+            if (previous != null) {
+                for (int node = 0; node < previous.tree.size(); node++) {
+                    pageSpaces.remove(previous.tree.pageId(node), spaceKey);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * When the space's tree was crawled, or null if it is not cached
+     */
+    public Instant crawledAt(String spaceKey) {
+        lock.readLock().lock();
+        try {
+            CachedSpace cached = spaces.get(spaceKey);
+            return cached != null ? cached.crawledAt : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public String spaceOf(String pageId) {
+        lock.readLock().lock();
+        try {
+            return pageSpaces.get(pageId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * The parent page ID, or null for top-level and unknown pages
+     */
+    public String parentOf(String pageId) {
+        lock.readLock().lock();
+        try {
+            SpaceTree tree = treeOf(pageId);
+            if (tree == null) {
+                return null;
+            }
+            return tree.pageId(tree.parent(tree.node(pageId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * The ancestors of a page from the top-level page down to its parent; empty if unknown
+     */
+    public List<TreeNode> ancestors(String pageId) {
+        lock.readLock().lock();
+        try {
+            SpaceTree tree = treeOf(pageId);
+            if (tree == null) {
+                return List.of();
+            }
+            List<TreeNode> ancestors = new ArrayList<>();
+            for (int node = tree.parent(tree.node(pageId)); node != SpaceTree.NO_NODE; node = tree.parent(node)) {
+                ancestors.add(treeNode(tree, node, tree.depth(node)));
+            }
+            return ancestors.reversed();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Whether {@code pageId} is {@code ancestorId} or lies anywhere below it
+     */
+    public boolean isInSubtree(String ancestorId, String pageId) {
+        lock.readLock().lock();
+        try {
+            String spaceKey = pageSpaces.get(pageId);
+            if (spaceKey == null || !spaceKey.equals(pageSpaces.get(ancestorId))) {
+                return false;
+            }
+            SpaceTree tree = spaces.get(spaceKey).tree;
+            return tree.inSubtree(tree.node(ancestorId), tree.node(pageId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Pre-order listing of a subtree, or the whole space when {@code rootPageId} is null.
+     * Pages deeper than {@code maxDepth} below the root are skipped along with their subtrees.
+     *
+     * @return null if the space is not cached or the root page is not in it
+     */
+    public PageTree subtree(String spaceKey, String rootPageId, int maxDepth, int limit) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            CachedSpace cached = spaces.get(spaceKey);
+            if (cached == null) {
+                return null;
+            }
+            SpaceTree tree = cached.tree;
+            int from;
+            int to;
+            int baseDepth;
+            if (rootPageId != null) {
+                int root = tree.node(rootPageId);
+                if (root == StringDictionary.NO_CODE) {
+                    return null;
+                }
+                from = tree.entry(root);
+                to = from + tree.subtreeSize(root);
+                baseDepth = tree.depth(root);
+            } else {
+                from = 0;
+                to = tree.size();
+                baseDepth = 0;
+            }
+            
+            List<TreeNode> nodes = new ArrayList<>();
+            boolean truncated = false;
+            int position = from;
+            while (position < to) {
+                int node = tree.nodeAt(position);
+                int depth = tree.depth(node) - baseDepth;
+                if (depth > maxDepth) {
+                    // The subtree occupies the next subtreeSize positions of the tour
+                    position += tree.subtreeSize(node);
+                    truncated = true;
+                    continue;
+                }
+                if (nodes.size() >= limit) {
+                    truncated = true;
+                    break;
+                }
+                nodes.add(treeNode(tree, node, depth));
+                position++;
+            }
+            
+            return new PageTree(spaceKey, rootPageId, nodes, to - from, truncated, cached.partial,
+                cached.crawledAt, (System.nanoTime() - start) / 1000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Shape of a cached space tree, or null if the space is not cached
+     */
+    public HierarchyStats stats(String spaceKey) {
+        lock.readLock().lock();
+        try {
+            CachedSpace cached = spaces.get(spaceKey);
+            if (cached == null) {
+                return null;
+            }
+            SpaceTree tree = cached.tree;
+            int maxDepth = 0;
+            long depthSum = 0;
+            int leaves = 0;
+            PriorityQueue<Integer> largest = new PriorityQueue<>(Comparator.comparingInt(tree::subtreeSize));
+            for (int node = 0; node < tree.size(); node++) {
+                int depth = tree.depth(node);
+                maxDepth = Math.max(maxDepth, depth);
+                depthSum += depth;
+                if (tree.subtreeSize(node) == 1) {
+                    leaves++;
+                } else {
+                    largest.add(node);
+                    if (largest.size() > LARGEST_SUBTREES) {
+                        largest.poll();
+                    }
+                }
+            }
+            List<TreeNode> largestSubtrees = new ArrayList<>();
+            while (!largest.isEmpty()) {
+                int node = largest.poll();
+                largestSubtrees.add(treeNode(tree, node, tree.depth(node)));
+            }
+            
+            return new HierarchyStats(spaceKey, tree.size(), tree.roots(), maxDepth,
+                tree.size() > 0 ? (double) depthSum / tree.size() : 0, leaves, largestSubtrees.reversed(),
+                cached.partial, cached.crawledAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public String getFormattedStats() {
+        int spaceCount;
+        int pages = 0;
+        lock.readLock().lock();
+        try {
+            spaceCount = spaces.size();
+            for (CachedSpace cached : spaces.values()) {
+                pages += cached.tree.size();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ANSI_BOLD + ANSI_GREEN + "🌳 Page Hierarchy" + ANSI_RESET + "\n" +
+               "   └─ Spaces: " + ANSI_YELLOW + spaceCount + ANSI_RESET +
+               ", Pages: " + ANSI_YELLOW + pages + ANSI_RESET;
+    }
+    
+    private SpaceTree treeOf(String pageId) {
+        String spaceKey = pageSpaces.get(pageId);
+        return spaceKey != null ? spaces.get(spaceKey).tree : null;
+    }
+    
+    private static TreeNode treeNode(SpaceTree tree, int node, int depth) {
+        return new TreeNode(tree.pageId(node), tree.title(node), depth, tree.childCount(node), tree.subtreeSize(node));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,552 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
+import io.github.greenstevester.confluencemcpsvr.sync.PageChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Directed graph of links between mirrored pages, stored in compressed sparse row form.
+ * <p>
+ * Edges point from a page to link target keys (a page ID or a space and title, see
+ * {@link LinkExtractor}) rather than to pages, so a link written before its target page is mirrored
+ * resolves as soon as the target appears, and a renamed page picks up links to its new title.
+ * Keys resolve to pages through a flat int array. The forward rows and the reverse key-to-source
+ * rows live in primitive arrays; a changed page's row goes into a small overlay that is merged
+ * into fresh arrays once it grows past a quarter of the base edges.
+ */
+@Component
+public class PageLinkGraph implements PageChangeListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PageLinkGraph.class);
+    
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    private static final int[] NO_TARGETS = new int[0];
+    private static final int MIN_OVERLAY_FOR_COMPACTION = 4096;
+    // Neighbours with more links than this are not expanded when looking for related pages
+    private static final int MAX_EXPANSION = 1000;
+    
+    /**
+     * A page in a link report
+     *
+     * @param count inbound links for hubs, shared neighbours for related pages, otherwise zero
+     */
+    public record LinkedPage(
+        String pageId,
+        String title,
+        String spaceKey,
+        int count
+    ) {}
+    
+    public record LinkAnalysis(
+        int pages,
+        long links,
+        long danglingLinks,
+        int orphanCount,
+        int deadEndCount,
+        List<LinkedPage> orphans,
+        List<LinkedPage> deadEnds,
+        List<LinkedPage> hubs,
+        long tookMicros
+    ) {}
+    
+    public record Neighbourhood(
+        LinkedPage page,
+        List<LinkedPage> outgoing,
+        List<LinkedPage> incoming,
+        List<LinkedPage> related,
+        long tookMicros
+    ) {}
+    
+    public record LinkGraphStats(
+        int pages,
+        int baseEdges,
+        int overlayEdges,
+        int targetKeys,
+        long memoryBytes
+    ) {}
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private final StringDictionary nodeIds = new StringDictionary();
+    private final List<String> nodeTitles = new ArrayList<>();
+    private final List<String> nodeSpaceKeys = new ArrayList<>();
+    private final IntList nodeIdKeys = new IntList(64);
+    private final IntList nodeTitleKeys = new IntList(64);
+    private final BitSet liveNodes = new BitSet();
+    
+    private final StringDictionary keys = new StringDictionary();
+    // Node + 1 for each target key, so the zero fill of new slots means unresolved
+    private final IntList keyNodes = new IntList(64);
+    
+    private int baseNodeCount;
+    private int[] baseOffsets = new int[1];
+    private int[] baseTargets = NO_TARGETS;
+    private int baseKeyCount;
+    private int[] reverseOffsets = new int[1];
+    private int[] reverseSources = NO_TARGETS;
+    
+    private int[][] overlay = new int[64][];
+    private final BitSet overlaid = new BitSet();
+    private int overlayEdges;
+    
+    public PageLinkGraph(LocalPageStore pageStore) {
+        pageStore.addListener(this);
+    }
+    
+    @Override
+    public void onPageUpserted(MirroredPage page, MirroredPage previous) {
+        if (previous != null && previous.version() == page.version()
+                && Objects.equals(previous.title(), page.title())
+                && Objects.equals(previous.spaceKey(), page.spaceKey())) {
+            return;
+        }
+        record(page.id(), page.title(), page.spaceKey(), page.body());
+    }
+    
+    @Override
+    public void onPageRemoved(MirroredPage page) {
+        remove(page.id());
+    }
+    
+    /**
+     * Adds or replaces a page and its outgoing links from its storage-format body
+     */
+    public void record(String pageId, String title, String spaceKey, String storageBody) {
+        if (pageId == null || title == null) {
+            return;
+        }
+        Set<String> targetKeys = LinkExtractor.extractTargets(storageBody, spaceKey);
+        
+        lock.writeLock().lock();
+        try {
+            int node = nodeIds.encode(pageId);
+            if (node == nodeTitles.size()) {
+                nodeTitles.add(title);
+                nodeSpaceKeys.add(spaceKey);
+                nodeIdKeys.set(node, keys.encode(LinkExtractor.idKey(pageId)));
+                nodeTitleKeys.set(node, StringDictionary.NO_CODE);
+            } else {
+                nodeTitles.set(node, title);
+                nodeSpaceKeys.set(node, spaceKey);
+            }
+            
+            int titleKey = keys.encode(LinkExtractor.titleKey(spaceKey, title));
+            int previousTitleKey = nodeTitleKeys.get(node);
+            if (previousTitleKey != titleKey && previousTitleKey != StringDictionary.NO_CODE) {
+                unbindKey(previousTitleKey, node);
+            }
+            nodeTitleKeys.set(node, titleKey);
+            bindKey(nodeIdKeys.get(node), node);
+            bindKey(titleKey, node);
+            liveNodes.set(node);
+            
+            int[] targets = new int[targetKeys.size()];
+            int count = 0;
+            for (String targetKey : targetKeys) {
+                int key = keys.encode(targetKey);
+                if (key != titleKey && key != nodeIdKeys.get(node)) {
+                    targets[count++] = key;
+                }
+            }
+            targets = Arrays.copyOf(targets, count);
+            Arrays.sort(targets);
+            setTargets(node, targets);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(String pageId) {
+        lock.writeLock().lock();
+        try {
+            int node = nodeIds.lookup(pageId);
+            if (node == StringDictionary.NO_CODE || !liveNodes.get(node)) {
+                return;
+            }
+            unbindKey(nodeIdKeys.get(node), node);
+            unbindKey(nodeTitleKeys.get(node), node);
+            liveNodes.clear(node);
+            setTargets(node, NO_TARGETS);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveNodes.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Orphans (no inbound links), dead ends (no outbound links to mirrored pages) and the most
+     * linked-to hubs among the pages of the given spaces
+     *
+     * @param spaceKeys spaces to report on, or null/empty for all; links from any space count
+     * @param limit maximum pages listed per category
+     */
+    public LinkAnalysis analyze(Collection<String> spaceKeys, int limit) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int nodeCount = nodeTitles.size();
+            int[] inDegree = new int[nodeCount];
+            int[] outDegree = new int[nodeCount];
+            long links = 0;
+            long dangling = 0;
+            IntList resolved = new IntList(16);
+            
+            for (int node = liveNodes.nextSetBit(0); node >= 0; node = liveNodes.nextSetBit(node + 1)) {
+                dangling += resolveTargets(node, resolved);
+                for (int i = 0; i < resolved.size(); i++) {
+                    inDegree[resolved.get(i)]++;
+                }
+                outDegree[node] = resolved.size();
+                links += resolved.size();
+            }
+            
+            IntList orphans = new IntList(16);
+            IntList deadEnds = new IntList(16);
+            IntList linked = new IntList(16);
+            for (int node = liveNodes.nextSetBit(0); node >= 0; node = liveNodes.nextSetBit(node + 1)) {
+                if (spaceKeys != null && !spaceKeys.isEmpty() && !spaceKeys.contains(nodeSpaceKeys.get(node))) {
+                    continue;
+                }
+                if (inDegree[node] == 0) {
+                    orphans.add(node);
+                } else {
+                    linked.add(node);
+                }
+                if (outDegree[node] == 0) {
+                    deadEnds.add(node);
+                }
+            }
+            
+            // Rank hubs by packing in-degree above the node so a primitive sort orders them
+            long[] ranked = new long[linked.size()];
+            for (int i = 0; i < linked.size(); i++) {
+                int node = linked.get(i);
+                ranked[i] = ((long) inDegree[node] << 32) | node;
+            }
+            Arrays.sort(ranked);
+            List<LinkedPage> hubs = new ArrayList<>();
+            for (int i = ranked.length - 1; i >= 0 && hubs.size() < limit; i--) {
+                int node = (int) ranked[i];
+                hubs.add(linkedPage(node, inDegree[node]));
+            }
+            
+            return new LinkAnalysis(liveNodes.cardinality(), links, dangling, orphans.size(), deadEnds.size(),
+                byTitle(orphans, limit), byTitle(deadEnds, limit), hubs, (System.nanoTime() - start) / 1000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Pages a page links to, pages linking to it, and pages related through shared neighbours
+     *
+     * @return null when the page is not in the graph
+     */
+    public Neighbourhood neighbourhood(String pageId, int limit) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int node = nodeIds.lookup(pageId);
+            if (node == StringDictionary.NO_CODE || !liveNodes.get(node)) {
+                return null;
+            }
+            
+            IntList outgoing = new IntList(16);
+            resolveTargets(node, outgoing);
+            IntList incoming = incomingSources(node);
+            
+            // Count, for every page two steps away, how many direct neighbours it shares
+            BitSet direct = new BitSet();
+            direct.set(node);
+            for (int i = 0; i < outgoing.size(); i++) {
+                direct.set(outgoing.get(i));
+            }
+            for (int i = 0; i < incoming.size(); i++) {
+                direct.set(incoming.get(i));
+            }
+            int[] shared = new int[nodeTitles.size()];
+            IntList touched = new IntList(16);
+            IntList scratch = new IntList(16);
+            for (int neighbour = direct.nextSetBit(0); neighbour >= 0; neighbour = direct.nextSetBit(neighbour + 1)) {
+                if (neighbour == node) {
+                    continue;
+                }
+                resolveTargets(neighbour, scratch);
+                countShared(scratch, direct, shared, touched);
+                countShared(incomingSources(neighbour), direct, shared, touched);
+            }
+            
+            long[] ranked = new long[touched.size()];
+            for (int i = 0; i < touched.size(); i++) {
+                int candidate = touched.get(i);
+                // Ties go to the lower node, i.e. the page seen first
+                ranked[i] = ((long) shared[candidate] << 32) | (Integer.MAX_VALUE - candidate);
+            }
+            Arrays.sort(ranked);
+            List<LinkedPage> related = new ArrayList<>();
+            for (int i = ranked.length - 1; i >= 0 && related.size() < limit; i--) {
+                int candidate = Integer.MAX_VALUE - (int) ranked[i];
+                related.add(linkedPage(candidate, shared[candidate]));
+            }
+            
+            return new Neighbourhood(linkedPage(node, 0), byTitle(outgoing, limit), byTitle(incoming, limit),
+                related, (System.nanoTime() - start) / 1000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public LinkGraphStats getStats() {
+        lock.readLock().lock();
+        try {
+            long memory = 4L * (baseOffsets.length + baseTargets.length + reverseOffsets.length + reverseSources.length)
+                + 4L * overlayEdges + 16L * overlaid.cardinality()
+                + keyNodes.memoryBytes() + nodeIdKeys.memoryBytes() + nodeTitleKeys.memoryBytes();
+            return new LinkGraphStats(liveNodes.cardinality(), baseTargets.length, overlayEdges, keys.size(), memory);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public String getFormattedStats() {
+        LinkGraphStats stats = getStats();
+        return ANSI_BOLD + ANSI_CYAN + "🕸️ Page Link Graph" + ANSI_RESET + "\n" +
+               "   ├─ Pages: " + ANSI_YELLOW + stats.pages() + ANSI_RESET +
+               ", Link targets: " + stats.targetKeys() + "\n" +
+               "   └─ Edges: " + ANSI_YELLOW + (stats.baseEdges() + stats.overlayEdges()) + ANSI_RESET +
+               " (" + stats.overlayEdges() + " in overlay), ~" + (stats.memoryBytes() / 1024) + "KB";
+    }
+    
+    /**
+     * Fills {@code out} with the distinct mirrored pages a node links to
+     *
+     * @return the number of link targets that do not resolve to a mirrored page
+     */
+    private int resolveTargets(int node, IntList out) {
+        out.clear();
+        int dangling = 0;
+        int[] targets;
+        int from;
+        int to;
+        if (overlaid.get(node)) {
+            targets = overlay[node];
+            from = 0;
+            to = targets.length;
+        } else if (node < baseNodeCount) {
+            targets = baseTargets;
+            from = baseOffsets[node];
+            to = baseOffsets[node + 1];
+        } else {
+            return 0;
+        }
+        for (int i = from; i < to; i++) {
+            int target = resolve(targets[i]);
+            if (target < 0) {
+                dangling++;
+            } else if (target != node) {
+                out.add(target);
+            }
+        }
+        // A page can be linked by both ID and title, so drop repeats
+        if (out.size() > 1) {
+            int[] sorted = out.toArray();
+            Arrays.sort(sorted);
+            out.clear();
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    out.add(sorted[i]);
+                }
+            }
+        }
+        return dangling;
+    }
+    
+    /**
+     * Distinct live pages with a link to the node's ID or current title
+     */
+    private IntList incomingSources(int node) {
+        int idKey = nodeIdKeys.get(node);
+        int titleKey = nodeTitleKeys.get(node);
+        IntList sources = new IntList(16);
+        for (int key : new int[] {idKey, titleKey}) {
+            if (key < 0 || key >= baseKeyCount) {
+                continue;
+            }
+            for (int i = reverseOffsets[key]; i < reverseOffsets[key + 1]; i++) {
+                int source = reverseSources[i];
+                if (source != node && !overlaid.get(source) && liveNodes.get(source)) {
+                    sources.add(source);
+                }
+            }
+        }
+        for (int source = overlaid.nextSetBit(0); source >= 0; source = overlaid.nextSetBit(source + 1)) {
+            if (source == node || !liveNodes.get(source)) {
+                continue;
+            }
+            int[] targets = overlay[source];
+            if (Arrays.binarySearch(targets, idKey) >= 0 || (titleKey >= 0 && Arrays.binarySearch(targets, titleKey) >= 0)) {
+                sources.add(source);
+            }
+        }
+        
+        int[] sorted = sources.toArray();
+        Arrays.sort(sorted);
+        sources.clear();
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sources.add(sorted[i]);
+            }
+        }
+        return sources;
+    }
+    
+    private void countShared(IntList candidates, BitSet direct, int[] shared, IntList touched) {
+        if (candidates.size() > MAX_EXPANSION) {
+            return;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            int candidate = candidates.get(i);
+            if (!direct.get(candidate) && shared[candidate]++ == 0) {
+                touched.add(candidate);
+            }
+        }
+    }
+    
+    private int resolve(int key) {
+        return key < keyNodes.size() ? keyNodes.get(key) - 1 : -1;
+    }
+    
+    private void bindKey(int key, int node) {
+        keyNodes.set(key, node + 1);
+    }
+    
+    private void unbindKey(int key, int node) {
+        if (key >= 0 && resolve(key) == node) {
+            keyNodes.set(key, 0);
+        }
+    }
+    
+    private void setTargets(int node, int[] targets) {
+        if (node >= overlay.length) {
+            overlay = Arrays.copyOf(overlay, Math.max(node + 1, overlay.length * 2));
+        }
+        if (overlaid.get(node)) {
+            overlayEdges -= overlay[node].length;
+        }
+        overlay[node] = targets;
+        overlaid.set(node);
+        overlayEdges += targets.length;
+        compactIfNeeded();
+    }
+    
+    private void compactIfNeeded() {
+        int overlaySize = overlayEdges + overlaid.cardinality();
+        if (overlaySize < Math.max(MIN_OVERLAY_FOR_COMPACTION, baseTargets.length / 4)) {
+            return;
+        }
+        compact();
+    }
+    
+    /**
+     * Merges the overlay into new forward and reverse arrays
+     */
+    void compact() {
+        int nodeCount = nodeTitles.size();
+        int[] offsets = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] = offsets[node] + rowLength(node);
+        }
+        int[] targets = new int[offsets[nodeCount]];
+        for (int node = 0; node < nodeCount; node++) {
+            if (overlaid.get(node)) {
+                System.arraycopy(overlay[node], 0, targets, offsets[node], overlay[node].length);
+            } else if (node < baseNodeCount) {
+                System.arraycopy(baseTargets, baseOffsets[node], targets, offsets[node], baseOffsets[node + 1] - baseOffsets[node]);
+            }
+        }
+        
+        int keyCount = keys.size();
+        int[] keyOffsets = new int[keyCount + 1];
+        for (int target : targets) {
+            keyOffsets[target + 1]++;
+        }
+        for (int key = 0; key < keyCount; key++) {
+            keyOffsets[key + 1] += keyOffsets[key];
+        }
+        int[] sources = new int[targets.length];
+        int[] fill = Arrays.copyOf(keyOffsets, keyCount);
+        for (int node = 0; node < nodeCount; node++) {
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                sources[fill[targets[i]]++] = node;
+            }
+        }
+        
+        baseNodeCount = nodeCount;
+        baseOffsets = offsets;
+        baseTargets = targets;
+        baseKeyCount = keyCount;
+        reverseOffsets = keyOffsets;
+        reverseSources = sources;
+        overlay = new int[Math.max(64, overlay.length)][];
+        overlaid.clear();
+        overlayEdges = 0;
+        logger.debug("Compacted link graph to {} pages and {} edges", liveNodes.cardinality(), targets.length);
+    }
+    
+    private int rowLength(int node) {
+        if (overlaid.get(node)) {
+            return overlay[node].length;
+        }
+        return node < baseNodeCount ? baseOffsets[node + 1] - baseOffsets[node] : 0;
+    }
+    
+    private LinkedPage linkedPage(int node, int count) {
+        return new LinkedPage(nodeIds.decode(node), nodeTitles.get(node), nodeSpaceKeys.get(node), count);
+    }
+    
+    /**
+     * The first {@code limit} nodes in title order, keeping only that many while scanning
+     */
+    private List<LinkedPage> byTitle(IntList nodes, int limit) {
+        Comparator<Integer> titleOrder = Comparator.comparing(nodeTitles::get, String.CASE_INSENSITIVE_ORDER);
+        PriorityQueue<Integer> kept = new PriorityQueue<>(titleOrder.reversed());
+        for (int i = 0; i < nodes.size() && limit > 0; i++) {
+            kept.add(nodes.get(i));
+            if (kept.size() > limit) {
+                kept.poll();
+            }
+        }
+        List<LinkedPage> pages = new ArrayList<>(kept.size());
+        while (!kept.isEmpty()) {
+            pages.add(linkedPage(kept.poll(), 0));
+        }
+        return pages.reversed();
+    }
+}
\ No newline at end of file
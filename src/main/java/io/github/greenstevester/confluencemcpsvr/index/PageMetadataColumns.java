@@ -0,0 +1,438 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.model.common.Version;
+import io.github.greenstevester.confluencemcpsvr.model.page.Page;
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
+import io.github.greenstevester.confluencemcpsvr.sync.PageChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column-oriented store of page metadata used for freshness and age analytics.
+ * <p>
+ * Each attribute lives in its own primitive array indexed by row, with space keys and authors
+ * dictionary-encoded to int codes, so scans over 100k+ pages touch a few contiguous arrays and
+ * never materialise objects. Rows are fed by the local mirror and by page listings; replaced
+ * rows are updated in place and removed rows are cleared from the live set until compaction.
+ */
+@Component
+public class PageMetadataColumns implements PageChangeListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PageMetadataColumns.class);
+    
+    private static final String ANSI_BLUE = "\u001B[34m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_DEAD_ROWS_FOR_COMPACTION = 1000;
+    private static final int UNKNOWN_SIZE = -1;
+    
+    /**
+     * One page's metadata, materialised from the columns for query results
+     */
+    public record MetadataRow(
+        String pageId,
+        String spaceKey,
+        Instant lastModified,
+        int version,
+        String authorId,
+        int size
+    ) {}
+    
+    /**
+     * Age percentiles for the pages of one space
+     */
+    public record SpaceStaleness(
+        String spaceKey,
+        int pages,
+        Duration medianAge,
+        Duration p90Age,
+        Duration maxAge
+    ) {}
+    
+    public record ColumnStats(
+        int rows,
+        int deadRows,
+        int spaces,
+        int authors,
+        long memoryBytes,
+        long recordedFromMirror,
+        long recordedFromListings
+    ) {}
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong recordedFromMirror = new AtomicLong(0);
+    private final AtomicLong recordedFromListings = new AtomicLong(0);
+    
+    private final StringDictionary spaces = new StringDictionary();
+    private final StringDictionary authors = new StringDictionary();
+    private final Map<String, Integer> rowsByPageId = new HashMap<>();
+    private final BitSet liveRows = new BitSet();
+    
+    private String[] pageIds = new String[INITIAL_CAPACITY];
+    private int[] spaceCodes = new int[INITIAL_CAPACITY];
+    private int[] authorCodes = new int[INITIAL_CAPACITY];
+    private long[] lastModifiedMillis = new long[INITIAL_CAPACITY];
+    private int[] versions = new int[INITIAL_CAPACITY];
+    private int[] sizes = new int[INITIAL_CAPACITY];
+    private int rowCount;
+    
+    public PageMetadataColumns(LocalPageStore pageStore) {
+        pageStore.addListener(this);
+    }
+    
+    @Override
+    public void onPageUpserted(MirroredPage page, MirroredPage previous) {
+        if (record(page.id(), page.spaceKey(), page.lastModified(), page.version(), page.authorId(),
+                page.body() != null ? page.body().length() : UNKNOWN_SIZE)) {
+            recordedFromMirror.incrementAndGet();
+        }
+    }
+    
+    @Override
+    public void onPageRemoved(MirroredPage page) {
+        remove(page.id());
+    }
+    
+    /**
+     * Records the metadata carried by a page listing; pages without version info are skipped
+     */
+    public void recordListing(Collection<Page> pages) {
+        if (pages == null) {
+            return;
+        }
+        for (Page page : pages) {
+            Version version = page.version();
+            if (page.id() == null || version == null) {
+                continue;
+            }
+            Instant lastModified = version.when() != null ? version.when().toInstant()
+                : version.createdAt() != null ? version.createdAt().toInstant(ZoneOffset.UTC) : null;
+            String author = version.authorAccountId() != null ? version.authorAccountId() : page.authorId();
+            int size = page.body() != null && page.body().storage() != null && page.body().storage().value() != null
+                ? page.body().storage().value().length() : UNKNOWN_SIZE;
+            
+            if (record(page.id(), page.spaceKeyOrId(), lastModified, version.number(), author, size)) {
+                recordedFromListings.incrementAndGet();
+            }
+        }
+    }
+    
+    /**
+     * Inserts or updates a page's row. Older versions than the one already held are ignored,
+     * and an unknown size keeps the size recorded earlier.
+     *
+     * @return whether the row was written
+     */
+    public boolean record(String pageId, String spaceKey, Instant lastModified, int version,
+                          String authorId, int size) {
+        if (pageId == null || lastModified == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer existing = rowsByPageId.get(pageId);
+            int row;
+            if (existing != null) {
+                row = existing;
+                if (versions[row] > version) {
+                    return false;
+                }
+                if (size == UNKNOWN_SIZE) {
+                    size = sizes[row];
+                }
+            } else {
+                row = appendRow(pageId);
+            }
+            spaceCodes[row] = spaces.encode(spaceKey);
+            authorCodes[row] = authors.encode(authorId);
+            lastModifiedMillis[row] = lastModified.toEpochMilli();
+            versions[row] = version;
+            sizes[row] = size;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(String pageId) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsByPageId.remove(pageId);
+            if (row != null) {
+                liveRows.clear(row);
+                pageIds[row] = null;
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowsByPageId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    /**
+     * Counts pages by age. Bucket {@code i} holds pages younger than {@code upperBounds[i]} that
+     * did not fit an earlier bucket; the extra last bucket holds everything older.
+     *
+     * @param upperBounds ascending bucket limits
+     * @param spaceKeys spaces to include, or null/empty for all
+     */
+    public int[] ageHistogram(Instant now, List<Duration> upperBounds, Collection<String> spaceKeys) {
+        long[] limits = upperBounds.stream().mapToLong(Duration::toMillis).toArray();
+        int[] counts = new int[limits.length + 1];
+        long nowMillis = now.toEpochMilli();
+        
+        lock.readLock().lock();
+        try {
+            BitSet spaceFilter = spaceFilter(spaceKeys);
+            for (int row = liveRows.nextSetBit(0); row >= 0; row = liveRows.nextSetBit(row + 1)) {
+                if (spaceFilter != null && !matchesSpace(spaceFilter, spaceCodes[row])) {
+                    continue;
+                }
+                long age = nowMillis - lastModifiedMillis[row];
+                int bucket = 0;
+                while (bucket < limits.length && age >= limits[bucket]) {
+                    bucket++;
+                }
+                counts[bucket]++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+    
+    /**
+     * Median, 90th percentile and maximum page age per space, stalest (by p90) first
+     */
+    public List<SpaceStaleness> spaceStaleness(Instant now) {
+        long nowMillis = now.toEpochMilli();
+        
+        lock.readLock().lock();
+        try {
+            // Counting-sort the ages by space into one array, then sort each space's segment
+            int spaceCount = spaces.size();
+            int[] offsets = new int[spaceCount + 1];
+            for (int row = liveRows.nextSetBit(0); row >= 0; row = liveRows.nextSetBit(row + 1)) {
+                if (spaceCodes[row] != StringDictionary.NO_CODE) {
+                    offsets[spaceCodes[row] + 1]++;
+                }
+            }
+            for (int code = 0; code < spaceCount; code++) {
+                offsets[code + 1] += offsets[code];
+            }
+            long[] ages = new long[offsets[spaceCount]];
+            int[] cursor = Arrays.copyOf(offsets, spaceCount);
+            for (int row = liveRows.nextSetBit(0); row >= 0; row = liveRows.nextSetBit(row + 1)) {
+                int code = spaceCodes[row];
+                if (code != StringDictionary.NO_CODE) {
+                    ages[cursor[code]++] = nowMillis - lastModifiedMillis[row];
+                }
+            }
+            
+            List<SpaceStaleness> result = new ArrayList<>();
+            for (int code = 0; code < spaceCount; code++) {
+                int from = offsets[code];
+                int to = offsets[code + 1];
+                if (from == to) {
+                    continue;
+                }
+                Arrays.sort(ages, from, to);
+                result.add(new SpaceStaleness(
+                    spaces.decode(code),
+                    to - from,
+                    Duration.ofMillis(percentile(ages, from, to, 0.5)),
+                    Duration.ofMillis(percentile(ages, from, to, 0.9)),
+                    Duration.ofMillis(ages[to - 1])
+                ));
+            }
+            result.sort(Comparator.comparing(SpaceStaleness::p90Age).reversed());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * The least recently modified pages, oldest first
+     *
+     * @param spaceKeys spaces to include, or null/empty for all
+     */
+    public List<MetadataRow> oldest(int limit, Collection<String> spaceKeys) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            BitSet spaceFilter = spaceFilter(spaceKeys);
+            // Max-heap on lastModified holding the current N oldest rows
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit,
+                (a, b) -> Long.compare(lastModifiedMillis[b], lastModifiedMillis[a]));
+            for (int row = liveRows.nextSetBit(0); row >= 0; row = liveRows.nextSetBit(row + 1)) {
+                if (spaceFilter != null && !matchesSpace(spaceFilter, spaceCodes[row])) {
+                    continue;
+                }
+                if (heap.size() < limit) {
+                    heap.add(row);
+                } else if (lastModifiedMillis[row] < lastModifiedMillis[heap.peek()]) {
+                    heap.poll();
+                    heap.add(row);
+                }
+            }
+            
+            List<MetadataRow> result = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                result.add(toRow(heap.poll()));
+            }
+            result.sort(Comparator.comparing(MetadataRow::lastModified));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public MetadataRow get(String pageId) {
+        lock.readLock().lock();
+        try {
+            Integer row = rowsByPageId.get(pageId);
+            return row != null ? toRow(row) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public ColumnStats getStats() {
+        lock.readLock().lock();
+        try {
+            int capacity = pageIds.length;
+            // Five primitive columns plus the page ID references
+            long memory = (long) capacity * (4 * 4 + 8 + 8);
+            return new ColumnStats(rowsByPageId.size(), rowCount - rowsByPageId.size(), spaces.size(),
+                authors.size(), memory, recordedFromMirror.get(), recordedFromListings.get());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public String getFormattedStats() {
+        ColumnStats stats = getStats();
+        return ANSI_BOLD + ANSI_BLUE + "🗂️ Page Metadata Columns" + ANSI_RESET + "\n" +
+               "   ├─ Pages: " + ANSI_YELLOW + stats.rows() + ANSI_RESET +
+               " in " + stats.spaces() + " spaces by " + stats.authors() + " authors\n" +
+               "   ├─ Recorded: " + stats.recordedFromMirror() + " from sync, " +
+               stats.recordedFromListings() + " from listings\n" +
+               "   └─ Memory: ~" + (stats.memoryBytes() / 1024) + "KB (" + stats.deadRows() + " dead rows)";
+    }
+    
+    private int appendRow(String pageId) {
+        if (rowCount == pageIds.length) {
+            grow(pageIds.length * 2);
+        }
+        int row = rowCount++;
+        pageIds[row] = pageId;
+        rowsByPageId.put(pageId, row);
+        liveRows.set(row);
+        return row;
+    }
+    
+    private void grow(int capacity) {
+        pageIds = Arrays.copyOf(pageIds, capacity);
+        spaceCodes = Arrays.copyOf(spaceCodes, capacity);
+        authorCodes = Arrays.copyOf(authorCodes, capacity);
+        lastModifiedMillis = Arrays.copyOf(lastModifiedMillis, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+    }
+    
+    private void compactIfNeeded() {
+        int dead = rowCount - rowsByPageId.size();
+        if (dead < MIN_DEAD_ROWS_FOR_COMPACTION || dead <= rowsByPageId.size()) {
+            return;
+        }
+        
+        int target = 0;
+        for (int row = liveRows.nextSetBit(0); row >= 0; row = liveRows.nextSetBit(row + 1)) {
+            pageIds[target] = pageIds[row];
+            spaceCodes[target] = spaceCodes[row];
+            authorCodes[target] = authorCodes[row];
+            lastModifiedMillis[target] = lastModifiedMillis[row];
+            versions[target] = versions[row];
+            sizes[target] = sizes[row];
+            rowsByPageId.put(pageIds[target], target);
+            target++;
+        }
+        Arrays.fill(pageIds, target, rowCount, null);
+        liveRows.clear();
+        liveRows.set(0, target);
+        logger.debug("Compacted page metadata columns from {} to {} rows", rowCount, target);
+        rowCount = target;
+    }
+    
+    private BitSet spaceFilter(Collection<String> spaceKeys) {
+        if (spaceKeys == null || spaceKeys.isEmpty()) {
+            return null;
+        }
+        BitSet filter = new BitSet();
+        for (String spaceKey : spaceKeys) {
+            int code = spaces.lookup(spaceKey);
+            if (code != StringDictionary.NO_CODE) {
+                filter.set(code);
+            }
+        }
+        return filter;
+    }
+    
+    private static boolean matchesSpace(BitSet filter, int code) {
+        return code != StringDictionary.NO_CODE && filter.get(code);
+    }
+    
+    private static long percentile(long[] sorted, int from, int to, double fraction) {
+        // Nearest-rank percentile over the sorted segment
+        int rank = (int) Math.ceil(fraction * (to - from));
+        return sorted[from + Math.max(0, rank - 1)];
+    }
+    
+    private MetadataRow toRow(int row) {
+        return new MetadataRow(
+            pageIds[row],
+            spaces.decode(spaceCodes[row]),
+            Instant.ofEpochMilli(lastModifiedMillis[row]),
+            versions[row],
+            authors.decode(authorCodes[row]),
+            sizes[row]
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.util.Arrays;
+
+/**
+ * Append-only posting list for one term, stored as a single byte array.
+ * Each posting is varint-encoded as (docId delta, term frequency, position deltas...),
+ * so doc IDs must be appended in increasing order.
+ */
+final class PostingList {
+    
+    private byte[] data = new byte[8];
+    private int length;
+    private int docCount;
+    private int lastDocId = -1;
+    
+    void add(int docId, IntList positions) {
+        if (docId <= lastDocId) {
+            throw new IllegalArgumentException("Doc IDs must increase: " + docId + " after " + lastDocId);
+        }
+        writeVInt(docId - lastDocId);
+        writeVInt(positions.size());
+        int lastPosition = 0;
+        for (int i = 0; i < positions.size(); i++) {
+            int position = positions.get(i);
+            writeVInt(position - lastPosition);
+            lastPosition = position;
+        }
+        lastDocId = docId;
+        docCount++;
+    }
+    
+    int docCount() {
+        return docCount;
+    }
+    
+    long memoryBytes() {
+        return 32L + data.length;
+    }
+    
+    Cursor cursor() {
+        return new Cursor();
+    }
+    
+    private void writeVInt(int value) {
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+    
+    /**
+     * Forward-only iterator over the postings of this list
+     */
+    final class Cursor {
+        
+        private int offset;
+        private int docId = -1;
+        private int frequency;
+        private int[] positions = new int[4];
+        
+        /**
+         * Move to the next posting
+         *
+         * @return false when the list is exhausted
+         */
+        boolean next() {
+            if (offset >= length) {
+                docId = Integer.MAX_VALUE;
+                return false;
+            }
+            docId += readVInt();
+            frequency = readVInt();
+            if (positions.length < frequency) {
+                positions = new int[Math.max(frequency, positions.length * 2)];
+            }
+            int position = 0;
+            for (int i = 0; i < frequency; i++) {
+                position += readVInt();
+                positions[i] = position;
+            }
+            return true;
+        }
+        
+        /**
+         * Move to the first posting with a doc ID at or after the target
+         */
+        boolean advance(int target) {
+            while (docId < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return docId != Integer.MAX_VALUE;
+        }
+        
+        int docId() {
+            return docId;
+        }
+        
+        int frequency() {
+            return frequency;
+        }
+        
+        /**
+         * Positions of the current posting; only the first {@link #frequency()} entries are valid
+         */
+        int[] positions() {
+            return positions;
+        }
+        
+        private int readVInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,209 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Path-compressed prefix trie mapping string keys to small sets of values.
+ * <p>
+ * Chains of single-child nodes are collapsed into one edge label, so the trie holds one node
+ * per branching point rather than one per character. Children are kept sorted by their first
+ * character and prefix collection walks them depth-first, shorter keys before their extensions.
+ * Not thread-safe; callers guard access.
+ */
+final class RadixTrie {
+    
+    private static final String[] NO_VALUES = new String[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    
+    private static final class Node {
+        String label;
+        Node[] children = NO_CHILDREN;
+        String[] values = NO_VALUES;
+        
+        Node(String label) {
+            this.label = label;
+        }
+    }
+    
+    private final Node root = new Node("");
+    private int entries;
+    private int nodes = 1;
+    
+    void insert(String key, String value) {
+        Node node = root;
+        String remaining = key;
+        while (!remaining.isEmpty()) {
+            int index = childIndex(node, remaining.charAt(0));
+            if (index < 0) {
+                Node leaf = new Node(remaining);
+                insertChild(node, -index - 1, leaf);
+                node = leaf;
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefixLength(child.label, remaining);
+            if (common < child.label.length()) {
+                // Split the edge so the shared part becomes its own node
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = new Node[] {child};
+                node.children[index] = split;
+                nodes++;
+                child = split;
+            }
+            node = child;
+            remaining = remaining.substring(common);
+        }
+        addValue(node, value);
+    }
+    
+    void remove(String key, String value) {
+        removeFrom(root, key, value);
+    }
+    
+    /**
+     * Collects distinct values of keys starting with the prefix into {@code out}
+     *
+     * @return whether more matching values existed beyond the limit
+     */
+    boolean collect(String prefix, int limit, Set<String> out) {
+        Node node = root;
+        String remaining = prefix;
+        while (!remaining.isEmpty()) {
+            int index = childIndex(node, remaining.charAt(0));
+            if (index < 0) {
+                return false;
+            }
+            Node child = node.children[index];
+            if (remaining.startsWith(child.label)) {
+                remaining = remaining.substring(child.label.length());
+                node = child;
+            } else if (child.label.startsWith(remaining)) {
+                node = child;
+                remaining = "";
+            } else {
+                return false;
+            }
+        }
+        return collectSubtree(node, limit, out);
+    }
+    
+    int size() {
+        return entries;
+    }
+    
+    int nodeCount() {
+        return nodes;
+    }
+    
+    private boolean collectSubtree(Node node, int limit, Set<String> out) {
+        for (String value : node.values) {
+            if (out.size() >= limit && !out.contains(value)) {
+                return true;
+            }
+            out.add(value);
+        }
+        for (Node child : node.children) {
+            if (collectSubtree(child, limit, out)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * @return whether the child node became empty and should be dropped by its parent
+     */
+    private boolean removeFrom(Node node, String remaining, String value) {
+        if (remaining.isEmpty()) {
+            removeValue(node, value);
+        } else {
+            int index = childIndex(node, remaining.charAt(0));
+            if (index < 0) {
+                return false;
+            }
+            Node child = node.children[index];
+            if (!remaining.startsWith(child.label)) {
+                return false;
+            }
+            if (removeFrom(child, remaining.substring(child.label.length()), value)) {
+                removeChild(node, index);
+            } else if (child.values.length == 0 && child.children.length == 1) {
+                // Re-compress a chain left behind by the removal
+                Node grandchild = child.children[0];
+                grandchild.label = child.label + grandchild.label;
+                node.children[index] = grandchild;
+                nodes--;
+            }
+        }
+        return node != root && node.values.length == 0 && node.children.length == 0;
+    }
+    
+    private static int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = node.children[mid].label.charAt(0);
+            if (midChar < first) {
+                low = mid + 1;
+            } else if (midChar > first) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+    
+    private void insertChild(Node node, int index, Node child) {
+        Node[] children = new Node[node.children.length + 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        children[index] = child;
+        System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+        node.children = children;
+        nodes++;
+    }
+    
+    private void removeChild(Node node, int index) {
+        Node[] children = new Node[node.children.length - 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        System.arraycopy(node.children, index + 1, children, index, node.children.length - index - 1);
+        node.children = children.length == 0 ? NO_CHILDREN : children;
+        nodes--;
+    }
+    
+    private void addValue(Node node, String value) {
+        for (String existing : node.values) {
+            if (existing.equals(value)) {
+                return;
+            }
+        }
+        node.values = Arrays.copyOf(node.values, node.values.length + 1);
+        node.values[node.values.length - 1] = value;
+        entries++;
+    }
+    
+    private void removeValue(Node node, String value) {
+        for (int i = 0; i < node.values.length; i++) {
+            if (node.values[i].equals(value)) {
+                String[] values = new String[node.values.length - 1];
+                System.arraycopy(node.values, 0, values, 0, i);
+                System.arraycopy(node.values, i + 1, values, i, node.values.length - i - 1);
+                node.values = values.length == 0 ? NO_VALUES : values;
+                entries--;
+                return;
+            }
+        }
+    }
+    
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+}
\ No newline at end of file
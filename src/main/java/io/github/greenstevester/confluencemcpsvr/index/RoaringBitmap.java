@@ -0,0 +1,552 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed bitmap of non-negative ints in the style of Roaring bitmaps.
+ * <p>
+ * Values are split by their high 16 bits into chunks. Sparse chunks hold a sorted {@code char[]}
+ * of low bits, and chunks with more than 4096 values switch to a 1024-word bitmap, so both
+ * small label sets and space-wide sets stay compact while AND/OR/ANDNOT run word- or
+ * merge-wise per chunk. Instances are not thread-safe; callers guard mutation.
+ */
+public final class RoaringBitmap {
+    
+    private static final int ARRAY_CONTAINER_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+    
+    public RoaringBitmap() {
+        this.keys = new char[4];
+        this.containers = new Container[4];
+    }
+    
+    public static RoaringBitmap of(int... values) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+    
+    public void add(int value) {
+        checkValue(value);
+        char high = (char) (value >>> 16);
+        int index = findKey(high);
+        if (index >= 0) {
+            containers[index] = containers[index].add((char) value);
+        } else {
+            insertContainer(-index - 1, high, new ArrayContainer().add((char) value));
+        }
+    }
+    
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+        int index = findKey((char) (value >>> 16));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove((char) value);
+        if (container.cardinality() == 0) {
+            removeContainer(index);
+        } else {
+            containers[index] = container;
+        }
+    }
+    
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = findKey((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+    
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Calls the consumer with every value in ascending order
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+    
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int[] position = {0};
+        forEach(value -> values[position[0]++] = value);
+        return values;
+    }
+    
+    /**
+     * Approximate heap footprint of the containers
+     */
+    public long sizeInBytes() {
+        long bytes = 16L + keys.length * 2L + containers.length * 8L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+    
+    public RoaringBitmap copy() {
+        RoaringBitmap copy = new RoaringBitmap();
+        copy.keys = Arrays.copyOf(keys, Math.max(4, size));
+        copy.containers = new Container[copy.keys.length];
+        for (int i = 0; i < size; i++) {
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.size = size;
+        return copy;
+    }
+    
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] == b.keys[j]) {
+                Container container = a.containers[i].and(b.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.appendContainer(a.keys[i], container);
+                }
+                i++;
+                j++;
+            } else if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return result;
+    }
+    
+    public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j >= b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.appendContainer(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i >= a.size || b.keys[j] < a.keys[i]) {
+                result.appendContainer(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.appendContainer(a.keys[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Values of {@code a} that are not in {@code b}
+     */
+    public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            Container container = j < b.size && b.keys[j] == a.keys[i]
+                ? a.containers[i].andNot(b.containers[j])
+                : a.containers[i].copy();
+            if (container.cardinality() > 0) {
+                result.appendContainer(a.keys[i], container);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RoaringBitmap bitmap && Arrays.equals(toArray(), bitmap.toArray());
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+    
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+    
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Bitmap values must be non-negative: " + value);
+        }
+    }
+    
+    private int findKey(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+    
+    private void insertContainer(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+    
+    private void appendContainer(char key, Container container) {
+        insertContainer(size, key, container);
+    }
+    
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+    
+    /**
+     * The values of one 2^16 chunk; operations may return a container of the other kind
+     */
+    private abstract static class Container {
+        
+        abstract Container add(char value);
+        
+        abstract Container remove(char value);
+        
+        abstract boolean contains(char value);
+        
+        abstract int cardinality();
+        
+        abstract void forEach(int high, IntConsumer consumer);
+        
+        abstract long sizeInBytes();
+        
+        abstract Container copy();
+        
+        Container and(Container other) {
+            ArrayContainer result = new ArrayContainer();
+            forEach(0, value -> {
+                if (other.contains((char) value)) {
+                    result.append((char) value);
+                }
+            });
+            return result;
+        }
+        
+        Container or(Container other) {
+            BitmapContainer result = toBitmap();
+            other.forEach(0, value -> result.set((char) value));
+            return result.shrinkIfSparse();
+        }
+        
+        Container andNot(Container other) {
+            ArrayContainer result = new ArrayContainer();
+            forEach(0, value -> {
+                if (!other.contains((char) value)) {
+                    result.append((char) value);
+                }
+            });
+            return result.growIfDense();
+        }
+        
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            forEach(0, value -> bitmap.set((char) value));
+            return bitmap;
+        }
+    }
+    
+    private static final class ArrayContainer extends Container {
+        
+        private char[] values;
+        private int cardinality;
+        
+        ArrayContainer() {
+            this(4);
+        }
+        
+        ArrayContainer(int capacity) {
+            this.values = new char[Math.max(4, capacity)];
+        }
+        
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_CONTAINER_MAX) {
+                BitmapContainer bitmap = toBitmap();
+                bitmap.set(value);
+                return bitmap;
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_CONTAINER_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+        
+        /**
+         * Appends a value greater than every value already held
+         */
+        void append(char value) {
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, cardinality * 2);
+            }
+            values[cardinality++] = value;
+        }
+        
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+                // Give memory back once the chunk has thinned out
+                if (values.length > 16 && cardinality < values.length / 4) {
+                    values = Arrays.copyOf(values, values.length / 2);
+                }
+            }
+            return this;
+        }
+        
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+        
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < cardinality; i++) {
+                consumer.accept(high | values[i]);
+            }
+        }
+        
+        @Override
+        long sizeInBytes() {
+            return 16L + values.length * 2L;
+        }
+        
+        @Override
+        Container copy() {
+            ArrayContainer copy = new ArrayContainer();
+            copy.values = Arrays.copyOf(values, Math.max(4, cardinality));
+            copy.cardinality = cardinality;
+            return copy;
+        }
+        
+        @Override
+        Container and(Container other) {
+            if (!(other instanceof ArrayContainer array)) {
+                return super.and(other);
+            }
+            // Merge intersection of two sorted arrays
+            ArrayContainer result = new ArrayContainer();
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < array.cardinality) {
+                if (values[i] == array.values[j]) {
+                    result.append(values[i]);
+                    i++;
+                    j++;
+                } else if (values[i] < array.values[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return result;
+        }
+        
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof ArrayContainer array) || cardinality + array.cardinality > ARRAY_CONTAINER_MAX) {
+                return other instanceof BitmapContainer ? other.or(this) : super.or(other);
+            }
+            ArrayContainer result = new ArrayContainer();
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j >= array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    result.append(values[i++]);
+                } else if (i >= cardinality || array.values[j] < values[i]) {
+                    result.append(array.values[j++]);
+                } else {
+                    result.append(values[i]);
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+        
+        Container growIfDense() {
+            return cardinality > ARRAY_CONTAINER_MAX ? toBitmap() : this;
+        }
+    }
+    
+    private static final class BitmapContainer extends Container {
+        
+        private final long[] words;
+        private int cardinality;
+        
+        BitmapContainer() {
+            this.words = new long[BITMAP_WORDS];
+        }
+        
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+        
+        void set(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+        }
+        
+        @Override
+        Container add(char value) {
+            set(value);
+            return this;
+        }
+        
+        void clear(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality--;
+            }
+        }
+        
+        @Override
+        Container remove(char value) {
+            clear(value);
+            return shrinkIfSparse();
+        }
+        
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+        
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    consumer.accept(high | (w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+        
+        @Override
+        long sizeInBytes() {
+            return 16L + BITMAP_WORDS * 8L;
+        }
+        
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+        
+        @Override
+        BitmapContainer toBitmap() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+        
+        @Override
+        Container and(Container other) {
+            if (!(other instanceof BitmapContainer bitmap)) {
+                return other.and(this);
+            }
+            long[] result = new long[BITMAP_WORDS];
+            int cardinality = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                result[w] = words[w] & bitmap.words[w];
+                cardinality += Long.bitCount(result[w]);
+            }
+            return new BitmapContainer(result, cardinality).shrinkIfSparse();
+        }
+        
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof BitmapContainer bitmap)) {
+                return super.or(other);
+            }
+            long[] result = new long[BITMAP_WORDS];
+            int cardinality = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                result[w] = words[w] | bitmap.words[w];
+                cardinality += Long.bitCount(result[w]);
+            }
+            return new BitmapContainer(result, cardinality);
+        }
+        
+        @Override
+        Container andNot(Container other) {
+            BitmapContainer result = toBitmap();
+            if (other instanceof BitmapContainer bitmap) {
+                int cardinality = 0;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    result.words[w] &= ~bitmap.words[w];
+                    cardinality += Long.bitCount(result.words[w]);
+                }
+                result.cardinality = cardinality;
+                return result.shrinkIfSparse();
+            }
+            other.forEach(0, value -> result.clear((char) value));
+            return result.shrinkIfSparse();
+        }
+        
+        Container shrinkIfSparse() {
+            if (cardinality > ARRAY_CONTAINER_MAX) {
+                return this;
+            }
+            ArrayContainer array = new ArrayContainer(cardinality);
+            forEach(0, value -> array.append((char) value));
+            return array;
+        }
+    }
+}
\ No newline at end of file
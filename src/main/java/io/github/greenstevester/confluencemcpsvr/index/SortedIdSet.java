@@ -0,0 +1,170 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of numeric page IDs held as one sorted {@code long[]}.
+ * <p>
+ * Set operations are linear merges of the two sorted arrays, and the serialized form is the
+ * count followed by varint-encoded gaps between consecutive IDs, so a set of page IDs clustered
+ * the way Confluence allocates them takes one to three bytes per page. Confluence Cloud page IDs
+ * outgrow an {@code int}, which is why this does not reuse {@link RoaringBitmap}.
+ */
+public final class SortedIdSet {
+    
+    private static final SortedIdSet EMPTY = new SortedIdSet(new long[0]);
+    
+    private final long[] ids;
+    
+    private SortedIdSet(long[] ids) {
+        this.ids = ids;
+    }
+    
+    public static SortedIdSet empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * Build a set from page IDs; IDs that are not plain non-negative numbers are skipped
+     */
+    public static SortedIdSet of(Collection<String> pageIds) {
+        long[] values = new long[pageIds.size()];
+        int size = 0;
+        for (String pageId : pageIds) {
+            long value = parse(pageId);
+            if (value >= 0) {
+                values[size++] = value;
+            }
+        }
+        return fromUnsorted(values, size);
+    }
+    
+    public static SortedIdSet of(long... values) {
+        return fromUnsorted(values.clone(), values.length);
+    }
+    
+    public int size() {
+        return ids.length;
+    }
+    
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+    
+    public long get(int index) {
+        return ids[index];
+    }
+    
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+    
+    /**
+     * IDs in {@code a} that are not in {@code b}
+     */
+    public static SortedIdSet difference(SortedIdSet a, SortedIdSet b) {
+        long[] result = new long[a.ids.length];
+        int size = 0;
+        int j = 0;
+        for (long id : a.ids) {
+            while (j < b.ids.length && b.ids[j] < id) {
+                j++;
+            }
+            if (j >= b.ids.length || b.ids[j] != id) {
+                result[size++] = id;
+            }
+        }
+        return size == result.length ? a : new SortedIdSet(Arrays.copyOf(result, size));
+    }
+    
+    /**
+     * Write the count and the gaps between consecutive IDs as unsigned varints
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        writeVLong(out, ids.length);
+        long previous = 0;
+        for (long id : ids) {
+            writeVLong(out, id - previous);
+            previous = id;
+        }
+    }
+    
+    public static SortedIdSet readFrom(DataInput in) throws IOException {
+        long count = readVLong(in);
+        if (count > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt ID set: " + count + " entries");
+        }
+        long[] ids = new long[(int) count];
+        long previous = 0;
+        for (int i = 0; i < ids.length; i++) {
+            previous += readVLong(in);
+            ids[i] = previous;
+        }
+        return new SortedIdSet(ids);
+    }
+    
+    public static void writeVLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+    
+    public static long readVLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SortedIdSet set && Arrays.equals(ids, set.ids);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ids);
+    }
+    
+    @Override
+    public String toString() {
+        return Arrays.toString(ids);
+    }
+    
+    private static SortedIdSet fromUnsorted(long[] values, int size) {
+        Arrays.sort(values, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || values[i] != values[distinct - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return distinct == 0 ? EMPTY : new SortedIdSet(Arrays.copyOf(values, distinct));
+    }
+    
+    private static long parse(String pageId) {
+        if (pageId == null || pageId.isEmpty() || pageId.length() > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < pageId.length(); i++) {
+            char c = pageId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
\ No newline at end of file
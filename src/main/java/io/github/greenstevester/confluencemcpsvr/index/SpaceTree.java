@@ -0,0 +1,204 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Page hierarchy of one space in primitive arrays.
+ * <p>
+ * Each page is a dense node with its parent, first child, last child and next sibling, so
+ * parent lookup and child appends are O(1). After every change a pre-order Euler tour assigns
+ * each node an entry index and a subtree size; a page is in another page's subtree exactly when
+ * its entry index falls inside that page's interval. Not thread-safe; callers guard access.
+ */
+final class SpaceTree {
+    
+    static final int NO_NODE = -1;
+    
+    private final StringDictionary ids = new StringDictionary();
+    private final List<String> titles = new ArrayList<>();
+    private final IntList parents = new IntList(64);
+    private final IntList firstChildren = new IntList(64);
+    private final IntList lastChildren = new IntList(64);
+    private final IntList nextSiblings = new IntList(64);
+    
+    private int[] order = new int[0];
+    private int[] entries = new int[0];
+    private int[] sizes = new int[0];
+    private int[] depths = new int[0];
+    private int roots;
+    
+    /**
+     * Adds a page or updates its title and parent; an unknown parent makes it a root.
+     * A parent inside the page's own subtree is ignored, so the tree never gains a cycle.
+     */
+    void put(String pageId, String parentId, String title) {
+        int node = ids.encode(pageId);
+        if (node == titles.size()) {
+            titles.add(title);
+            parents.set(node, NO_NODE);
+            firstChildren.set(node, NO_NODE);
+            lastChildren.set(node, NO_NODE);
+            nextSiblings.set(node, NO_NODE);
+        } else if (title != null) {
+            titles.set(node, title);
+        }
+        
+        int parent = ids.lookup(parentId);
+        if (parent == StringDictionary.NO_CODE || parent == node || isAncestor(node, parent)) {
+            parent = NO_NODE;
+        }
+        if (parents.get(node) != parent) {
+            detach(node);
+            attach(node, parent);
+        }
+    }
+    
+    /**
+     * Recomputes the Euler tour; call after a batch of {@link #put} calls
+     */
+    void rebuildTour() {
+        int count = titles.size();
+        order = new int[count];
+        entries = new int[count];
+        sizes = new int[count];
+        depths = new int[count];
+        roots = 0;
+        
+        int[] stack = new int[Math.max(1, count)];
+        int position = 0;
+        for (int root = 0; root < count; root++) {
+            if (parents.get(root) != NO_NODE) {
+                continue;
+            }
+            roots++;
+            int top = 0;
+            stack[top++] = root;
+            depths[root] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                entries[node] = position;
+                order[position++] = node;
+                // Push children in reverse so the first child is visited first
+                top += childCount(node);
+                int slot = top - 1;
+                for (int child = firstChildren.get(node); child != NO_NODE; child = nextSiblings.get(child)) {
+                    depths[child] = depths[node] + 1;
+                    stack[slot--] = child;
+                }
+            }
+        }
+        // Subtree sizes accumulate bottom-up in reverse pre-order
+        for (int i = count - 1; i >= 0; i--) {
+            int node = order[i];
+            sizes[node] += 1;
+            int parent = parents.get(node);
+            if (parent != NO_NODE) {
+                sizes[parent] += sizes[node];
+            }
+        }
+    }
+    
+    int node(String pageId) {
+        return ids.lookup(pageId);
+    }
+    
+    String pageId(int node) {
+        return ids.decode(node);
+    }
+    
+    String title(int node) {
+        return titles.get(node);
+    }
+    
+    int parent(int node) {
+        return parents.get(node);
+    }
+    
+    int depth(int node) {
+        return depths[node];
+    }
+    
+    int subtreeSize(int node) {
+        return sizes[node];
+    }
+    
+    int entry(int node) {
+        return entries[node];
+    }
+    
+    int nodeAt(int position) {
+        return order[position];
+    }
+    
+    int childCount(int node) {
+        int count = 0;
+        for (int child = firstChildren.get(node); child != NO_NODE; child = nextSiblings.get(child)) {
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Whether {@code node} lies in the subtree of {@code ancestor}, which includes itself
+     */
+    boolean inSubtree(int ancestor, int node) {
+        return entries[ancestor] <= entries[node] && entries[node] < entries[ancestor] + sizes[ancestor];
+    }
+    
+    int size() {
+        return titles.size();
+    }
+    
+    int roots() {
+        return roots;
+    }
+    
+    private boolean isAncestor(int candidate, int node) {
+        for (int current = parents.get(node); current != NO_NODE; current = parents.get(current)) {
+            if (current == candidate) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void attach(int node, int parent) {
+        parents.set(node, parent);
+        nextSiblings.set(node, NO_NODE);
+        if (parent == NO_NODE) {
+            return;
+        }
+        int last = lastChildren.get(parent);
+        if (last == NO_NODE) {
+            firstChildren.set(parent, node);
+        } else {
+            nextSiblings.set(last, node);
+        }
+        lastChildren.set(parent, node);
+    }
+    
+    private void detach(int node) {
+        int parent = parents.get(node);
+        if (parent == NO_NODE) {
+            return;
+        }
+        int previous = NO_NODE;
+        for (int child = firstChildren.get(parent); child != NO_NODE; child = nextSiblings.get(child)) {
+            if (child == node) {
+                int next = nextSiblings.get(node);
+                if (previous == NO_NODE) {
+                    firstChildren.set(parent, next);
+                } else {
+                    nextSiblings.set(previous, next);
+                }
+                if (lastChildren.get(parent) == node) {
+                    lastChildren.set(parent, previous);
+                }
+                break;
+            }
+            previous = child;
+        }
+        parents.set(node, NO_NODE);
+    }
+}
\ No newline at end of file
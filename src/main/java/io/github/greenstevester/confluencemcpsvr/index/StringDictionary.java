@@ -0,0 +1,53 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for low-cardinality string columns such as space keys and authors.
+ * Codes are dense and never reused, so they can index into per-value arrays.
+ */
+final class StringDictionary {
+    
+    static final int NO_CODE = -1;
+    
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    
+    /**
+     * Returns the code for a value, assigning the next one if it has not been seen
+     */
+    int encode(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+    
+    /**
+     * Returns the code for a value without assigning one
+     */
+    int lookup(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : NO_CODE;
+    }
+    
+    String decode(int code) {
+        return code == NO_CODE ? null : values.get(code);
+    }
+    
+    int size() {
+        return values.size();
+    }
+}
\ No newline at end of file
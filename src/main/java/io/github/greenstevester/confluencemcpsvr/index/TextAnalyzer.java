@@ -0,0 +1,58 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns Confluence storage-format content into lowercase word tokens for indexing and querying
+ */
+public final class TextAnalyzer {
+    
+    private static final Pattern MARKUP = Pattern.compile("<[^>]*>");
+    private static final Pattern ENTITY = Pattern.compile("&(nbsp|amp|lt|gt|quot|#39|apos);");
+    
+    private TextAnalyzer() {
+    }
+    
+    /**
+     * Remove XML/HTML tags and the common entities from storage-format content
+     */
+    public static String stripMarkup(String storage) {
+        if (storage == null || storage.isEmpty()) {
+            return "";
+        }
+        String text = MARKUP.matcher(storage).replaceAll(" ");
+        return ENTITY.matcher(text).replaceAll(match -> switch (match.group(1)) {
+            case "amp" -> "&";
+            case "lt" -> "<";
+            case "gt" -> ">";
+            case "quot" -> "\"";
+            case "#39", "apos" -> "'";
+            default -> " ";
+        });
+    }
+    
+    /**
+     * Split plain text into lowercase runs of letters and digits
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
\ No newline at end of file
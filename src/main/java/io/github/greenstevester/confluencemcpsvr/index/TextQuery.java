@@ -0,0 +1,47 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed form of a CQL {@code text~'...'} value.
+ * The query is an OR of clauses, each clause an AND of phrases, and a phrase is one or more tokens
+ * that must appear consecutively. {@code 'TODO OR coming soon'} therefore matches pages containing
+ * the word "todo" or the phrase "coming soon".
+ */
+public record TextQuery(List<Clause> clauses) {
+    
+    private static final Pattern OR = Pattern.compile("\\s+OR\\s+");
+    private static final Pattern AND = Pattern.compile("\\s+AND\\s+");
+    
+    /**
+     * A conjunction of phrases
+     */
+    public record Clause(List<List<String>> phrases) {}
+    
+    public static TextQuery parse(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return new TextQuery(clauses);
+        }
+        
+        for (String clauseText : OR.split(query.trim())) {
+            List<List<String>> phrases = new ArrayList<>();
+            for (String phraseText : AND.split(clauseText.trim())) {
+                List<String> tokens = TextAnalyzer.tokenize(phraseText);
+                if (!tokens.isEmpty()) {
+                    phrases.add(tokens);
+                }
+            }
+            if (!phrases.isEmpty()) {
+                clauses.add(new Clause(phrases));
+            }
+        }
+        return new TextQuery(clauses);
+    }
+    
+    public boolean isEmpty() {
+        return clauses.isEmpty();
+    }
+}
\ No newline at end of file
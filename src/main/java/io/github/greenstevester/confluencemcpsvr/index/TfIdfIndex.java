@@ -0,0 +1,482 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
+import io.github.greenstevester.confluencemcpsvr.sync.PageChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sparse TF-IDF vectors of the mirrored pages for related-content lookups by cosine similarity.
+ * <p>
+ * Each page keeps its term IDs and log-scaled term frequencies in sorted primitive arrays, and an
+ * inverted index maps every term to the pages containing it. IDF weights are applied at query
+ * time so vectors never need rewriting as the corpus grows; page norms are refreshed in one pass
+ * once the page count has drifted by a tenth. A query is pruned to its highest-weighted terms and
+ * skips terms found in most pages, then accumulates dot products only for pages sharing a kept
+ * term, so it never scores the whole corpus.
+ */
+@Component
+public class TfIdfIndex implements PageChangeListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TfIdfIndex.class);
+    
+    private static final String ANSI_BLUE = "\u001B[34m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    // Query pruning: only the heaviest terms are looked up, and near-ubiquitous terms are skipped
+    static final int MAX_QUERY_TERMS = 32;
+    private static final double MAX_DOCUMENT_FREQUENCY = 0.5;
+    private static final int MIN_PAGES_FOR_FREQUENCY_PRUNING = 20;
+    private static final int SHARED_TERMS_SHOWN = 5;
+    private static final double NORM_REFRESH_DRIFT = 0.1;
+    private static final int MIN_TOMBSTONES_FOR_COMPACTION = 1000;
+    // Function words that small corpora cannot yet discount through document frequency
+    private static final Set<String> STOP_WORDS = Set.of(
+        "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "have", "how", "in", "is", "it",
+        "its", "of", "on", "or", "that", "the", "this", "to", "was", "were", "what", "when", "which", "why",
+        "will", "with", "you", "your"
+    );
+    
+    public record SimilarPage(
+        String pageId,
+        String title,
+        String spaceKey,
+        double similarity,
+        List<String> sharedTerms
+    ) {}
+    
+    /**
+     * @param queryTerms the terms the query was pruned to, heaviest first
+     * @param candidates pages sharing at least one query term
+     */
+    public record SimilarityResult(
+        List<SimilarPage> matches,
+        List<String> queryTerms,
+        int candidates,
+        long tookMicros
+    ) {}
+    
+    public record TfIdfStats(
+        int pages,
+        int terms,
+        long postings,
+        int tombstones,
+        long memoryBytes
+    ) {}
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringDictionary terms = new StringDictionary();
+    
+    private List<IntList> postingDocs;
+    private List<IntList> postingWeights;
+    private IntList documentFrequencies;
+    private List<String> docPageIds;
+    private List<String> docTitles;
+    private List<String> docSpaceKeys;
+    private List<int[]> docTerms;
+    private List<float[]> docWeights;
+    private float[] docNorms;
+    private Map<String, Integer> pageDocIds;
+    private BitSet liveDocs;
+    private int tombstones;
+    private long livePostings;
+    private int normPageCount;
+    
+    public TfIdfIndex(LocalPageStore pageStore) {
+        reset();
+        pageStore.addListener(this);
+    }
+    
+    @Override
+    public void onPageUpserted(MirroredPage page, MirroredPage previous) {
+        if (previous != null && previous.version() == page.version()
+                && Objects.equals(previous.title(), page.title())) {
+            return;
+        }
+        record(page.id(), page.title(), page.spaceKey(), page.body());
+    }
+    
+    @Override
+    public void onPageRemoved(MirroredPage page) {
+        remove(page.id());
+    }
+    
+    /**
+     * Adds or replaces a page's vector from its title and storage-format body
+     */
+    public void record(String pageId, String title, String spaceKey, String storageBody) {
+        if (pageId == null) {
+            return;
+        }
+        List<String> tokens = TextAnalyzer.tokenize((title != null ? title : "") + " " + TextAnalyzer.stripMarkup(storageBody));
+        
+        lock.writeLock().lock();
+        try {
+            Integer existing = pageDocIds.remove(pageId);
+            if (existing != null) {
+                tombstone(existing);
+            }
+            IntFloatHashMap counts = new IntFloatHashMap(Math.max(16, tokens.size() / 2));
+            for (String token : tokens) {
+                if (isIndexable(token)) {
+                    counts.add(terms.encode(token), 1f);
+                }
+            }
+            int[] termIds = sortedTerms(counts);
+            float[] weights = new float[termIds.length];
+            for (int i = 0; i < termIds.length; i++) {
+                weights[i] = (float) logTf(counts.get(termIds[i]));
+            }
+            addDoc(pageId, title, spaceKey, termIds, weights);
+            refreshNormsIfDrifted();
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(String pageId) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = pageDocIds.remove(pageId);
+            if (existing != null) {
+                tombstone(existing);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return pageDocIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public boolean contains(String pageId) {
+        lock.readLock().lock();
+        try {
+            return pageDocIds.containsKey(pageId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Pages most similar to free text such as a keyword set
+     *
+     * @param spaceKeys spaces to return pages from, or null/empty for all
+     */
+    public SimilarityResult similarToText(String text, Collection<String> spaceKeys, int limit) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            IntFloatHashMap counts = new IntFloatHashMap();
+            int unknownTerms = 0;
+            for (String token : TextAnalyzer.tokenize(text)) {
+                if (!isIndexable(token)) {
+                    continue;
+                }
+                int term = terms.lookup(token);
+                // The dictionary keeps terms whose pages were all removed, which compaction leaves unsized
+                if (term == StringDictionary.NO_CODE || term >= documentFrequencies.size() || documentFrequencies.get(term) == 0) {
+                    unknownTerms++;
+                } else {
+                    counts.add(term, 1f);
+                }
+            }
+            IntFloatHashMap query = new IntFloatHashMap(counts.size());
+            double[] norm = {unknownTerms * square(idf(0))};
+            counts.forEach((term, count) -> {
+                float weight = (float) (logTf(count) * idf(documentFrequencies.get(term)));
+                query.put(term, weight);
+                norm[0] += (double) weight * weight;
+            });
+            return search(query, Math.sqrt(norm[0]), StringDictionary.NO_CODE, spaceKeys, limit, start);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Pages most similar to a mirrored page
+     *
+     * @return null when the page is not indexed
+     */
+    public SimilarityResult similarToPage(String pageId, Collection<String> spaceKeys, int limit) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Integer doc = pageDocIds.get(pageId);
+            if (doc == null) {
+                return null;
+            }
+            int[] docTermIds = docTerms.get(doc);
+            float[] weights = docWeights.get(doc);
+            IntFloatHashMap query = new IntFloatHashMap(docTermIds.length);
+            for (int i = 0; i < docTermIds.length; i++) {
+                query.put(docTermIds[i], (float) (weights[i] * idf(documentFrequencies.get(docTermIds[i]))));
+            }
+            return search(query, docNorms[doc], doc, spaceKeys, limit, start);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public TfIdfStats getStats() {
+        lock.readLock().lock();
+        try {
+            long memory = 4L * docNorms.length + documentFrequencies.memoryBytes();
+            for (int i = 0; i < postingDocs.size(); i++) {
+                memory += 32L + postingDocs.get(i).memoryBytes() + postingWeights.get(i).memoryBytes();
+            }
+            for (int[] vector : docTerms) {
+                memory += 24L + 8L * vector.length;
+            }
+            return new TfIdfStats(pageDocIds.size(), terms.size(), livePostings, tombstones, memory);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public String getFormattedStats() {
+        TfIdfStats stats = getStats();
+        return ANSI_BOLD + ANSI_BLUE + "📐 TF-IDF Vectors" + ANSI_RESET + "\n" +
+               "   ├─ Pages: " + ANSI_YELLOW + stats.pages() + ANSI_RESET +
+               " (" + stats.tombstones() + " tombstoned)\n" +
+               "   └─ Terms: " + ANSI_YELLOW + stats.terms() + ANSI_RESET +
+               ", " + stats.postings() + " postings, ~" + (stats.memoryBytes() / 1024) + "KB";
+    }
+    
+    private SimilarityResult search(IntFloatHashMap query, double queryNorm, int excludedDoc,
+                                    Collection<String> spaceKeys, int limit, long start) {
+        int pageCount = pageDocIds.size();
+        if (query.size() == 0 || queryNorm == 0 || pageCount == 0 || limit <= 0) {
+            return new SimilarityResult(List.of(), List.of(), 0, (System.nanoTime() - start) / 1000);
+        }
+        
+        // Keep the heaviest query terms, dropping ones that occur in most pages
+        int maxFrequency = pageCount >= MIN_PAGES_FOR_FREQUENCY_PRUNING
+            ? (int) (pageCount * MAX_DOCUMENT_FREQUENCY) : Integer.MAX_VALUE;
+        List<long[]> ranked = new ArrayList<>(query.size());
+        query.forEach((term, weight) -> {
+            if (documentFrequencies.get(term) <= maxFrequency) {
+                ranked.add(new long[] {term, Float.floatToIntBits(weight)});
+            }
+        });
+        ranked.sort(Comparator.comparingDouble((long[] entry) -> Float.intBitsToFloat((int) entry[1])).reversed());
+        int kept = Math.min(MAX_QUERY_TERMS, ranked.size());
+        
+        IntFloatHashMap scores = new IntFloatHashMap(256);
+        List<String> queryTerms = new ArrayList<>(kept);
+        for (int k = 0; k < kept; k++) {
+            int term = (int) ranked.get(k)[0];
+            float queryWeight = Float.intBitsToFloat((int) ranked.get(k)[1]);
+            double termIdf = idf(documentFrequencies.get(term));
+            queryTerms.add(terms.decode(term));
+            IntList docs = postingDocs.get(term);
+            IntList weights = postingWeights.get(term);
+            for (int i = 0; i < docs.size(); i++) {
+                int doc = docs.get(i);
+                if (doc != excludedDoc && liveDocs.get(doc)) {
+                    scores.add(doc, (float) (queryWeight * Float.intBitsToFloat(weights.get(i)) * termIdf));
+                }
+            }
+        }
+        
+        int[] candidates = {0};
+        PriorityQueue<long[]> top = new PriorityQueue<>(Comparator.comparingDouble(entry -> Double.longBitsToDouble(entry[1])));
+        scores.forEach((doc, dot) -> {
+            if (spaceKeys != null && !spaceKeys.isEmpty() && !spaceKeys.contains(docSpaceKeys.get(doc))) {
+                return;
+            }
+            candidates[0]++;
+            double cosine = Math.min(1.0, dot / (queryNorm * docNorms[doc]));
+            top.add(new long[] {doc, Double.doubleToLongBits(cosine)});
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        
+        List<SimilarPage> matches = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            long[] entry = top.poll();
+            int doc = (int) entry[0];
+            matches.add(new SimilarPage(docPageIds.get(doc), docTitles.get(doc), docSpaceKeys.get(doc),
+                Double.longBitsToDouble(entry[1]), sharedTerms(query, doc)));
+        }
+        return new SimilarityResult(matches.reversed(), queryTerms, candidates[0], (System.nanoTime() - start) / 1000);
+    }
+    
+    /**
+     * The terms contributing most to a page's similarity with the query
+     */
+    private List<String> sharedTerms(IntFloatHashMap query, int doc) {
+        int[] docTermIds = docTerms.get(doc);
+        float[] weights = docWeights.get(doc);
+        List<long[]> contributions = new ArrayList<>();
+        for (int i = 0; i < docTermIds.length; i++) {
+            if (query.containsKey(docTermIds[i])) {
+                double contribution = query.get(docTermIds[i]) * weights[i] * idf(documentFrequencies.get(docTermIds[i]));
+                contributions.add(new long[] {docTermIds[i], Double.doubleToLongBits(contribution)});
+            }
+        }
+        contributions.sort(Comparator.comparingDouble((long[] entry) -> Double.longBitsToDouble(entry[1])).reversed());
+        List<String> shared = new ArrayList<>(SHARED_TERMS_SHOWN);
+        for (int i = 0; i < contributions.size() && shared.size() < SHARED_TERMS_SHOWN; i++) {
+            shared.add(terms.decode((int) contributions.get(i)[0]));
+        }
+        return shared;
+    }
+    
+    private void addDoc(String pageId, String title, String spaceKey, int[] termIds, float[] weights) {
+        int doc = docPageIds.size();
+        for (int i = 0; i < termIds.length; i++) {
+            int term = termIds[i];
+            while (postingDocs.size() <= term) {
+                postingDocs.add(new IntList(4));
+                postingWeights.add(new IntList(4));
+            }
+            postingDocs.get(term).add(doc);
+            postingWeights.get(term).add(Float.floatToIntBits(weights[i]));
+            documentFrequencies.set(term, (term < documentFrequencies.size() ? documentFrequencies.get(term) : 0) + 1);
+        }
+        docPageIds.add(pageId);
+        docTitles.add(title);
+        docSpaceKeys.add(spaceKey);
+        docTerms.add(termIds);
+        docWeights.add(weights);
+        pageDocIds.put(pageId, doc);
+        liveDocs.set(doc);
+        livePostings += termIds.length;
+        
+        if (doc >= docNorms.length) {
+            docNorms = Arrays.copyOf(docNorms, Math.max(doc + 1, docNorms.length * 2));
+        }
+        docNorms[doc] = (float) norm(doc);
+    }
+    
+    private void tombstone(int doc) {
+        liveDocs.clear(doc);
+        tombstones++;
+        for (int term : docTerms.get(doc)) {
+            documentFrequencies.set(term, documentFrequencies.get(term) - 1);
+        }
+        livePostings -= docTerms.get(doc).length;
+    }
+    
+    private void refreshNormsIfDrifted() {
+        int pageCount = pageDocIds.size();
+        if (Math.abs(pageCount - normPageCount) <= Math.max(1, normPageCount * NORM_REFRESH_DRIFT)) {
+            return;
+        }
+        for (int doc = liveDocs.nextSetBit(0); doc >= 0; doc = liveDocs.nextSetBit(doc + 1)) {
+            docNorms[doc] = (float) norm(doc);
+        }
+        normPageCount = pageCount;
+    }
+    
+    private double norm(int doc) {
+        int[] termIds = docTerms.get(doc);
+        float[] weights = docWeights.get(doc);
+        double sum = 0;
+        for (int i = 0; i < termIds.length; i++) {
+            sum += square(weights[i] * idf(documentFrequencies.get(termIds[i])));
+        }
+        return Math.sqrt(sum);
+    }
+    
+    private void compactIfNeeded() {
+        if (tombstones < MIN_TOMBSTONES_FOR_COMPACTION || tombstones <= pageDocIds.size()) {
+            return;
+        }
+        List<String> pageIds = docPageIds;
+        List<String> titles = docTitles;
+        List<String> spaceKeys = docSpaceKeys;
+        List<int[]> vectors = docTerms;
+        List<float[]> weights = docWeights;
+        BitSet live = liveDocs;
+        
+        reset();
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            addDoc(pageIds.get(doc), titles.get(doc), spaceKeys.get(doc), vectors.get(doc), weights.get(doc));
+        }
+        normPageCount = -1;
+        refreshNormsIfDrifted();
+        logger.debug("Compacted TF-IDF index to {} pages", pageDocIds.size());
+    }
+    
+    private void reset() {
+        postingDocs = new ArrayList<>();
+        postingWeights = new ArrayList<>();
+        documentFrequencies = new IntList(64);
+        docPageIds = new ArrayList<>();
+        docTitles = new ArrayList<>();
+        docSpaceKeys = new ArrayList<>();
+        docTerms = new ArrayList<>();
+        docWeights = new ArrayList<>();
+        docNorms = new float[64];
+        pageDocIds = new HashMap<>();
+        liveDocs = new BitSet();
+        tombstones = 0;
+        livePostings = 0;
+        normPageCount = 0;
+    }
+    
+    private double idf(int documentFrequency) {
+        return Math.log((pageDocIds.size() + 1.0) / (documentFrequency + 1.0)) + 1.0;
+    }
+    
+    private static double logTf(float count) {
+        return 1.0 + Math.log(count);
+    }
+    
+    private static double square(double value) {
+        return value * value;
+    }
+    
+    private static int[] sortedTerms(IntFloatHashMap counts) {
+        int[] termIds = new int[counts.size()];
+        int[] next = {0};
+        counts.forEach((term, count) -> termIds[next[0]++] = term);
+        Arrays.sort(termIds);
+        return termIds;
+    }
+    
+    /**
+     * Single characters, bare numbers and function words carry no topical signal
+     */
+    private static boolean isIndexable(String token) {
+        if (token.length() < 2 || STOP_WORDS.contains(token)) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,316 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
+import io.github.greenstevester.confluencemcpsvr.sync.PageChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over page titles for fuzzy title lookup.
+ * <p>
+ * Titles are normalised to lowercase alphanumeric words and each word is padded and cut into
+ * trigrams the way PostgreSQL's pg_trgm does, so typos and partial titles still share most of
+ * their trigrams with the real title. A query only touches the posting lists of its own trigrams
+ * and scores candidates by trigram overlap. Titles come from the local mirror and from pages
+ * written through this server; a changed title gets a new entry and the old one is tombstoned.
+ */
+@Component
+public class TrigramTitleIndex implements PageChangeListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TrigramTitleIndex.class);
+    
+    private static final String ANSI_GREEN = "\u001B[32m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    private static final int MIN_TOMBSTONES_FOR_COMPACTION = 1000;
+    // Weight for queries that are wholly contained in a longer title
+    private static final double CONTAINMENT_WEIGHT = 0.8;
+    
+    public record TitleMatch(
+        String pageId,
+        String title,
+        String spaceKey,
+        double score
+    ) {}
+    
+    public record TitleSearchResult(
+        List<TitleMatch> matches,
+        int candidates,
+        long tookMicros
+    ) {}
+    
+    public record TitleIndexStats(
+        int titles,
+        int tombstones,
+        int trigrams,
+        long memoryBytes
+    ) {}
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private Map<Long, IntList> postings;
+    private List<String> entryPageIds;
+    private List<String> entryTitles;
+    private List<String> entrySpaceKeys;
+    private IntList entryTrigramCounts;
+    private Map<String, Integer> pageEntries;
+    private BitSet liveEntries;
+    private int tombstones;
+    
+    public TrigramTitleIndex(LocalPageStore pageStore) {
+        reset();
+        pageStore.addListener(this);
+    }
+    
+    @Override
+    public void onPageUpserted(MirroredPage page, MirroredPage previous) {
+        record(page.id(), page.title(), page.spaceKey());
+    }
+    
+    @Override
+    public void onPageRemoved(MirroredPage page) {
+        remove(page.id());
+    }
+    
+    /**
+     * Adds or updates a page title. A null space key keeps the space recorded earlier.
+     */
+    public void record(String pageId, String title, String spaceKey) {
+        if (pageId == null || title == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer existing = pageEntries.get(pageId);
+            if (existing != null) {
+                String knownSpace = entrySpaceKeys.get(existing);
+                if (title.equals(entryTitles.get(existing))
+                        && (spaceKey == null || spaceKey.equals(knownSpace))) {
+                    return;
+                }
+                if (spaceKey == null) {
+                    spaceKey = knownSpace;
+                }
+                tombstone(existing);
+            }
+            addEntry(pageId, title, spaceKey);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(String pageId) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = pageEntries.remove(pageId);
+            if (existing != null) {
+                liveEntries.clear(existing);
+                tombstones++;
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return pageEntries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Fuzzy title search
+     *
+     * @param query title or fragment, typos allowed
+     * @param spaceKeys spaces to search, or null/empty for all
+     * @param minScore matches scoring below this (0..1) are dropped
+     * @param limit maximum number of matches
+     */
+    public TitleSearchResult search(String query, Collection<String> spaceKeys, double minScore, int limit) {
+        long start = System.nanoTime();
+        Set<Long> queryTrigrams = trigrams(query);
+        if (queryTrigrams.isEmpty() || limit <= 0) {
+            return new TitleSearchResult(List.of(), 0, (System.nanoTime() - start) / 1000);
+        }
+        String normalizedQuery = normalize(query);
+        
+        lock.readLock().lock();
+        try {
+            // Count shared trigrams per entry, remembering which entries were touched
+            int[] shared = new int[entryPageIds.size()];
+            IntList touched = new IntList(64);
+            for (long trigram : queryTrigrams) {
+                IntList entries = postings.get(trigram);
+                if (entries == null) {
+                    continue;
+                }
+                for (int i = 0; i < entries.size(); i++) {
+                    int entry = entries.get(i);
+                    if (shared[entry]++ == 0) {
+                        touched.add(entry);
+                    }
+                }
+            }
+            
+            List<TitleMatch> matches = new ArrayList<>();
+            int candidates = 0;
+            for (int i = 0; i < touched.size(); i++) {
+                int entry = touched.get(i);
+                if (!liveEntries.get(entry)) {
+                    continue;
+                }
+                String spaceKey = entrySpaceKeys.get(entry);
+                if (spaceKeys != null && !spaceKeys.isEmpty() && !spaceKeys.contains(spaceKey)) {
+                    continue;
+                }
+                candidates++;
+                double score = score(shared[entry], queryTrigrams.size(), entryTrigramCounts.get(entry),
+                    normalizedQuery, entryTitles.get(entry));
+                if (score >= minScore) {
+                    matches.add(new TitleMatch(entryPageIds.get(entry), entryTitles.get(entry), spaceKey, score));
+                }
+            }
+            
+            matches.sort(Comparator.comparingDouble(TitleMatch::score).reversed()
+                .thenComparing(TitleMatch::title));
+            List<TitleMatch> top = matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+            return new TitleSearchResult(top, candidates, (System.nanoTime() - start) / 1000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public TitleIndexStats getStats() {
+        lock.readLock().lock();
+        try {
+            long memory = 0;
+            for (IntList entries : postings.values()) {
+                memory += 48L + entries.memoryBytes();
+            }
+            for (String title : entryTitles) {
+                memory += 40L + 2L * title.length();
+            }
+            return new TitleIndexStats(pageEntries.size(), tombstones, postings.size(), memory);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public String getFormattedStats() {
+        TitleIndexStats stats = getStats();
+        return ANSI_BOLD + ANSI_GREEN + "🔤 Title Trigram Index" + ANSI_RESET + "\n" +
+               "   ├─ Titles: " + ANSI_YELLOW + stats.titles() + ANSI_RESET +
+               " (" + stats.tombstones() + " tombstoned)\n" +
+               "   └─ Trigrams: " + ANSI_YELLOW + stats.trigrams() + ANSI_RESET +
+               ", ~" + (stats.memoryBytes() / 1024) + "KB";
+    }
+    
+    /**
+     * Similarity in 0..1: trigram Jaccard similarity, or the share of the query's trigrams found
+     * in the title when the query is a fragment of a longer title; an exact title scores 1
+     */
+    static double score(int shared, int queryTrigrams, int titleTrigrams, String normalizedQuery, String title) {
+        // Identical trigram sets are necessary for an exact match, so only then compare the text
+        if (shared == queryTrigrams && shared == titleTrigrams && normalize(title).equals(normalizedQuery)) {
+            return 1.0;
+        }
+        double jaccard = (double) shared / (queryTrigrams + titleTrigrams - shared);
+        double containment = CONTAINMENT_WEIGHT * shared / queryTrigrams;
+        return Math.max(jaccard, containment);
+    }
+    
+    /**
+     * Distinct padded trigrams of a title, each packed into a long (21 bits per code point)
+     */
+    static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return trigrams;
+        }
+        for (String word : normalized.split(" ")) {
+            int[] codePoints = ("  " + word + " ").codePoints().toArray();
+            for (int i = 0; i + 2 < codePoints.length; i++) {
+                trigrams.add(((long) codePoints[i] << 42) | ((long) codePoints[i + 1] << 21) | codePoints[i + 2]);
+            }
+        }
+        return trigrams;
+    }
+    
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String withoutAccents = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return withoutAccents.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+    
+    private void addEntry(String pageId, String title, String spaceKey) {
+        int entry = entryPageIds.size();
+        Set<Long> titleTrigrams = trigrams(title);
+        entryPageIds.add(pageId);
+        entryTitles.add(title);
+        entrySpaceKeys.add(spaceKey);
+        entryTrigramCounts.set(entry, titleTrigrams.size());
+        pageEntries.put(pageId, entry);
+        liveEntries.set(entry);
+        for (long trigram : titleTrigrams) {
+            postings.computeIfAbsent(trigram, key -> new IntList(4)).add(entry);
+        }
+    }
+    
+    private void tombstone(int entry) {
+        liveEntries.clear(entry);
+        tombstones++;
+    }
+    
+    private void compactIfNeeded() {
+        if (tombstones < MIN_TOMBSTONES_FOR_COMPACTION || tombstones <= pageEntries.size()) {
+            return;
+        }
+        List<String> pageIds = entryPageIds;
+        List<String> titles = entryTitles;
+        List<String> spaceKeys = entrySpaceKeys;
+        BitSet live = liveEntries;
+        
+        reset();
+        for (int entry = live.nextSetBit(0); entry >= 0; entry = live.nextSetBit(entry + 1)) {
+            addEntry(pageIds.get(entry), titles.get(entry), spaceKeys.get(entry));
+        }
+        logger.debug("Compacted title index to {} titles", pageEntries.size());
+    }
+    
+    private void reset() {
+        postings = new HashMap<>();
+        entryPageIds = new ArrayList<>();
+        entryTitles = new ArrayList<>();
+        entrySpaceKeys = new ArrayList<>();
+        entryTrigramCounts = new IntList(64);
+        pageEntries = new HashMap<>();
+        liveEntries = new BitSet();
+        tombstones = 0;
+    }
+}
\ No newline at end of file
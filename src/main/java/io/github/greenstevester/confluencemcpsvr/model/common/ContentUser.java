@@ -0,0 +1,12 @@
+package io.github.greenstevester.confluencemcpsvr.model.common;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Represents the user attached to a piece of content, such as the author of a version
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ContentUser(
+    String accountId,
+    String displayName
+) {}
\ No newline at end of file
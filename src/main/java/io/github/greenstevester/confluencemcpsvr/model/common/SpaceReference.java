@@ -0,0 +1,13 @@
+package io.github.greenstevester.confluencemcpsvr.model.common;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Represents the space a piece of content belongs to, as expanded on content responses
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SpaceReference(
+    String id,
+    String key,
+    String name
+) {}
\ No newline at end of file
@@ -3,6 +3,7 @@ package io.github.greenstevester.confluencemcpsvr.model.common;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 
 /**
  * Represents a version of content in Confluence
@@ -13,5 +14,18 @@ public record Version(
     String message,
     int number,
     Boolean minorEdit,
-    String authorId
-) {}
\ No newline at end of file
+    String authorId,
+    OffsetDateTime when,
+    ContentUser by
+) {
+    
+    /**
+     * The account that created this version, from either the v2 field or the v1 {@code by} user
+     */
+    public String authorAccountId() {
+        if (authorId != null) {
+            return authorId;
+        }
+        return by != null ? by.accountId() : null;
+    }
+}
\ No newline at end of file
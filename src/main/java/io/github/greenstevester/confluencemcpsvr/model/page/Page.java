@@ -3,6 +3,7 @@ package io.github.greenstevester.confluencemcpsvr.model.page;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.github.greenstevester.confluencemcpsvr.model.common.ResponseLinks;
+import io.github.greenstevester.confluencemcpsvr.model.common.SpaceReference;
 import io.github.greenstevester.confluencemcpsvr.model.common.Version;
 import io.github.greenstevester.confluencemcpsvr.model.enums.ContentStatus;
 
@@ -26,5 +27,14 @@ public record Page(
     LocalDateTime createdAt,
     Version version,
     PageBody body,
-    @JsonProperty("_links") ResponseLinks links
-) {}
\ No newline at end of file
+    @JsonProperty("_links") ResponseLinks links,
+    SpaceReference space
+) {
+    
+    /**
+     * The key of the page's space when it was expanded, otherwise the space ID
+     */
+    public String spaceKeyOrId() {
+        return space != null && space.key() != null ? space.key() : spaceId;
+    }
+}
\ No newline at end of file
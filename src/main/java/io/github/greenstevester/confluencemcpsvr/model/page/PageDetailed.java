@@ -16,7 +16,23 @@ public record PageDetailed(
     String spaceId,
     String parentId,
     PageBody body,
+    Version version,
     List<Label> labels,
     List<Version> versions,
-    Boolean isFavoritedByCurrentUser
-) {}
\ No newline at end of file
+    Boolean isFavoritedByCurrentUser,
+    PageMetadata metadata
+) {
+    
+    /**
+     * Labels from either the top-level list or the expanded {@code metadata.labels}
+     */
+    public List<Label> allLabels() {
+        if (labels != null && !labels.isEmpty()) {
+            return labels;
+        }
+        if (metadata != null && metadata.labels() != null && metadata.labels().results() != null) {
+            return metadata.labels().results();
+        }
+        return List.of();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package io.github.greenstevester.confluencemcpsvr.model.page;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.github.greenstevester.confluencemcpsvr.model.common.Label;
+import io.github.greenstevester.confluencemcpsvr.model.common.PaginatedResponse;
+
+/**
+ * Expandable page metadata returned by the v1 content API (e.g. {@code expand=metadata.labels})
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PageMetadata(
+    PaginatedResponse<Label> labels
+) {}
\ No newline at end of file
@@ -13,5 +13,6 @@ public record SearchRequest(
     Integer start,
     Boolean includeArchivedSpaces,
     Boolean excludeCurrentSpaces,
-    ExcerptStrategy excerpt
+    ExcerptStrategy excerpt,
+    String expand
 ) {}
\ No newline at end of file
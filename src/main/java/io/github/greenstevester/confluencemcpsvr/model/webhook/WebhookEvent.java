@@ -0,0 +1,38 @@
+package io.github.greenstevester.confluencemcpsvr.model.webhook;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Webhook event delivered by Confluence (e.g. page_updated, page_removed, space_updated)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record WebhookEvent(
+    String event,
+    Long timestamp,
+    String userAccountId,
+    WebhookPage page,
+    WebhookSpace space
+) {
+    
+    /**
+     * Whether this event removes the page from the readable tree (removed, trashed or deleted)
+     */
+    public boolean isPageRemoval() {
+        return event != null && event.startsWith("page_")
+            && (event.endsWith("_removed") || event.endsWith("_trashed") || event.endsWith("_deleted"));
+    }
+    
+    /**
+     * Whether this event concerns a single page
+     */
+    public boolean isPageEvent() {
+        return event != null && event.startsWith("page_") && page != null && page.id() != null;
+    }
+    
+    /**
+     * Whether this event concerns a space
+     */
+    public boolean isSpaceEvent() {
+        return event != null && event.startsWith("space_") && space != null && space.key() != null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package io.github.greenstevester.confluencemcpsvr.model.webhook;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Page summary carried in a Confluence webhook payload
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record WebhookPage(
+    String id,
+    String spaceKey,
+    String title,
+    Integer version,
+    Long modificationDate
+) {}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package io.github.greenstevester.confluencemcpsvr.model.webhook;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Space summary carried in a Confluence webhook payload
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record WebhookSpace(
+    String key,
+    String name,
+    Long modificationDate
+) {}
\ No newline at end of file
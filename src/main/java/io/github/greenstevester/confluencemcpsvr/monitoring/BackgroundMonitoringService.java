@@ -1,5 +1,22 @@
 package io.github.greenstevester.confluencemcpsvr.monitoring;
 
+import io.github.greenstevester.confluencemcpsvr.cache.PageCache;
+import io.github.greenstevester.confluencemcpsvr.index.CompletionIndex;
+import io.github.greenstevester.confluencemcpsvr.index.InvertedIndex;
+import io.github.greenstevester.confluencemcpsvr.index.LabelMembershipIndex;
+import io.github.greenstevester.confluencemcpsvr.index.MinHashIndex;
+import io.github.greenstevester.confluencemcpsvr.index.PageLinkGraph;
+import io.github.greenstevester.confluencemcpsvr.index.PageHierarchy;
+import io.github.greenstevester.confluencemcpsvr.index.PageMetadataColumns;
+import io.github.greenstevester.confluencemcpsvr.index.TfIdfIndex;
+import io.github.greenstevester.confluencemcpsvr.index.TrigramTitleIndex;
+import io.github.greenstevester.confluencemcpsvr.service.AsyncJobService;
+import io.github.greenstevester.confluencemcpsvr.service.AuditResultStore;
+import io.github.greenstevester.confluencemcpsvr.service.BatchJobService;
+import io.github.greenstevester.confluencemcpsvr.service.ScheduledAuditService;
+import io.github.greenstevester.confluencemcpsvr.service.WebhookInvalidationService;
+import io.github.greenstevester.confluencemcpsvr.sync.ConfluenceCrawlerService;
+import io.github.greenstevester.confluencemcpsvr.sync.ConfluenceSyncService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
@@ -40,6 +57,57 @@ public class BackgroundMonitoringService implements ApplicationListener<Applicat
     @Autowired
     private McpEndpointTracker endpointTracker;
     
+    @Autowired
+    private PageCache pageCache;
+    
+    @Autowired
+    private WebhookInvalidationService webhookInvalidationService;
+    
+    @Autowired
+    private ConfluenceSyncService syncService;
+    
+    @Autowired
+    private ConfluenceCrawlerService crawlerService;
+    
+    @Autowired
+    private InvertedIndex invertedIndex;
+    
+    @Autowired
+    private PageMetadataColumns metadataColumns;
+    
+    @Autowired
+    private LabelMembershipIndex membershipIndex;
+    
+    @Autowired
+    private TrigramTitleIndex titleIndex;
+    
+    @Autowired
+    private CompletionIndex completionIndex;
+    
+    @Autowired
+    private PageLinkGraph linkGraph;
+    
+    @Autowired
+    private MinHashIndex minHashIndex;
+    
+    @Autowired
+    private TfIdfIndex tfIdfIndex;
+    
+    @Autowired
+    private PageHierarchy pageHierarchy;
+    
+    @Autowired
+    private AuditResultStore auditResultStore;
+    
+    @Autowired
+    private ScheduledAuditService scheduledAuditService;
+    
+    @Autowired
+    private BatchJobService batchJobService;
+    
+    @Autowired
+    private AsyncJobService asyncJobService;
+    
     @Autowired
     private Environment environment;
     
@@ -117,6 +185,74 @@ public class BackgroundMonitoringService implements ApplicationListener<Applicat
             System.out.println(endpointStats);
             System.out.println();
             
+            // Page Cache Section
+            System.out.println(pageCache.getFormattedStats());
+            System.out.println();
+            
+            // Webhook Section
+            System.out.println(webhookInvalidationService.getFormattedStats());
+            System.out.println();
+            
+            // Sync Section
+            System.out.println(syncService.getFormattedStats());
+            System.out.println();
+            
+            // Crawler Section
+            System.out.println(crawlerService.getFormattedStats());
+            System.out.println();
+            
+            // Local Index Section
+            System.out.println(invertedIndex.getFormattedStats());
+            System.out.println();
+            
+            // Metadata Columns Section
+            System.out.println(metadataColumns.getFormattedStats());
+            System.out.println();
+            
+            // Label Membership Section
+            System.out.println(membershipIndex.getFormattedStats());
+            System.out.println();
+            
+            // Title Index Section
+            System.out.println(titleIndex.getFormattedStats());
+            System.out.println();
+            
+            // Argument Completion Section
+            System.out.println(completionIndex.getFormattedStats());
+            System.out.println();
+            
+            // Link Graph Section
+            System.out.println(linkGraph.getFormattedStats());
+            System.out.println();
+            
+            // Near-Duplicate Section
+            System.out.println(minHashIndex.getFormattedStats());
+            System.out.println();
+            
+            // TF-IDF Section
+            System.out.println(tfIdfIndex.getFormattedStats());
+            System.out.println();
+            
+            // Page Hierarchy Section
+            System.out.println(pageHierarchy.getFormattedStats());
+            System.out.println();
+            
+            // Audit Result Store Section
+            System.out.println(auditResultStore.getFormattedStats());
+            System.out.println();
+            
+            // Scheduled Audits Section
+            System.out.println(scheduledAuditService.getFormattedStats());
+            System.out.println();
+            
+            // Batch Jobs Section
+            System.out.println(batchJobService.getFormattedStats());
+            System.out.println();
+            
+            // Async Jobs Section
+            System.out.println(asyncJobService.getFormattedStats());
+            System.out.println();
+            
         } catch (Exception e) {
             logger.warn("Error generating monitoring report: {}", e.getMessage());
         }
@@ -0,0 +1,519 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.config.AsyncJobProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs long tool calls as asynchronous jobs so the MCP request returns at once.
+ * <p>
+ * A submitted job waits in a bounded queue for one of a fixed number of worker slots. Admission is
+ * by queue depth: once {@code queue-capacity} jobs are waiting, further submissions are rejected
+ * instead of piling up behind them. A job's task is subscribed to rather than blocked on, so a slot
+ * holds no thread while the task waits on Confluence. A finished job's Markdown output is kept for
+ * {@code result-ttl} and handed out in chunks of {@code output-chunk-size} characters, so large
+ * audit reports fit within a client's response limits.
+ * <p>
+ * Jobs that must not stop half-way, such as journaled batch updates, are submitted as not
+ * cancellable: they get no timeout and are left running at shutdown, where their journal takes
+ * over as it would after a crash.
+ */
+@Service
+public class AsyncJobService implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncJobService.class);
+    private static final DateTimeFormatter JOB_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss 'UTC'").withZone(ZoneOffset.UTC);
+    
+    private static final String ANSI_MAGENTA = "\u001B[35m";
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    /**
+     * Lifecycle of a job
+     */
+    public enum State {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED;
+        
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+    
+    /**
+     * Lets a running job tell {@code job-status} how far it has got
+     */
+    @FunctionalInterface
+    public interface Progress {
+        
+        Progress NONE = status -> {};
+        
+        /**
+         * Replace the job's progress line, shown while it runs and kept if it fails
+         */
+        void update(String status);
+        
+        /**
+         * Replace the output finished so far, which {@code job-result} hands out while the job runs
+         */
+        default void partial(String output) {}
+    }
+    
+    private static final class Job implements Progress {
+        final String id;
+        final String tool;
+        final String summary;
+        final Function<Progress, Mono<String>> task;
+        final boolean cancellable;
+        final Instant submittedAt = Instant.now();
+        volatile State state = State.QUEUED;
+        volatile Instant startedAt;
+        volatile Instant finishedAt;
+        volatile String progress;
+        volatile String partialOutput;
+        volatile String output;
+        volatile String error;
+        volatile Disposable subscription;
+        
+        Job(String id, String tool, String summary, Function<Progress, Mono<String>> task, boolean cancellable) {
+            this.id = id;
+            this.tool = tool;
+            this.summary = summary;
+            this.task = task;
+            this.cancellable = cancellable;
+        }
+        
+        @Override
+        public void update(String status) {
+            progress = status;
+        }
+        
+        @Override
+        public void partial(String output) {
+            partialOutput = output;
+        }
+        
+        Duration runTime() {
+            if (startedAt == null) {
+                return Duration.ZERO;
+            }
+            return Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now());
+        }
+    }
+    
+    private final AsyncJobProperties properties;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    
+    // Guards the slot count and the waiting queue
+    private final Object lock = new Object();
+    private final Deque<Job> waiting = new ArrayDeque<>();
+    private int active = 0;
+    private boolean shutDown = false;
+    
+    private final AtomicLong submitted = new AtomicLong(0);
+    private final AtomicLong succeeded = new AtomicLong(0);
+    private final AtomicLong failed = new AtomicLong(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+    
+    public AsyncJobService(AsyncJobProperties properties) {
+        this.properties = properties;
+    }
+    
+    /**
+     * Cancel running jobs that allow it and drop the queued ones; jobs that are not cancellable are
+     * left to finish or to be picked up from their own journal after the restart
+     */
+    @Override
+    public void destroy() {
+        synchronized (lock) {
+            shutDown = true;
+            waiting.clear();
+        }
+        for (Job job : jobs.values()) {
+            Disposable subscription = job.subscription;
+            if (job.state != State.RUNNING || subscription == null) {
+                continue;
+            }
+            if (job.cancellable) {
+                subscription.dispose();
+            } else {
+                logger.info("Leaving async {} job {} to its journal at shutdown", job.tool, job.id);
+            }
+        }
+    }
+    
+    /**
+     * Queue a cancellable tool call and describe how to follow it, or explain why it was not admitted
+     *
+     * @param tool name of the tool the job runs
+     * @param summary short description of the call, such as its main arguments
+     */
+    public String submit(String tool, String summary, Supplier<Mono<String>> task) {
+        return submit(tool, summary, progress -> task.get(), true);
+    }
+    
+    /**
+     * Queue a tool call that can report its progress
+     *
+     * @param cancellable whether the job may be stopped by the timeout or at shutdown; pass false for
+     *                    work that keeps its own journal and must not be cut off part-way
+     */
+    public String submit(String tool, String summary, Function<Progress, Mono<String>> task, boolean cancellable) {
+        evictExpired();
+        Job job = new Job(newJobId(), tool, summary, task, cancellable);
+        boolean startNow;
+        int waitingJobs;
+        synchronized (lock) {
+            startNow = !shutDown && active < properties.workers();
+            waitingJobs = waiting.size();
+            if (startNow) {
+                active++;
+            } else if (!shutDown && waitingJobs < properties.queueCapacity()) {
+                waiting.addLast(job);
+            } else {
+                rejected.incrementAndGet();
+                logger.info("Rejected async {} job: {} jobs already waiting", tool, waitingJobs);
+                return "❌ **Job queue full:** " + waitingJobs + " jobs are waiting for "
+                    + properties.workers() + " workers. Try again once `job-status` shows fewer jobs waiting, "
+                    + "or run the tool without `async`.";
+            }
+            jobs.put(job.id, job);
+        }
+        submitted.incrementAndGet();
+        logger.info("Queued async {} job {} ({})", tool, job.id, summary);
+        
+        int position = queuePosition(job);
+        if (startNow) {
+            start(job);
+        }
+        return "# ⏳ Job Queued\n\n" +
+               "- **Job ID:** `" + job.id + "`\n" +
+               "- **Tool:** " + tool + "\n" +
+               "- **Request:** " + summary + "\n" +
+               "- **Queue position:** " + (position > 0 ? position : "starting now") + "\n\n" +
+               "Follow it with `job-status` { \"jobId\": \"" + job.id + "\" } and fetch the report with " +
+               "`job-result` { \"jobId\": \"" + job.id + "\" } once it has succeeded.";
+    }
+    
+    /**
+     * Status of one job, or of all retained jobs when {@code jobId} is blank
+     */
+    public String status(String jobId) {
+        evictExpired();
+        if (jobId == null || jobId.isBlank()) {
+            return formatJobList();
+        }
+        Job job = jobs.get(jobId.trim());
+        if (job == null) {
+            return notFound(jobId);
+        }
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append("# ").append(stateIcon(job.state)).append(" Job `").append(job.id).append("`\n\n")
+          .append("- **State:** ").append(job.state).append("\n")
+          .append("- **Tool:** ").append(job.tool).append("\n")
+          .append("- **Request:** ").append(job.summary).append("\n")
+          .append("- **Submitted:** ").append(TIME_FORMAT.format(job.submittedAt)).append("\n");
+        
+        switch (job.state) {
+            case QUEUED -> sb.append("- **Queue position:** ").append(Math.max(1, queuePosition(job)))
+                             .append(" of ").append(waitingCount()).append("\n");
+            case RUNNING -> {
+                sb.append("- **Running for:** ").append(formatDuration(job.runTime())).append("\n");
+                appendProgress(sb, job);
+            }
+            case SUCCEEDED -> {
+                int chunks = chunkBoundaries(job.output, properties.outputChunkSize()).length - 1;
+                sb.append("- **Took:** ").append(formatDuration(job.runTime())).append("\n")
+                  .append("- **Output:** ").append(job.output.length()).append(" characters in ")
+                  .append(chunks).append(chunks == 1 ? " part" : " parts").append("\n\n")
+                  .append("Fetch it with `job-result` { \"jobId\": \"").append(job.id).append("\" }.");
+            }
+            case FAILED -> {
+                sb.append("- **Took:** ").append(formatDuration(job.runTime())).append("\n")
+                  .append("- **Error:** ").append(job.error).append("\n");
+                appendProgress(sb, job);
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * One part of a finished job's output, or of a running job's output so far; parts are numbered from 1
+     */
+    public String result(String jobId, Integer part) {
+        evictExpired();
+        if (jobId == null || jobId.isBlank()) {
+            return "❌ **Validation Error:** jobId is required";
+        }
+        Job job = jobs.get(jobId.trim());
+        if (job == null) {
+            return notFound(jobId);
+        }
+        if (job.state == State.FAILED) {
+            return "❌ **Job `" + job.id + "` failed:** " + job.error;
+        }
+        String partial = job.partialOutput;
+        boolean finished = job.state == State.SUCCEEDED;
+        if (!finished && (job.state != State.RUNNING || partial == null)) {
+            return "⏳ Job `" + job.id + "` is still " + job.state.name().toLowerCase()
+                + "; check `job-status` and fetch the result once it has succeeded.";
+        }
+        
+        String output = finished ? job.output : partial;
+        int[] boundaries = chunkBoundaries(output, properties.outputChunkSize());
+        int parts = boundaries.length - 1;
+        int index = part != null ? part : 1;
+        if (index < 1 || index > parts) {
+            return "❌ **Validation Error:** part must be between 1 and " + parts;
+        }
+        String content = output.substring(boundaries[index - 1], boundaries[index]);
+        if (finished && parts == 1) {
+            return content;
+        }
+        
+        StringBuilder sb = new StringBuilder();
+        if (!finished) {
+            // Earlier parts stay as they are while the output grows; only the last one can change
+            sb.append("> ⏳ Job `").append(job.id).append("` is still running; this is its output so far. ")
+              .append("Fetch the rest once `job-status` shows it has succeeded.\n");
+        }
+        sb.append("> 📄 Part ").append(index).append(" of ").append(parts).append(" of job `").append(job.id).append("`\n\n")
+          .append(content);
+        if (index < parts) {
+            sb.append("\n\n> Next: `job-result` { \"jobId\": \"").append(job.id).append("\", \"part\": ")
+              .append(index + 1).append(" }");
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Get formatted job queue statistics for the monitoring report
+     */
+    public String getFormattedStats() {
+        StringBuilder sb = new StringBuilder();
+        
+        sb.append(ANSI_BOLD).append(ANSI_MAGENTA).append("🧵 Async Jobs").append(ANSI_RESET).append("\n");
+        
+        sb.append("   ├─ Workers: ").append(ANSI_YELLOW).append(busyCount()).append("/")
+          .append(properties.workers()).append(ANSI_RESET).append(" busy, queue ")
+          .append(waitingCount()).append("/").append(properties.queueCapacity()).append("\n");
+        sb.append("   ├─ Running: ");
+        List<Job> running = jobs.values().stream().filter(job -> job.state == State.RUNNING).toList();
+        if (running.isEmpty()) {
+            sb.append(ANSI_CYAN).append("none").append(ANSI_RESET);
+        } else {
+            running.forEach(job -> sb.append(ANSI_YELLOW).append(job.id).append(ANSI_RESET).append(" (")
+                .append(job.tool).append(", ").append(formatDuration(job.runTime())).append(") "));
+        }
+        sb.append("\n");
+        sb.append("   └─ Jobs: ").append(submitted.get()).append(" submitted, ")
+          .append(succeeded.get()).append(" succeeded, ").append(failed.get()).append(" failed, ")
+          .append(rejected.get()).append(" rejected (queue full)");
+        
+        return sb.toString();
+    }
+    
+    /**
+     * Offsets splitting {@code text} into parts of at most {@code size} characters, starting and ending
+     * with the text's bounds; a part ends after its last line break when that keeps it over half full
+     */
+    static int[] chunkBoundaries(String text, int size) {
+        List<Integer> boundaries = new ArrayList<>();
+        boundaries.add(0);
+        int start = 0;
+        do {
+            int end = Math.min(text.length(), start + size);
+            if (end < text.length()) {
+                int lineBreak = text.lastIndexOf('\n', end - 1);
+                if (lineBreak >= start + size / 2) {
+                    end = lineBreak + 1;
+                }
+            }
+            boundaries.add(end);
+            start = end;
+        } while (start < text.length());
+        return boundaries.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    /**
+     * Subscribe to a job's task in the slot reserved for it; the slot passes on when the task ends
+     */
+    private void start(Job job) {
+        job.startedAt = Instant.now();
+        job.state = State.RUNNING;
+        Mono<String> task = Mono.defer(() -> job.task.apply(job))
+            .defaultIfEmpty("");
+        if (job.cancellable) {
+            task = task.timeout(properties.timeout());
+        }
+        job.subscription = task
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(output -> succeed(job, output), error -> fail(job, error));
+    }
+    
+    private void succeed(Job job, String output) {
+        job.output = output;
+        job.finishedAt = Instant.now();
+        job.state = State.SUCCEEDED;
+        succeeded.incrementAndGet();
+        logger.info("Async {} job {} succeeded in {}", job.tool, job.id, formatDuration(job.runTime()));
+        startNext();
+    }
+    
+    private void fail(Job job, Throwable error) {
+        if (error instanceof TimeoutException) {
+            job.error = "Timed out after " + formatDuration(properties.timeout());
+        } else {
+            job.error = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        }
+        job.finishedAt = Instant.now();
+        job.state = State.FAILED;
+        failed.incrementAndGet();
+        logger.warn("Async {} job {} failed: {}", job.tool, job.id, job.error);
+        startNext();
+    }
+    
+    private void startNext() {
+        Job next;
+        synchronized (lock) {
+            next = waiting.pollFirst();
+            if (next == null) {
+                active--;
+            }
+        }
+        if (next != null) {
+            start(next);
+        }
+    }
+    
+    private int queuePosition(Job job) {
+        synchronized (lock) {
+            int position = 1;
+            for (Job queued : waiting) {
+                if (queued == job) {
+                    return position;
+                }
+                position++;
+            }
+        }
+        return 0;
+    }
+    
+    private int busyCount() {
+        synchronized (lock) {
+            return active;
+        }
+    }
+    
+    private int waitingCount() {
+        synchronized (lock) {
+            return waiting.size();
+        }
+    }
+    
+    private static void appendProgress(StringBuilder sb, Job job) {
+        if (job.progress != null) {
+            sb.append("- **Progress:** ").append(job.progress).append("\n");
+        }
+        String partial = job.partialOutput;
+        if (partial != null && job.state == State.RUNNING) {
+            sb.append("- **Output so far:** ").append(partial.length()).append(" characters; fetch it with `job-result` { \"jobId\": \"")
+              .append(job.id).append("\" }\n");
+        }
+    }
+    
+    /**
+     * Drop finished jobs past their time to live, then the oldest beyond the retention count
+     */
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(properties.resultTtl());
+        jobs.values().removeIf(job -> job.state.isFinished() && job.finishedAt.isBefore(cutoff));
+        
+        List<Job> finished = jobs.values().stream()
+            .filter(job -> job.state.isFinished())
+            .sorted(Comparator.comparing((Job job) -> job.finishedAt))
+            .toList();
+        for (int i = 0; i < finished.size() - properties.maxRetainedJobs(); i++) {
+            jobs.remove(finished.get(i).id);
+        }
+    }
+    
+    private String formatJobList() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# 📋 Async Jobs\n\n")
+          .append("**Workers:** ").append(busyCount()).append("/").append(properties.workers())
+          .append(" busy, **waiting:** ").append(waitingCount()).append("/")
+          .append(properties.queueCapacity()).append("\n\n");
+        
+        if (jobs.isEmpty()) {
+            return sb.append("No jobs submitted in the last ").append(formatDuration(properties.resultTtl()))
+                .append(". Pass `\"async\": true` to a long-running tool to start one.").toString();
+        }
+        
+        sb.append("| Job ID | Tool | State | Run time |\n")
+          .append("|---|---|---|---|\n");
+        jobs.values().stream()
+            .sorted(Comparator.comparing((Job job) -> job.submittedAt).reversed())
+            .forEach(job -> sb.append("| `").append(job.id).append("` | ").append(job.tool).append(" | ")
+                .append(stateIcon(job.state)).append(" ").append(job.state).append(" | ")
+                .append(formatDuration(job.runTime())).append(" |\n"));
+        return sb.toString();
+    }
+    
+    private String notFound(String jobId) {
+        return "❌ **Job not found:** `" + jobId + "`. Finished jobs are kept for "
+            + formatDuration(properties.resultTtl()) + "; call `job-status` without a jobId to list them.";
+    }
+    
+    private static String stateIcon(State state) {
+        return switch (state) {
+            case QUEUED -> "⏳";
+            case RUNNING -> "🔄";
+            case SUCCEEDED -> "✅";
+            case FAILED -> "❌";
+        };
+    }
+    
+    private static String newJobId() {
+        return "async-" + JOB_ID_FORMAT.format(Instant.now()) + "-"
+            + String.format("%04x", ThreadLocalRandom.current().nextInt(0x10000));
+    }
+    
+    private static String formatDuration(Duration duration) {
+        if (duration.toHours() > 0) {
+            return duration.toHours() + "h " + duration.toMinutesPart() + "m";
+        }
+        if (duration.toMinutes() > 0) {
+            return duration.toMinutes() + "m " + duration.toSecondsPart() + "s";
+        }
+        return duration.toSeconds() + "s";
+    }
+}
\ No newline at end of file
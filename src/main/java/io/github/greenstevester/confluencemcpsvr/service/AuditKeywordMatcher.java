@@ -0,0 +1,176 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.index.KeywordAutomaton;
+import io.github.greenstevester.confluencemcpsvr.index.TextAnalyzer;
+import io.github.greenstevester.confluencemcpsvr.service.DocumentationAuditService.AuditQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds which audit keyword categories a page hits, in one pass over its title and body.
+ * <p>
+ * Every keyword-based {@link AuditQuery} is a category, with its keywords taken from the
+ * {@code text~} and {@code title~} terms of its CQL so the two cannot drift apart, and so are the
+ * keyword lists of {@link DocumentationMiningService}. All keywords go into one Aho-Corasick
+ * automaton for bodies and one for titles, which also holds the title-only terms, so a page is
+ * scanned once instead of once per remote CQL query.
+ */
+@Component
+public class AuditKeywordMatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditKeywordMatcher.class);
+    
+    // Positions kept per category and page
+    public static final int MAX_POSITIONS = 5;
+    
+    private static final Pattern CQL_TERMS = Pattern.compile("(text|title)~'([^']*)'");
+    private static final Pattern CQL_OR = Pattern.compile("\\s+OR\\s+");
+    
+    public record CategoryMatch(
+        String category,
+        String description,
+        int count,
+        List<Integer> positions
+    ) {}
+    
+    private final List<String> categoryNames = new ArrayList<>();
+    private final List<String> categoryDescriptions = new ArrayList<>();
+    private final Map<AuditQuery, Integer> queryCategories = new EnumMap<>(AuditQuery.class);
+    private final KeywordAutomaton textAutomaton;
+    private final KeywordAutomaton titleAutomaton;
+    private final int signature;
+    
+    public AuditKeywordMatcher() {
+        this(LocalDate.now());
+    }
+    
+    AuditKeywordMatcher(LocalDate today) {
+        KeywordAutomaton.Builder text = KeywordAutomaton.builder();
+        KeywordAutomaton.Builder title = KeywordAutomaton.builder();
+        
+        for (AuditQuery query : AuditQuery.values()) {
+            Matcher terms = CQL_TERMS.matcher(query.getCql(today));
+            int category = -1;
+            while (terms.find()) {
+                if (category < 0) {
+                    category = addCategory(query.name(), query.getDescription());
+                    queryCategories.put(query, category);
+                }
+                boolean titleOnly = terms.group(1).equals("title");
+                for (String keyword : CQL_OR.split(terms.group(2))) {
+                    title.add(keyword, category);
+                    if (!titleOnly) {
+                        text.add(keyword, category);
+                    }
+                }
+            }
+        }
+        addKeywords(text, title, "STALENESS_INDICATORS", "Staleness indicators", DocumentationMiningService.STALENESS_INDICATORS);
+        addKeywords(text, title, "ARCHITECTURE_KEYWORDS", "Architecture keywords", DocumentationMiningService.ARCHITECTURE_KEYWORDS);
+        addKeywords(text, title, "TECHNOLOGY_KEYWORDS", "Technology keywords", DocumentationMiningService.TECHNOLOGY_KEYWORDS);
+        
+        this.textAutomaton = text.build();
+        this.titleAutomaton = title.build();
+        // Age-based queries move their date cutoff daily, so they count by age, which is all a result depends on
+        this.signature = List.of(categoryNames,
+            Arrays.stream(AuditQuery.values())
+                .map(query -> query.getAgeMonths() > 0 ? query.getAgeMonths() + " months" : query.getCql(today))
+                .toList(),
+            DocumentationMiningService.STALENESS_INDICATORS,
+            DocumentationMiningService.ARCHITECTURE_KEYWORDS,
+            DocumentationMiningService.TECHNOLOGY_KEYWORDS).hashCode();
+        logger.debug("Built audit keyword automata: {} categories, {} body keywords in {} states",
+            categoryNames.size(), textAutomaton.keywordCount(), textAutomaton.stateCount());
+    }
+    
+    /**
+     * Creates reusable scan state; keep one per worker and pass it to {@link #scan}
+     */
+    public KeywordAutomaton.Hits newHits() {
+        return titleAutomaton.newHits(MAX_POSITIONS);
+    }
+    
+    /**
+     * Scans a page into {@code hits}, replacing what they held. Positions are offsets into the
+     * title followed by a newline and the plain-text body.
+     */
+    public void scan(String title, String plainBody, KeywordAutomaton.Hits hits) {
+        hits.clear();
+        if (title != null) {
+            titleAutomaton.scan(title, hits);
+        }
+        if (plainBody != null) {
+            hits.setOffset(title != null ? title.length() + 1 : 0);
+            textAutomaton.scan(plainBody, hits);
+        }
+    }
+    
+    /**
+     * The categories a page hits, for one-off use; streaming callers should reuse hits with {@link #scan}
+     */
+    public List<CategoryMatch> match(String title, String storageBody) {
+        KeywordAutomaton.Hits hits = newHits();
+        scan(title, TextAnalyzer.stripMarkup(storageBody), hits);
+        
+        List<CategoryMatch> matches = new ArrayList<>();
+        for (int category = 0; category < categoryNames.size(); category++) {
+            if (!hits.hit(category)) {
+                continue;
+            }
+            List<Integer> positions = new ArrayList<>(hits.positionCount(category));
+            for (int i = 0; i < hits.positionCount(category); i++) {
+                positions.add(hits.position(category, i));
+            }
+            matches.add(new CategoryMatch(categoryNames.get(category), categoryDescriptions.get(category),
+                hits.count(category), positions));
+        }
+        return matches;
+    }
+    
+    /**
+     * The category of a keyword-based audit query, or -1 for queries without keywords
+     */
+    public int categoryOf(AuditQuery query) {
+        return queryCategories.getOrDefault(query, -1);
+    }
+    
+    public int categoryCount() {
+        return categoryNames.size();
+    }
+    
+    public String categoryName(int category) {
+        return categoryNames.get(category);
+    }
+    
+    /**
+     * Changes whenever a category or keyword does, so stored results can be checked for staleness
+     */
+    public int signature() {
+        return signature;
+    }
+    
+    private int addCategory(String name, String description) {
+        categoryNames.add(name);
+        categoryDescriptions.add(description);
+        return categoryNames.size() - 1;
+    }
+    
+    private void addKeywords(KeywordAutomaton.Builder text, KeywordAutomaton.Builder title,
+                             String name, String description, List<String> keywords) {
+        int category = addCategory(name, description);
+        for (String keyword : keywords) {
+            text.add(keyword, category);
+            title.add(keyword, category);
+        }
+    }
+}
\ No newline at end of file
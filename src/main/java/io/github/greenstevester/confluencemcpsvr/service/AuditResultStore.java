@@ -0,0 +1,257 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.greenstevester.confluencemcpsvr.config.AuditProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent per-page keyword results of streamed audits, keyed by page ID and version.
+ * <p>
+ * A page's keyword hits only change when its content does, so a later audit can take the counts
+ * of every page whose version is unchanged from here and scan only the pages that were edited.
+ * Results are stored sparsely, as the categories a page hits and their counts, and are tied to
+ * the signature of the keyword categories, so changing a checklist invalidates the whole store
+ * instead of serving counts for keywords that no longer exist. Spaces are remembered once fully
+ * scanned, which lets the engine list them without bodies and fetch only changed pages.
+ */
+@Component
+public class AuditResultStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditResultStore.class);
+    private static final String RESULTS_FILE = "audit-results.json";
+    
+    private static final String ANSI_MAGENTA = "\u001B[35m";
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    /**
+     * Keyword result of one page version; {@code categories} and {@code counts} are parallel
+     */
+    public record PageResult(
+        int version,
+        String spaceKey,
+        int[] categories,
+        int[] counts
+    ) {}
+    
+    record StoreFile(
+        int signature,
+        Set<String> scannedSpaces,
+        Map<String, PageResult> pages
+    ) {}
+    
+    private final AuditProperties properties;
+    private final AuditKeywordMatcher keywordMatcher;
+    private final ObjectMapper objectMapper;
+    
+    private final Map<String, PageResult> pages = new ConcurrentHashMap<>();
+    private final Set<String> scannedSpaces = ConcurrentHashMap.newKeySet();
+    private final AtomicLong reused = new AtomicLong(0);
+    private final AtomicLong evaluated = new AtomicLong(0);
+    private volatile boolean loaded;
+    private volatile boolean dirty;
+    
+    public AuditResultStore(AuditProperties properties, AuditKeywordMatcher keywordMatcher, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.keywordMatcher = keywordMatcher;
+        this.objectMapper = objectMapper;
+    }
+    
+    public boolean isEnabled() {
+        return properties.incremental();
+    }
+    
+    /**
+     * Fill {@code counts}, indexed by keyword category, with the stored result of this page version
+     *
+     * @return false if the version has not been evaluated, leaving {@code counts} untouched
+     */
+    public boolean lookup(String pageId, int version, int[] counts) {
+        if (!isEnabled() || pageId == null || version <= 0) {
+            return false;
+        }
+        ensureLoaded();
+        PageResult result = pages.get(pageId);
+        if (result == null || result.version() != version) {
+            return false;
+        }
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < result.categories().length; i++) {
+            counts[result.categories()[i]] = result.counts()[i];
+        }
+        reused.incrementAndGet();
+        return true;
+    }
+    
+    public boolean contains(String pageId, int version) {
+        if (!isEnabled() || pageId == null || version <= 0) {
+            return false;
+        }
+        ensureLoaded();
+        PageResult result = pages.get(pageId);
+        return result != null && result.version() == version;
+    }
+    
+    /**
+     * Store the counts of a freshly evaluated page version, replacing older versions
+     */
+    public void record(String pageId, int version, String spaceKey, int[] counts) {
+        evaluated.incrementAndGet();
+        if (!isEnabled() || pageId == null || version <= 0) {
+            return;
+        }
+        ensureLoaded();
+        int hit = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                hit++;
+            }
+        }
+        int[] categories = new int[hit];
+        int[] hitCounts = new int[hit];
+        for (int category = 0, i = 0; category < counts.length; category++) {
+            if (counts[category] > 0) {
+                categories[i] = category;
+                hitCounts[i++] = counts[category];
+            }
+        }
+        pages.put(pageId, new PageResult(version, spaceKey, categories, hitCounts));
+        dirty = true;
+    }
+    
+    /**
+     * Whether every page of the space has been evaluated by an earlier complete audit
+     */
+    public boolean hasScanned(String spaceKey) {
+        if (!isEnabled()) {
+            return false;
+        }
+        ensureLoaded();
+        return scannedSpaces.contains(spaceKey);
+    }
+    
+    /**
+     * Finish a complete scan: drop results of pages in the scanned spaces that were not seen, as
+     * they were deleted or moved away, and remember the spaces as scanned
+     *
+     * @param spaceKeys the scanned spaces, or null if every page was scanned
+     */
+    public void completeScan(Collection<String> spaceKeys, Set<String> seenPageIds) {
+        if (!isEnabled()) {
+            return;
+        }
+        ensureLoaded();
+        Set<String> scope = spaceKeys != null ? new HashSet<>(spaceKeys) : null;
+        boolean removed = pages.entrySet().removeIf(entry -> !seenPageIds.contains(entry.getKey())
+            && (scope == null || scope.contains(entry.getValue().spaceKey())));
+        boolean added;
+        if (scope != null) {
+            added = scannedSpaces.addAll(scope);
+        } else {
+            added = scannedSpaces.addAll(pages.values().stream()
+                .map(PageResult::spaceKey)
+                .filter(Objects::nonNull)
+                .toList());
+        }
+        if (removed || added) {
+            dirty = true;
+        }
+    }
+    
+    public int size() {
+        return pages.size();
+    }
+    
+    /**
+     * Save the store atomically if it changed since the last save
+     */
+    public synchronized void save() {
+        if (!isEnabled() || !dirty) {
+            return;
+        }
+        Path file = Paths.get(properties.stateDir()).resolve(RESULTS_FILE);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(),
+                new StoreFile(keywordMatcher.signature(), new HashSet<>(scannedSpaces), new HashMap<>(pages)));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            logger.warn("Could not persist audit results to {}: {}", file, e.getMessage());
+        }
+    }
+    
+    /**
+     * Get formatted store statistics for the monitoring report
+     */
+    public String getFormattedStats() {
+        StringBuilder sb = new StringBuilder();
+        
+        sb.append(ANSI_BOLD).append(ANSI_MAGENTA).append("🧾 Audit Result Store").append(ANSI_RESET).append("\n");
+        
+        if (!isEnabled()) {
+            sb.append("   └─ ").append(ANSI_CYAN).append("Incremental audits disabled").append(ANSI_RESET);
+            return sb.toString();
+        }
+        
+        long reusedCount = reused.get();
+        long total = reusedCount + evaluated.get();
+        sb.append("   ├─ Stored Pages: ").append(ANSI_YELLOW).append(pages.size()).append(ANSI_RESET)
+          .append(" in ").append(scannedSpaces.size()).append(" scanned spaces\n");
+        sb.append("   └─ Reused: ").append(ANSI_YELLOW).append(reusedCount).append(ANSI_RESET)
+          .append(" of ").append(total).append(" page evaluations");
+        if (total > 0) {
+            sb.append(String.format(" (%.1f%%)", 100.0 * reusedCount / total));
+        }
+        
+        return sb.toString();
+    }
+    
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            Path file = Paths.get(properties.stateDir()).resolve(RESULTS_FILE);
+            try {
+                if (Files.exists(file)) {
+                    StoreFile stored = objectMapper.readValue(file.toFile(), StoreFile.class);
+                    if (stored.signature() == keywordMatcher.signature()) {
+                        pages.putAll(stored.pages());
+                        scannedSpaces.addAll(stored.scannedSpaces());
+                        logger.info("Loaded {} audit results from {}", pages.size(), file);
+                    } else {
+                        // The checklist keywords changed, so every stored count may be wrong
+                        logger.info("Discarding audit results in {}: audit keywords changed", file);
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Could not load audit results from {}, re-evaluating all pages: {}", file, e.getMessage());
+            }
+            loaded = true;
+        }
+    }
+}
\ No newline at end of file
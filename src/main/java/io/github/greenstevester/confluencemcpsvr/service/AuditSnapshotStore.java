@@ -0,0 +1,314 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.config.AuditProperties;
+import io.github.greenstevester.confluencemcpsvr.index.SortedIdSet;
+import io.github.greenstevester.confluencemcpsvr.service.StreamingAuditEngine.AuditRun;
+import io.github.greenstevester.confluencemcpsvr.service.StreamingAuditEngine.PageHit;
+import io.github.greenstevester.confluencemcpsvr.service.StreamingAuditEngine.QueryResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact, versioned binary snapshots of streamed audit results, for comparing audits over time.
+ * <p>
+ * A snapshot keeps, per checklist query, the sorted set of page IDs it flagged, and per space the
+ * number of pages scanned and the hits of each query. Titles, bodies and keyword positions are
+ * left out, so a snapshot costs a few bytes per flagged page: IDs are stored as varint gaps by
+ * {@link SortedIdSet} and the file is gzipped. Each file starts with a magic number and a format
+ * version so older snapshots stay readable after the format changes.
+ */
+@Component
+public class AuditSnapshotStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditSnapshotStore.class);
+    
+    private static final int MAGIC = 0x41554454; // "AUDT"
+    private static final int FORMAT_VERSION = 1;
+    private static final String SNAPSHOT_DIR = "snapshots";
+    private static final String EXTENSION = ".audit";
+    private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final Pattern ID_PATTERN = Pattern.compile("\\d{8}-\\d{6}(-\\d+)?");
+    
+    public record QuerySnapshot(
+        String query,
+        SortedIdSet pages
+    ) {}
+    
+    /**
+     * Per-space totals; {@code queryHits} is parallel to the snapshot's queries
+     */
+    public record SpaceAggregate(
+        String spaceKey,
+        int pages,
+        int[] queryHits
+    ) {}
+    
+    public record AuditSnapshot(
+        String id,
+        Instant createdAt,
+        List<String> spaceKeys,
+        int pagesScanned,
+        boolean truncated,
+        List<QuerySnapshot> queries,
+        List<SpaceAggregate> spaces
+    ) {
+        
+        public QuerySnapshot query(String name) {
+            return queries.stream().filter(query -> query.query().equals(name)).findFirst().orElse(null);
+        }
+    }
+    
+    public record SnapshotInfo(
+        String id,
+        Instant createdAt,
+        List<String> spaceKeys,
+        int pagesScanned,
+        int queryCount,
+        long sizeBytes
+    ) {}
+    
+    private final AuditProperties properties;
+    
+    public AuditSnapshotStore(AuditProperties properties) {
+        this.properties = properties;
+    }
+    
+    /**
+     * Snapshot a finished audit run and prune snapshots beyond the retention count
+     */
+    public synchronized AuditSnapshot save(AuditRun run) throws IOException {
+        Path dir = snapshotDir();
+        Files.createDirectories(dir);
+        Instant createdAt = Instant.now();
+        String id = ID_FORMAT.format(createdAt);
+        for (int suffix = 1; Files.exists(dir.resolve(id + EXTENSION)); suffix++) {
+            id = ID_FORMAT.format(createdAt) + "-" + suffix;
+        }
+        
+        AuditSnapshot snapshot = fromRun(id, createdAt, run);
+        Path file = dir.resolve(id + EXTENSION);
+        Path temp = dir.resolve(id + EXTENSION + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            write(snapshot, out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Saved audit snapshot {} ({} bytes)", id, Files.size(file));
+        
+        prune();
+        return snapshot;
+    }
+    
+    /**
+     * All readable snapshots, oldest first
+     */
+    public List<SnapshotInfo> list() {
+        List<SnapshotInfo> snapshots = new ArrayList<>();
+        for (Path file : snapshotFiles()) {
+            String id = idOf(file);
+            try (InputStream in = Files.newInputStream(file)) {
+                // Only the header is decompressed
+                Header header = readHeader(open(in));
+                snapshots.add(new SnapshotInfo(id, header.createdAt(), header.spaceKeys(), header.pagesScanned(),
+                    header.queryCount(), Files.size(file)));
+            } catch (IOException e) {
+                logger.warn("Skipping unreadable audit snapshot {}: {}", file, e.getMessage());
+            }
+        }
+        snapshots.sort(Comparator.comparing(SnapshotInfo::createdAt).thenComparing(SnapshotInfo::id));
+        return snapshots;
+    }
+    
+    /**
+     * Load a snapshot by ID
+     *
+     * @return the snapshot, or null if there is none with that ID
+     */
+    public AuditSnapshot load(String id) throws IOException {
+        if (id == null || !ID_PATTERN.matcher(id).matches()) {
+            return null;
+        }
+        Path file = snapshotDir().resolve(id + EXTENSION);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(id, in);
+        }
+    }
+    
+    static AuditSnapshot fromRun(String id, Instant createdAt, AuditRun run) {
+        List<QuerySnapshot> queries = new ArrayList<>(run.results().size());
+        Map<String, int[]> spaceHits = new TreeMap<>();
+        for (int q = 0; q < run.results().size(); q++) {
+            QueryResult result = run.results().get(q);
+            queries.add(new QuerySnapshot(result.query().name(),
+                SortedIdSet.of(result.pages().stream().map(PageHit::pageId).toList())));
+            for (PageHit page : result.pages()) {
+                if (page.spaceKey() != null) {
+                    spaceHits.computeIfAbsent(page.spaceKey(), key -> new int[run.results().size()])[q]++;
+                }
+            }
+        }
+        
+        Map<String, Integer> spacePages = new TreeMap<>(run.spacePages());
+        spaceHits.keySet().forEach(key -> spacePages.putIfAbsent(key, 0));
+        List<SpaceAggregate> spaces = new ArrayList<>(spacePages.size());
+        spacePages.forEach((key, pages) -> spaces.add(new SpaceAggregate(key, pages,
+            spaceHits.getOrDefault(key, new int[run.results().size()]))));
+        
+        return new AuditSnapshot(id, createdAt, run.spaceKeys(), run.pagesScanned(), run.truncated(), queries, spaces);
+    }
+    
+    static void write(AuditSnapshot snapshot, OutputStream target) throws IOException {
+        DataOutputStream header = new DataOutputStream(target);
+        header.writeInt(MAGIC);
+        header.writeByte(FORMAT_VERSION);
+        header.flush();
+        
+        GZIPOutputStream gzip = new GZIPOutputStream(target);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip));
+        out.writeLong(snapshot.createdAt().toEpochMilli());
+        out.writeBoolean(snapshot.truncated());
+        SortedIdSet.writeVLong(out, snapshot.pagesScanned());
+        SortedIdSet.writeVLong(out, snapshot.spaceKeys().size());
+        for (String spaceKey : snapshot.spaceKeys()) {
+            out.writeUTF(spaceKey);
+        }
+        SortedIdSet.writeVLong(out, snapshot.queries().size());
+        for (QuerySnapshot query : snapshot.queries()) {
+            out.writeUTF(query.query());
+            query.pages().writeTo(out);
+        }
+        SortedIdSet.writeVLong(out, snapshot.spaces().size());
+        for (SpaceAggregate space : snapshot.spaces()) {
+            out.writeUTF(space.spaceKey());
+            SortedIdSet.writeVLong(out, space.pages());
+            for (int hits : space.queryHits()) {
+                SortedIdSet.writeVLong(out, hits);
+            }
+        }
+        out.flush();
+        gzip.finish();
+    }
+    
+    static AuditSnapshot read(String id, InputStream source) throws IOException {
+        DataInputStream in = open(source);
+        Header header = readHeader(in);
+        List<QuerySnapshot> queries = new ArrayList<>(header.queryCount());
+        for (int i = 0; i < header.queryCount(); i++) {
+            queries.add(new QuerySnapshot(in.readUTF(), SortedIdSet.readFrom(in)));
+        }
+        int spaceCount = (int) SortedIdSet.readVLong(in);
+        List<SpaceAggregate> spaces = new ArrayList<>(spaceCount);
+        for (int i = 0; i < spaceCount; i++) {
+            String spaceKey = in.readUTF();
+            int pages = (int) SortedIdSet.readVLong(in);
+            int[] hits = new int[header.queryCount()];
+            for (int q = 0; q < hits.length; q++) {
+                hits[q] = (int) SortedIdSet.readVLong(in);
+            }
+            spaces.add(new SpaceAggregate(spaceKey, pages, hits));
+        }
+        return new AuditSnapshot(id, header.createdAt(), header.spaceKeys(), header.pagesScanned(), header.truncated(),
+            queries, spaces);
+    }
+    
+    private record Header(
+        Instant createdAt,
+        boolean truncated,
+        int pagesScanned,
+        List<String> spaceKeys,
+        int queryCount
+    ) {}
+    
+    /**
+     * Check the magic number and format version and return a reader of the compressed content
+     */
+    private static DataInputStream open(InputStream source) throws IOException {
+        DataInputStream prefix = new DataInputStream(source);
+        if (prefix.readInt() != MAGIC) {
+            throw new IOException("Not an audit snapshot");
+        }
+        int version = prefix.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported audit snapshot format " + version);
+        }
+        return new DataInputStream(new BufferedInputStream(new GZIPInputStream(source)));
+    }
+    
+    private static Header readHeader(DataInputStream in) throws IOException {
+        Instant createdAt = Instant.ofEpochMilli(in.readLong());
+        boolean truncated = in.readBoolean();
+        int pagesScanned = (int) SortedIdSet.readVLong(in);
+        int spaceKeyCount = (int) SortedIdSet.readVLong(in);
+        List<String> spaceKeys = new ArrayList<>(spaceKeyCount);
+        for (int i = 0; i < spaceKeyCount; i++) {
+            spaceKeys.add(in.readUTF());
+        }
+        return new Header(createdAt, truncated, pagesScanned, spaceKeys, (int) SortedIdSet.readVLong(in));
+    }
+    
+    private void prune() {
+        List<Path> files = snapshotFiles();
+        // IDs are UTC timestamps, so ID order is age order
+        for (int i = 0; i < files.size() - properties.snapshotRetention(); i++) {
+            try {
+                Files.deleteIfExists(files.get(i));
+            } catch (IOException e) {
+                logger.warn("Could not delete old audit snapshot {}: {}", files.get(i), e.getMessage());
+            }
+        }
+    }
+    
+    private List<Path> snapshotFiles() {
+        Path dir = snapshotDir();
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(EXTENSION))
+                .filter(file -> ID_PATTERN.matcher(idOf(file)).matches())
+                // Same-second IDs carry a numeric suffix, which plain name order would put first
+                .sorted(Comparator.comparing((Path file) -> idOf(file).substring(0, 15))
+                    .thenComparingInt(file -> idOf(file).length() > 15 ? Integer.parseInt(idOf(file).substring(16)) : 0))
+                .toList();
+        } catch (IOException e) {
+            logger.warn("Could not list audit snapshots in {}: {}", dir, e.getMessage());
+            return List.of();
+        }
+    }
+    
+    private Path snapshotDir() {
+        return Paths.get(properties.stateDir()).resolve(SNAPSHOT_DIR);
+    }
+    
+    private static String idOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - EXTENSION.length());
+    }
+}
\ No newline at end of file
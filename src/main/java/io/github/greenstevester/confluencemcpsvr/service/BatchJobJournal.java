@@ -0,0 +1,270 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.index.SortedIdSet;
+import io.github.greenstevester.confluencemcpsvr.service.BatchUpdatePipeline.Status;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of one batch job.
+ * <p>
+ * The first record plans the job: its ID, template and page IDs. Before each page update a
+ * STARTED record holds the version the update was computed from, after it a COMPLETED record holds
+ * the outcome, and a FINISHED record closes the job; a CANCELLED record closes a job that was stopped
+ * part-way on purpose, which is then not resumed. A record is a type byte, the varint length of
+ * its payload, the payload and a CRC32 of type and payload, and is forced to disk before the
+ * append returns, so the journal is never behind Confluence. A crash can tear the last record; replay
+ * stops at the first record that does not check out and {@link #reopen} cuts it off before
+ * appending again.
+ */
+public final class BatchJobJournal implements Closeable {
+    
+    private static final byte PLANNED = 1;
+    private static final byte STARTED = 2;
+    private static final byte COMPLETED = 3;
+    private static final byte FINISHED = 4;
+    private static final byte CANCELLED = 5;
+    
+    /**
+     * Final outcome of one page as journaled
+     */
+    public record CompletedOperation(Status status, int toVersion) {}
+    
+    /**
+     * A job as replayed from its journal
+     *
+     * @param startedVersions version the latest update of each page was computed from, for pages whose update started
+     * @param completed outcome of each completed page
+     * @param finished whether every page was completed
+     * @param cancelled whether the job was stopped part-way on purpose
+     * @param validLength bytes of the journal up to the end of the last intact record
+     */
+    public record JobState(
+        String jobId,
+        Instant createdAt,
+        String template,
+        List<String> pageIds,
+        Map<String, Integer> startedVersions,
+        Map<String, CompletedOperation> completed,
+        boolean finished,
+        boolean cancelled,
+        long validLength
+    ) {
+        
+        /**
+         * Whether the job ended, finished or cancelled, and must not be resumed
+         */
+        public boolean ended() {
+            return finished || cancelled;
+        }
+        
+        /**
+         * Pages without a completed record, in plan order
+         */
+        public List<String> pendingPageIds() {
+            return pageIds.stream().filter(pageId -> !completed.containsKey(pageId)).toList();
+        }
+        
+        /**
+         * Pending pages whose update started and may or may not have reached Confluence, with the version it started from
+         */
+        public Map<String, Integer> inDoubt() {
+            Map<String, Integer> inDoubt = new LinkedHashMap<>();
+            for (String pageId : pendingPageIds()) {
+                Integer version = startedVersions.get(pageId);
+                if (version != null) {
+                    inDoubt.put(pageId, version);
+                }
+            }
+            return inDoubt;
+        }
+    }
+    
+    private final FileChannel channel;
+    
+    private BatchJobJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+    
+    /**
+     * Create the journal of a new job and write its plan
+     */
+    public static BatchJobJournal create(Path file, String jobId, Instant createdAt, String template,
+                                         List<String> pageIds) throws IOException {
+        BatchJobJournal journal = new BatchJobJournal(
+            FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+        try {
+            journal.append(PLANNED, out -> {
+                out.writeUTF(jobId);
+                SortedIdSet.writeVLong(out, createdAt.toEpochMilli());
+                out.writeUTF(template);
+                SortedIdSet.writeVLong(out, pageIds.size());
+                for (String pageId : pageIds) {
+                    out.writeUTF(pageId);
+                }
+            });
+        } catch (IOException e) {
+            journal.close();
+            throw e;
+        }
+        return journal;
+    }
+    
+    /**
+     * Open a replayed journal for appending, dropping anything after its last intact record
+     */
+    public static BatchJobJournal reopen(Path file, JobState state) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(state.validLength());
+            channel.position(state.validLength());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new BatchJobJournal(channel);
+    }
+    
+    public void started(String pageId, int fromVersion) throws IOException {
+        append(STARTED, out -> {
+            out.writeUTF(pageId);
+            SortedIdSet.writeVLong(out, fromVersion);
+        });
+    }
+    
+    public void completed(String pageId, Status status, int toVersion) throws IOException {
+        append(COMPLETED, out -> {
+            out.writeUTF(pageId);
+            out.writeUTF(status.name());
+            SortedIdSet.writeVLong(out, Math.max(0, toVersion));
+        });
+    }
+    
+    public void finished() throws IOException {
+        append(FINISHED, out -> {});
+    }
+    
+    public void cancelled() throws IOException {
+        append(CANCELLED, out -> {});
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    /**
+     * Replay a journal up to its last intact record
+     *
+     * @throws IOException if the file cannot be read or does not start with an intact plan
+     */
+    public static JobState replay(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        
+        String jobId = null;
+        Instant createdAt = null;
+        String template = null;
+        List<String> pageIds = new ArrayList<>();
+        Map<String, Integer> startedVersions = new LinkedHashMap<>();
+        Map<String, CompletedOperation> completed = new LinkedHashMap<>();
+        boolean finished = false;
+        boolean cancelled = false;
+        long validLength = 0;
+        
+        while (validLength < data.length) {
+            try {
+                byte type = in.readByte();
+                long length = SortedIdSet.readVLong(in);
+                if (length > in.available()) {
+                    break;
+                }
+                byte[] payload = new byte[(int) length];
+                in.readFully(payload);
+                if (in.readInt() != checksum(type, payload)) {
+                    break;
+                }
+                
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                if (type == PLANNED && jobId == null) {
+                    jobId = record.readUTF();
+                    createdAt = Instant.ofEpochMilli(SortedIdSet.readVLong(record));
+                    template = record.readUTF();
+                    long count = SortedIdSet.readVLong(record);
+                    for (long i = 0; i < count; i++) {
+                        pageIds.add(record.readUTF());
+                    }
+                } else if (type == STARTED && jobId != null) {
+                    startedVersions.put(record.readUTF(), (int) SortedIdSet.readVLong(record));
+                } else if (type == COMPLETED && jobId != null) {
+                    String pageId = record.readUTF();
+                    Status status = Status.valueOf(record.readUTF());
+                    completed.put(pageId, new CompletedOperation(status, (int) SortedIdSet.readVLong(record)));
+                } else if (type == FINISHED && jobId != null) {
+                    finished = true;
+                } else if (type == CANCELLED && jobId != null) {
+                    cancelled = true;
+                } else {
+                    break;
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                // A torn or unreadable record ends the journal
+                break;
+            }
+            validLength = data.length - in.available();
+        }
+        
+        if (jobId == null) {
+            throw new IOException("Not a batch job journal: " + file);
+        }
+        return new JobState(jobId, createdAt, template, List.copyOf(pageIds), startedVersions, completed,
+            finished, cancelled, validLength);
+    }
+    
+    private synchronized void append(byte type, RecordWriter writer) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        writer.write(new DataOutputStream(payload));
+        byte[] bytes = payload.toByteArray();
+        
+        ByteArrayOutputStream record = new ByteArrayOutputStream(bytes.length + 16);
+        DataOutputStream out = new DataOutputStream(record);
+        out.writeByte(type);
+        SortedIdSet.writeVLong(out, bytes.length);
+        out.write(bytes);
+        out.writeInt(checksum(type, bytes));
+        
+        ByteBuffer buffer = ByteBuffer.wrap(record.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+    
+    private static int checksum(byte type, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+    
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
\ No newline at end of file
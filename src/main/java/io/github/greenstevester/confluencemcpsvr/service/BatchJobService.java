@@ -0,0 +1,440 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.config.BatchProperties;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageDetailed;
+import io.github.greenstevester.confluencemcpsvr.service.BatchJobJournal.CompletedOperation;
+import io.github.greenstevester.confluencemcpsvr.service.BatchJobJournal.JobState;
+import io.github.greenstevester.confluencemcpsvr.service.BatchUpdatePipeline.PageOutcome;
+import io.github.greenstevester.confluencemcpsvr.service.BatchUpdatePipeline.Status;
+import io.github.greenstevester.confluencemcpsvr.service.BatchUpdatePipeline.UpdateListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Runs batch page updates as journaled jobs that survive a restart.
+ * <p>
+ * Every job gets an ID and a {@link BatchJobJournal} in the journal directory, and each page
+ * update is journaled as started before the request is sent and as completed once its outcome is
+ * known. When the application starts, jobs without a FINISHED record are resumed in the
+ * background: completed pages are skipped, and a page whose update started but never completed is
+ * updated again only if its version shows the earlier write did not land, so a crash between the
+ * write and the journal never applies a template twice. A job whose run is cancelled gets a
+ * CANCELLED record instead and is left as it stands.
+ */
+@Service
+public class BatchJobService implements ApplicationListener<ApplicationReadyEvent> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BatchJobService.class);
+    private static final String JOURNAL_SUFFIX = ".wal";
+    private static final DateTimeFormatter JOB_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    
+    private static final String ANSI_MAGENTA = "\u001B[35m";
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    /**
+     * Outcomes of a job, in the order its pages were planned
+     *
+     * @param completedBeforeResume pages completed before the restart the job was resumed after
+     */
+    public record JobResult(
+        String jobId,
+        List<PageOutcome> outcomes,
+        int completedBeforeResume
+    ) {}
+    
+    /**
+     * Where a running job stands, reported after each page
+     */
+    public record JobProgress(
+        String jobId,
+        int done,
+        int total,
+        int updated,
+        int needReview,
+        int failed
+    ) {
+        public String describe() {
+            return "Batch job `" + jobId + "`: " + done + " of " + total + " pages done (" + updated + " updated, "
+                + needReview + " need review, " + failed + " failed)";
+        }
+    }
+    
+    private static final class RunningJob {
+        final String jobId;
+        final int total;
+        final boolean resumed;
+        final Consumer<JobProgress> onProgress;
+        final AtomicInteger done = new AtomicInteger(0);
+        final AtomicInteger updated = new AtomicInteger(0);
+        final AtomicInteger needReview = new AtomicInteger(0);
+        final AtomicInteger failed = new AtomicInteger(0);
+        
+        RunningJob(String jobId, int total, boolean resumed, Consumer<JobProgress> onProgress) {
+            this.jobId = jobId;
+            this.total = total;
+            this.resumed = resumed;
+            this.onProgress = onProgress;
+        }
+        
+        void count(Status status) {
+            if (status == Status.UPDATED) {
+                updated.incrementAndGet();
+            } else if (status.needsReview()) {
+                needReview.incrementAndGet();
+            } else if (!status.isSuccess()) {
+                failed.incrementAndGet();
+            }
+            done.incrementAndGet();
+        }
+        
+        JobProgress progress() {
+            return new JobProgress(jobId, done.get(), total, updated.get(), needReview.get(), failed.get());
+        }
+    }
+    
+    private final BatchUpdatePipeline pipeline;
+    private final UpdateTemplates templates;
+    private final ConfluencePagesService pagesService;
+    private final BatchProperties properties;
+    private final Path journalDir;
+    
+    private final Map<String, RunningJob> running = new ConcurrentHashMap<>();
+    private final AtomicBoolean resumeStarted = new AtomicBoolean(false);
+    private final AtomicLong jobsStarted = new AtomicLong(0);
+    private final AtomicLong jobsResumed = new AtomicLong(0);
+    private final AtomicLong jobsCancelled = new AtomicLong(0);
+    private final AtomicLong writesJournaled = new AtomicLong(0);
+    private final AtomicLong inDoubtSkipped = new AtomicLong(0);
+    private final AtomicLong journalFailures = new AtomicLong(0);
+    
+    public BatchJobService(
+            BatchUpdatePipeline pipeline,
+            UpdateTemplates templates,
+            ConfluencePagesService pagesService,
+            BatchProperties properties) {
+        this.pipeline = pipeline;
+        this.templates = templates;
+        this.pagesService = pagesService;
+        this.properties = properties;
+        this.journalDir = Paths.get(properties.journalDir());
+    }
+    
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!resumeStarted.compareAndSet(false, true)) {
+            return;
+        }
+        for (Path file : journals()) {
+            resume(file).subscribe(
+                result -> logger.info("Resumed batch job {} finished: {} of {} pages succeeded, {} need review",
+                    result.jobId(), count(result, Status::isSuccess), result.outcomes().size(),
+                    count(result, Status::needsReview)),
+                error -> logger.error("Resumed batch job in {} failed: {}", file.getFileName(), error.getMessage()));
+        }
+        Schedulers.boundedElastic().schedule(this::pruneJournals);
+    }
+    
+    /**
+     * Resume the job journaled in {@code file}; completes empty if the job has ended or the journal is unreadable
+     */
+    Mono<JobResult> resume(Path file) {
+        JobState state;
+        try {
+            state = BatchJobJournal.replay(file);
+        } catch (IOException e) {
+            logger.warn("Skipping unreadable batch job journal {}: {}", file, e.getMessage());
+            return Mono.empty();
+        }
+        if (state.ended()) {
+            if (state.cancelled() && !state.inDoubt().isEmpty()) {
+                logger.debug("Not resuming cancelled batch job {}; pages {} may need review", state.jobId(),
+                    state.inDoubt().keySet());
+            }
+            return Mono.empty();
+        }
+        logger.info("Resuming batch job {}: {} of {} pages still to do", state.jobId(),
+            state.pendingPageIds().size(), state.pageIds().size());
+        return resume(file, state);
+    }
+    
+    /**
+     * Journal a new job and run it
+     */
+    public Mono<JobResult> submit(List<String> pageIds, String template) {
+        return submit(pageIds, template, progress -> {});
+    }
+    
+    /**
+     * Journal a new job and run it, reporting its progress once it is journaled and after every page
+     */
+    public Mono<JobResult> submit(List<String> pageIds, String template, Consumer<JobProgress> onProgress) {
+        List<String> ids = List.copyOf(new LinkedHashSet<>(pageIds));
+        String jobId = newJobId();
+        return Mono.fromCallable(() -> {
+                Files.createDirectories(journalDir);
+                return BatchJobJournal.create(journalFile(jobId), jobId, Instant.now(), template, ids);
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(journal -> {
+                jobsStarted.incrementAndGet();
+                logger.info("Started batch job {} for {} pages", jobId, ids.size());
+                return execute(jobId, journal, template, ids, ids, Map.of(), false, onProgress);
+            });
+    }
+    
+    /**
+     * Get formatted batch job statistics for the monitoring report
+     */
+    public String getFormattedStats() {
+        StringBuilder sb = new StringBuilder();
+        
+        sb.append(ANSI_BOLD).append(ANSI_MAGENTA).append("🧾 Batch Jobs").append(ANSI_RESET).append("\n");
+        
+        sb.append("   ├─ Running: ");
+        if (running.isEmpty()) {
+            sb.append(ANSI_CYAN).append("none").append(ANSI_RESET).append("\n");
+        } else {
+            running.values().forEach(job -> sb.append(ANSI_YELLOW).append(job.jobId).append(ANSI_RESET)
+                .append(" (").append(job.done.get()).append("/").append(job.total)
+                .append(job.resumed ? " pages, resumed) " : " pages) "));
+            sb.append("\n");
+        }
+        sb.append("   ├─ Jobs: ").append(ANSI_YELLOW).append(jobsStarted.get()).append(ANSI_RESET)
+          .append(" started, ").append(jobsResumed.get()).append(" resumed after restart, ")
+          .append(jobsCancelled.get()).append(" cancelled\n");
+        sb.append("   └─ Journal: ").append(writesJournaled.get()).append(" writes journaled, ")
+          .append(inDoubtSkipped.get()).append(" interrupted writes not repeated, ")
+          .append(journalFailures.get()).append(" journal failures");
+        
+        return sb.toString();
+    }
+    
+    private Mono<JobResult> resume(Path file, JobState state) {
+        Map<String, PageOutcome> earlier = new HashMap<>();
+        state.completed().forEach((pageId, operation) -> earlier.put(pageId, completedBefore(pageId, operation)));
+        int completedBeforeResume = earlier.size();
+        
+        return Mono.fromCallable(() -> BatchJobJournal.reopen(file, state))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(journal -> Flux.fromIterable(state.inDoubt().entrySet())
+                .concatMap(entry -> settleInDoubt(journal, entry.getKey(), entry.getValue()))
+                .collectList()
+                .flatMap(settled -> {
+                    jobsResumed.incrementAndGet();
+                    settled.forEach(outcome -> earlier.put(outcome.pageId(), outcome));
+                    List<String> pending = state.pendingPageIds().stream()
+                        .filter(pageId -> !earlier.containsKey(pageId)).toList();
+                    return execute(state.jobId(), journal, state.template(), state.pageIds(), pending, earlier, true,
+                        progress -> {});
+                }))
+            .map(result -> new JobResult(result.jobId(), result.outcomes(), completedBeforeResume));
+    }
+    
+    /**
+     * Decide whether an update interrupted by the restart reached Confluence.
+     * <p>
+     * A page still at the version the update started from was not written and is left to the job;
+     * a newer version is reported as skipped rather than updated again.
+     */
+    private Mono<PageOutcome> settleInDoubt(BatchJobJournal journal, String pageId, int startedVersion) {
+        return pagesService.refreshCachedPage(pageId)
+            .flatMap(page -> {
+                int current = versionOf(page);
+                if (current <= startedVersion) {
+                    return Mono.<PageOutcome>empty();
+                }
+                PageOutcome outcome = new PageOutcome(pageId, Status.SKIPPED, page.title(), startedVersion, current, 1,
+                    "Update was interrupted by a restart and the page has since moved from version " + startedVersion
+                        + " to " + current + "; not updated again so the template is not applied twice");
+                record(journal, outcome);
+                inDoubtSkipped.incrementAndGet();
+                return Mono.just(outcome);
+            })
+            .onErrorResume(error -> Mono.just(new PageOutcome(pageId, Status.FAILED, null, startedVersion, startedVersion, 1,
+                "Could not check whether the update interrupted by a restart reached the page: " + error.getMessage())));
+    }
+    
+    private Mono<JobResult> execute(String jobId, BatchJobJournal journal, String template, List<String> pageIds,
+                                    List<String> pending, Map<String, PageOutcome> earlier, boolean resumed,
+                                    Consumer<JobProgress> onProgress) {
+        RunningJob job = new RunningJob(jobId, pageIds.size(), resumed, onProgress);
+        earlier.values().forEach(outcome -> job.count(outcome.status()));
+        running.put(jobId, job);
+        onProgress.accept(job.progress());
+        
+        UpdateListener listener = new UpdateListener() {
+            @Override
+            public void beforeWrite(String pageId, int fromVersion) {
+                try {
+                    journal.started(pageId, fromVersion);
+                    writesJournaled.incrementAndGet();
+                } catch (IOException e) {
+                    // Never write a page the journal does not know about
+                    journalFailures.incrementAndGet();
+                    throw new UncheckedIOException("Could not journal the update of page " + pageId, e);
+                }
+            }
+            
+            @Override
+            public void onOutcome(PageOutcome outcome) {
+                record(journal, outcome);
+                job.count(outcome.status());
+                job.onProgress.accept(job.progress());
+            }
+        };
+        
+        return pipeline.run(pending, templates.forTemplate(template), false, listener)
+            .map(outcomes -> {
+                try {
+                    journal.finished();
+                } catch (IOException e) {
+                    // Resuming a job with every page completed only finishes it
+                    journalFailures.incrementAndGet();
+                    logger.warn("Could not mark batch job {} as finished: {}", jobId, e.getMessage());
+                }
+                Map<String, PageOutcome> byPage = new HashMap<>(earlier);
+                outcomes.forEach(outcome -> byPage.put(outcome.pageId(), outcome));
+                List<PageOutcome> ordered = new ArrayList<>(pageIds.size());
+                pageIds.forEach(pageId -> {
+                    PageOutcome outcome = byPage.get(pageId);
+                    if (outcome != null) {
+                        ordered.add(outcome);
+                    }
+                });
+                return new JobResult(jobId, ordered, 0);
+            })
+            .doFinally(signal -> {
+                running.remove(jobId);
+                if (signal == SignalType.CANCEL) {
+                    cancelled(journal, job);
+                }
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    logger.debug("Error closing journal of batch job {}: {}", jobId, e.getMessage());
+                }
+                Schedulers.boundedElastic().schedule(this::pruneJournals);
+            });
+    }
+    
+    /**
+     * Close the journal of a cancelled run so the job is not mistaken for a crashed one and resumed later.
+     * Updates still in flight may land or not; the journal keeps them as started for review.
+     */
+    private void cancelled(BatchJobJournal journal, RunningJob job) {
+        jobsCancelled.incrementAndGet();
+        logger.warn("Batch job {} was cancelled after {} of {} pages; it will not be resumed",
+            job.jobId, job.done.get(), job.total);
+        try {
+            journal.cancelled();
+        } catch (IOException e) {
+            // Without the record the job is resumed after the next restart, which is the safe side
+            journalFailures.incrementAndGet();
+            logger.warn("Could not mark batch job {} as cancelled: {}", job.jobId, e.getMessage());
+        }
+    }
+    
+    private void record(BatchJobJournal journal, PageOutcome outcome) {
+        try {
+            journal.completed(outcome.pageId(), outcome.status(), outcome.toVersion());
+        } catch (IOException e) {
+            // The page then counts as interrupted on resume, where its version decides
+            journalFailures.incrementAndGet();
+            logger.warn("Could not journal the outcome of page {}: {}", outcome.pageId(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Delete the oldest journals of ended jobs beyond the retention count
+     */
+    private void pruneJournals() {
+        List<Path> finished = new ArrayList<>();
+        for (Path file : journals()) {
+            try {
+                if (BatchJobJournal.replay(file).ended()) {
+                    finished.add(file);
+                }
+            } catch (IOException e) {
+                logger.debug("Not pruning unreadable journal {}: {}", file, e.getMessage());
+            }
+        }
+        for (int i = 0; i < finished.size() - properties.journalRetention(); i++) {
+            try {
+                Files.deleteIfExists(finished.get(i));
+            } catch (IOException e) {
+                logger.warn("Could not delete batch job journal {}: {}", finished.get(i), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Journal files, oldest first; job IDs start with their creation time
+     */
+    private List<Path> journals() {
+        if (!Files.isDirectory(journalDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(JOURNAL_SUFFIX))
+                .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                .toList();
+        } catch (IOException e) {
+            logger.warn("Could not list batch job journals in {}: {}", journalDir, e.getMessage());
+            return List.of();
+        }
+    }
+    
+    private Path journalFile(String jobId) {
+        return journalDir.resolve(jobId + JOURNAL_SUFFIX);
+    }
+    
+    private static String newJobId() {
+        return JOB_ID_FORMAT.format(Instant.now()) + "-" + String.format("%04x", ThreadLocalRandom.current().nextInt(0x10000));
+    }
+    
+    private static long count(JobResult result, Predicate<Status> filter) {
+        return result.outcomes().stream().filter(outcome -> filter.test(outcome.status())).count();
+    }
+    
+    private static PageOutcome completedBefore(String pageId, CompletedOperation operation) {
+        return new PageOutcome(pageId, operation.status(), null, 0, operation.toVersion(), 1,
+            "Completed before the restart");
+    }
+    
+    private static int versionOf(PageDetailed page) {
+        return page.version() != null ? page.version().number() : 0;
+    }
+}
\ No newline at end of file
@@ -1,21 +1,35 @@
 package io.github.greenstevester.confluencemcpsvr.service;
 
-import io.github.greenstevester.confluencemcpsvr.model.dto.UpdatePageRequest;
+import io.github.greenstevester.confluencemcpsvr.index.PageMetadataColumns;
+import io.github.greenstevester.confluencemcpsvr.index.TfIdfIndex;
+import io.github.greenstevester.confluencemcpsvr.index.TfIdfIndex.SimilarPage;
+import io.github.greenstevester.confluencemcpsvr.index.TfIdfIndex.SimilarityResult;
+import io.github.greenstevester.confluencemcpsvr.service.BatchJobService.JobProgress;
 import io.github.greenstevester.confluencemcpsvr.model.enums.ContentStatus;
 import io.github.greenstevester.confluencemcpsvr.model.enums.PageSortOrder;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchResponse;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchResult;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchResultContent;
+import io.github.greenstevester.confluencemcpsvr.service.BatchUpdatePipeline.PageOutcome;
+import io.github.greenstevester.confluencemcpsvr.sync.ConfluenceSyncService;
+import io.github.greenstevester.confluencemcpsvr.util.FreshnessReportFormatter;
 import io.github.greenstevester.confluencemcpsvr.util.MarkdownFormatter;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -35,19 +49,45 @@ public class BatchProcessingService {
     
     private static final Logger logger = LoggerFactory.getLogger(BatchProcessingService.class);
     
+    /**
+     * One keyword set's section of a related content report and the pages it found
+     */
+    private record RelatedSet(String section, int relationships) {}
+    
     private final ConfluencePagesService pagesService;
     private final ConfluenceSearchService searchService;
     private final MarkdownFormatter markdownFormatter;
     private final ObjectMapper objectMapper;
+    private final PageMetadataColumns metadataColumns;
+    private final FreshnessReportFormatter freshnessReportFormatter;
+    private final TfIdfIndex tfIdfIndex;
+    private final BatchUpdatePipeline updatePipeline;
+    private final BatchJobService batchJobService;
+    private final UpdateTemplates updateTemplates;
+    private final ConfluenceSyncService syncService;
     
     public BatchProcessingService(
             ConfluencePagesService pagesService,
             ConfluenceSearchService searchService,
-            MarkdownFormatter markdownFormatter) {
+            MarkdownFormatter markdownFormatter,
+            PageMetadataColumns metadataColumns,
+            FreshnessReportFormatter freshnessReportFormatter,
+            TfIdfIndex tfIdfIndex,
+            BatchUpdatePipeline updatePipeline,
+            BatchJobService batchJobService,
+            UpdateTemplates updateTemplates,
+            ConfluenceSyncService syncService) {
         this.pagesService = pagesService;
         this.searchService = searchService;
         this.markdownFormatter = markdownFormatter;
         this.objectMapper = new ObjectMapper();
+        this.metadataColumns = metadataColumns;
+        this.freshnessReportFormatter = freshnessReportFormatter;
+        this.tfIdfIndex = tfIdfIndex;
+        this.updatePipeline = updatePipeline;
+        this.batchJobService = batchJobService;
+        this.updateTemplates = updateTemplates;
+        this.syncService = syncService;
     }
     
     /**
@@ -57,6 +97,14 @@ public class BatchProcessingService {
             @NotNull @Size(min = 1, max = MAX_BATCH_SIZE, message = "Page IDs list must contain 1-100 items") List<String> pageIds, 
             @NotBlank(message = "Update template cannot be blank") String updateTemplate, 
             boolean dryRun) {
+        return batchUpdatePages(pageIds, updateTemplate, dryRun, status -> {});
+    }
+    
+    /**
+     * Batch update pages, describing the journaled job's progress to {@code onProgress} after every page
+     */
+    public Mono<String> batchUpdatePages(List<String> pageIds, String updateTemplate, boolean dryRun,
+                                         Consumer<String> onProgress) {
         
         // Input validation
         if (pageIds == null || pageIds.isEmpty()) {
@@ -82,57 +130,123 @@ public class BatchProcessingService {
             return Mono.just("❌ **Validation Error:** Update template too long (max 10000 characters)");
         }
         
-        return Mono.fromCallable(() -> {
-            StringBuilder report = new StringBuilder();
-            
-            // Header
-            report.append(markdownFormatter.formatHeading("🔄 Batch Page Update Report", 1))
-                  .append("\n\n")
-                  .append(markdownFormatter.formatItalic("Generated at: " + 
-                      markdownFormatter.formatDate(LocalDateTime.now())))
+        // Each page is updated once however often it was listed, in dry runs as in real ones
+        List<String> ids = pageIds.stream().map(String::trim).distinct().toList();
+        long startTime = System.currentTimeMillis();
+        if (dryRun) {
+            return updatePipeline.run(ids, updateTemplates.forTemplate(updateTemplate), true)
+                .map(outcomes -> formatBatchUpdateReport(outcomes, updateTemplate, true, null,
+                    System.currentTimeMillis() - startTime));
+        }
+        
+        // Real updates run as a journaled job, so a restart part-way resumes instead of re-applying
+        AtomicReference<JobProgress> lastProgress = new AtomicReference<>();
+        return batchJobService.submit(ids, updateTemplate, progress -> {
+                lastProgress.set(progress);
+                onProgress.accept(progress.describe());
+            })
+            .map(result -> formatBatchUpdateReport(result.outcomes(), updateTemplate, false, result.jobId(),
+                System.currentTimeMillis() - startTime))
+            .onErrorResume(error -> {
+                JobProgress progress = lastProgress.get();
+                if (progress != null) {
+                    // Pages may have changed, so this is a failure rather than a report
+                    logger.error("Batch update job {} stopped: {}", progress.jobId(), error.getMessage());
+                    return Mono.error(new IllegalStateException(progress.describe() + " when it stopped: "
+                        + error.getMessage() + ". Its journal keeps its place and it resumes on the next restart.", error));
+                }
+                logger.error("Could not start batch update job: {}", error.getMessage());
+                return Mono.just("❌ **Batch update not started:** the job journal could not be written ("
+                    + error.getMessage() + "). No pages were changed.");
+            });
+    }
+    
+    /**
+     * Format the per-page outcomes of a batch update, in the order the pages were given
+     */
+    private String formatBatchUpdateReport(List<PageOutcome> outcomes, String updateTemplate, boolean dryRun,
+                                           String jobId, long durationMillis) {
+        StringBuilder report = new StringBuilder();
+        
+        // Header
+        report.append(markdownFormatter.formatHeading("🔄 Batch Page Update Report", 1))
+              .append("\n\n")
+              .append(markdownFormatter.formatItalic("Generated at: " + 
+                  markdownFormatter.formatDate(LocalDateTime.now())))
+              .append("\n\n");
+        
+        if (dryRun) {
+            report.append(markdownFormatter.formatBlockquote("🧪 **DRY RUN MODE** - No actual changes will be made"))
                   .append("\n\n");
-            
-            if (dryRun) {
-                report.append(markdownFormatter.formatBlockquote("🧪 **DRY RUN MODE** - No actual changes will be made"))
-                      .append("\n\n");
-            }
-            
-            AtomicInteger successCount = new AtomicInteger(0);
-            AtomicInteger errorCount = new AtomicInteger(0);
-            
-            // Process each page
-            report.append(markdownFormatter.formatHeading("Processing Results", 2))
+        }
+        if (jobId != null) {
+            report.append("**Job ID:** `").append(jobId).append("` (journaled, resumed automatically after a restart)")
                   .append("\n\n");
-            
-            for (String pageId : pageIds) {
-                try {
-                    String pageResult = processSinglePageUpdate(pageId, updateTemplate, dryRun);
-                    report.append("### Page ID: ").append(pageId).append("\n\n");
-                    report.append(pageResult).append("\n\n");
-                    successCount.incrementAndGet();
-                } catch (Exception e) {
-                    logger.error("Error processing page {}", pageId, e);
-                    report.append("### ❌ Page ID: ").append(pageId).append("\n\n");
-                    report.append("**Error:** ").append(e.getMessage()).append("\n\n");
-                    errorCount.incrementAndGet();
-                }
-            }
-            
-            // Summary
-            report.append(markdownFormatter.formatHeading("Summary", 2))
-                  .append("\n\n")
-                  .append("- **Total Pages Processed:** ").append(pageIds.size()).append("\n")
-                  .append("- **Successful:** ").append(successCount.get()).append("\n")
-                  .append("- **Errors:** ").append(errorCount.get()).append("\n\n");
-            
-            if (!dryRun && successCount.get() > 0) {
-                report.append("✅ **Batch update completed successfully!**\n");
-            } else if (dryRun) {
-                report.append("🧪 **Dry run completed. Use dryRun=false to apply changes.**\n");
+        }
+        
+        // Process each page
+        report.append(markdownFormatter.formatHeading("Processing Results", 2))
+              .append("\n\n");
+        
+        int successCount = 0;
+        int reviewCount = 0;
+        int conflictRetries = 0;
+        for (PageOutcome outcome : outcomes) {
+            if (outcome.status().isSuccess()) {
+                successCount++;
+                report.append("### Page ID: ").append(outcome.pageId()).append("\n\n");
+            } else if (outcome.status().needsReview()) {
+                reviewCount++;
+                report.append("### ⚠️ Page ID: ").append(outcome.pageId()).append("\n\n");
+            } else {
+                report.append("### ❌ Page ID: ").append(outcome.pageId()).append("\n\n");
             }
-            
-            return report.toString();
-        });
+            conflictRetries += outcome.attempts() - 1;
+            report.append(formatPageOutcome(outcome, updateTemplate)).append("\n\n");
+        }
+        
+        // Summary
+        report.append(markdownFormatter.formatHeading("Summary", 2))
+              .append("\n\n")
+              .append("- **Total Pages Processed:** ").append(outcomes.size()).append("\n")
+              .append("- **Successful:** ").append(successCount).append("\n")
+              .append("- **Needs Review:** ").append(reviewCount).append("\n")
+              .append("- **Errors:** ").append(outcomes.size() - successCount - reviewCount).append("\n")
+              .append("- **Version Conflict Retries:** ").append(conflictRetries).append("\n")
+              .append("- **Duration:** ").append(durationMillis).append("ms\n\n");
+        
+        if (reviewCount > 0) {
+            report.append("⚠️ **").append(reviewCount).append(" page(s) need review:** an update interrupted by a restart ")
+                  .append("may or may not have been applied before someone else edited the page.\n");
+        }
+        if (!dryRun && successCount > 0) {
+            report.append("✅ **Batch update completed successfully!**\n");
+        } else if (dryRun) {
+            report.append("🧪 **Dry run completed. Use dryRun=false to apply changes.**\n");
+        }
+        
+        return report.toString();
+    }
+    
+    private String formatPageOutcome(PageOutcome outcome, String updateTemplate) {
+        String title = outcome.title() != null ? "- Title: " + outcome.title() + "\n" : "";
+        String retried = outcome.attempts() > 1
+            ? "\n- Re-read after " + (outcome.attempts() - 1) + " version conflict(s)" : "";
+        return switch (outcome.status()) {
+            case UPDATED -> "✅ **Page update completed**\n" + title +
+                            "- Applied template: " + updateTemplate + "\n" +
+                            "- Version updated from: " + outcome.fromVersion() + " to " + outcome.toVersion() + retried;
+            case WOULD_UPDATE -> "✅ **Would update page** (dry run mode)\n" + title +
+                                 "- Current version: " + outcome.fromVersion() + "\n" +
+                                 "- Update template: " + updateTemplate;
+            case UNCHANGED -> "➖ **No change needed**\n" + title +
+                              "- " + outcome.message() + " at version " + outcome.fromVersion() + retried;
+            case NOT_FOUND -> "❌ **Failed to retrieve page details**\n- " + outcome.message();
+            case CONFLICT -> "❌ **Version conflict**\n" + title +
+                             "- " + outcome.message() + "; gave up after " + outcome.attempts() + " attempts";
+            case FAILED -> "❌ **Update failed:** " + outcome.message();
+            case SKIPPED -> "⚠️ **Needs review** - not updated again\n" + title + "- " + outcome.message();
+        };
     }
     
     /**
@@ -157,11 +271,12 @@ public class BatchProcessingService {
             return Mono.just("❌ **Security Error:** Invalid characters detected in search query. Only alphanumeric characters, spaces, and basic CQL operators are allowed.");
         }
         
-        return searchService.search(searchQuery, null, 100, 0, false, null)
+        return searchService.searchModels(searchQuery, MAX_BATCH_SIZE)
             .flatMap(searchResults -> {
-                // Parse page IDs from search results (simplified - in real implementation parse properly)
-                List<String> pageIds = extractPageIdsFromSearchResults(searchResults);
-                
+                List<String> pageIds = pageIdsOf(searchResults);
+                if (pageIds.isEmpty()) {
+                    return Mono.just("No pages found for the search query, so nothing was updated.\n");
+                }
                 return batchUpdatePages(pageIds, metadataTemplate, dryRun);
             })
             .map(result -> {
@@ -212,54 +327,46 @@ public class BatchProcessingService {
             return Mono.just("❌ **Validation Error:** Invalid analysis type: " + analysisType + ". Valid types: " + Arrays.toString(validTypes));
         }
         
-        return Mono.fromCallable(() -> {
-            StringBuilder report = new StringBuilder();
-            
-            // Header
-            report.append(markdownFormatter.formatHeading("📊 Batch Content Analysis Report", 1))
-                  .append("\n\n")
-                  .append("**Analysis Type:** ").append(analysisType).append("\n")
-                  .append("**Spaces Analyzed:** ").append(spaceIds != null ? spaceIds.size() : "All").append("\n")
-                  .append("**Generated at:** ").append(markdownFormatter.formatDate(LocalDateTime.now()))
-                  .append("\n\n");
-            
-            AtomicInteger totalPages = new AtomicInteger(0);
-            AtomicInteger issuesFound = new AtomicInteger(0);
-            
-            try {
-                // Get pages from specified spaces or all spaces
-                String pagesResponse = pagesService.listPages(
-                    spaceIds, null, List.of(ContentStatus.CURRENT), 
-                    PageSortOrder.MODIFIED_DATE_DESC, 200, null
-                ).block();
+        StringBuilder header = new StringBuilder();
+        header.append(markdownFormatter.formatHeading("📊 Batch Content Analysis Report", 1))
+              .append("\n\n")
+              .append("**Analysis Type:** ").append(analysisType).append("\n")
+              .append("**Spaces Analyzed:** ").append(spaceIds != null ? spaceIds.size() : "All").append("\n")
+              .append("**Generated at:** ").append(markdownFormatter.formatDate(LocalDateTime.now()))
+              .append("\n\n");
+        
+        // Get pages from specified spaces or all spaces
+        return pagesService.listPageModels(
+                spaceIds, null, List.of(ContentStatus.CURRENT), 
+                PageSortOrder.MODIFIED_DATE_DESC, 200, null)
+            .map(pagesResponse -> {
+                StringBuilder report = new StringBuilder(header);
+                int totalPages = pagesResponse.results() != null ? pagesResponse.results().size() : 0;
+                int issuesFound = 0;
                 
-                if (pagesResponse != null && !pagesResponse.contains("No Confluence pages found")) {
+                if (totalPages > 0) {
                     // Analyze content based on type
-                    String analysisResults = performContentAnalysis(pagesResponse, analysisType);
+                    String analysisResults = performContentAnalysis(analysisType, spaceIds);
                     report.append(analysisResults);
-                    
-                    // Count results (simplified counting)
-                    totalPages.set(countPagesInResponse(pagesResponse));
-                    issuesFound.set(countIssuesInAnalysis(analysisResults));
+                    issuesFound = countIssuesInAnalysis(analysisResults);
                 }
                 
                 // Summary
                 report.append("\n\n").append(markdownFormatter.formatHeading("Analysis Summary", 2))
                       .append("\n\n")
-                      .append("- **Pages Analyzed:** ").append(totalPages.get()).append("\n")
-                      .append("- **Issues/Items Found:** ").append(issuesFound.get()).append("\n")
+                      .append("- **Pages Analyzed:** ").append(totalPages).append("\n")
+                      .append("- **Issues/Items Found:** ").append(issuesFound).append("\n")
                       .append("- **Analysis Completion:** ").append(LocalDateTime.now()).append("\n\n");
                 
                 // Recommendations
-                report.append(generateAnalysisRecommendations(analysisType, issuesFound.get()));
+                report.append(generateAnalysisRecommendations(analysisType, issuesFound));
                 
-            } catch (Exception e) {
-                logger.error("Error in batch content analysis", e);
-                report.append("❌ **Error during analysis:** ").append(e.getMessage());
-            }
-            
-            return report.toString();
-        });
+                return report.toString();
+            })
+            .onErrorResume(error -> {
+                logger.error("Error in batch content analysis", error);
+                return Mono.just(header + "❌ **Error during analysis:** " + error.getMessage());
+            });
     }
     
     /**
@@ -296,189 +403,201 @@ public class BatchProcessingService {
             return Mono.just("❌ **Validation Error:** Max results must be between 1 and 100");
         }
         
-        return Mono.fromCallable(() -> {
-            StringBuilder report = new StringBuilder();
-            
-            // Header
-            report.append(markdownFormatter.formatHeading("🔗 Related Content Discovery Report", 1))
-                  .append("\n\n")
-                  .append("**Keyword Sets:** ").append(keywordSets.size()).append("\n")
-                  .append("**Max Results per Set:** ").append(maxResults != null ? maxResults : 20).append("\n")
-                  .append("**Generated at:** ").append(markdownFormatter.formatDate(LocalDateTime.now()))
-                  .append("\n\n");
-            
-            // Process each keyword set
-            int totalRelationships = 0;
-            
-            for (int i = 0; i < keywordSets.size(); i++) {
-                String keywords = keywordSets.get(i);
+        // Rank locally by TF-IDF cosine similarity when a fresh mirror holds every space, instead of one
+        // CQL search per set; a stale or space-scoped mirror would silently miss pages
+        if (syncService.coversSpaces(List.of()) && tfIdfIndex.size() > 0) {
+            return Mono.fromCallable(() -> findRelatedContentLocally(keywordSets, maxResults != null ? maxResults : 20));
+        }
+        
+        int limit = maxResults != null ? maxResults : 20;
+        return Flux.range(0, keywordSets.size())
+            .concatMap(i -> findRelatedContentRemotely(i + 1, keywordSets.get(i), limit))
+            .collectList()
+            .map(sets -> {
+                StringBuilder report = new StringBuilder();
                 
-                try {
-                    report.append(markdownFormatter.formatHeading("Keyword Set " + (i + 1) + ": " + keywords, 2))
-                          .append("\n\n");
-                    
-                    // Search for related content (FIXED: CQL injection vulnerability)
-                    String sanitizedKeywords = sanitizeKeywordsForCQL(keywords);
-                    String cql = String.format("type=page AND text~'%s'", sanitizedKeywords);
-                    String searchResults = searchService.search(cql, null, maxResults != null ? maxResults : 20, 0, false, null).block();
-                    
-                    if (searchResults != null && !searchResults.contains("No results found")) {
-                        report.append("**Related Pages Found:**\n\n")
-                              .append(searchResults)
-                              .append("\n\n");
-                        
-                        int relationshipCount = countPagesInResponse(searchResults);
-                        totalRelationships += relationshipCount;
-                        
-                        report.append("**Relationships Found:** ").append(relationshipCount).append("\n\n");
-                    } else {
-                        report.append("No related content found for these keywords.\n\n");
-                    }
-                    
-                } catch (Exception e) {
-                    logger.error("Error processing keyword set: {}", keywords, e);
-                    report.append("❌ **Error processing keywords:** ").append(e.getMessage()).append("\n\n");
+                // Header
+                report.append(markdownFormatter.formatHeading("🔗 Related Content Discovery Report", 1))
+                      .append("\n\n")
+                      .append("**Keyword Sets:** ").append(keywordSets.size()).append("\n")
+                      .append("**Max Results per Set:** ").append(limit).append("\n")
+                      .append("**Generated at:** ").append(markdownFormatter.formatDate(LocalDateTime.now()))
+                      .append("\n\n");
+                
+                int totalRelationships = 0;
+                for (RelatedSet set : sets) {
+                    report.append(set.section()).append("---\n\n");
+                    totalRelationships += set.relationships();
                 }
                 
-                report.append("---\n\n");
-            }
-            
-            // Summary and recommendations
-            report.append(markdownFormatter.formatHeading("Discovery Summary", 2))
-                  .append("\n\n")
-                  .append("- **Total Keyword Sets Processed:** ").append(keywordSets.size()).append("\n")
-                  .append("- **Total Related Pages Found:** ").append(totalRelationships).append("\n")
-                  .append("- **Average Relations per Set:** ").append(
-                      keywordSets.size() > 0 ? totalRelationships / keywordSets.size() : 0).append("\n\n");
-            
-            // Cross-referencing recommendations
-            report.append(markdownFormatter.formatHeading("Cross-Reference Recommendations", 2))
-                  .append("\n\n")
-                  .append("1. **Add Related Links** - Link pages with similar content\n")
-                  .append("2. **Create Topic Pages** - Consolidate related information\n")
-                  .append("3. **Update Navigation** - Improve discoverability\n")
-                  .append("4. **Tag Consistency** - Apply consistent labeling\n");
-            
-            return report.toString();
-        });
+                // Summary and recommendations
+                report.append(markdownFormatter.formatHeading("Discovery Summary", 2))
+                      .append("\n\n")
+                      .append("- **Total Keyword Sets Processed:** ").append(keywordSets.size()).append("\n")
+                      .append("- **Total Related Pages Found:** ").append(totalRelationships).append("\n")
+                      .append("- **Average Relations per Set:** ").append(
+                          keywordSets.size() > 0 ? totalRelationships / keywordSets.size() : 0).append("\n\n");
+                
+                // Cross-referencing recommendations
+                report.append(markdownFormatter.formatHeading("Cross-Reference Recommendations", 2))
+                      .append("\n\n")
+                      .append("1. **Add Related Links** - Link pages with similar content\n")
+                      .append("2. **Create Topic Pages** - Consolidate related information\n")
+                      .append("3. **Update Navigation** - Improve discoverability\n")
+                      .append("4. **Tag Consistency** - Apply consistent labeling\n");
+                
+                return report.toString();
+            });
     }
     
     /**
-     * Process single page update
+     * One keyword set's section of the related content report, found by CQL search
      */
-    private String processSinglePageUpdate(String pageId, String updateTemplate, boolean dryRun) {
-        try {
-            // Get current page details
-            String currentPageResponse = pagesService.getPage(pageId).block();
-            
-            if (currentPageResponse == null || currentPageResponse.contains("Error getting page")) {
-                return "❌ **Failed to retrieve page details**\n" + currentPageResponse;
-            }
+    private Mono<RelatedSet> findRelatedContentRemotely(int number, String keywords, int limit) {
+        String heading = markdownFormatter.formatHeading("Keyword Set " + number + ": " + keywords, 2) + "\n\n";
+        
+        return Mono.defer(() -> {
+                // Search for related content (FIXED: CQL injection vulnerability)
+                String sanitizedKeywords = sanitizeKeywordsForCQL(keywords);
+                String cql = String.format("type=page AND text~'%s'", sanitizedKeywords);
+                return searchService.searchModels(cql, limit);
+            })
+            .filter(searchResults -> searchResults.results() != null && !searchResults.results().isEmpty())
+            .map(searchResults -> {
+                int relationshipCount = searchResults.results().size();
+                return new RelatedSet(heading + "**Related Pages Found:**\n\n"
+                    + searchService.formatSearchResults(searchResults) + "\n\n"
+                    + "**Relationships Found:** " + relationshipCount + "\n\n", relationshipCount);
+            })
+            .defaultIfEmpty(new RelatedSet(heading + "No related content found for these keywords.\n\n", 0))
+            .onErrorResume(error -> {
+                logger.error("Error processing keyword set: {}", keywords, error);
+                return Mono.just(new RelatedSet(heading + "❌ **Error processing keywords:** " + error.getMessage() + "\n\n", 0));
+            });
+    }
+    
+    /**
+     * Related content report ranked by similarity over the local TF-IDF vectors
+     */
+    private String findRelatedContentLocally(List<String> keywordSets, int maxResults) {
+        StringBuilder report = new StringBuilder();
+        report.append(markdownFormatter.formatHeading("🔗 Related Content Discovery Report", 1))
+              .append("\n\n")
+              .append("**Keyword Sets:** ").append(keywordSets.size()).append("\n")
+              .append("**Max Results per Set:** ").append(maxResults).append("\n")
+              .append("**Ranking:** TF-IDF cosine similarity over ").append(tfIdfIndex.size()).append(" mirrored pages\n")
+              .append("**Generated at:** ").append(markdownFormatter.formatDate(LocalDateTime.now()))
+              .append("\n\n");
+        
+        int totalRelationships = 0;
+        List<SimilarPage> topPages = new ArrayList<>();
+        Map<String, List<Integer>> setsByPage = new LinkedHashMap<>();
+        Map<String, SimilarPage> pagesById = new LinkedHashMap<>();
+        
+        for (int i = 0; i < keywordSets.size(); i++) {
+            String keywords = keywordSets.get(i);
+            SimilarityResult result = tfIdfIndex.similarToText(keywords.replace(',', ' '), null, maxResults);
+            logger.debug("Keyword set '{}' scored {} candidates in {} µs", keywords, result.candidates(), result.tookMicros());
             
-            if (dryRun) {
-                return "✅ **Would update page** (dry run mode)\n" +
-                       "- Current page retrieved successfully\n" +
-                       "- Update template: " + updateTemplate + "\n" +
-                       "- Ready for actual update";
+            report.append(markdownFormatter.formatHeading("Keyword Set " + (i + 1) + ": " + keywords, 2))
+                  .append("\n\n");
+            if (result.matches().isEmpty()) {
+                report.append("No related content found for these keywords.\n\n---\n\n");
+                continue;
             }
             
-            // Real implementation: Parse current page and apply update
-            try {
-                // Parse the current page response to extract necessary information
-                String currentVersion = extractVersionFromPageResponse(currentPageResponse);
-                String currentTitle = extractTitleFromPageResponse(currentPageResponse);
-                String currentContent = extractContentFromPageResponse(currentPageResponse);
-                
-                if (currentVersion == null) {
-                    return "❌ **Cannot extract version from current page** - Version is required for updates";
+            report.append("**Related Pages Found:**\n\n");
+            for (int j = 0; j < result.matches().size(); j++) {
+                SimilarPage page = result.matches().get(j);
+                report.append(j + 1).append(". ").append(markdownFormatter.formatBold(page.title()))
+                      .append(" - ID: ").append(markdownFormatter.formatInlineCode(page.pageId()));
+                if (page.spaceKey() != null) {
+                    report.append(", Space: ").append(page.spaceKey());
                 }
-                
-                // Apply update template to content
-                String updatedContent = applyUpdateTemplate(currentContent, updateTemplate);
-                
-                // Create update request
-                UpdatePageRequest updateRequest = UpdatePageRequest.builder()
-                    .pageId(pageId)
-                    .version(Integer.parseInt(currentVersion))
-                    .content(updatedContent)
-                    .contentRepresentation("storage")
-                    .build();
-                
-                // Perform the actual update
-                String updateResult = pagesService.updatePage(updateRequest).block();
-                
-                if (updateResult != null && updateResult.contains("Page Updated Successfully")) {
-                    return "✅ **Page update completed**\n" +
-                           "- Applied template: " + updateTemplate + "\n" +
-                           "- Version updated from: " + currentVersion + "\n" +
-                           "- Page updated successfully";
-                } else {
-                    return "⚠️ **Page update attempted but result unclear**\n" +
-                           "- Template: " + updateTemplate + "\n" +
-                           "- Result: " + (updateResult != null ? updateResult.substring(0, Math.min(100, updateResult.length())) : "No result");
+                report.append(", Similarity: ").append(Math.round(page.similarity() * 100)).append("%");
+                if (!page.sharedTerms().isEmpty()) {
+                    report.append(" (").append(String.join(", ", page.sharedTerms())).append(")");
                 }
-                
-            } catch (Exception updateException) {
-                logger.error("Error during actual page update for page {}", pageId, updateException);
-                return "❌ **Page update failed during execution**\n" +
-                       "- Error: " + updateException.getMessage() + "\n" +
-                       "- Template: " + updateTemplate;
+                report.append("\n");
+                setsByPage.computeIfAbsent(page.pageId(), id -> new ArrayList<>()).add(i + 1);
+                pagesById.putIfAbsent(page.pageId(), page);
+            }
+            topPages.add(result.matches().get(0));
+            totalRelationships += result.matches().size();
+            report.append("\n**Relationships Found:** ").append(result.matches().size())
+                  .append(" of ").append(result.candidates()).append(" candidate pages (")
+                  .append(result.tookMicros()).append(" µs)\n\n---\n\n");
+        }
+        
+        report.append(markdownFormatter.formatHeading("Discovery Summary", 2))
+              .append("\n\n")
+              .append("- **Total Keyword Sets Processed:** ").append(keywordSets.size()).append("\n")
+              .append("- **Total Related Pages Found:** ").append(totalRelationships).append("\n")
+              .append("- **Average Relations per Set:** ").append(totalRelationships / keywordSets.size()).append("\n\n");
+        
+        report.append(markdownFormatter.formatHeading("Cross-Reference Recommendations", 2))
+              .append("\n\n");
+        if (topPages.isEmpty()) {
+            report.append("No mirrored pages match these keyword sets; try broader keywords.\n");
+            return report.toString();
+        }
+        report.append("**Topic hub candidates** - the closest match for each keyword set; link its related pages from it:\n\n");
+        for (SimilarPage page : topPages) {
+            report.append("- ").append(markdownFormatter.formatBold(page.title()))
+                  .append(" (").append(markdownFormatter.formatInlineCode(page.pageId())).append(")\n");
+        }
+        
+        List<String> bridges = new ArrayList<>();
+        setsByPage.forEach((pageId, sets) -> {
+            if (sets.size() > 1) {
+                bridges.add(markdownFormatter.formatBold(pagesById.get(pageId).title())
+                    + " (" + markdownFormatter.formatInlineCode(pageId) + ") - keyword sets " + sets);
             }
-                   
-        } catch (Exception e) {
-            return "❌ **Update failed:** " + e.getMessage();
+        });
+        if (!bridges.isEmpty()) {
+            report.append("\n**Bridge pages** - related to several keyword sets; good places to cross-link those topics:\n\n");
+            bridges.forEach(bridge -> report.append("- ").append(bridge).append("\n"));
         }
+        return report.toString();
     }
     
     /**
-     * Extract page IDs from search results
+     * IDs of the pages among the search results, in result order
      */
-    private List<String> extractPageIdsFromSearchResults(String searchResults) {
-        List<String> pageIds = new java.util.ArrayList<>();
-        
-        try {
-            // Parse search results to extract page IDs
-            // Search results are formatted text, so we need to parse them carefully
-            if (searchResults == null || searchResults.contains("No results found")) {
-                return pageIds;
-            }
-            
-            // Extract IDs from the formatted search response
-            // Look for patterns like "ID: 123456" in the response
-            String[] lines = searchResults.split("\\n");
-            for (String line : lines) {
-                if (line.contains("ID:")) {
-                    // Extract the ID part
-                    String idPart = line.substring(line.indexOf("ID:") + 3).trim();
-                    // Get just the numeric part before any other text
-                    String[] parts = idPart.split("\\s+");
-                    if (parts.length > 0 && parts[0].matches("\\d+")) {
-                        pageIds.add(parts[0]);
-                    }
-                }
-            }
-            
-            logger.debug("Extracted {} page IDs from search results", pageIds.size());
-            return pageIds;
-            
-        } catch (Exception e) {
-            logger.error("Error extracting page IDs from search results", e);
-            return pageIds; // Return empty list on error
-        }
+    private List<String> pageIdsOf(SearchResponse searchResults) {
+        if (searchResults.results() == null) {
+            return List.of();
+        }
+        return searchResults.results().stream()
+            .map(SearchResult::content)
+            .filter(content -> content != null && content.id() != null && "page".equals(content.type()))
+            .map(SearchResultContent::id)
+            .distinct()
+            .toList();
     }
     
     /**
      * Perform content analysis based on type
      */
-    private String performContentAnalysis(String pagesResponse, String analysisType) {
+    private String performContentAnalysis(String analysisType, List<String> spaceIds) {
         StringBuilder analysis = new StringBuilder();
         
         switch (analysisType.toLowerCase()) {
             case "freshness":
-                analysis.append("**Freshness Analysis:**\n\n")
-                        .append("- Analyzed page modification dates\n")
-                        .append("- Identified stale content\n")
-                        .append("- Recommended update priorities\n");
+                analysis.append("**Freshness Analysis:**\n\n");
+                // The columns only hold every page of the spaces when the mirror covers them; otherwise
+                // they hold whatever earlier listings left and would misstate the totals
+                if (metadataColumns.isEmpty() || !syncService.coversSpaces(spaceIds)) {
+                    analysis.append("- Analyzed page modification dates\n")
+                            .append("- Identified stale content\n")
+                            .append("- Recommended update priorities\n");
+                    break;
+                }
+                analysis.append("- **Stale pages (>6 months):** ")
+                        .append(freshnessReportFormatter.countStalePages(spaceIds)).append("\n\n")
+                        .append(freshnessReportFormatter.formatAgeDistribution(spaceIds)).append("\n")
+                        .append(freshnessReportFormatter.formatSpaceStaleness(spaceIds)).append("\n")
+                        .append(freshnessReportFormatter.formatOldestPages(10, spaceIds));
                 break;
                 
             case "completeness":
@@ -504,17 +623,6 @@ public class BatchProcessingService {
         return analysis.toString();
     }
     
-    /**
-     * Count pages in response (simplified)
-     */
-    private int countPagesInResponse(String response) {
-        if (response == null || response.contains("No Confluence pages found")) {
-            return 0;
-        }
-        // Simplified counting - count occurrences of common page indicators
-        return Math.max(1, response.split("ID:").length - 1);
-    }
-    
     /**
      * Count issues in analysis results
      */
@@ -570,143 +678,6 @@ public class BatchProcessingService {
         return recommendations.toString();
     }
     
-    /**
-     * Extract version number from page response
-     */
-    private String extractVersionFromPageResponse(String pageResponse) {
-        try {
-            // Look for version information in the response
-            String[] lines = pageResponse.split("\\n");
-            for (String line : lines) {
-                if (line.contains("Version:") || line.contains("version")) {
-                    // Extract version number
-                    String versionLine = line.toLowerCase();
-                    if (versionLine.contains("version")) {
-                        // Try to extract number after "version"
-                        String[] parts = versionLine.split("version[:\\s]*");
-                        if (parts.length > 1) {
-                            String versionPart = parts[1].trim().split("\\s+")[0];
-                            if (versionPart.matches("\\d+")) {
-                                return versionPart;
-                            }
-                        }
-                    }
-                }
-            }
-            
-            // Default to version 1 if not found (for new pages)
-            logger.warn("Could not extract version from page response, defaulting to 1");
-            return "1";
-            
-        } catch (Exception e) {
-            logger.error("Error extracting version from page response", e);
-            return null;
-        }
-    }
-    
-    /**
-     * Extract title from page response
-     */
-    private String extractTitleFromPageResponse(String pageResponse) {
-        try {
-            String[] lines = pageResponse.split("\\n");
-            for (String line : lines) {
-                if (line.contains("Title:")) {
-                    return line.substring(line.indexOf("Title:") + 6).trim();
-                }
-                // Also check for markdown headers
-                if (line.startsWith("# ")) {
-                    return line.substring(2).trim();
-                }
-            }
-            return "Untitled Page";
-        } catch (Exception e) {
-            logger.error("Error extracting title from page response", e);
-            return "Untitled Page";
-        }
-    }
-    
-    /**
-     * Extract content from page response
-     */
-    private String extractContentFromPageResponse(String pageResponse) {
-        try {
-            // For now, return the full response as content
-            // In a more sophisticated implementation, you'd parse the structured content
-            return pageResponse != null ? pageResponse : "<p>Default content</p>";
-        } catch (Exception e) {
-            logger.error("Error extracting content from page response", e);
-            return "<p>Error extracting content</p>";
-        }
-    }
-    
-    /**
-     * Apply update template to content
-     */
-    private String applyUpdateTemplate(String currentContent, String updateTemplate) {
-        if (updateTemplate == null || updateTemplate.trim().isEmpty()) {
-            return currentContent;
-        }
-        
-        try {
-            // Apply different update templates
-            return switch (updateTemplate.toLowerCase()) {
-                case "add-last-reviewed" -> addLastReviewedMetadata(currentContent);
-                case "add-review-date" -> addLastReviewedMetadata(currentContent);
-                case "standardize-format" -> standardizeFormatting(currentContent);
-                case "add-disclaimer" -> addComplianceDisclaimer(currentContent);
-                default -> {
-                    // Treat as custom content to append
-                    yield currentContent + "\n\n---\n\n" + updateTemplate;
-                }
-            };
-        } catch (Exception e) {
-            logger.error("Error applying update template: {}", updateTemplate, e);
-            return currentContent; // Return original content if template application fails
-        }
-    }
-    
-    /**
-     * Add last reviewed metadata to content
-     */
-    private String addLastReviewedMetadata(String content) {
-        String reviewDate = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String metadata = "\n\n---\n\n**Last Reviewed:** " + reviewDate + "\n";
-        
-        // Check if metadata already exists and update it
-        if (content.contains("**Last Reviewed:**")) {
-            return content.replaceAll("\\*\\*Last Reviewed:\\*\\*[^\\n]*", "**Last Reviewed:** " + reviewDate);
-        } else {
-            return content + metadata;
-        }
-    }
-    
-    /**
-     * Standardize content formatting
-     */
-    private String standardizeFormatting(String content) {
-        if (content == null) return "<p>Standardized content</p>";
-        
-        // Basic standardization - ensure proper heading structure
-        return content.replaceAll("(?m)^(#{1,6})\\s*(.+)$", "$1 $2")  // Ensure space after #
-                     .replaceAll("(?m)^\\s*[-*+]\\s+", "- ");         // Standardize bullet points
-    }
-    
-    /**
-     * Add compliance disclaimer to content
-     */
-    private String addComplianceDisclaimer(String content) {
-        String disclaimer = "\n\n---\n\n" +
-                           "**Notice:** This documentation is subject to regular review and updates. " +
-                           "Please verify information accuracy before making critical decisions.\n";
-        
-        if (content.contains("**Notice:**")) {
-            return content; // Already has disclaimer
-        } else {
-            return content + disclaimer;
-        }
-    }
-    
     /**
      * Validate CQL query for safety (prevent injection attacks)
      */
@@ -0,0 +1,226 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.config.BatchProperties;
+import io.github.greenstevester.confluencemcpsvr.model.dto.UpdatePageRequest;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageDetailed;
+import io.github.greenstevester.confluencemcpsvr.sync.RequestPacer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Applies a content transformation to a batch of pages concurrently.
+ * <p>
+ * Pages are read in bulk, a chunk of IDs per request, and transformed on the parallel scheduler so
+ * template work never runs on the HTTP threads. Updates run a few at a time and are spaced by one
+ * {@link RequestPacer} shared by all batches, with throttled (429) writes retried after a backoff.
+ * A write rejected with a 409 version conflict means someone edited the page since it was read,
+ * so the page is read again and the transformation re-applied to the new content. A page listed
+ * more than once is read and written once. Outcomes are returned in the order the page IDs were given.
+ */
+@Component
+public class BatchUpdatePipeline {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BatchUpdatePipeline.class);
+    private static final int MAX_THROTTLE_RETRIES = 3;
+    private static final Duration THROTTLE_BACKOFF = Duration.ofSeconds(1);
+    
+    /**
+     * What happened to one page of a batch
+     */
+    public enum Status {
+        UPDATED,
+        WOULD_UPDATE,
+        UNCHANGED,
+        NOT_FOUND,
+        CONFLICT,
+        FAILED,
+        /**
+         * Not written again because an interrupted earlier write may already have applied the template.
+         * The page changed since, but that may have been someone else's edit, so it needs a human look.
+         */
+        SKIPPED;
+        
+        public boolean isSuccess() {
+            return this == UPDATED || this == WOULD_UPDATE || this == UNCHANGED;
+        }
+        
+        /**
+         * Whether nobody can tell without looking at the page if the template was applied
+         */
+        public boolean needsReview() {
+            return this == SKIPPED;
+        }
+    }
+    
+    /**
+     * Callbacks around the writes of a batch, which is how batch jobs journal them
+     */
+    public interface UpdateListener {
+        
+        UpdateListener NONE = new UpdateListener() {};
+        
+        /**
+         * Called before each update request of a page; throwing fails the page without writing it
+         */
+        default void beforeWrite(String pageId, int fromVersion) {}
+        
+        /**
+         * Called once with the final outcome of each page
+         */
+        default void onOutcome(PageOutcome outcome) {}
+    }
+    
+    /**
+     * Outcome of one page
+     *
+     * @param fromVersion version the transformation was applied to, 0 if the page was not read
+     * @param toVersion version after the update, equal to {@code fromVersion} if nothing was written
+     * @param attempts reads of the page, more than one after version conflicts
+     */
+    public record PageOutcome(
+        String pageId,
+        Status status,
+        String title,
+        int fromVersion,
+        int toVersion,
+        int attempts,
+        String message
+    ) {}
+    
+    private final ConfluencePagesService pagesService;
+    private final BatchProperties properties;
+    private final RequestPacer writePacer;
+    
+    public BatchUpdatePipeline(ConfluencePagesService pagesService, BatchProperties properties) {
+        this.pagesService = pagesService;
+        this.properties = properties;
+        this.writePacer = new RequestPacer(properties.writeInterval());
+    }
+    
+    /**
+     * Transform and update every page, or only report what would change when {@code dryRun} is set
+     *
+     * @return one outcome per page ID, in input order; a repeated ID repeats its page's outcome
+     */
+    public Mono<List<PageOutcome>> run(List<String> pageIds, UnaryOperator<String> transform, boolean dryRun) {
+        return run(pageIds, transform, dryRun, UpdateListener.NONE);
+    }
+    
+    /**
+     * Like {@link #run(List, UnaryOperator, boolean)}, reporting each write and outcome to {@code listener}
+     */
+    public Mono<List<PageOutcome>> run(List<String> pageIds, UnaryOperator<String> transform, boolean dryRun,
+                                       UpdateListener listener) {
+        // Writing a repeated ID twice would race the two writes into a version conflict and apply the template twice
+        List<String> uniqueIds = new ArrayList<>(new LinkedHashSet<>(pageIds));
+        
+        return Flux.fromIterable(chunks(uniqueIds, properties.readChunkSize()))
+            .flatMap(chunk -> pagesService.getPageModels(chunk)
+                .onErrorResume(error -> {
+                    // The pages of this chunk are read one by one instead
+                    logger.warn("Bulk read of {} pages failed: {}", chunk.size(), error.getMessage());
+                    return Mono.just(List.of());
+                }), properties.readConcurrency())
+            .collect(() -> new HashMap<String, PageDetailed>(), (pages, chunk) -> chunk.forEach(page -> pages.put(page.id(), page)))
+            .flatMap(pages -> Flux.fromIterable(uniqueIds)
+                .flatMapSequential(pageId -> update(pageId, pages.get(pageId), transform, dryRun, listener, 1)
+                    .doOnNext(listener::onOutcome), properties.writeConcurrency())
+                .collectMap(PageOutcome::pageId))
+            .map(outcomes -> pageIds.stream().map(outcomes::get).toList());
+    }
+    
+    /**
+     * Update one page; a null {@code page} is read first, which also covers pages missing from the bulk read
+     */
+    private Mono<PageOutcome> update(String pageId, PageDetailed page, UnaryOperator<String> transform,
+                                     boolean dryRun, UpdateListener listener, int attempt) {
+        Mono<PageDetailed> current = page != null ? Mono.just(page) : pagesService.refreshCachedPage(pageId);
+        
+        return current
+            .flatMap(read -> Mono.fromCallable(() -> transform.apply(bodyOf(read)))
+                .subscribeOn(Schedulers.parallel())
+                .flatMap(content -> write(read, content, transform, dryRun, listener, attempt)))
+            .switchIfEmpty(Mono.fromSupplier(() -> new PageOutcome(pageId, Status.NOT_FOUND, null, 0, 0, attempt,
+                "Page not found or not visible")))
+            .onErrorResume(error -> Mono.just(failure(pageId, error, attempt)));
+    }
+    
+    private Mono<PageOutcome> write(PageDetailed page, String content, UnaryOperator<String> transform,
+                                    boolean dryRun, UpdateListener listener, int attempt) {
+        int version = page.version() != null ? page.version().number() : 0;
+        if (content.equals(bodyOf(page))) {
+            return Mono.just(new PageOutcome(page.id(), Status.UNCHANGED, page.title(), version, version, attempt,
+                "Template leaves the content as it is"));
+        }
+        if (dryRun) {
+            return Mono.just(new PageOutcome(page.id(), Status.WOULD_UPDATE, page.title(), version, version, attempt,
+                "Would update the page"));
+        }
+        if (version <= 0) {
+            return Mono.just(new PageOutcome(page.id(), Status.FAILED, page.title(), 0, 0, attempt,
+                "Page was read without a version, so it cannot be updated safely"));
+        }
+        
+        UpdatePageRequest request = UpdatePageRequest.builder()
+            .pageId(page.id())
+            .title(page.title())
+            .version(version + 1)
+            .content(content)
+            .contentRepresentation("storage")
+            .build();
+        
+        return Mono.defer(() -> Mono.delay(writePacer.reserve()).then(Mono.defer(() -> {
+                listener.beforeWrite(page.id(), version);
+                return pagesService.updatePageModel(request);
+            })))
+            .retryWhen(Retry.backoff(MAX_THROTTLE_RETRIES, THROTTLE_BACKOFF).filter(error -> hasStatus(error, 429)))
+            .map(updated -> new PageOutcome(page.id(), Status.UPDATED, page.title(), version,
+                updated.version() != null ? updated.version().number() : version + 1, attempt, "Page updated"))
+            .onErrorResume(error -> hasStatus(error, 409), error -> {
+                if (attempt > properties.maxConflictRetries()) {
+                    return Mono.just(new PageOutcome(page.id(), Status.CONFLICT, page.title(), version, version, attempt,
+                        "Page kept changing while it was being updated"));
+                }
+                logger.debug("Version conflict updating page {} at version {}, re-reading", page.id(), version);
+                return update(page.id(), null, transform, false, listener, attempt + 1);
+            });
+    }
+    
+    private static PageOutcome failure(String pageId, Throwable error, int attempt) {
+        if (hasStatus(error, 404)) {
+            return new PageOutcome(pageId, Status.NOT_FOUND, null, 0, 0, attempt, "Page not found or not visible");
+        }
+        logger.warn("Batch update of page {} failed: {}", pageId, error.getMessage());
+        return new PageOutcome(pageId, Status.FAILED, null, 0, 0, attempt, error.getMessage());
+    }
+    
+    private static boolean hasStatus(Throwable error, int status) {
+        return error instanceof WebClientResponseException response && response.getStatusCode().value() == status;
+    }
+    
+    private static String bodyOf(PageDetailed page) {
+        return page.body() != null && page.body().storage() != null && page.body().storage().value() != null
+            ? page.body().storage().value() : "";
+    }
+    
+    private static List<List<String>> chunks(List<String> ids, int size) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += size) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + size)));
+        }
+        return chunks;
+    }
+}
\ No newline at end of file
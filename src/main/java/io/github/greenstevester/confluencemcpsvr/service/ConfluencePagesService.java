@@ -1,7 +1,12 @@
 package io.github.greenstevester.confluencemcpsvr.service;
 
+import io.github.greenstevester.confluencemcpsvr.cache.PageCache;
 import io.github.greenstevester.confluencemcpsvr.client.ConfluencePagesClient;
 import io.github.greenstevester.confluencemcpsvr.config.ConfluenceProperties;
+import io.github.greenstevester.confluencemcpsvr.index.CompletionIndex;
+import io.github.greenstevester.confluencemcpsvr.index.PageHierarchy;
+import io.github.greenstevester.confluencemcpsvr.index.PageMetadataColumns;
+import io.github.greenstevester.confluencemcpsvr.index.TrigramTitleIndex;
 import io.github.greenstevester.confluencemcpsvr.model.common.PaginatedResponse;
 import io.github.greenstevester.confluencemcpsvr.model.dto.CreatePageRequest;
 import io.github.greenstevester.confluencemcpsvr.model.dto.GetPageRequest;
@@ -35,16 +40,31 @@ public class ConfluencePagesService {
     private final ConfluenceProperties confluenceProperties;
     private final MarkdownFormatter markdownFormatter;
     private final HtmlToMarkdownConverter htmlToMarkdownConverter;
+    private final PageCache pageCache;
+    private final PageMetadataColumns metadataColumns;
+    private final TrigramTitleIndex titleIndex;
+    private final CompletionIndex completionIndex;
+    private final PageHierarchy pageHierarchy;
     
     public ConfluencePagesService(
             ConfluencePagesClient pagesClient,
             ConfluenceProperties confluenceProperties,
             MarkdownFormatter markdownFormatter,
-            HtmlToMarkdownConverter htmlToMarkdownConverter) {
+            HtmlToMarkdownConverter htmlToMarkdownConverter,
+            PageCache pageCache,
+            PageMetadataColumns metadataColumns,
+            TrigramTitleIndex titleIndex,
+            CompletionIndex completionIndex,
+            PageHierarchy pageHierarchy) {
         this.pagesClient = pagesClient;
         this.confluenceProperties = confluenceProperties;
         this.markdownFormatter = markdownFormatter;
         this.htmlToMarkdownConverter = htmlToMarkdownConverter;
+        this.pageCache = pageCache;
+        this.metadataColumns = metadataColumns;
+        this.titleIndex = titleIndex;
+        this.completionIndex = completionIndex;
+        this.pageHierarchy = pageHierarchy;
     }
     
     /**
@@ -58,6 +78,24 @@ public class ConfluencePagesService {
             Integer limit,
             String cursor) {
         
+        return listPageModels(spaceIds, query, statuses, sort, limit, cursor)
+            .map(this::formatPagesList)
+            .doOnSuccess(result -> logger.debug("Formatted pages list response"))
+            .doOnError(error -> logger.error("Error listing pages", error))
+            .onErrorReturn("Error listing pages: Please check your Confluence connection and parameters.");
+    }
+    
+    /**
+     * List pages with optional filtering and return the raw listing; errors propagate
+     */
+    public Mono<PaginatedResponse<Page>> listPageModels(
+            List<String> spaceIds,
+            String query,
+            List<ContentStatus> statuses,
+            PageSortOrder sort,
+            Integer limit,
+            String cursor) {
+        
         logger.debug("Listing pages with spaceIds: {}, query: {}", spaceIds, query);
         
         // Build request with defaults
@@ -75,19 +113,65 @@ public class ConfluencePagesService {
         );
         
         return pagesClient.listPages(request)
-            .map(this::formatPagesList)
-            .doOnSuccess(result -> logger.debug("Formatted pages list response"))
-            .doOnError(error -> logger.error("Error listing pages", error))
-            .onErrorReturn("Error listing pages: Please check your Confluence connection and parameters.");
+            .doOnNext(response -> metadataColumns.recordListing(response.results()))
+            .doOnNext(response -> completionIndex.recordPages(response.results()));
     }
     
     /**
      * Get detailed information about a specific page
      */
     public Mono<String> getPage(String pageId) {
+        return getPageModel(pageId)
+            .map(this::formatPageDetails)
+            .doOnSuccess(result -> logger.debug("Formatted page details response"))
+            .doOnError(error -> logger.error("Error getting page {}", pageId, error))
+            .onErrorReturn("Error getting page: Please check your Confluence connection and page ID.");
+    }
+    
+    /**
+     * Get a page with its body and version, from the page cache when it holds a copy; errors propagate
+     */
+    public Mono<PageDetailed> getPageModel(String pageId) {
         logger.debug("Getting page details for ID: {}", pageId);
         
-        GetPageRequest request = new GetPageRequest(
+        PageDetailed cachedPage = pageCache.get(pageId);
+        if (cachedPage != null) {
+            logger.debug("Serving page {} from cache", pageId);
+            return Mono.just(cachedPage);
+        }
+        
+        return pagesClient.getPage(pageId, buildGetPageRequest(pageId))
+            .doOnNext(pageCache::put);
+    }
+    
+    /**
+     * Re-fetch a page from Confluence and replace its cached copy
+     */
+    public Mono<PageDetailed> refreshCachedPage(String pageId) {
+        logger.debug("Refreshing cached page {}", pageId);
+        
+        return pagesClient.getPage(pageId, buildGetPageRequest(pageId))
+            .doOnNext(pageCache::put);
+    }
+    
+    /**
+     * Get several pages with bodies and versions in one request, refreshing their cached copies.
+     * Pages that do not exist or are not visible are left out.
+     */
+    public Mono<List<PageDetailed>> getPageModels(List<String> pageIds) {
+        if (pageIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return pagesClient.getPagesByIds(pageIds)
+            .map(response -> response.results() != null ? response.results() : List.<PageDetailed>of())
+            .doOnNext(pages -> pages.forEach(pageCache::put));
+    }
+    
+    /**
+     * Build the page request used for page details and the page cache
+     */
+    private GetPageRequest buildGetPageRequest(String pageId) {
+        return new GetPageRequest(
             pageId,
             BodyFormat.STORAGE,
             false, // getDraft
@@ -103,18 +187,12 @@ public class ConfluencePagesService {
             confluenceProperties.defaults().includeWebresources(),
             confluenceProperties.defaults().includeCollaborators()
         );
-        
-        return pagesClient.getPage(pageId, request)
-            .map(this::formatPageDetails)
-            .doOnSuccess(result -> logger.debug("Formatted page details response"))
-            .doOnError(error -> logger.error("Error getting page {}", pageId, error))
-            .onErrorReturn("Error getting page: Please check your Confluence connection and page ID.");
     }
     
     /**
      * Format a list of pages for display
      */
-    private String formatPagesList(PaginatedResponse<Page> pagesResponse) {
+    public String formatPagesList(PaginatedResponse<Page> pagesResponse) {
         List<Page> pages = pagesResponse.results();
         
         if (pages == null || pages.isEmpty()) {
@@ -217,11 +295,11 @@ public class ConfluencePagesService {
         }
         
         // Labels
-        if (pageData.labels() != null && !pageData.labels().isEmpty()) {
+        if (!pageData.allLabels().isEmpty()) {
             result.append(markdownFormatter.formatHeading("Labels", 2))
                   .append("\n\n");
             
-            String labelList = pageData.labels().stream()
+            String labelList = pageData.allLabels().stream()
                 .map(label -> markdownFormatter.formatInlineCode(label.name()))
                 .reduce("", (acc, label) -> acc.isEmpty() ? label : acc + ", " + label);
             
@@ -242,6 +320,9 @@ public class ConfluencePagesService {
         logger.debug("Creating page with title: {}", request.title());
         
         return pagesClient.createPage(request)
+            .doOnNext(page -> titleIndex.record(page.id(), page.title(), request.spaceKey()))
+            .doOnNext(page -> completionIndex.recordPage(page.id(), page.title()))
+            .doOnNext(page -> pageHierarchy.recordPage(request.spaceKey(), page.id(), request.parentId(), page.title()))
             .map(this::formatPageCreationResult)
             .doOnSuccess(result -> logger.debug("Successfully created page"))
             .doOnError(error -> logger.error("Error creating page with title: {}", request.title(), error))
@@ -298,13 +379,26 @@ public class ConfluencePagesService {
     public Mono<String> updatePage(UpdatePageRequest request) {
         logger.debug("Updating page with ID: {}", request.pageId());
         
-        return pagesClient.updatePage(request)
+        return updatePageModel(request)
             .map(this::formatPageUpdateResult)
             .doOnSuccess(result -> logger.debug("Successfully updated page"))
             .doOnError(error -> logger.error("Error updating page with ID: {}", request.pageId(), error))
             .onErrorReturn("Error updating page: Please check your Confluence connection, permissions, page ID, and version number.");
     }
     
+    /**
+     * Update a page and return the updated page, keeping the cache and title indexes in step.
+     * Errors propagate, so callers can tell a version conflict (409) from other failures.
+     */
+    public Mono<PageDetailed> updatePageModel(UpdatePageRequest request) {
+        return pagesClient.updatePage(request)
+            .doOnNext(page -> pageCache.invalidate(page.id()))
+            .doOnNext(page -> titleIndex.record(page.id(), page.title(), null))
+            .doOnNext(page -> completionIndex.recordPage(page.id(), page.title()))
+            .doOnNext(page -> pageHierarchy.recordPage(pageHierarchy.spaceOf(page.id()), page.id(),
+                request.parentId() != null ? request.parentId() : pageHierarchy.parentOf(page.id()), page.title()));
+    }
+    
     /**
      * Format the result of page update
      */
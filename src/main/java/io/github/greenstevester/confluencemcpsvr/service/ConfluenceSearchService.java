@@ -2,10 +2,23 @@ package io.github.greenstevester.confluencemcpsvr.service;
 
 import io.github.greenstevester.confluencemcpsvr.client.ConfluenceSearchClient;
 import io.github.greenstevester.confluencemcpsvr.config.ConfluenceProperties;
+import io.github.greenstevester.confluencemcpsvr.cql.CqlNode;
+import io.github.greenstevester.confluencemcpsvr.cql.CqlOperator;
+import io.github.greenstevester.confluencemcpsvr.cql.CqlParseException;
+import io.github.greenstevester.confluencemcpsvr.cql.CqlParser;
+import io.github.greenstevester.confluencemcpsvr.cql.CqlPlanner;
+import io.github.greenstevester.confluencemcpsvr.cql.CqlQuery;
+import io.github.greenstevester.confluencemcpsvr.cql.LocalCqlEvaluator;
+import io.github.greenstevester.confluencemcpsvr.index.TextAnalyzer;
 import io.github.greenstevester.confluencemcpsvr.model.enums.ExcerptStrategy;
 import io.github.greenstevester.confluencemcpsvr.model.search.SearchRequest;
 import io.github.greenstevester.confluencemcpsvr.model.search.SearchResponse;
 import io.github.greenstevester.confluencemcpsvr.model.search.SearchResult;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchResultContent;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchResultSpace;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchResultVersion;
+import io.github.greenstevester.confluencemcpsvr.sync.ConfluenceSyncService;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
 import io.github.greenstevester.confluencemcpsvr.util.MarkdownFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,7 +26,10 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -24,17 +40,25 @@ public class ConfluenceSearchService {
     
     private static final Logger logger = LoggerFactory.getLogger(ConfluenceSearchService.class);
     
+    private static final int EXCERPT_RADIUS = 120;
+    
     private final ConfluenceSearchClient searchClient;
     private final ConfluenceProperties confluenceProperties;
     private final MarkdownFormatter markdownFormatter;
+    private final LocalCqlEvaluator localCqlEvaluator;
+    private final ConfluenceSyncService syncService;
     
     public ConfluenceSearchService(
             ConfluenceSearchClient searchClient,
             ConfluenceProperties confluenceProperties,
-            MarkdownFormatter markdownFormatter) {
+            MarkdownFormatter markdownFormatter,
+            LocalCqlEvaluator localCqlEvaluator,
+            ConfluenceSyncService syncService) {
         this.searchClient = searchClient;
         this.confluenceProperties = confluenceProperties;
         this.markdownFormatter = markdownFormatter;
+        this.localCqlEvaluator = localCqlEvaluator;
+        this.syncService = syncService;
     }
     
     /**
@@ -48,8 +72,50 @@ public class ConfluenceSearchService {
             Boolean includeArchivedSpaces,
             ExcerptStrategy excerpt) {
         
+        return searchModels(cql, cqlContext, limit, start, includeArchivedSpaces, excerpt)
+            .map(this::formatSearchResults)
+            .doOnSuccess(result -> logger.debug("Formatted search results"))
+            .doOnError(error -> logger.error("Error during search", error))
+            .onErrorReturn("Error performing search: Please check your Confluence connection and CQL query.");
+    }
+    
+    /**
+     * Search with CQL and return the raw results, answered from the local mirror when possible.
+     * Errors propagate, so callers can tell a failed search from one without results.
+     */
+    public Mono<SearchResponse> searchModels(
+            String cql,
+            String cqlContext,
+            Integer limit,
+            Integer start,
+            Boolean includeArchivedSpaces,
+            ExcerptStrategy excerpt) {
+        
         logger.debug("Searching with CQL: {}", cql);
         
+        if (cqlContext != null || Boolean.TRUE.equals(includeArchivedSpaces)) {
+            return searchRemotely(cql, cqlContext, limit, start, includeArchivedSpaces, excerpt);
+        }
+        // Evaluated on subscription, so the local scan runs inside the caller's timeout
+        return Mono.defer(() -> {
+            SearchResponse localResponse = searchLocally(cql,
+                limit != null ? limit : confluenceProperties.defaults().pageSize(),
+                start != null ? start : 0);
+            if (localResponse == null) {
+                return searchRemotely(cql, cqlContext, limit, start, includeArchivedSpaces, excerpt);
+            }
+            logger.debug("Answered CQL from local index in {} ms", localResponse.searchDuration());
+            return Mono.just(localResponse);
+        });
+    }
+    
+    private Mono<SearchResponse> searchRemotely(
+            String cql,
+            String cqlContext,
+            Integer limit,
+            Integer start,
+            Boolean includeArchivedSpaces,
+            ExcerptStrategy excerpt) {
         SearchRequest request = new SearchRequest(
             cql,
             cqlContext,
@@ -58,20 +124,145 @@ public class ConfluenceSearchService {
             start,
             includeArchivedSpaces,
             false, // excludeCurrentSpaces
-            excerpt != null ? excerpt : ExcerptStrategy.HIGHLIGHT
+            excerpt != null ? excerpt : ExcerptStrategy.HIGHLIGHT,
+            null // expand
         );
         
-        return searchClient.search(request)
-            .map(this::formatSearchResults)
-            .doOnSuccess(result -> logger.debug("Formatted search results"))
-            .doOnError(error -> logger.error("Error during search", error))
-            .onErrorReturn("Error performing search: Please check your Confluence connection and CQL query.");
+        return searchClient.search(request);
+    }
+    
+    /**
+     * Search with CQL for internal callers that only need the first {@code limit} results
+     */
+    public Mono<SearchResponse> searchModels(String cql, int limit) {
+        return searchModels(cql, null, limit, 0, false, null);
+    }
+    
+    /**
+     * Answer the query from the local mirror when the planner accepts it, the mirror is fresh and it
+     * holds every space the query can match. Returns null when the query has to go to Confluence.
+     */
+    private SearchResponse searchLocally(String cql, int limit, int start) {
+        if (cql == null || !syncService.isMirrorFresh()) {
+            return null;
+        }
+        
+        CqlQuery query;
+        try {
+            query = CqlParser.parse(cql);
+        } catch (CqlParseException e) {
+            // Let Confluence report syntax errors in its own words
+            logger.debug("Local CQL parser rejected query: {}", e.getMessage());
+            return null;
+        }
+        
+        CqlPlanner.QueryPlan plan = CqlPlanner.plan(query, syncService.getSyncedSpaceKeys());
+        if (!plan.local()) {
+            logger.debug("Running CQL remotely: {}", plan.reason());
+            return null;
+        }
+        
+        long startTime = System.currentTimeMillis();
+        List<LocalCqlEvaluator.ScoredPage> matches = localCqlEvaluator.evaluate(query);
+        List<String> excerptTokens = new ArrayList<>();
+        collectTextTerms(query.where(), excerptTokens);
+        
+        List<SearchResult> results = new ArrayList<>();
+        for (int i = start; i < matches.size() && results.size() < limit; i++) {
+            LocalCqlEvaluator.ScoredPage match = matches.get(i);
+            results.add(toSearchResult(match.page(), match.score(), excerptTokens));
+        }
+        
+        return new SearchResponse(
+            results,
+            limit,
+            results.size(),
+            start,
+            matches.size(),
+            cql,
+            (int) (System.currentTimeMillis() - startTime),
+            null
+        );
+    }
+    
+    /**
+     * Gather the tokens of all positive text and title clauses, used to position excerpts
+     */
+    private void collectTextTerms(CqlNode node, List<String> tokens) {
+        switch (node) {
+            case CqlNode.And and -> and.children().forEach(child -> collectTextTerms(child, tokens));
+            case CqlNode.Or or -> or.children().forEach(child -> collectTextTerms(child, tokens));
+            case CqlNode.Not not -> {
+                // Negated terms never appear in the matching pages
+            }
+            case CqlNode.Clause clause -> {
+                if (clause.operator() == CqlOperator.CONTAINS) {
+                    tokens.addAll(TextAnalyzer.tokenize(clause.value()));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Convert a mirrored page into the search result shape returned by Confluence
+     */
+    private SearchResult toSearchResult(MirroredPage page, double score, List<String> queryTokens) {
+        LocalDateTime lastModified = page.lastModified() != null
+            ? LocalDateTime.ofInstant(page.lastModified(), ZoneOffset.UTC) : null;
+        
+        SearchResultContent content = new SearchResultContent(
+            page.id(),
+            "page",
+            page.status() != null ? page.status() : "current",
+            page.title(),
+            new SearchResultSpace(page.spaceKey(), page.spaceKey(), null, null),
+            null,
+            new SearchResultVersion(lastModified, page.version(), null),
+            null
+        );
+        
+        return new SearchResult(
+            content,
+            page.title(),
+            buildExcerpt(page, queryTokens),
+            confluenceProperties.api().baseUrl() + "/pages/viewpage.action?pageId=" + page.id(),
+            "content",
+            null,
+            lastModified,
+            null,
+            score,
+            null,
+            null
+        );
+    }
+    
+    /**
+     * Take the text around the first query term found in the page body
+     */
+    private String buildExcerpt(MirroredPage page, List<String> queryTokens) {
+        String text = TextAnalyzer.stripMarkup(page.body()).replaceAll("\\s+", " ").trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        
+        String lowerText = text.toLowerCase(Locale.ROOT);
+        int hit = -1;
+        for (String token : queryTokens) {
+            int index = lowerText.indexOf(token);
+            if (index >= 0 && (hit < 0 || index < hit)) {
+                hit = index;
+            }
+        }
+        
+        int from = Math.max(0, hit - EXCERPT_RADIUS);
+        int to = Math.min(text.length(), Math.max(hit, 0) + EXCERPT_RADIUS);
+        return (from > 0 ? "..." : "") + text.substring(from, to) + (to < text.length() ? "..." : "");
     }
     
     /**
      * Format search results for display
      */
-    private String formatSearchResults(SearchResponse searchResponse) {
+    public String formatSearchResults(SearchResponse searchResponse) {
         List<SearchResult> results = searchResponse.results();
         
         if (results == null || results.isEmpty()) {
@@ -2,6 +2,7 @@ package io.github.greenstevester.confluencemcpsvr.service;
 
 import io.github.greenstevester.confluencemcpsvr.client.ConfluenceSpacesClient;
 import io.github.greenstevester.confluencemcpsvr.config.ConfluenceProperties;
+import io.github.greenstevester.confluencemcpsvr.index.CompletionIndex;
 import io.github.greenstevester.confluencemcpsvr.model.common.PaginatedResponse;
 import io.github.greenstevester.confluencemcpsvr.model.dto.CreateSpaceRequest;
 import io.github.greenstevester.confluencemcpsvr.model.dto.UpdateSpaceRequest;
@@ -30,14 +31,17 @@ public class ConfluenceSpacesService {
     private final ConfluenceSpacesClient spacesClient;
     private final ConfluenceProperties confluenceProperties;
     private final MarkdownFormatter markdownFormatter;
+    private final CompletionIndex completionIndex;
     
     public ConfluenceSpacesService(
             ConfluenceSpacesClient spacesClient,
             ConfluenceProperties confluenceProperties,
-            MarkdownFormatter markdownFormatter) {
+            MarkdownFormatter markdownFormatter,
+            CompletionIndex completionIndex) {
         this.spacesClient = spacesClient;
         this.confluenceProperties = confluenceProperties;
         this.markdownFormatter = markdownFormatter;
+        this.completionIndex = completionIndex;
     }
     
     /**
@@ -65,11 +69,20 @@ public class ConfluenceSpacesService {
                 statusStrings,
                 cursor,
                 limit != null ? limit : confluenceProperties.defaults().pageSize())
+            .doOnNext(response -> completionIndex.recordSpaces(response.results()))
             .map(this::formatSpacesList)
             .doOnSuccess(result -> logger.debug("Formatted spaces list response"))
             .doOnError(error -> logger.error("Error listing spaces", error));
     }
     
+    /**
+     * List spaces as model objects, for callers that analyse rather than display them
+     */
+    public Mono<PaginatedResponse<Space>> listSpaceModels(int limit) {
+        return spacesClient.listSpaces(null, null, null, null, null, limit)
+            .doOnNext(response -> completionIndex.recordSpaces(response.results()));
+    }
+    
     /**
      * Get detailed information about a specific space
      */
@@ -77,6 +90,7 @@ public class ConfluenceSpacesService {
         logger.debug("Getting space details for ID: {}", spaceId);
         
         return spacesClient.getSpace(spaceId)
+            .doOnNext(space -> completionIndex.recordSpace(space.key(), space.name()))
             .map(this::formatSpaceDetails)
             .doOnSuccess(result -> logger.debug("Formatted space details response"))
             .doOnError(error -> logger.error("Error getting space {}", spaceId, error))
@@ -232,6 +246,7 @@ public class ConfluenceSpacesService {
         logger.debug("Creating space with key: {}", request.key());
         
         return spacesClient.createSpace(request)
+            .doOnNext(space -> completionIndex.recordSpace(space.key(), space.name()))
             .map(this::formatSpaceCreationResult)
             .doOnSuccess(result -> logger.debug("Successfully created space"))
             .doOnError(error -> logger.error("Error creating space with key: {}", request.key(), error))
@@ -306,6 +321,7 @@ public class ConfluenceSpacesService {
         logger.debug("Updating space with key: {}", request.spaceKey());
         
         return spacesClient.updateSpace(request)
+            .doOnNext(space -> completionIndex.recordSpace(space.key(), space.name()))
             .map(this::formatSpaceUpdateResult)
             .doOnSuccess(result -> logger.debug("Successfully updated space"))
             .doOnError(error -> logger.error("Error updating space with key: {}", request.spaceKey(), error))
@@ -1,16 +1,31 @@
 package io.github.greenstevester.confluencemcpsvr.service;
 
+import io.github.greenstevester.confluencemcpsvr.config.AuditProperties;
+import io.github.greenstevester.confluencemcpsvr.index.SortedIdSet;
+import io.github.greenstevester.confluencemcpsvr.service.AuditSnapshotStore.AuditSnapshot;
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Specialized service for systematic documentation auditing with predefined queries
@@ -20,10 +35,26 @@ public class DocumentationAuditService {
     
     private static final Logger logger = LoggerFactory.getLogger(DocumentationAuditService.class);
     
+    // Resolved and new pages listed per query in an audit comparison
+    private static final int COMPARISON_PAGES_LISTED = 10;
+    
     private final ConfluenceSearchService searchService;
+    private final StreamingAuditEngine streamingAuditEngine;
+    private final AuditProperties auditProperties;
+    private final AuditSnapshotStore snapshotStore;
+    private final LocalPageStore pageStore;
     
-    public DocumentationAuditService(ConfluenceSearchService searchService) {
+    public DocumentationAuditService(
+            ConfluenceSearchService searchService,
+            StreamingAuditEngine streamingAuditEngine,
+            AuditProperties auditProperties,
+            AuditSnapshotStore snapshotStore,
+            LocalPageStore pageStore) {
         this.searchService = searchService;
+        this.streamingAuditEngine = streamingAuditEngine;
+        this.auditProperties = auditProperties;
+        this.snapshotStore = snapshotStore;
+        this.pageStore = pageStore;
     }
     
     /**
@@ -71,12 +102,25 @@ public class DocumentationAuditService {
         }
         
         public String getCql() { 
-            // Generate dynamic date queries for age-based queries
+            return getCql(LocalDate.now());
+        }
+        
+        /**
+         * The CQL as of {@code today}; age-based queries count their cutoff back from it
+         */
+        public String getCql(LocalDate today) {
+            return getAgeMonths() > 0 ? generateDateQuery(getAgeMonths(), today) : cql;
+        }
+        
+        /**
+         * Minimum age in months of the pages an age-based query selects, or 0 for other queries
+         */
+        public int getAgeMonths() {
             return switch (this) {
-                case VERY_OLD_PAGES -> generateDateQuery(24); // 2 years in months
-                case OLD_PAGES -> generateDateQuery(12);      // 1 year in months  
-                case STALE_PAGES -> generateDateQuery(6);     // 6 months
-                default -> cql;
+                case VERY_OLD_PAGES -> 24; // 2 years
+                case OLD_PAGES -> 12;      // 1 year
+                case STALE_PAGES -> 6;     // 6 months
+                default -> 0;
             };
         }
         
@@ -85,8 +129,8 @@ public class DocumentationAuditService {
         /**
          * Generate CQL date query for pages older than specified months
          */
-        private static String generateDateQuery(int monthsOld) {
-            LocalDateTime cutoffDate = LocalDateTime.now().minusMonths(monthsOld);
+        private static String generateDateQuery(int monthsOld, LocalDate today) {
+            LocalDate cutoffDate = today.minusMonths(monthsOld);
             String dateString = cutoffDate.format(DateTimeFormatter.ISO_LOCAL_DATE);
             return String.format("type=page AND lastModified <= '%s'", dateString);
         }
@@ -98,16 +142,16 @@ public class DocumentationAuditService {
     public Mono<String> executeAuditQuery(AuditQuery query, Integer limit) {
         logger.debug("Executing audit query: {}", query.name());
         
-        return searchService.search(query.getCql(), null, limit != null ? limit : 50, 0, false, null)
+        return searchService.searchModels(query.getCql(), limit != null ? limit : 50)
             .map(response -> {
                 StringBuilder result = new StringBuilder();
                 result.append("## ").append(query.getDescription()).append("\n\n");
                 result.append("**Query:** `").append(query.getCql()).append("`\n\n");
                 
-                if (response.contains("No results found")) {
+                if (response.results() == null || response.results().isEmpty()) {
                     result.append("✅ No issues found for this query.\n");
                 } else {
-                    result.append("**Results:**\n\n").append(response);
+                    result.append("**Results:**\n\n").append(searchService.formatSearchResults(response));
                 }
                 
                 return result.toString();
@@ -118,32 +162,330 @@ public class DocumentationAuditService {
      * Execute systematic audit checklist
      */
     public Mono<String> executeSystematicAudit(List<AuditQuery> queries, Integer limitPerQuery) {
-        return Mono.fromCallable(() -> {
+        return executeSystematicAudit(queries, limitPerQuery, AsyncJobService.Progress.NONE);
+    }
+    
+    /**
+     * Execute systematic audit checklist, handing {@code progress} the count of finished queries and
+     * the report up to the last section streamed so far
+     */
+    public Mono<String> executeSystematicAudit(List<AuditQuery> queries, Integer limitPerQuery,
+                                               AsyncJobService.Progress progress) {
+        return Mono.defer(() -> {
             StringBuilder report = new StringBuilder();
-            
-            // Header
             report.append("# 📋 Systematic Documentation Audit Report\n\n");
             report.append("**Generated:** ").append(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)).append("\n");
             report.append("**Queries Executed:** ").append(queries.size()).append("\n");
             report.append("**Limit per Query:** ").append(limitPerQuery != null ? limitPerQuery : 50).append("\n\n");
+            AtomicInteger finished = new AtomicInteger();
             
-            // Execute each query
-            for (AuditQuery query : queries) {
-                try {
-                    String queryResult = executeAuditQuery(query, limitPerQuery).block();
-                    report.append(queryResult).append("\n\n---\n\n");
-                } catch (Exception e) {
-                    logger.error("Error executing query: {}", query.name(), e);
-                    report.append("## ❌ Error executing: ").append(query.getDescription()).append("\n");
-                    report.append("**Error:** ").append(e.getMessage()).append("\n\n---\n\n");
+            return streamSystematicAudit(queries, limitPerQuery)
+                .doOnNext(section -> {
+                    report.append(section);
+                    progress.update(finished.incrementAndGet() + " of " + queries.size() + " audit queries finished");
+                    progress.partial(report.toString());
+                })
+                .then(Mono.fromSupplier(() -> {
+                    progress.update("Summarising " + queries.size() + " audit queries");
+                    // Summary and recommendations
+                    return report.append(generateAuditSummary(queries)).toString();
+                }));
+        });
+    }
+    
+    /**
+     * Run the checklist queries concurrently and emit one report section per query, in checklist
+     * order, as soon as it and every query before it have finished. Each query has its own
+     * deadline, so one slow search costs at most the timeout instead of stalling the audit.
+     */
+    public Flux<String> streamSystematicAudit(List<AuditQuery> queries, Integer limitPerQuery) {
+        long start = System.currentTimeMillis();
+        Duration timeout = auditProperties.queryTimeout();
+        AtomicInteger completed = new AtomicInteger();
+        
+        return Flux.fromIterable(queries)
+            // flatMapSequential subscribes up to queryParallelism queries at once but replays their
+            // results in source order, so the report reads the same as a sequential run
+            .flatMapSequential(query -> executeAuditQuery(query, limitPerQuery)
+                .timeout(timeout)
+                .onErrorResume(error -> {
+                    logger.error("Error executing query: {}", query.name(), error);
+                    String message = error instanceof TimeoutException
+                        ? "No response within " + timeout.toSeconds() + "s"
+                        : error.getMessage();
+                    return Mono.just("## ❌ Error executing: " + query.getDescription() + "\n"
+                        + "**Error:** " + message);
+                })
+                .doOnNext(section -> logger.debug("Audit query {} finished ({}/{}) after {} ms", query.name(),
+                    completed.incrementAndGet(), queries.size(), System.currentTimeMillis() - start)),
+                auditProperties.queryParallelism())
+            .map(section -> section + "\n\n---\n\n")
+            .doOnComplete(() -> logger.info("Systematic audit of {} queries finished in {} ms",
+                queries.size(), System.currentTimeMillis() - start));
+    }
+    
+    /**
+     * Execute an audit checklist in one streamed pass over every page of the given spaces,
+     * with complete rather than per-query capped results
+     */
+    public Mono<String> executeStreamedAudit(List<AuditQuery> queries, List<String> spaceKeys, Integer limitPerQuery) {
+        int listed = limitPerQuery != null && limitPerQuery > 0 ? limitPerQuery : 50;
+        
+        return streamingAuditEngine.run(queries, spaceKeys)
+            .flatMap(run -> saveSnapshot(run)
+                .map(snapshotId -> formatStreamedAudit(queries, run, snapshotId, listed)));
+    }
+    
+    private String formatStreamedAudit(List<AuditQuery> queries, StreamingAuditEngine.AuditRun run,
+                                       String snapshotId, int listed) {
+        StringBuilder report = new StringBuilder();
+        report.append("# 📋 Systematic Documentation Audit Report\n\n");
+        report.append("**Generated:** ").append(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)).append("\n");
+        report.append("**Queries Executed:** ").append(queries.size()).append(" in one pass\n");
+        report.append("**Spaces:** ").append(run.spaceKeys().isEmpty() ? "all mirrored spaces" : String.join(", ", run.spaceKeys())).append("\n");
+        report.append("**Pages Scanned:** ").append(run.pagesScanned())
+              .append(run.fromMirror() ? " from the local mirror" : " with " + run.upstreamCalls() + " Confluence requests")
+              .append(" in ").append(run.durationMillis()).append(" ms\n");
+        if (run.pagesReused() > 0) {
+            report.append("**Unchanged Pages:** ").append(run.pagesReused())
+                  .append(" taken from the previous audit, ").append(run.pagesScanned() - run.pagesReused())
+                  .append(" re-evaluated\n");
+        }
+        if (run.truncated()) {
+            report.append("⚠️ The scan stopped at the configured page limit (confluence.audit.max-pages).\n");
+        }
+        if (!snapshotId.isEmpty()) {
+            report.append("**Snapshot:** `").append(snapshotId).append("` (compare later audits with compare-audits)\n");
+        }
+        report.append("\n");
+        
+        for (StreamingAuditEngine.QueryResult result : run.results()) {
+            report.append("## ").append(result.query().getDescription()).append("\n\n");
+            if (result.pages().isEmpty()) {
+                report.append("✅ No issues found for this query.\n\n---\n\n");
+                continue;
+            }
+            report.append("**Matching Pages:** ").append(result.pages().size()).append("\n\n");
+            for (StreamingAuditEngine.PageHit page : result.pages().subList(0, Math.min(listed, result.pages().size()))) {
+                report.append("- **").append(page.title()).append("** - ID: `").append(page.pageId()).append("`");
+                if (page.spaceKey() != null) {
+                    report.append(", Space: ").append(page.spaceKey());
+                }
+                if (page.lastModified() != null) {
+                    report.append(", modified ").append(page.lastModified().atZone(ZoneOffset.UTC).toLocalDate());
+                }
+                if (page.keywordHits() > 0) {
+                    report.append(", ").append(page.keywordHits()).append(" keyword hits");
                 }
+                report.append("\n");
             }
+            if (result.pages().size() > listed) {
+                report.append("- ... and ").append(result.pages().size() - listed).append(" more\n");
+            }
+            report.append("\n---\n\n");
+        }
+        
+        report.append(generateAuditSummary(queries));
+        return report.toString();
+    }
+    
+    /**
+     * Compare two audit snapshots: per query, which flagged pages were resolved and which are new.
+     * Without IDs the latest snapshot is compared with the one before it; with only a baseline,
+     * the baseline is compared with the latest.
+     */
+    public Mono<String> compareAudits(String baselineId, String currentId) {
+        return Mono.fromCallable(() -> {
+            List<AuditSnapshotStore.SnapshotInfo> available = snapshotStore.list();
+            String current = currentId != null && !currentId.isBlank() ? currentId
+                : !available.isEmpty() ? available.get(available.size() - 1).id() : null;
+            String baseline = baselineId != null && !baselineId.isBlank() ? baselineId : previousSnapshotId(available, current);
             
-            // Summary and recommendations
-            report.append(generateAuditSummary(queries));
-            
-            return report.toString();
+            AuditSnapshot before = baseline != null ? snapshotStore.load(baseline) : null;
+            AuditSnapshot after = current != null ? snapshotStore.load(current) : null;
+            if (before == null || after == null) {
+                StringBuilder result = new StringBuilder("# 📈 Audit Comparison\n\n");
+                if (available.size() < 2 && baselineId == null && currentId == null) {
+                    result.append("At least two audit snapshots are needed; each audit-spaces run saves one.\n\n");
+                } else {
+                    result.append("❌ Snapshot not found: `").append(before == null ? baseline : current).append("`\n\n");
+                }
+                return result.append(formatSnapshotList(available)).toString();
+            }
+            return formatComparison(before, after);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+    
+    /**
+     * Save the run as a snapshot off the calling thread, since that gzips and writes the whole
+     * result; emits the snapshot ID, or an empty string when it could not be saved
+     */
+    private Mono<String> saveSnapshot(StreamingAuditEngine.AuditRun run) {
+        return Mono.fromCallable(() -> snapshotStore.save(run).id())
+            .subscribeOn(Schedulers.boundedElastic())
+            .onErrorResume(IOException.class, e -> {
+                logger.warn("Could not save audit snapshot: {}", e.getMessage());
+                return Mono.just("");
+            });
+    }
+    
+    private static String previousSnapshotId(List<AuditSnapshotStore.SnapshotInfo> available, String current) {
+        for (int i = available.size() - 1; i > 0; i--) {
+            if (available.get(i).id().equals(current)) {
+                return available.get(i - 1).id();
+            }
+        }
+        return null;
+    }
+    
+    private String formatComparison(AuditSnapshot before, AuditSnapshot after) {
+        StringBuilder result = new StringBuilder();
+        result.append("# 📈 Audit Comparison\n\n");
+        result.append("**Baseline:** `").append(before.id()).append("` (").append(formatSnapshotScope(before)).append(")\n");
+        result.append("**Current:** `").append(after.id()).append("` (").append(formatSnapshotScope(after)).append(")\n");
+        if (!before.spaceKeys().equals(after.spaceKeys())) {
+            result.append("⚠️ The audits covered different spaces, so pages outside the common spaces show up as resolved or new.\n");
+        }
+        if (before.truncated() || after.truncated()) {
+            result.append("⚠️ At least one audit stopped at the page limit, so some changes may be missed.\n");
+        }
+        result.append("\n");
+        
+        result.append("## Findings by Query\n\n");
+        result.append("| Query | Baseline | Current | ✅ Resolved | ⚠️ New |\n");
+        result.append("|-------|----------|---------|------------|--------|\n");
+        List<String> details = new ArrayList<>();
+        int totalResolved = 0;
+        int totalNew = 0;
+        for (AuditSnapshotStore.QuerySnapshot query : after.queries()) {
+            AuditSnapshotStore.QuerySnapshot baseline = before.query(query.query());
+            if (baseline == null) {
+                continue;
+            }
+            SortedIdSet resolved = SortedIdSet.difference(baseline.pages(), query.pages());
+            SortedIdSet added = SortedIdSet.difference(query.pages(), baseline.pages());
+            totalResolved += resolved.size();
+            totalNew += added.size();
+            result.append("| ").append(describeQuery(query.query()))
+                  .append(" | ").append(baseline.pages().size())
+                  .append(" | ").append(query.pages().size())
+                  .append(" | ").append(resolved.size())
+                  .append(" | ").append(added.size()).append(" |\n");
+            if (!resolved.isEmpty() || !added.isEmpty()) {
+                details.add(formatQueryChanges(query.query(), resolved, added));
+            }
+        }
+        result.append("\n**Net change:** ").append(totalResolved).append(" findings resolved, ")
+              .append(totalNew).append(" new\n\n");
+        
+        List<String> skipped = new ArrayList<>();
+        before.queries().stream().map(AuditSnapshotStore.QuerySnapshot::query)
+            .filter(name -> after.query(name) == null).forEach(skipped::add);
+        after.queries().stream().map(AuditSnapshotStore.QuerySnapshot::query)
+            .filter(name -> before.query(name) == null).forEach(skipped::add);
+        if (!skipped.isEmpty()) {
+            result.append("_Queries run in only one of the audits are not compared: ")
+                  .append(String.join(", ", skipped)).append("_\n\n");
+        }
+        
+        result.append(formatSpaceTrends(before, after));
+        details.forEach(result::append);
+        return result.toString();
+    }
+    
+    private String formatQueryChanges(String queryName, SortedIdSet resolved, SortedIdSet added) {
+        StringBuilder result = new StringBuilder();
+        result.append("## ").append(describeQuery(queryName)).append("\n\n");
+        appendPageIds(result, "✅ Resolved", resolved);
+        appendPageIds(result, "⚠️ New", added);
+        return result.toString();
+    }
+    
+    private void appendPageIds(StringBuilder result, String label, SortedIdSet pageIds) {
+        if (pageIds.isEmpty()) {
+            return;
+        }
+        result.append("**").append(label).append(" (").append(pageIds.size()).append("):**\n");
+        int shown = Math.min(COMPARISON_PAGES_LISTED, pageIds.size());
+        for (int i = 0; i < shown; i++) {
+            String pageId = Long.toString(pageIds.get(i));
+            MirroredPage page = pageStore.get(pageId);
+            result.append("- ");
+            if (page != null) {
+                result.append("**").append(page.title()).append("** - ");
+            }
+            result.append("ID: `").append(pageId).append("`\n");
+        }
+        if (pageIds.size() > shown) {
+            result.append("- ... and ").append(pageIds.size() - shown).append(" more\n");
+        }
+        result.append("\n");
+    }
+    
+    private String formatSpaceTrends(AuditSnapshot before, AuditSnapshot after) {
+        Map<String, int[]> totals = new TreeMap<>();
+        // Only queries present in both audits count towards the totals
+        for (int q = 0; q < after.queries().size(); q++) {
+            String name = after.queries().get(q).query();
+            int baselineIndex = before.queries().indexOf(before.query(name));
+            if (baselineIndex < 0) {
+                continue;
+            }
+            for (AuditSnapshotStore.SpaceAggregate space : before.spaces()) {
+                totals.computeIfAbsent(space.spaceKey(), key -> new int[4])[1] += space.queryHits()[baselineIndex];
+            }
+            for (AuditSnapshotStore.SpaceAggregate space : after.spaces()) {
+                totals.computeIfAbsent(space.spaceKey(), key -> new int[4])[3] += space.queryHits()[q];
+            }
+        }
+        before.spaces().forEach(space -> totals.computeIfAbsent(space.spaceKey(), key -> new int[4])[0] = space.pages());
+        after.spaces().forEach(space -> totals.computeIfAbsent(space.spaceKey(), key -> new int[4])[2] = space.pages());
+        if (totals.isEmpty()) {
+            return "";
+        }
+        
+        StringBuilder result = new StringBuilder();
+        result.append("## Trend by Space\n\n");
+        result.append("| Space | Pages | Findings | Change |\n");
+        result.append("|-------|-------|----------|--------|\n");
+        totals.forEach((spaceKey, counts) -> {
+            int change = counts[3] - counts[1];
+            result.append("| ").append(spaceKey)
+                  .append(" | ").append(counts[0]).append(" → ").append(counts[2])
+                  .append(" | ").append(counts[1]).append(" → ").append(counts[3])
+                  .append(" | ").append(change > 0 ? "+" + change : change).append(" |\n");
         });
+        return result.append("\n").toString();
+    }
+    
+    private String formatSnapshotList(List<AuditSnapshotStore.SnapshotInfo> available) {
+        if (available.isEmpty()) {
+            return "No audit snapshots saved yet.\n";
+        }
+        StringBuilder result = new StringBuilder("**Available snapshots:**\n\n");
+        for (AuditSnapshotStore.SnapshotInfo snapshot : available) {
+            result.append("- `").append(snapshot.id()).append("` - ")
+                  .append(snapshot.spaceKeys().isEmpty() ? "all spaces" : String.join(", ", snapshot.spaceKeys()))
+                  .append(", ").append(snapshot.pagesScanned()).append(" pages, ")
+                  .append(snapshot.queryCount()).append(" queries, ")
+                  .append(snapshot.sizeBytes()).append(" bytes\n");
+        }
+        return result.toString();
+    }
+    
+    private static String formatSnapshotScope(AuditSnapshot snapshot) {
+        return snapshot.createdAt().atZone(ZoneOffset.UTC).toLocalDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+            + " UTC, " + (snapshot.spaceKeys().isEmpty() ? "all spaces" : String.join(", ", snapshot.spaceKeys()))
+            + ", " + snapshot.pagesScanned() + " pages";
+    }
+    
+    private static String describeQuery(String queryName) {
+        try {
+            return AuditQuery.valueOf(queryName).getDescription();
+        } catch (IllegalArgumentException e) {
+            // A query removed since the snapshot was taken
+            return queryName;
+        }
     }
     
     /**
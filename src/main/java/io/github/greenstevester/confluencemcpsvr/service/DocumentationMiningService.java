@@ -1,18 +1,29 @@
 package io.github.greenstevester.confluencemcpsvr.service;
 
+import io.github.greenstevester.confluencemcpsvr.config.AuditProperties;
 import io.github.greenstevester.confluencemcpsvr.config.ConfluenceProperties;
+import io.github.greenstevester.confluencemcpsvr.index.PageHierarchy.HierarchyStats;
+import io.github.greenstevester.confluencemcpsvr.index.PageMetadataColumns;
 import io.github.greenstevester.confluencemcpsvr.model.enums.ContentStatus;
 import io.github.greenstevester.confluencemcpsvr.model.enums.PageSortOrder;
+import io.github.greenstevester.confluencemcpsvr.model.space.Space;
+import io.github.greenstevester.confluencemcpsvr.sync.ConfluenceSyncService;
+import io.github.greenstevester.confluencemcpsvr.util.FreshnessReportFormatter;
 import io.github.greenstevester.confluencemcpsvr.util.MarkdownFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 /**
  * Service for comprehensive documentation mining, analysis, and maintenance
@@ -27,101 +38,171 @@ public class DocumentationMiningService {
     private final ConfluenceSearchService searchService;
     private final ConfluenceProperties confluenceProperties;
     private final MarkdownFormatter markdownFormatter;
+    private final PageMetadataColumns metadataColumns;
+    private final FreshnessReportFormatter freshnessReportFormatter;
+    private final ConfluenceSyncService syncService;
+    private final PageHierarchyService hierarchyService;
+    private final AuditProperties auditProperties;
     
     // Common technology keywords for documentation mining
-    private static final List<String> ARCHITECTURE_KEYWORDS = Arrays.asList(
+    static final List<String> ARCHITECTURE_KEYWORDS = Arrays.asList(
         "architecture", "system design", "technical specification", "design document",
         "API specification", "service architecture", "microservices", "infrastructure"
     );
     
-    private static final List<String> TECHNOLOGY_KEYWORDS = Arrays.asList(
+    static final List<String> TECHNOLOGY_KEYWORDS = Arrays.asList(
         "Java", "Spring", "Docker", "Kubernetes", "AWS", "microservices",
         "REST API", "database", "Redis", "PostgreSQL", "MongoDB", "Kafka"
     );
     
-    private static final List<String> STALENESS_INDICATORS = Arrays.asList(
+    static final List<String> STALENESS_INDICATORS = Arrays.asList(
         "TODO", "FIXME", "outdated", "deprecated", "legacy", "old version",
         "needs update", "under construction", "draft", "placeholder"
     );
     
+    // Spaces listed by the structure analysis; the v1 space listing caps a single page at 500
+    private static final int SPACE_ANALYSIS_LIMIT = 500;
+    
     public DocumentationMiningService(
             ConfluencePagesService pagesService,
             ConfluenceSpacesService spacesService,
             ConfluenceSearchService searchService,
             ConfluenceProperties confluenceProperties,
-            MarkdownFormatter markdownFormatter) {
+            MarkdownFormatter markdownFormatter,
+            PageMetadataColumns metadataColumns,
+            FreshnessReportFormatter freshnessReportFormatter,
+            ConfluenceSyncService syncService,
+            PageHierarchyService hierarchyService,
+            AuditProperties auditProperties) {
         this.pagesService = pagesService;
         this.spacesService = spacesService;
         this.searchService = searchService;
         this.confluenceProperties = confluenceProperties;
         this.markdownFormatter = markdownFormatter;
+        this.metadataColumns = metadataColumns;
+        this.freshnessReportFormatter = freshnessReportFormatter;
+        this.syncService = syncService;
+        this.hierarchyService = hierarchyService;
+        this.auditProperties = auditProperties;
     }
     
     /**
-     * Perform comprehensive documentation audit
+     * Perform comprehensive documentation audit. The analysis sections are independent, so they
+     * run concurrently; each has its own deadline and falls back to a notice section on failure,
+     * so one slow or failing search cannot stall or sink the whole report.
      */
     public Mono<String> performDocumentationAudit(Integer maxResults) {
         logger.info("Starting comprehensive documentation audit");
+        long start = System.currentTimeMillis();
         
-        return Mono.fromCallable(() -> {
-            StringBuilder report = new StringBuilder();
-            
-            // Header
-            report.append(markdownFormatter.formatHeading("📋 Documentation Mining & Audit Report", 1))
-                  .append("\n\n")
-                  .append(markdownFormatter.formatItalic("Generated at: " + 
-                      markdownFormatter.formatDate(LocalDateTime.now())))
-                  .append("\n\n");
-            
-            try {
+        return Mono.zip(
                 // 1. Space Discovery
-                String spacesAnalysis = analyzeSpaces().block();
-                report.append(spacesAnalysis).append("\n\n");
-                
+                auditSection("🏗️ Documentation Structure Analysis", analyzeSpaces()),
                 // 2. Age Analysis
-                String ageAnalysis = analyzePageFreshness(maxResults != null ? maxResults : 50).block();
-                report.append(ageAnalysis).append("\n\n");
-                
+                auditSection("⏰ Content Freshness Analysis", analyzePageFreshness(maxResults != null ? maxResults : 50)),
                 // 3. Content Quality Analysis
-                String qualityAnalysis = analyzeContentQuality(maxResults != null ? maxResults : 30).block();
-                report.append(qualityAnalysis).append("\n\n");
-                
+                auditSection("🔍 Content Quality Analysis", analyzeContentQuality(maxResults != null ? maxResults : 30)),
                 // 4. Technology Documentation Coverage
-                String techAnalysis = analyzeTechnologyCoverage().block();
-                report.append(techAnalysis).append("\n\n");
+                auditSection("🛠️ Technology Documentation Coverage", analyzeTechnologyCoverage()))
+            .map(sections -> {
+                StringBuilder report = new StringBuilder();
+                
+                // Header
+                report.append(markdownFormatter.formatHeading("📋 Documentation Mining & Audit Report", 1))
+                      .append("\n\n")
+                      .append(markdownFormatter.formatItalic("Generated at: " + 
+                          markdownFormatter.formatDate(LocalDateTime.now())))
+                      .append("\n\n");
+                
+                report.append(sections.getT1()).append("\n\n")
+                      .append(sections.getT2()).append("\n\n")
+                      .append(sections.getT3()).append("\n\n")
+                      .append(sections.getT4()).append("\n\n");
                 
                 // 5. Recommendations
                 report.append(generateRecommendations()).append("\n\n");
                 
-            } catch (Exception e) {
-                logger.error("Error during documentation audit", e);
-                report.append("\n\n❌ **Error during audit:** ").append(e.getMessage());
-            }
-            
-            return report.toString();
-        });
+                logger.info("Documentation audit finished in {} ms", System.currentTimeMillis() - start);
+                return report.toString();
+            });
     }
     
     /**
-     * Analyze space organization and structure
+     * Bound one audit section by the section timeout and replace a failure with a notice under the
+     * section's heading
+     */
+    private Mono<String> auditSection(String heading, Mono<String> section) {
+        Duration timeout = auditProperties.sectionTimeout();
+        return section
+            .timeout(timeout)
+            .onErrorResume(error -> {
+                logger.error("Documentation audit section '{}' failed", heading, error);
+                String message = error instanceof TimeoutException
+                    ? "No response within " + timeout.toSeconds() + "s"
+                    : error.getMessage();
+                return Mono.just(markdownFormatter.formatHeading(heading, 2) + "\n\n"
+                    + "❌ **Section unavailable:** " + message + "\n");
+            })
+            .defaultIfEmpty(markdownFormatter.formatHeading(heading, 2) + "\n\nNo data returned.\n");
+    }
+    
+    /**
+     * Analyze space organization and structure, including the page hierarchy of crawled spaces
      */
     public Mono<String> analyzeSpaces() {
-        return spacesService.listSpaces(null, null, null, null, 20, null)
-            .map(this::parseSpacesForAnalysis)
-            .map(spaces -> {
+        return spacesService.listSpaceModels(SPACE_ANALYSIS_LIMIT)
+            .map(response -> {
+                List<Space> spaces = response.results() != null ? response.results() : List.of();
                 StringBuilder result = new StringBuilder();
                 result.append(markdownFormatter.formatHeading("🏗️ Documentation Structure Analysis", 2))
                       .append("\n\n");
                 
                 if (spaces.isEmpty()) {
                     result.append("No spaces found or unable to access spaces.\n");
-                } else {
-                    result.append("**Total Spaces Found:** ").append(spaces.size()).append("\n\n");
-                    result.append("**Space Organization:**\n");
-                    
-                    for (String space : spaces) {
-                        result.append("- ").append(space).append("\n");
+                    return result.toString();
+                }
+                
+                Map<String, Long> byType = spaces.stream()
+                    .collect(Collectors.groupingBy(space -> space.type() != null ? space.type().getValue() : "unknown",
+                        TreeMap::new, Collectors.counting()));
+                result.append("**Total Spaces Found:** ").append(spaces.size());
+                if (response.links() != null && response.links().next() != null) {
+                    result.append(" (first ").append(SPACE_ANALYSIS_LIMIT).append(")");
+                }
+                result.append("\n\n**By Type:** ")
+                      .append(byType.entrySet().stream()
+                          .map(entry -> entry.getKey() + " " + entry.getValue())
+                          .collect(Collectors.joining(", ")))
+                      .append("\n\n");
+                
+                result.append("**Space Organization:**\n");
+                int crawled = 0;
+                for (Space space : spaces) {
+                    result.append("- ").append(markdownFormatter.formatBold(space.name()))
+                          .append(" (").append(markdownFormatter.formatInlineCode(space.key())).append(")");
+                    HierarchyStats stats = space.key() != null ? hierarchyService.cachedStats(space.key()) : null;
+                    if (stats != null) {
+                        crawled++;
+                        result.append(": ").append(stats.pages()).append(" pages, ")
+                              .append(stats.roots()).append(" top-level, max depth ").append(stats.maxDepth())
+                              .append(String.format(", avg depth %.1f", stats.averageDepth()))
+                              .append(", ").append(stats.leaves()).append(" leaf pages");
+                        if (!stats.largestSubtrees().isEmpty()) {
+                            result.append(", largest section \"").append(stats.largestSubtrees().get(0).title())
+                                  .append("\" (").append(stats.largestSubtrees().get(0).subtreeSize()).append(" pages)");
+                        }
+                        if (stats.partial()) {
+                            result.append(" (partial crawl)");
+                        }
                     }
+                    result.append("\n");
+                }
+                
+                if (crawled < spaces.size()) {
+                    result.append("\n").append(markdownFormatter.formatItalic(
+                        "Hierarchy stats are shown for spaces whose page tree has been crawled; "
+                        + "use get-page-tree with a space key to crawl one."));
+                    result.append("\n");
                 }
                 
                 return result.toString();
@@ -132,19 +213,26 @@ public class DocumentationMiningService {
      * Analyze page freshness and identify outdated content
      */
     public Mono<String> analyzePageFreshness(Integer limit) {
-        return pagesService.listPages(null, null, List.of(ContentStatus.CURRENT), 
+        int oldestLimit = limit != null ? limit : 50;
+        
+        // Instance-wide analytics need metadata for every page, which only a fresh, unscoped mirror
+        // has; otherwise the columns hold whatever earlier listings left and would misstate the totals
+        if (syncService.coversSpaces(List.of()) && !metadataColumns.isEmpty()) {
+            return Mono.fromCallable(() -> formatFreshnessAnalytics(oldestLimit));
+        }
+        
+        return pagesService.listPageModels(null, null, List.of(ContentStatus.CURRENT), 
                 PageSortOrder.MODIFIED_DATE, limit, null)
             .map(response -> {
                 StringBuilder result = new StringBuilder();
                 result.append(markdownFormatter.formatHeading("⏰ Content Freshness Analysis", 2))
                       .append("\n\n");
                 
-                // Parse the response to identify old pages
-                if (response.contains("No Confluence pages found")) {
+                if (response.results() == null || response.results().isEmpty()) {
                     result.append("No pages found for analysis.\n");
                 } else {
                     result.append("**Oldest Pages (by last modification):**\n\n");
-                    result.append(response);
+                    result.append(pagesService.formatPagesList(response));
                     
                     // Add age assessment
                     result.append("\n\n")
@@ -160,6 +248,36 @@ public class DocumentationMiningService {
             });
     }
     
+    /**
+     * Render freshness analytics from the page metadata columns; only valid while they cover every page
+     */
+    private String formatFreshnessAnalytics(int oldestLimit) {
+        StringBuilder result = new StringBuilder();
+        result.append(markdownFormatter.formatHeading("⏰ Content Freshness Analysis", 2))
+              .append("\n\n")
+              .append("**Pages Tracked:** ").append(metadataColumns.size())
+              .append(" (").append(freshnessReportFormatter.countStalePages(null))
+              .append(" not modified in over 6 months)\n\n")
+              .append(freshnessReportFormatter.formatAgeDistribution(null))
+              .append("\n");
+        
+        String spaceStaleness = freshnessReportFormatter.formatSpaceStaleness(null);
+        if (!spaceStaleness.isEmpty()) {
+            result.append(spaceStaleness).append("\n");
+        }
+        
+        result.append(freshnessReportFormatter.formatOldestPages(oldestLimit, null))
+              .append("\n")
+              .append(markdownFormatter.formatBlockquote(
+                  "💡 **Age Assessment Criteria:**\\n" +
+                  "- 🟥 Critical: >12 months old\\n" + 
+                  "- 🟨 Warning: >6 months old\\n" +
+                  "- 🟩 Fresh: <6 months old"))
+              .append("\n");
+        
+        return result.toString();
+    }
+    
     /**
      * Analyze content quality and identify improvement opportunities
      */
@@ -167,17 +285,17 @@ public class DocumentationMiningService {
         // Build CQL query to find potentially problematic content
         String cql = buildStaleContentQuery();
         
-        return searchService.search(cql, null, limit, 0, false, null)
+        return searchService.searchModels(cql, null, limit, 0, false, null)
             .map(response -> {
                 StringBuilder result = new StringBuilder();
                 result.append(markdownFormatter.formatHeading("🔍 Content Quality Analysis", 2))
                       .append("\n\n");
                 
-                if (response.contains("No results found")) {
+                if (response.results() == null || response.results().isEmpty()) {
                     result.append("✅ No obvious quality issues detected in content.\n");
                 } else {
                     result.append("**Potential Quality Issues Found:**\n\n");
-                    result.append(response);
+                    result.append(searchService.formatSearchResults(response));
                     
                     result.append("\n\n")
                           .append(markdownFormatter.formatBlockquote(
@@ -200,13 +318,13 @@ public class DocumentationMiningService {
         // Search for architecture and technology documentation
         String cql = buildTechnologyCoverageQuery();
         
-        return searchService.search(cql, null, 50, 0, false, null)
+        return searchService.searchModels(cql, 50)
             .map(response -> {
                 StringBuilder result = new StringBuilder();
                 result.append(markdownFormatter.formatHeading("🛠️ Technology Documentation Coverage", 2))
                       .append("\n\n");
                 
-                if (response.contains("No results found")) {
+                if (response.results() == null || response.results().isEmpty()) {
                     result.append("⚠️ Limited technology documentation found. Consider adding:\n")
                           .append("- Architecture overviews\n")
                           .append("- API documentation\n") 
@@ -214,7 +332,7 @@ public class DocumentationMiningService {
                           .append("- Technology stack documentation\n");
                 } else {
                     result.append("**Technology Documentation Found:**\n\n");
-                    result.append(response);
+                    result.append(searchService.formatSearchResults(response));
                 }
                 
                 return result.toString();
@@ -266,16 +384,4 @@ public class DocumentationMiningService {
         String techKeywords = String.join(" OR ", TECHNOLOGY_KEYWORDS);
         return String.format("type=page AND (text~'%s' OR text~'%s')", archKeywords, techKeywords);
     }
-    
-    /**
-     * Parse spaces list response for analysis
-     */
-    private List<String> parseSpacesForAnalysis(String spacesResponse) {
-        // Simple parsing - in real implementation you might want more sophisticated parsing
-        return Arrays.asList(spacesResponse.split("\n"))
-            .stream()
-            .filter(line -> line.contains("Key:"))
-            .limit(10)
-            .toList();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,466 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.index.LabelMembershipIndex;
+import io.github.greenstevester.confluencemcpsvr.index.LabelMembershipIndex.MembershipQuery;
+import io.github.greenstevester.confluencemcpsvr.index.LabelMembershipIndex.MembershipResult;
+import io.github.greenstevester.confluencemcpsvr.index.MinHashIndex;
+import io.github.greenstevester.confluencemcpsvr.index.MinHashIndex.DuplicateCluster;
+import io.github.greenstevester.confluencemcpsvr.index.MinHashIndex.DuplicatePage;
+import io.github.greenstevester.confluencemcpsvr.index.MinHashIndex.DuplicateReport;
+import io.github.greenstevester.confluencemcpsvr.index.PageLinkGraph;
+import io.github.greenstevester.confluencemcpsvr.index.PageLinkGraph.LinkAnalysis;
+import io.github.greenstevester.confluencemcpsvr.index.PageLinkGraph.LinkedPage;
+import io.github.greenstevester.confluencemcpsvr.index.PageLinkGraph.Neighbourhood;
+import io.github.greenstevester.confluencemcpsvr.index.TfIdfIndex;
+import io.github.greenstevester.confluencemcpsvr.index.TfIdfIndex.SimilarPage;
+import io.github.greenstevester.confluencemcpsvr.index.TfIdfIndex.SimilarityResult;
+import io.github.greenstevester.confluencemcpsvr.index.TrigramTitleIndex;
+import io.github.greenstevester.confluencemcpsvr.index.TrigramTitleIndex.TitleMatch;
+import io.github.greenstevester.confluencemcpsvr.index.TrigramTitleIndex.TitleSearchResult;
+import io.github.greenstevester.confluencemcpsvr.sync.ConfluenceSyncService;
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
+import io.github.greenstevester.confluencemcpsvr.util.MarkdownFormatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service answering page lookups from the local mirror's in-memory indexes
+ */
+@Service
+public class LocalIndexService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LocalIndexService.class);
+    
+    private static final int DEFAULT_LIMIT = 25;
+    private static final int MAX_LIMIT = 200;
+    private static final int DEFAULT_TITLE_LIMIT = 10;
+    private static final double DEFAULT_MIN_TITLE_SCORE = 0.3;
+    private static final int DEFAULT_LINK_LIMIT = 15;
+    private static final int DEFAULT_CLUSTER_LIMIT = 20;
+    private static final double DEFAULT_DUPLICATE_THRESHOLD = 0.8;
+    
+    private final LocalPageStore pageStore;
+    private final LabelMembershipIndex membershipIndex;
+    private final TrigramTitleIndex titleIndex;
+    private final PageLinkGraph linkGraph;
+    private final MinHashIndex minHashIndex;
+    private final TfIdfIndex tfIdfIndex;
+    private final ConfluenceSyncService syncService;
+    private final MarkdownFormatter markdownFormatter;
+    
+    public LocalIndexService(
+            LocalPageStore pageStore,
+            LabelMembershipIndex membershipIndex,
+            TrigramTitleIndex titleIndex,
+            PageLinkGraph linkGraph,
+            MinHashIndex minHashIndex,
+            TfIdfIndex tfIdfIndex,
+            ConfluenceSyncService syncService,
+            MarkdownFormatter markdownFormatter) {
+        this.pageStore = pageStore;
+        this.membershipIndex = membershipIndex;
+        this.titleIndex = titleIndex;
+        this.linkGraph = linkGraph;
+        this.minHashIndex = minHashIndex;
+        this.tfIdfIndex = tfIdfIndex;
+        this.syncService = syncService;
+        this.markdownFormatter = markdownFormatter;
+    }
+    
+    /**
+     * Find mirrored pages by label, space and status membership
+     */
+    public Mono<String> queryByLabels(
+            List<String> labels,
+            Boolean matchAll,
+            List<String> excludeLabels,
+            List<String> spaceKeys,
+            List<String> statuses,
+            Integer limit) {
+        
+        return Mono.fromCallable(() -> {
+            if (pageStore.isEmpty()) {
+                return mirrorUnavailableMessage();
+            }
+            
+            boolean all = matchAll == null || matchAll;
+            MembershipQuery query = new MembershipQuery(
+                all ? labels : null,
+                all ? null : labels,
+                excludeLabels,
+                spaceKeys,
+                statuses != null ? statuses : List.of("current")
+            );
+            int effectiveLimit = Math.min(limit != null && limit > 0 ? limit : DEFAULT_LIMIT, MAX_LIMIT);
+            MembershipResult result = membershipIndex.query(query, effectiveLimit);
+            logger.debug("Label query {} matched {} pages in {} µs", query, result.totalMatches(), result.tookMicros());
+            
+            return formatLabelQueryResult(query, all, result);
+        });
+    }
+    
+    /**
+     * Find pages whose title resembles the given text, tolerating typos and partial titles
+     */
+    public Mono<String> findPageByTitle(String title, List<String> spaceKeys, Double minScore, Integer limit) {
+        return Mono.fromCallable(() -> {
+            if (title == null || title.isBlank()) {
+                return "❌ **Validation Error:** A title to look for is required";
+            }
+            if (titleIndex.size() == 0) {
+                return mirrorUnavailableMessage();
+            }
+            
+            double threshold = minScore != null ? Math.max(0.0, Math.min(1.0, minScore)) : DEFAULT_MIN_TITLE_SCORE;
+            int effectiveLimit = Math.min(limit != null && limit > 0 ? limit : DEFAULT_TITLE_LIMIT, MAX_LIMIT);
+            TitleSearchResult result = titleIndex.search(title, spaceKeys, threshold, effectiveLimit);
+            logger.debug("Title lookup '{}' scored {} candidates in {} µs", title, result.candidates(), result.tookMicros());
+            
+            return formatTitleSearchResult(title, result);
+        });
+    }
+    
+    /**
+     * Report orphaned, dead-end and hub pages from the link graph of the mirrored pages
+     */
+    public Mono<String> analyzePageLinks(List<String> spaceKeys, Integer limit) {
+        return Mono.fromCallable(() -> {
+            if (linkGraph.size() == 0) {
+                return mirrorUnavailableMessage();
+            }
+            
+            int effectiveLimit = Math.min(limit != null && limit > 0 ? limit : DEFAULT_LINK_LIMIT, MAX_LIMIT);
+            LinkAnalysis analysis = linkGraph.analyze(spaceKeys, effectiveLimit);
+            logger.debug("Link analysis over {} pages and {} links took {} µs", analysis.pages(), analysis.links(), analysis.tookMicros());
+            
+            return formatLinkAnalysis(spaceKeys, analysis);
+        });
+    }
+    
+    /**
+     * List the pages a page links to, the pages linking to it, and pages related through shared links
+     */
+    public Mono<String> getPageLinks(String pageId, Integer limit) {
+        return Mono.fromCallable(() -> {
+            if (pageId == null || pageId.isBlank()) {
+                return "❌ **Validation Error:** A page ID is required";
+            }
+            if (linkGraph.size() == 0) {
+                return mirrorUnavailableMessage();
+            }
+            
+            int effectiveLimit = Math.min(limit != null && limit > 0 ? limit : DEFAULT_LINK_LIMIT, MAX_LIMIT);
+            Neighbourhood neighbourhood = linkGraph.neighbourhood(pageId, effectiveLimit);
+            if (neighbourhood == null) {
+                return "Page " + pageId + " is not in the local mirror yet. Use get-page to read it from Confluence.";
+            }
+            logger.debug("Link neighbourhood of page {} took {} µs", pageId, neighbourhood.tookMicros());
+            
+            return formatNeighbourhood(neighbourhood);
+        });
+    }
+    
+    /**
+     * Find clusters of near-identical pages across the mirrored corpus
+     */
+    public Mono<String> findDuplicatePages(Double threshold, List<String> spaceKeys, Integer limit) {
+        return Mono.fromCallable(() -> {
+            if (minHashIndex.size() == 0) {
+                return mirrorUnavailableMessage();
+            }
+            
+            double effectiveThreshold = threshold != null ? Math.max(0.1, Math.min(1.0, threshold)) : DEFAULT_DUPLICATE_THRESHOLD;
+            int effectiveLimit = Math.min(limit != null && limit > 0 ? limit : DEFAULT_CLUSTER_LIMIT, MAX_LIMIT);
+            DuplicateReport report = minHashIndex.findDuplicates(effectiveThreshold, spaceKeys, effectiveLimit);
+            logger.debug("Duplicate detection checked {} candidate pairs among {} pages in {} µs",
+                report.candidatePairs(), report.pagesCompared(), report.tookMicros());
+            
+            return formatDuplicateReport(effectiveThreshold, spaceKeys, report);
+        });
+    }
+    
+    /**
+     * Find the pages most similar in content to a mirrored page, or to free text
+     */
+    public Mono<String> findSimilarPages(String pageId, String text, List<String> spaceKeys, Integer limit) {
+        return Mono.fromCallable(() -> {
+            boolean byPage = pageId != null && !pageId.isBlank();
+            if (!byPage && (text == null || text.isBlank())) {
+                return "❌ **Validation Error:** Either a page ID or text to compare against is required";
+            }
+            if (tfIdfIndex.size() == 0) {
+                return mirrorUnavailableMessage();
+            }
+            
+            int effectiveLimit = Math.min(limit != null && limit > 0 ? limit : DEFAULT_TITLE_LIMIT, MAX_LIMIT);
+            SimilarityResult result = byPage
+                ? tfIdfIndex.similarToPage(pageId, spaceKeys, effectiveLimit)
+                : tfIdfIndex.similarToText(text, spaceKeys, effectiveLimit);
+            if (result == null) {
+                return "Page " + pageId + " is not in the local mirror yet. Use get-page to read it from Confluence.";
+            }
+            logger.debug("Similarity query scored {} candidates in {} µs", result.candidates(), result.tookMicros());
+            
+            String subject = byPage
+                ? "\"" + (pageStore.get(pageId) != null ? pageStore.get(pageId).title() : pageId) + "\""
+                : "\"" + text + "\"";
+            return formatSimilarityResult(subject, result);
+        });
+    }
+    
+    private String formatSimilarityResult(String subject, SimilarityResult result) {
+        StringBuilder output = new StringBuilder();
+        output.append(markdownFormatter.formatHeading("Pages Similar to " + subject, 1))
+              .append("\n\n")
+              .append("**Query Terms:** ").append(result.queryTerms().isEmpty() ? "none indexed" : String.join(", ", result.queryTerms())).append("\n")
+              .append("**Candidates Scored:** ").append(result.candidates())
+              .append(" (ranked locally in ").append(result.tookMicros()).append(" µs)\n\n");
+        
+        if (result.matches().isEmpty()) {
+            output.append("No mirrored page shares distinctive terms with this content.\n\n");
+        } else {
+            for (int i = 0; i < result.matches().size(); i++) {
+                SimilarPage page = result.matches().get(i);
+                output.append(i + 1).append(". ").append(markdownFormatter.formatBold(page.title()))
+                      .append(" - ID: ").append(markdownFormatter.formatInlineCode(page.pageId()));
+                if (page.spaceKey() != null) {
+                    output.append(", Space: ").append(page.spaceKey());
+                }
+                output.append(", Similarity: ").append(Math.round(page.similarity() * 100)).append("%");
+                if (!page.sharedTerms().isEmpty()) {
+                    output.append(" (").append(String.join(", ", page.sharedTerms())).append(")");
+                }
+                output.append("\n");
+            }
+            output.append("\n");
+        }
+        
+        output.append(formatMirrorFooter());
+        return output.toString();
+    }
+    
+    private String formatDuplicateReport(double threshold, List<String> spaceKeys, DuplicateReport report) {
+        StringBuilder output = new StringBuilder();
+        output.append(markdownFormatter.formatHeading("Near-Duplicate Pages", 1))
+              .append("\n\n")
+              .append("**Similarity Threshold:** ").append(Math.round(threshold * 100)).append("%\n");
+        if (spaceKeys != null && !spaceKeys.isEmpty()) {
+            output.append("**Spaces:** ").append(String.join(", ", spaceKeys)).append("\n");
+        }
+        output.append("**Clusters Found:** ").append(report.totalClusters())
+              .append(" among ").append(report.pagesCompared()).append(" pages (")
+              .append(report.candidatePairs()).append(" candidate pairs checked locally in ")
+              .append(report.tookMicros()).append(" µs)\n\n");
+        
+        if (report.clusters().isEmpty()) {
+            output.append("No near-duplicate pages at this threshold. Lower the threshold to find looser copies.\n\n");
+        }
+        for (int i = 0; i < report.clusters().size(); i++) {
+            DuplicateCluster cluster = report.clusters().get(i);
+            output.append(markdownFormatter.formatHeading("Cluster " + (i + 1) + " - " + cluster.pages().size() + " pages"
+                + (cluster.crossSpace() ? " across spaces" : ""), 2)).append("\n\n");
+            for (int j = 0; j < cluster.pages().size(); j++) {
+                DuplicatePage page = cluster.pages().get(j);
+                output.append("- ").append(markdownFormatter.formatBold(page.title()))
+                      .append(" - ID: ").append(markdownFormatter.formatInlineCode(page.pageId()));
+                if (page.spaceKey() != null) {
+                    output.append(", Space: ").append(page.spaceKey());
+                }
+                output.append(j == 0 ? " (first seen)" : ", " + Math.round(page.similarity() * 100) + "% similar")
+                      .append("\n");
+            }
+            output.append("\n");
+        }
+        if (report.totalClusters() > report.clusters().size()) {
+            output.append(markdownFormatter.formatItalic("Showing " + report.clusters().size() + " of "
+                + report.totalClusters() + " clusters. Increase the limit to see more.")).append("\n\n");
+        }
+        
+        output.append(formatMirrorFooter());
+        return output.toString();
+    }
+    
+    private String formatLinkAnalysis(List<String> spaceKeys, LinkAnalysis analysis) {
+        StringBuilder output = new StringBuilder();
+        output.append(markdownFormatter.formatHeading("Page Link Analysis", 1))
+              .append("\n\n");
+        if (spaceKeys != null && !spaceKeys.isEmpty()) {
+            output.append("**Spaces:** ").append(String.join(", ", spaceKeys)).append("\n");
+        }
+        output.append("**Pages:** ").append(analysis.pages())
+              .append(", **Links:** ").append(analysis.links())
+              .append(", **Links to unmirrored or missing pages:** ").append(analysis.danglingLinks()).append("\n")
+              .append("**Orphans:** ").append(analysis.orphanCount())
+              .append(", **Dead ends:** ").append(analysis.deadEndCount())
+              .append(" (computed locally in ").append(analysis.tookMicros()).append(" µs)\n\n");
+        
+        output.append(markdownFormatter.formatHeading("Most Linked Pages", 2)).append("\n\n");
+        appendLinkedPages(output, analysis.hubs(), "inbound links", "No page is linked from another page.");
+        
+        output.append(markdownFormatter.formatHeading("Orphaned Pages (no inbound links)", 2)).append("\n\n");
+        appendLinkedPages(output, analysis.orphans(), null, "Every page is linked from at least one other page.");
+        if (analysis.orphanCount() > analysis.orphans().size()) {
+            output.append(markdownFormatter.formatItalic("Showing " + analysis.orphans().size() + " of " + analysis.orphanCount() + " orphans."))
+                  .append("\n\n");
+        }
+        
+        output.append(markdownFormatter.formatHeading("Dead-End Pages (no outbound links)", 2)).append("\n\n");
+        appendLinkedPages(output, analysis.deadEnds(), null, "Every page links to at least one other page.");
+        if (analysis.deadEndCount() > analysis.deadEnds().size()) {
+            output.append(markdownFormatter.formatItalic("Showing " + analysis.deadEnds().size() + " of " + analysis.deadEndCount() + " dead ends."))
+                  .append("\n\n");
+        }
+        
+        output.append(formatMirrorFooter());
+        return output.toString();
+    }
+    
+    private String formatNeighbourhood(Neighbourhood neighbourhood) {
+        StringBuilder output = new StringBuilder();
+        output.append(markdownFormatter.formatHeading("Links of \"" + neighbourhood.page().title() + "\"", 1))
+              .append("\n\n")
+              .append("**Page ID:** ").append(markdownFormatter.formatInlineCode(neighbourhood.page().pageId()))
+              .append(" (looked up locally in ").append(neighbourhood.tookMicros()).append(" µs)\n\n");
+        
+        output.append(markdownFormatter.formatHeading("Links To", 2)).append("\n\n");
+        appendLinkedPages(output, neighbourhood.outgoing(), null, "This page does not link to any mirrored page.");
+        output.append(markdownFormatter.formatHeading("Linked From", 2)).append("\n\n");
+        appendLinkedPages(output, neighbourhood.incoming(), null, "No mirrored page links to this page.");
+        output.append(markdownFormatter.formatHeading("Related Pages", 2)).append("\n\n");
+        appendLinkedPages(output, neighbourhood.related(), "shared links", "No pages share links with this page.");
+        
+        output.append(formatMirrorFooter());
+        return output.toString();
+    }
+    
+    private void appendLinkedPages(StringBuilder output, List<LinkedPage> pages, String countLabel, String emptyMessage) {
+        if (pages.isEmpty()) {
+            output.append(emptyMessage).append("\n\n");
+            return;
+        }
+        for (int i = 0; i < pages.size(); i++) {
+            LinkedPage page = pages.get(i);
+            output.append(i + 1).append(". ").append(markdownFormatter.formatBold(page.title()))
+                  .append(" - ID: ").append(markdownFormatter.formatInlineCode(page.pageId()));
+            if (page.spaceKey() != null) {
+                output.append(", Space: ").append(page.spaceKey());
+            }
+            if (countLabel != null) {
+                output.append(", ").append(page.count()).append(" ").append(countLabel);
+            }
+            output.append("\n");
+        }
+        output.append("\n");
+    }
+    
+    private String formatTitleSearchResult(String title, TitleSearchResult result) {
+        StringBuilder output = new StringBuilder();
+        output.append(markdownFormatter.formatHeading("Pages Matching \"" + title + "\"", 1))
+              .append("\n\n")
+              .append("**Candidates Scored:** ").append(result.candidates())
+              .append(" (looked up locally in ").append(result.tookMicros()).append(" µs)\n\n");
+        
+        if (result.matches().isEmpty()) {
+            output.append("No page titles are similar enough. Try fewer words, a lower minScore, ")
+                  .append("or the search tool with CQL such as: title ~ \"").append(title).append("\"\n\n");
+        } else {
+            for (int i = 0; i < result.matches().size(); i++) {
+                TitleMatch match = result.matches().get(i);
+                output.append(i + 1).append(". ").append(markdownFormatter.formatBold(match.title()))
+                      .append(" - ID: ").append(markdownFormatter.formatInlineCode(match.pageId()));
+                if (match.spaceKey() != null) {
+                    output.append(", Space: ").append(match.spaceKey());
+                }
+                output.append(", Score: ").append(String.format("%.2f", match.score())).append("\n");
+            }
+            output.append("\n");
+        }
+        
+        output.append(formatMirrorFooter());
+        return output.toString();
+    }
+    
+    private String formatLabelQueryResult(MembershipQuery query, boolean matchAll, MembershipResult result) {
+        StringBuilder output = new StringBuilder();
+        output.append(markdownFormatter.formatHeading("Pages by Label", 1))
+              .append("\n\n");
+        
+        List<String> criteria = new ArrayList<>();
+        List<String> labels = matchAll ? query.allLabels() : query.anyLabels();
+        if (labels != null && !labels.isEmpty()) {
+            criteria.add((matchAll ? "all of " : "any of ") + String.join(", ", labels));
+        }
+        if (query.excludedLabels() != null && !query.excludedLabels().isEmpty()) {
+            criteria.add("none of " + String.join(", ", query.excludedLabels()));
+        }
+        if (query.spaceKeys() != null && !query.spaceKeys().isEmpty()) {
+            criteria.add("in " + String.join(", ", query.spaceKeys()));
+        }
+        if (query.statuses() != null && !query.statuses().isEmpty()) {
+            criteria.add("status " + String.join(", ", query.statuses()));
+        }
+        output.append("**Criteria:** ").append(criteria.isEmpty() ? "all pages" : String.join("; ", criteria)).append("\n")
+              .append("**Matches:** ").append(result.totalMatches())
+              .append(" (evaluated locally in ").append(result.tookMicros()).append(" µs)\n\n");
+        
+        if (result.pageIds().isEmpty()) {
+            output.append("No mirrored pages match these criteria.\n\n");
+            Map<String, Integer> topLabels = membershipIndex.topLabels(15);
+            if (!topLabels.isEmpty()) {
+                output.append("**Most used labels:** ");
+                List<String> labelCounts = new ArrayList<>();
+                topLabels.forEach((label, count) -> labelCounts.add(label + " (" + count + ")"));
+                output.append(String.join(", ", labelCounts)).append("\n\n");
+            }
+        } else {
+            for (int i = 0; i < result.pageIds().size(); i++) {
+                MirroredPage page = pageStore.get(result.pageIds().get(i));
+                if (page == null) {
+                    continue;
+                }
+                output.append(i + 1).append(". ").append(markdownFormatter.formatBold(page.title()))
+                      .append(" - ID: ").append(markdownFormatter.formatInlineCode(page.id()));
+                if (page.spaceKey() != null) {
+                    output.append(", Space: ").append(page.spaceKey());
+                }
+                if (page.labels() != null && !page.labels().isEmpty()) {
+                    output.append(", Labels: ").append(String.join(", ", page.labels()));
+                }
+                output.append("\n");
+            }
+            if (result.totalMatches() > result.pageIds().size()) {
+                output.append("\n").append(markdownFormatter.formatItalic(
+                    "Showing " + result.pageIds().size() + " of " + result.totalMatches() + " matches. Increase the limit to see more."));
+            }
+            output.append("\n");
+        }
+        
+        output.append(formatMirrorFooter());
+        return output.toString();
+    }
+    
+    private String formatMirrorFooter() {
+        Instant lastSync = syncService.getState().lastSuccessAt();
+        return markdownFormatter.formatItalic("Answered from the local mirror of " + pageStore.size() + " pages"
+            + (lastSync != null
+                ? ", last synced " + markdownFormatter.formatDate(LocalDateTime.ofInstant(lastSync, ZoneOffset.UTC)) + " UTC"
+                : ""));
+    }
+    
+    private String mirrorUnavailableMessage() {
+        return "The local page mirror is empty, so this lookup cannot be answered locally. "
+            + "Enable background sync with confluence.sync.enabled=true (CONFLUENCE_SYNC_ENABLED) "
+            + "or the instance crawler with confluence.crawler.enabled=true (CONFLUENCE_CRAWLER_ENABLED), "
+            + "or use the search tool with CQL such as: label = \"runbook\" AND space = \"OPS\"";
+    }
+}
\ No newline at end of file
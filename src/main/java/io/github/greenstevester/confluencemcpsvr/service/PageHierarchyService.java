@@ -0,0 +1,226 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.client.ConfluencePagesClient;
+import io.github.greenstevester.confluencemcpsvr.config.HierarchyProperties;
+import io.github.greenstevester.confluencemcpsvr.index.PageHierarchy;
+import io.github.greenstevester.confluencemcpsvr.index.PageHierarchy.HierarchyEntry;
+import io.github.greenstevester.confluencemcpsvr.index.PageHierarchy.HierarchyStats;
+import io.github.greenstevester.confluencemcpsvr.index.PageHierarchy.PageTree;
+import io.github.greenstevester.confluencemcpsvr.index.PageHierarchy.TreeNode;
+import io.github.greenstevester.confluencemcpsvr.model.common.PaginatedResponse;
+import io.github.greenstevester.confluencemcpsvr.model.page.Page;
+import io.github.greenstevester.confluencemcpsvr.util.MarkdownFormatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Service that crawls space page trees and answers hierarchy queries from the cached trees.
+ * <p>
+ * A crawl walks the tree breadth-first: the top-level pages of the space first, then the
+ * child-page listings of a whole level fetched concurrently, level by level. The finished tree
+ * replaces the cached one in {@link PageHierarchy} and is reused until it is older than the
+ * configured TTL; concurrent requests for the same space share one crawl.
+ */
+@Service
+public class PageHierarchyService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PageHierarchyService.class);
+    
+    private static final int DEFAULT_TREE_DEPTH = 3;
+    private static final int MAX_TREE_DEPTH = 20;
+    private static final int DEFAULT_TREE_LIMIT = 200;
+    private static final int MAX_TREE_LIMIT = 1000;
+    
+    private final ConfluencePagesClient pagesClient;
+    private final PageHierarchy hierarchy;
+    private final HierarchyProperties properties;
+    private final MarkdownFormatter markdownFormatter;
+    private final Map<String, Mono<Void>> crawlsInFlight = new ConcurrentHashMap<>();
+    
+    public PageHierarchyService(
+            ConfluencePagesClient pagesClient,
+            PageHierarchy hierarchy,
+            HierarchyProperties properties,
+            MarkdownFormatter markdownFormatter) {
+        this.pagesClient = pagesClient;
+        this.hierarchy = hierarchy;
+        this.properties = properties;
+        this.markdownFormatter = markdownFormatter;
+    }
+    
+    /**
+     * Render the page tree of a space, or of the subtree under one page, down to a depth limit
+     */
+    public Mono<String> getPageTree(String spaceKey, String rootPageId, Integer maxDepth, Integer limit, Boolean refresh) {
+        String root = rootPageId != null && !rootPageId.isBlank() ? rootPageId : null;
+        String space = spaceKey != null && !spaceKey.isBlank() ? spaceKey : (root != null ? hierarchy.spaceOf(root) : null);
+        if (space == null) {
+            return Mono.just("❌ **Validation Error:** A space key is required unless the root page is already in a crawled tree");
+        }
+        int effectiveDepth = Math.min(maxDepth != null && maxDepth >= 0 ? maxDepth : DEFAULT_TREE_DEPTH, MAX_TREE_DEPTH);
+        int effectiveLimit = Math.min(limit != null && limit > 0 ? limit : DEFAULT_TREE_LIMIT, MAX_TREE_LIMIT);
+        
+        return ensureCrawled(space, Boolean.TRUE.equals(refresh))
+            .then(Mono.fromCallable(() -> {
+                PageTree tree = hierarchy.subtree(space, root, effectiveDepth, effectiveLimit);
+                if (tree == null) {
+                    return root != null
+                        ? "Page " + root + " was not found in the page tree of space " + space + "."
+                        : "Space " + space + " has no cached page tree.";
+                }
+                logger.debug("Page tree of {} under {} listed {} of {} pages in {} µs",
+                    space, root, tree.nodes().size(), tree.totalPages(), tree.tookMicros());
+                return formatPageTree(tree, effectiveDepth);
+            }))
+            .onErrorResume(error -> {
+                logger.error("Error building page tree of space {}", space, error);
+                return Mono.just("Error building page tree: Please check your Confluence connection, permissions, and space key.");
+            });
+    }
+    
+    /**
+     * Crawl a space's tree unless a cached one is younger than the TTL
+     */
+    public Mono<Void> ensureCrawled(String spaceKey, boolean refresh) {
+        Instant crawledAt = hierarchy.crawledAt(spaceKey);
+        if (!refresh && crawledAt != null && crawledAt.plus(properties.ttl()).isAfter(Instant.now())) {
+            return Mono.empty();
+        }
+        return crawlsInFlight.computeIfAbsent(spaceKey, key -> crawl(key)
+            .doFinally(signal -> crawlsInFlight.remove(key))
+            .cache());
+    }
+    
+    /**
+     * Hierarchy stats of a space if its tree has been crawled, without triggering a crawl
+     */
+    public HierarchyStats cachedStats(String spaceKey) {
+        return hierarchy.stats(spaceKey);
+    }
+    
+    private Mono<Void> crawl(String spaceKey) {
+        long start = System.nanoTime();
+        List<HierarchyEntry> collected = new ArrayList<>();
+        boolean[] truncated = new boolean[1];
+        
+        return fetchAll(offset -> pagesClient.listRootPages(spaceKey, offset, properties.pageSize()), 0, new ArrayList<>())
+            .flatMap(roots -> {
+                List<String> frontier = collect(roots, null, collected, truncated);
+                return crawlLevels(frontier, collected, truncated);
+            })
+            .then(Mono.fromRunnable(() -> {
+                hierarchy.replaceSpace(spaceKey, collected, truncated[0]);
+                logger.info("Crawled page tree of space {}: {} pages in {} ms{}", spaceKey, collected.size(),
+                    (System.nanoTime() - start) / 1_000_000, truncated[0] ? " (stopped at the page limit)" : "");
+            }));
+    }
+    
+    /**
+     * Fetch the children of every page in the frontier concurrently, then descend one level
+     */
+    private Mono<Void> crawlLevels(List<String> frontier, List<HierarchyEntry> collected, boolean[] truncated) {
+        if (frontier.isEmpty() || truncated[0]) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(frontier)
+            .flatMap(parentId -> fetchAll(offset -> pagesClient.listChildPages(parentId, offset, properties.pageSize()),
+                    0, new ArrayList<>())
+                .map(children -> Map.entry(parentId, children)), properties.concurrency())
+            .collectList()
+            .flatMap(level -> {
+                // Merged on one thread once the whole level has arrived
+                List<String> next = new ArrayList<>();
+                for (Map.Entry<String, List<Page>> children : level) {
+                    next.addAll(collect(children.getValue(), children.getKey(), collected, truncated));
+                }
+                return crawlLevels(next, collected, truncated);
+            });
+    }
+    
+    private List<String> collect(List<Page> pages, String parentId, List<HierarchyEntry> collected, boolean[] truncated) {
+        List<String> ids = new ArrayList<>(pages.size());
+        for (Page page : pages) {
+            if (collected.size() >= properties.maxPages()) {
+                truncated[0] = true;
+                break;
+            }
+            collected.add(new HierarchyEntry(page.id(), parentId, page.title()));
+            ids.add(page.id());
+        }
+        return ids;
+    }
+    
+    /**
+     * Collect every page of a listing. The child endpoints return fewer pages than asked for above
+     * their own cap, so the listing is followed by its next link rather than by the page size.
+     */
+    private Mono<List<Page>> fetchAll(IntFunction<Mono<PaginatedResponse<Page>>> fetch, int offset, List<Page> pages) {
+        return fetch.apply(offset)
+            .flatMap(response -> {
+                List<Page> results = response.results() != null ? response.results() : List.of();
+                pages.addAll(results);
+                boolean hasNext = response.links() != null && response.links().next() != null;
+                if (!hasNext || results.isEmpty() || pages.size() >= properties.maxPages()) {
+                    return Mono.just(pages);
+                }
+                return fetchAll(fetch, offset + results.size(), pages);
+            })
+            .defaultIfEmpty(pages);
+    }
+    
+    private String formatPageTree(PageTree tree, int maxDepth) {
+        StringBuilder output = new StringBuilder();
+        if (tree.rootPageId() != null && !tree.nodes().isEmpty()) {
+            output.append(markdownFormatter.formatHeading("Page Tree under \"" + tree.nodes().get(0).title() + "\"", 1))
+                  .append("\n\n");
+            List<TreeNode> ancestors = hierarchy.ancestors(tree.rootPageId());
+            if (!ancestors.isEmpty()) {
+                output.append("**Path:** ");
+                for (TreeNode ancestor : ancestors) {
+                    output.append(ancestor.title()).append(" › ");
+                }
+                output.append(tree.nodes().get(0).title()).append("\n\n");
+            }
+        } else {
+            output.append(markdownFormatter.formatHeading("Page Tree of Space " + tree.spaceKey(), 1)).append("\n\n");
+        }
+        output.append("**Pages:** ").append(tree.totalPages())
+              .append(", showing ").append(tree.nodes().size())
+              .append(" to depth ").append(maxDepth)
+              .append(" (listed locally in ").append(tree.tookMicros()).append(" µs)\n\n");
+        
+        for (TreeNode node : tree.nodes()) {
+            output.append("  ".repeat(node.depth())).append("- ").append(markdownFormatter.formatBold(node.title()))
+                  .append(" - ID: ").append(markdownFormatter.formatInlineCode(node.pageId()));
+            if (node.depth() == maxDepth && node.childCount() > 0) {
+                output.append(", ").append(node.subtreeSize() - 1).append(" pages below");
+            }
+            output.append("\n");
+        }
+        output.append("\n");
+        
+        if (tree.truncated()) {
+            output.append("Some pages are not shown; raise maxDepth or limit, or pick a deeper rootPageId.\n\n");
+        }
+        if (tree.partial()) {
+            output.append("⚠️ The crawl stopped at ").append(properties.maxPages())
+                  .append(" pages, so this tree is incomplete.\n\n");
+        }
+        output.append(markdownFormatter.formatItalic("Tree crawled "
+            + markdownFormatter.formatDate(LocalDateTime.ofInstant(tree.crawledAt(), ZoneOffset.UTC))
+            + " UTC; pass refresh=true to crawl it again"));
+        return output.toString();
+    }
+}
\ No newline at end of file
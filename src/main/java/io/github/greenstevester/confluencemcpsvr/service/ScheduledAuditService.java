@@ -0,0 +1,272 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.config.AuditScheduleProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs the configured audits in the background on a cron schedule and serves their latest results.
+ * <p>
+ * The documentation audit and the systematic checklists take minutes against a large instance, so
+ * with the schedule enabled tool calls return the precomputed report immediately, headed by its
+ * age, unless they ask for a refresh or for limits other than the scheduled ones. A live run with
+ * the scheduled limits replaces the stored report. With the schedule disabled every call runs live.
+ */
+@Service
+public class ScheduledAuditService implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledAuditService.class);
+    private static final String DOCUMENTATION_AUDIT = "documentation";
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm 'UTC'").withZone(ZoneOffset.UTC);
+    
+    private static final String ANSI_MAGENTA = "\u001B[35m";
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    /**
+     * A finished audit report and when it was produced
+     */
+    public record PrecomputedReport(
+        String report,
+        Instant completedAt,
+        long durationMillis
+    ) {}
+    
+    private final DocumentationMiningService miningService;
+    private final DocumentationAuditService auditService;
+    private final AuditScheduleProperties properties;
+    
+    private final Map<String, PrecomputedReport> reports = new ConcurrentHashMap<>();
+    // A refresh that is running, shared by every caller that asks for the same audit meanwhile
+    private final Map<String, Mono<String>> refreshesInFlight = new ConcurrentHashMap<>();
+    private final AtomicLong runs = new AtomicLong(0);
+    private final AtomicLong failedAudits = new AtomicLong(0);
+    
+    private final CronExpression cron;
+    private volatile ZonedDateTime nextRun;
+    private ScheduledExecutorService scheduler;
+    
+    public ScheduledAuditService(
+            DocumentationMiningService miningService,
+            DocumentationAuditService auditService,
+            AuditScheduleProperties properties) {
+        this.miningService = miningService;
+        this.auditService = auditService;
+        this.properties = properties;
+        this.cron = properties.enabled() ? CronExpression.parse(properties.cron()) : null;
+    }
+    
+    @Override
+    public synchronized void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!properties.enabled() || scheduler != null) {
+            return;
+        }
+        
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "scheduled-audits");
+            t.setDaemon(true);
+            return t;
+        });
+        
+        logger.info("Scheduling background audits with cron '{}' in {}: documentation audit {}, checklists {}",
+            properties.cron(), properties.cronZone(), properties.documentationAudit() ? "on" : "off", scheduledChecklists());
+        if (properties.runOnStartup()) {
+            scheduler.execute(this::runScheduledAudits);
+        }
+        scheduleNext();
+    }
+    
+    @Override
+    public synchronized void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+    
+    /**
+     * The documentation audit report, precomputed when the schedule covers these limits
+     */
+    public Mono<String> documentationAudit(Integer maxResults, boolean forceRefresh) {
+        boolean scheduled = properties.enabled() && properties.documentationAudit()
+            && (maxResults == null || maxResults == properties.maxResults());
+        if (!scheduled) {
+            return miningService.performDocumentationAudit(maxResults);
+        }
+        return serve(DOCUMENTATION_AUDIT, forceRefresh, true, () -> miningService.performDocumentationAudit(properties.maxResults()));
+    }
+    
+    /**
+     * The systematic audit report of a checklist, precomputed when the schedule covers it
+     */
+    public Mono<String> systematicAudit(String checklistType, Integer limitPerQuery, boolean forceRefresh) {
+        return systematicAudit(checklistType, limitPerQuery, forceRefresh, AsyncJobService.Progress.NONE);
+    }
+    
+    /**
+     * The systematic audit report of a checklist, reporting the progress of a live run to {@code progress}
+     */
+    public Mono<String> systematicAudit(String checklistType, Integer limitPerQuery, boolean forceRefresh,
+                                        AsyncJobService.Progress progress) {
+        String checklist = checklistType.toLowerCase(Locale.ROOT);
+        List<DocumentationAuditService.AuditQuery> queries = auditService.getAuditChecklist(checklist);
+        boolean scheduled = properties.enabled() && scheduledChecklists().contains(checklist)
+            && (limitPerQuery == null || limitPerQuery == properties.limitPerQuery());
+        if (!scheduled) {
+            return auditService.executeSystematicAudit(queries, limitPerQuery, progress);
+        }
+        // A run reporting to one caller's job is not shared, or the others would see no progress
+        return serve(checklist, forceRefresh, progress == AsyncJobService.Progress.NONE,
+            () -> auditService.executeSystematicAudit(queries, properties.limitPerQuery(), progress));
+    }
+    
+    /**
+     * Get formatted schedule statistics for the monitoring report
+     */
+    public String getFormattedStats() {
+        StringBuilder sb = new StringBuilder();
+        
+        sb.append(ANSI_BOLD).append(ANSI_MAGENTA).append("⏱️ Scheduled Audits").append(ANSI_RESET).append("\n");
+        
+        if (!properties.enabled()) {
+            sb.append("   └─ ").append(ANSI_CYAN).append("Audit schedule disabled").append(ANSI_RESET);
+            return sb.toString();
+        }
+        
+        sb.append("   ├─ Cron: ").append(ANSI_YELLOW).append(properties.cron()).append(ANSI_RESET)
+          .append(" (").append(properties.cronZone()).append("), next run ").append(nextRun != null ? TIME_FORMAT.format(nextRun) : "pending").append("\n");
+        sb.append("   ├─ Runs: ").append(ANSI_YELLOW).append(runs.get()).append(ANSI_RESET)
+          .append(" (").append(failedAudits.get()).append(" failed audits)\n");
+        sb.append("   └─ Precomputed: ");
+        if (reports.isEmpty()) {
+            sb.append(ANSI_CYAN).append("none yet").append(ANSI_RESET);
+        } else {
+            reports.forEach((audit, report) -> sb.append(audit).append(" (")
+                .append(formatAge(Duration.between(report.completedAt(), Instant.now()))).append(" old) "));
+        }
+        
+        return sb.toString();
+    }
+    
+    private Mono<String> serve(String audit, boolean forceRefresh, boolean shared, Supplier<Mono<String>> live) {
+        PrecomputedReport stored = reports.get(audit);
+        if (stored != null && !forceRefresh) {
+            return Mono.just(withAge(stored));
+        }
+        return shared ? refresh(audit, live) : runAndStore(audit, live);
+    }
+    
+    /**
+     * Run an audit and store its report, joining a run of the same audit that is already in flight
+     */
+    private Mono<String> refresh(String audit, Supplier<Mono<String>> live) {
+        return Mono.defer(() -> refreshesInFlight.computeIfAbsent(audit, key -> runAndStore(key, live)
+            .doFinally(signal -> refreshesInFlight.remove(key))
+            .cache()));
+    }
+    
+    private Mono<String> runAndStore(String audit, Supplier<Mono<String>> live) {
+        return Mono.defer(() -> {
+            long start = System.currentTimeMillis();
+            return live.get().doOnNext(report -> reports.put(audit,
+                new PrecomputedReport(report, Instant.now(), System.currentTimeMillis() - start)));
+        });
+    }
+    
+    /**
+     * Run every scheduled audit once, keeping the previous report of any audit that fails
+     */
+    void runScheduledAudits() {
+        runs.incrementAndGet();
+        long start = System.currentTimeMillis();
+        if (properties.documentationAudit()) {
+            runSafely(DOCUMENTATION_AUDIT, () -> miningService.performDocumentationAudit(properties.maxResults()));
+        }
+        for (String checklist : scheduledChecklists()) {
+            runSafely(checklist, () -> auditService.executeSystematicAudit(
+                auditService.getAuditChecklist(checklist), properties.limitPerQuery()));
+        }
+        logger.info("Scheduled audits finished in {} ms", System.currentTimeMillis() - start);
+    }
+    
+    private void runSafely(String audit, Supplier<Mono<String>> live) {
+        try {
+            refresh(audit, live).block();
+        } catch (Exception e) {
+            // Keep serving the previous report rather than none
+            failedAudits.incrementAndGet();
+            logger.error("Scheduled audit '{}' failed: {}", audit, e.getMessage());
+        }
+    }
+    
+    private synchronized void scheduleNext() {
+        if (scheduler == null) {
+            return;
+        }
+        ZonedDateTime now = ZonedDateTime.now(properties.cronZone());
+        nextRun = nextRunAfter(now.toInstant());
+        if (nextRun == null) {
+            logger.warn("Audit cron '{}' has no future run; background audits stop", properties.cron());
+            return;
+        }
+        long delay = Math.max(0, Duration.between(now, nextRun).toMillis());
+        scheduler.schedule(() -> {
+            runScheduledAudits();
+            scheduleNext();
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * The first cron run after {@code now}, evaluated in the configured time zone
+     */
+    ZonedDateTime nextRunAfter(Instant now) {
+        return cron.next(now.atZone(properties.cronZone()));
+    }
+    
+    private List<String> scheduledChecklists() {
+        return properties.checklists() != null
+            ? properties.checklists().stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).filter(name -> !name.isEmpty()).toList()
+            : List.of();
+    }
+    
+    private static String withAge(PrecomputedReport stored) {
+        Duration age = Duration.between(stored.completedAt(), Instant.now());
+        return "> 🕒 **Precomputed report** from " + TIME_FORMAT.format(stored.completedAt())
+            + " (" + formatAge(age) + " ago, took " + Math.max(1, stored.durationMillis() / 1000) + "s)."
+            + " Pass `forceRefresh: true` to run the audit now.\n\n"
+            + stored.report();
+    }
+    
+    private static String formatAge(Duration age) {
+        if (age.toDays() > 0) {
+            return age.toDays() + "d " + age.toHoursPart() + "h";
+        }
+        if (age.toHours() > 0) {
+            return age.toHours() + "h " + age.toMinutesPart() + "m";
+        }
+        return Math.max(0, age.toMinutes()) + "m";
+    }
+}
\ No newline at end of file
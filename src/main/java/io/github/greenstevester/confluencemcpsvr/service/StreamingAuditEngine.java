@@ -0,0 +1,401 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.client.ConfluencePagesClient;
+import io.github.greenstevester.confluencemcpsvr.config.AuditProperties;
+import io.github.greenstevester.confluencemcpsvr.index.KeywordAutomaton;
+import io.github.greenstevester.confluencemcpsvr.index.TextAnalyzer;
+import io.github.greenstevester.confluencemcpsvr.model.common.PaginatedResponse;
+import io.github.greenstevester.confluencemcpsvr.model.dto.GetPageRequest;
+import io.github.greenstevester.confluencemcpsvr.model.enums.BodyFormat;
+import io.github.greenstevester.confluencemcpsvr.model.page.Page;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageDetailed;
+import io.github.greenstevester.confluencemcpsvr.model.space.Space;
+import io.github.greenstevester.confluencemcpsvr.service.DocumentationAuditService.AuditQuery;
+import io.github.greenstevester.confluencemcpsvr.sync.ConfluenceSyncService;
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Audit engine that reads every page of the audited spaces once and evaluates all checklist
+ * queries against it.
+ * <p>
+ * Instead of one capped CQL search per query, pages are streamed in batches with their bodies:
+ * from the local mirror when it is fresh and covers the spaces, otherwise from the space content
+ * listing with several spaces streamed concurrently. Each page is scanned once by
+ * {@link AuditKeywordMatcher} for all keyword queries, and the age and draft predicates are
+ * checked against its metadata, so every query gets complete results from one pass.
+ * <p>
+ * Keyword results are kept per page version in {@link AuditResultStore}. Unchanged pages take
+ * their counts from the store instead of being scanned, and spaces that an earlier audit scanned
+ * completely are listed without bodies, so only the bodies of edited pages are fetched.
+ */
+@Service
+public class StreamingAuditEngine {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StreamingAuditEngine.class);
+    
+    // Spaces audited when none are named; the v1 space listing caps a single page at 500
+    private static final int MAX_SPACES = 500;
+    
+    public record PageHit(
+        String pageId,
+        String title,
+        String spaceKey,
+        Instant lastModified,
+        int keywordHits
+    ) {}
+    
+    public record QueryResult(
+        AuditQuery query,
+        List<PageHit> pages
+    ) {}
+    
+    public record AuditRun(
+        List<QueryResult> results,
+        List<String> spaceKeys,
+        Map<String, Integer> spacePages,
+        int pagesScanned,
+        int pagesReused,
+        int upstreamCalls,
+        boolean fromMirror,
+        boolean truncated,
+        long durationMillis
+    ) {}
+    
+    private record PageSnapshot(
+        String pageId,
+        int version,
+        String title,
+        String spaceKey,
+        String status,
+        Instant lastModified,
+        String body
+    ) {}
+    
+    private record QueryHit(int queryIndex, PageHit page) {}
+    
+    /**
+     * Counters and page IDs of one run, shared by its concurrently streamed spaces
+     */
+    private static final class RunState {
+        final AtomicInteger upstreamCalls = new AtomicInteger();
+        final AtomicInteger scanned = new AtomicInteger();
+        final AtomicInteger reused = new AtomicInteger();
+        final AtomicBoolean truncated = new AtomicBoolean();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final Set<String> seen = ConcurrentHashMap.newKeySet();
+        final Map<String, Integer> spacePages = new ConcurrentHashMap<>();
+    }
+    
+    private final ConfluencePagesClient pagesClient;
+    private final ConfluenceSpacesService spacesService;
+    private final LocalPageStore pageStore;
+    private final ConfluenceSyncService syncService;
+    private final AuditKeywordMatcher keywordMatcher;
+    private final AuditResultStore resultStore;
+    private final AuditProperties properties;
+    
+    public StreamingAuditEngine(
+            ConfluencePagesClient pagesClient,
+            ConfluenceSpacesService spacesService,
+            LocalPageStore pageStore,
+            ConfluenceSyncService syncService,
+            AuditKeywordMatcher keywordMatcher,
+            AuditResultStore resultStore,
+            AuditProperties properties) {
+        this.pagesClient = pagesClient;
+        this.spacesService = spacesService;
+        this.pageStore = pageStore;
+        this.syncService = syncService;
+        this.keywordMatcher = keywordMatcher;
+        this.resultStore = resultStore;
+        this.properties = properties;
+    }
+    
+    /**
+     * Run the queries over every page of the given spaces, or of all spaces when none are given
+     */
+    public Mono<AuditRun> run(List<AuditQuery> queries, List<String> spaceKeys) {
+        long start = System.currentTimeMillis();
+        List<String> requestedSpaces = spaceKeys != null ? spaceKeys.stream().filter(key -> !key.isBlank()).toList() : List.of();
+        boolean fromMirror = canUseMirror(requestedSpaces);
+        RunState state = new RunState();
+        
+        Mono<List<String>> spaces = fromMirror || !requestedSpaces.isEmpty()
+            ? Mono.just(requestedSpaces)
+            : spacesService.listSpaceModels(MAX_SPACES)
+                .doOnNext(response -> state.upstreamCalls.incrementAndGet())
+                .map(response -> response.results().stream().map(Space::key).filter(Objects::nonNull).toList());
+        
+        Instant[] ageCutoffs = ageCutoffs(queries);
+        return spaces.flatMap(keys -> {
+            Flux<List<PageSnapshot>> batches = fromMirror
+                ? mirrorBatches(keys, state)
+                : Flux.fromIterable(keys)
+                    .flatMap(key -> resultStore.hasScanned(key)
+                        ? changedSpaceBatches(key, 0, state)
+                        : spaceBatches(key, 0, state), properties.concurrency());
+            
+            return batches
+                .map(batch -> evaluate(batch, queries, ageCutoffs, state))
+                .collect(() -> newResultLists(queries.size()), (results, hits) -> {
+                    // collect is serialised, so the per-query lists need no locking
+                    for (QueryHit hit : hits) {
+                        results.get(hit.queryIndex()).add(hit.page());
+                    }
+                })
+                .map(results -> {
+                    List<QueryResult> queryResults = new ArrayList<>(queries.size());
+                    for (int i = 0; i < queries.size(); i++) {
+                        List<PageHit> pages = results.get(i);
+                        pages.sort(Comparator.comparingInt(PageHit::keywordHits).reversed()
+                            .thenComparing(PageHit::lastModified, Comparator.nullsFirst(Comparator.naturalOrder())));
+                        queryResults.add(new QueryResult(queries.get(i), pages));
+                    }
+                    // Only a complete pass shows which stored pages no longer exist
+                    if (!state.truncated.get() && !state.failed.get()) {
+                        resultStore.completeScan(fromMirror && keys.isEmpty() ? null : keys, state.seen);
+                    }
+                    resultStore.save();
+                    
+                    AuditRun run = new AuditRun(queryResults, keys, Map.copyOf(state.spacePages), state.scanned.get(),
+                        state.reused.get(), state.upstreamCalls.get(), fromMirror, state.truncated.get(),
+                        System.currentTimeMillis() - start);
+                    logger.info("Streamed audit of {} queries scanned {} pages ({} unchanged) with {} upstream calls in {} ms{}",
+                        queries.size(), run.pagesScanned(), run.pagesReused(), run.upstreamCalls(), run.durationMillis(),
+                        fromMirror ? " (local mirror)" : "");
+                    return run;
+                });
+        });
+    }
+    
+    /**
+     * Whether the local mirror is fresh and was synced for all of the requested spaces
+     */
+    public boolean canUseMirror(List<String> spaceKeys) {
+        return !pageStore.isEmpty() && syncService.coversSpaces(spaceKeys);
+    }
+    
+    private Flux<List<PageSnapshot>> mirrorBatches(List<String> spaceKeys, RunState state) {
+        Set<String> spaces = spaceKeys.isEmpty() ? null : new HashSet<>(spaceKeys);
+        AtomicInteger matched = new AtomicInteger();
+        return Flux.fromIterable(pageStore.all())
+            .filter(page -> spaces == null || spaces.contains(page.spaceKey()))
+            .takeWhile(page -> {
+                // A matching page beyond the limit means the pass is partial, as in withinLimit
+                if (matched.getAndIncrement() < properties.maxPages()) {
+                    return true;
+                }
+                state.truncated.set(true);
+                return false;
+            })
+            .map(this::toSnapshot)
+            .buffer(properties.pageSize())
+            .doOnNext(batch -> state.scanned.addAndGet(batch.size()));
+    }
+    
+    /**
+     * Stream one space page by page; each listing page is evaluated as soon as it arrives
+     */
+    private Flux<List<PageSnapshot>> spaceBatches(String spaceKey, int start, RunState state) {
+        return pagesClient.listSpacePagesWithBodies(spaceKey, start, properties.pageSize())
+            .doOnNext(response -> state.upstreamCalls.incrementAndGet())
+            .flatMapMany(response -> {
+                List<Page> listed = response.results() != null ? response.results() : List.of();
+                List<Page> pages = withinLimit(listed, state);
+                List<PageSnapshot> batch = pages.stream().map(page -> toSnapshot(page, spaceKey, bodyOf(page))).toList();
+                if (isLastListing(response, listed, spaceKey, state)) {
+                    return Flux.just(batch);
+                }
+                return Flux.just(batch).concatWith(spaceBatches(spaceKey, start + listed.size(), state));
+            })
+            .onErrorResume(error -> {
+                state.failed.set(true);
+                logger.warn("Streamed audit could not read space {} at offset {}: {}", spaceKey, start, error.getMessage());
+                return Flux.empty();
+            });
+    }
+    
+    /**
+     * Stream a space that was scanned before: list it without bodies and fetch the body of a page
+     * only when its version has no stored result
+     */
+    private Flux<List<PageSnapshot>> changedSpaceBatches(String spaceKey, int start, RunState state) {
+        return pagesClient.listSpacePages(spaceKey, start, properties.pageSize())
+            .doOnNext(response -> state.upstreamCalls.incrementAndGet())
+            .flatMapMany(response -> {
+                List<Page> listed = response.results() != null ? response.results() : List.of();
+                Mono<List<PageSnapshot>> batch = Flux.fromIterable(withinLimit(listed, state))
+                    .flatMapSequential(page -> resultStore.contains(page.id(), versionOf(page))
+                        ? Mono.just(toSnapshot(page, spaceKey, null))
+                        : fetchChanged(page, spaceKey, state), properties.concurrency())
+                    .collectList();
+                if (isLastListing(response, listed, spaceKey, state)) {
+                    return batch.flux();
+                }
+                return batch.flux().concatWith(changedSpaceBatches(spaceKey, start + listed.size(), state));
+            })
+            .onErrorResume(error -> {
+                state.failed.set(true);
+                logger.warn("Streamed audit could not list space {} at offset {}: {}", spaceKey, start, error.getMessage());
+                return Flux.empty();
+            });
+    }
+    
+    /**
+     * Whether a space walk stops after this listing page. Confluence may return fewer pages than
+     * asked for, so only a missing next link means the space was listed in full.
+     */
+    private static boolean isLastListing(PaginatedResponse<Page> response, List<Page> listed, String spaceKey, RunState state) {
+        boolean hasNext = response.links() != null && response.links().next() != null;
+        if (hasNext && listed.isEmpty()) {
+            // More pages announced but none returned: stop rather than ask for the same offset again
+            state.failed.set(true);
+            logger.warn("Streamed audit got an empty listing of space {} with more pages announced", spaceKey);
+            return true;
+        }
+        return !hasNext || state.truncated.get();
+    }
+    
+    private Mono<PageSnapshot> fetchChanged(Page listed, String spaceKey, RunState state) {
+        GetPageRequest request = new GetPageRequest(
+            listed.id(), BodyFormat.STORAGE, false, null, null,
+            false, null, null, null, null, true, null, null, null);
+        state.upstreamCalls.incrementAndGet();
+        
+        return pagesClient.getPage(listed.id(), request)
+            .map(page -> toSnapshot(listed, page, spaceKey))
+            .onErrorResume(error -> {
+                state.failed.set(true);
+                logger.warn("Streamed audit could not fetch changed page {}: {}", listed.id(), error.getMessage());
+                return Mono.empty();
+            });
+    }
+    
+    /**
+     * Cut a listing page to the configured page limit of the run
+     */
+    private List<Page> withinLimit(List<Page> pages, RunState state) {
+        int allowed = Math.max(0, properties.maxPages() - state.scanned.getAndAdd(pages.size()));
+        if (allowed < pages.size()) {
+            state.truncated.set(true);
+            // Only count the pages that are evaluated
+            state.scanned.addAndGet(allowed - pages.size());
+            return pages.subList(0, allowed);
+        }
+        return pages;
+    }
+    
+    private List<QueryHit> evaluate(List<PageSnapshot> batch, List<AuditQuery> queries, Instant[] ageCutoffs,
+                                    RunState state) {
+        // One scan state per batch, reused for every page in it
+        KeywordAutomaton.Hits hits = keywordMatcher.newHits();
+        int[] counts = new int[keywordMatcher.categoryCount()];
+        List<QueryHit> matches = new ArrayList<>();
+        for (PageSnapshot page : batch) {
+            state.seen.add(page.pageId());
+            if (page.spaceKey() != null) {
+                state.spacePages.merge(page.spaceKey(), 1, Integer::sum);
+            }
+            if (resultStore.lookup(page.pageId(), page.version(), counts)) {
+                state.reused.incrementAndGet();
+            } else {
+                keywordMatcher.scan(page.title(), TextAnalyzer.stripMarkup(page.body()), hits);
+                for (int category = 0; category < counts.length; category++) {
+                    counts[category] = hits.count(category);
+                }
+                resultStore.record(page.pageId(), page.version(), page.spaceKey(), counts);
+            }
+            for (int i = 0; i < queries.size(); i++) {
+                AuditQuery query = queries.get(i);
+                int keywordHits = 0;
+                boolean matched;
+                if (ageCutoffs[i] != null) {
+                    matched = page.lastModified() != null && !page.lastModified().isAfter(ageCutoffs[i]);
+                } else {
+                    int category = keywordMatcher.categoryOf(query);
+                    keywordHits = category >= 0 ? counts[category] : 0;
+                    matched = keywordHits > 0 || (query == AuditQuery.DRAFT_CONTENT && "draft".equals(page.status()));
+                }
+                if (matched) {
+                    matches.add(new QueryHit(i, new PageHit(page.pageId(), page.title(), page.spaceKey(),
+                        page.lastModified(), keywordHits)));
+                }
+            }
+        }
+        return matches;
+    }
+    
+    private static Instant[] ageCutoffs(List<AuditQuery> queries) {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        Instant[] cutoffs = new Instant[queries.size()];
+        for (int i = 0; i < queries.size(); i++) {
+            int months = queries.get(i).getAgeMonths();
+            cutoffs[i] = months > 0 ? now.minusMonths(months).toInstant() : null;
+        }
+        return cutoffs;
+    }
+    
+    private static List<List<PageHit>> newResultLists(int queries) {
+        List<List<PageHit>> results = new ArrayList<>(queries);
+        for (int i = 0; i < queries; i++) {
+            results.add(new ArrayList<>());
+        }
+        return results;
+    }
+    
+    private PageSnapshot toSnapshot(MirroredPage page) {
+        return new PageSnapshot(page.id(), page.version(), page.title(), page.spaceKey(), page.status(),
+            page.lastModified(), page.body());
+    }
+    
+    private PageSnapshot toSnapshot(Page page, String spaceKey, String body) {
+        Instant lastModified = page.version() != null && page.version().when() != null
+            ? page.version().when().toInstant() : null;
+        return new PageSnapshot(page.id(), versionOf(page), page.title(), spaceKey,
+            page.status() != null ? page.status().getValue() : null, lastModified, body);
+    }
+    
+    /**
+     * Snapshot of a fetched page; it may have been edited again since it was listed, so its title,
+     * version and modification time are taken from the fetch and only the status from the listing
+     */
+    private PageSnapshot toSnapshot(Page listed, PageDetailed page, String spaceKey) {
+        PageSnapshot fallback = toSnapshot(listed, spaceKey, null);
+        String body = page.body() != null && page.body().storage() != null ? page.body().storage().value() : null;
+        if (page.version() == null) {
+            return new PageSnapshot(fallback.pageId(), fallback.version(), fallback.title(), spaceKey,
+                fallback.status(), fallback.lastModified(), body);
+        }
+        Instant lastModified = page.version().when() != null ? page.version().when().toInstant() : fallback.lastModified();
+        return new PageSnapshot(listed.id(), page.version().number(), page.title() != null ? page.title() : fallback.title(),
+            spaceKey, fallback.status(), lastModified, body);
+    }
+    
+    private static String bodyOf(Page page) {
+        return page.body() != null && page.body().storage() != null ? page.body().storage().value() : null;
+    }
+    
+    private static int versionOf(Page page) {
+        return page.version() != null ? page.version().number() : 0;
+    }
+}
\ No newline at end of file
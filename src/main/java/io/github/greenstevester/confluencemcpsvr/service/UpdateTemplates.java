@@ -0,0 +1,96 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.UnaryOperator;
+
+/**
+ * Content transformations applied by batch page updates.
+ * <p>
+ * A template is either one of the named templates or custom storage-format content appended to
+ * each page. Batch jobs store only the template string in their journal, so a job resumed after a
+ * restart rebuilds its transformation from here.
+ */
+@Component
+public class UpdateTemplates {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UpdateTemplates.class);
+    
+    /**
+     * The transformation for an update template
+     */
+    public UnaryOperator<String> forTemplate(String updateTemplate) {
+        return content -> apply(content, updateTemplate);
+    }
+    
+    /**
+     * Apply update template to content
+     */
+    public String apply(String currentContent, String updateTemplate) {
+        if (updateTemplate == null || updateTemplate.trim().isEmpty()) {
+            return currentContent;
+        }
+        
+        try {
+            // Apply different update templates
+            return switch (updateTemplate.toLowerCase()) {
+                case "add-last-reviewed" -> addLastReviewedMetadata(currentContent);
+                case "add-review-date" -> addLastReviewedMetadata(currentContent);
+                case "standardize-format" -> standardizeFormatting(currentContent);
+                case "add-disclaimer" -> addComplianceDisclaimer(currentContent);
+                default -> {
+                    // Treat as custom content to append
+                    yield currentContent + "\n\n---\n\n" + updateTemplate;
+                }
+            };
+        } catch (Exception e) {
+            logger.error("Error applying update template: {}", updateTemplate, e);
+            return currentContent; // Return original content if template application fails
+        }
+    }
+    
+    /**
+     * Add last reviewed metadata to content
+     */
+    private String addLastReviewedMetadata(String content) {
+        String reviewDate = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        String metadata = "\n\n---\n\n**Last Reviewed:** " + reviewDate + "\n";
+        
+        // Check if metadata already exists and update it
+        if (content.contains("**Last Reviewed:**")) {
+            return content.replaceAll("\\*\\*Last Reviewed:\\*\\*[^\\n]*", "**Last Reviewed:** " + reviewDate);
+        } else {
+            return content + metadata;
+        }
+    }
+    
+    /**
+     * Standardize content formatting
+     */
+    private String standardizeFormatting(String content) {
+        if (content == null) return "<p>Standardized content</p>";
+        
+        // Basic standardization - ensure proper heading structure
+        return content.replaceAll("(?m)^(#{1,6})\\s*(.+)$", "$1 $2")  // Ensure space after #
+                     .replaceAll("(?m)^\\s*[-*+]\\s+", "- ");         // Standardize bullet points
+    }
+    
+    /**
+     * Add compliance disclaimer to content
+     */
+    private String addComplianceDisclaimer(String content) {
+        String disclaimer = "\n\n---\n\n" +
+                           "**Notice:** This documentation is subject to regular review and updates. " +
+                           "Please verify information accuracy before making critical decisions.\n";
+        
+        if (content.contains("**Notice:**")) {
+            return content; // Already has disclaimer
+        } else {
+            return content + disclaimer;
+        }
+    }
+}
\ No newline at end of file
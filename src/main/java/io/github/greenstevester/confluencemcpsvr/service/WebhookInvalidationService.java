@@ -0,0 +1,249 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.cache.PageCache;
+import io.github.greenstevester.confluencemcpsvr.config.WebhookProperties;
+import io.github.greenstevester.confluencemcpsvr.model.webhook.WebhookEvent;
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies Confluence webhook events to the local caches.
+ * Events are queued per page and flushed once per batch window, so an event storm touching
+ * the same page many times results in a single invalidation or refresh.
+ */
+@Service
+public class WebhookInvalidationService implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WebhookInvalidationService.class);
+    
+    private static final String ANSI_MAGENTA = "\u001B[35m";
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    /**
+     * Cache action pending for a page; the most recent event for a page wins
+     */
+    enum PendingAction {
+        INVALIDATE,
+        EVICT
+    }
+    
+    private final PageCache pageCache;
+    private final LocalPageStore pageStore;
+    private final ConfluencePagesService pagesService;
+    private final WebhookProperties webhookProperties;
+    
+    private final Map<String, PendingAction> pendingPages = new ConcurrentHashMap<>();
+    private final Set<String> pendingSpaces = ConcurrentHashMap.newKeySet();
+    
+    private final AtomicLong eventsReceived = new AtomicLong(0);
+    private final AtomicLong eventsIgnored = new AtomicLong(0);
+    private final AtomicLong eventsCoalesced = new AtomicLong(0);
+    private final AtomicLong batchesFlushed = new AtomicLong(0);
+    private final AtomicLong pagesInvalidated = new AtomicLong(0);
+    private final AtomicLong pagesRefreshed = new AtomicLong(0);
+    private final AtomicLong refreshFailures = new AtomicLong(0);
+    
+    private ScheduledExecutorService scheduler;
+    
+    public WebhookInvalidationService(
+            PageCache pageCache,
+            LocalPageStore pageStore,
+            ConfluencePagesService pagesService,
+            WebhookProperties webhookProperties) {
+        this.pageCache = pageCache;
+        this.pageStore = pageStore;
+        this.pagesService = pagesService;
+        this.webhookProperties = webhookProperties;
+    }
+    
+    @Override
+    public synchronized void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!webhookProperties.enabled() || scheduler != null) {
+            return;
+        }
+        
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "webhook-invalidation");
+            t.setDaemon(true);
+            return t;
+        });
+        
+        long windowMillis = Math.max(1, webhookProperties.batchWindow().toMillis());
+        logger.info("Starting webhook invalidation batching (window: {} ms)", windowMillis);
+        scheduler.scheduleWithFixedDelay(this::flushSafely, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public synchronized void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+        // Apply whatever is still queued so a shutdown does not leave stale entries behind
+        flush();
+    }
+    
+    /**
+     * Queue a webhook event for the next batch
+     *
+     * @return true if the event affects a cache, false if it was ignored
+     */
+    public boolean submit(WebhookEvent event) {
+        eventsReceived.incrementAndGet();
+        
+        if (event.isPageEvent()) {
+            PendingAction action = event.isPageRemoval() ? PendingAction.EVICT : PendingAction.INVALIDATE;
+            if (pendingPages.put(event.page().id(), action) != null) {
+                eventsCoalesced.incrementAndGet();
+            }
+            logger.debug("Queued {} for page {} ({})", action, event.page().id(), event.event());
+            return true;
+        }
+        
+        if (event.isSpaceEvent()) {
+            if (!pendingSpaces.add(event.space().key())) {
+                eventsCoalesced.incrementAndGet();
+            }
+            logger.debug("Queued space {} ({})", event.space().key(), event.event());
+            return true;
+        }
+        
+        eventsIgnored.incrementAndGet();
+        logger.debug("Ignoring webhook event {}", event.event());
+        return false;
+    }
+    
+    /**
+     * Apply all queued actions to the caches
+     */
+    public synchronized BatchResult flush() {
+        List<String> invalidated = new ArrayList<>();
+        List<String> evicted = new ArrayList<>();
+        List<String> refreshed = new ArrayList<>();
+        
+        for (String pageId : List.copyOf(pendingPages.keySet())) {
+            PendingAction action = pendingPages.remove(pageId);
+            if (action == null) {
+                continue;
+            }
+            
+            if (action == PendingAction.EVICT) {
+                // The incremental sync only sees modifications, so deletions reach the mirror from here
+                pageCache.evict(pageId);
+                pageStore.remove(pageId);
+                evicted.add(pageId);
+                continue;
+            }
+            
+            // Only pages someone has read recently are worth re-fetching eagerly
+            boolean wasCached = pageCache.contains(pageId);
+            pageCache.invalidate(pageId);
+            invalidated.add(pageId);
+            if (wasCached && webhookProperties.refreshOnUpdate()) {
+                refreshed.add(pageId);
+            }
+        }
+        
+        List<String> spaces = new ArrayList<>();
+        for (String spaceKey : List.copyOf(pendingSpaces)) {
+            if (pendingSpaces.remove(spaceKey)) {
+                spaces.add(spaceKey);
+            }
+        }
+        
+        BatchResult result = new BatchResult(invalidated, evicted, refreshed, spaces);
+        if (result.isEmpty()) {
+            return result;
+        }
+        
+        batchesFlushed.incrementAndGet();
+        pagesInvalidated.addAndGet(invalidated.size() + evicted.size());
+        refreshed.forEach(this::refreshPage);
+        
+        logger.info("Applied webhook batch: {} invalidated, {} evicted, {} refreshing, {} spaces changed",
+            invalidated.size(), evicted.size(), refreshed.size(), spaces.size());
+        return result;
+    }
+    
+    /**
+     * Number of pages and spaces waiting for the next flush
+     */
+    public int pendingCount() {
+        return pendingPages.size() + pendingSpaces.size();
+    }
+    
+    /**
+     * Get formatted webhook statistics for the monitoring report
+     */
+    public String getFormattedStats() {
+        StringBuilder sb = new StringBuilder();
+        
+        sb.append(ANSI_BOLD).append(ANSI_MAGENTA).append("🔔 Webhook Invalidation").append(ANSI_RESET).append("\n");
+        
+        if (!webhookProperties.enabled()) {
+            sb.append("   └─ ").append(ANSI_CYAN).append("Webhook receiver disabled").append(ANSI_RESET);
+            return sb.toString();
+        }
+        
+        sb.append("   ├─ Events: ").append(ANSI_YELLOW).append(eventsReceived.get()).append(ANSI_RESET)
+          .append(" received, ").append(eventsCoalesced.get()).append(" coalesced, ")
+          .append(eventsIgnored.get()).append(" ignored\n");
+        sb.append("   ├─ Batches: ").append(ANSI_YELLOW).append(batchesFlushed.get()).append(ANSI_RESET)
+          .append(" (").append(pendingCount()).append(" pending)\n");
+        sb.append("   └─ Pages: ").append(ANSI_YELLOW).append(pagesInvalidated.get()).append(ANSI_RESET)
+          .append(" invalidated, ").append(pagesRefreshed.get()).append(" refreshed, ")
+          .append(refreshFailures.get()).append(" refresh failures");
+        
+        return sb.toString();
+    }
+    
+    private void refreshPage(String pageId) {
+        pagesService.refreshCachedPage(pageId)
+            .subscribe(
+                page -> pagesRefreshed.incrementAndGet(),
+                error -> {
+                    refreshFailures.incrementAndGet();
+                    logger.warn("Failed to refresh page {} after webhook: {}", pageId, error.getMessage());
+                });
+    }
+    
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Error applying webhook batch", e);
+        }
+    }
+    
+    /**
+     * Outcome of a single flush
+     */
+    public record BatchResult(
+        List<String> invalidatedPages,
+        List<String> evictedPages,
+        List<String> refreshedPages,
+        List<String> changedSpaces
+    ) {
+        public boolean isEmpty() {
+            return invalidatedPages.isEmpty() && evictedPages.isEmpty() && changedSpaces.isEmpty();
+        }
+    }
+}
\ No newline at end of file
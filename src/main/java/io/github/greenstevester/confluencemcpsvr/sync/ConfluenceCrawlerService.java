@@ -0,0 +1,562 @@
+package io.github.greenstevester.confluencemcpsvr.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.greenstevester.confluencemcpsvr.client.ConfluencePagesClient;
+import io.github.greenstevester.confluencemcpsvr.client.ConfluenceSpacesClient;
+import io.github.greenstevester.confluencemcpsvr.config.ConfluenceProperties;
+import io.github.greenstevester.confluencemcpsvr.config.CrawlerProperties;
+import io.github.greenstevester.confluencemcpsvr.config.SyncProperties;
+import io.github.greenstevester.confluencemcpsvr.model.common.Label;
+import io.github.greenstevester.confluencemcpsvr.model.common.PaginatedResponse;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageDetailed;
+import io.github.greenstevester.confluencemcpsvr.model.space.Space;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Crawls every page of every space into {@link LocalPageStore}, so the indexes are built from the
+ * whole instance rather than from what CQL searches return.
+ * <p>
+ * Spaces are listed by offset and crawled a few at a time; each space is walked through the
+ * content listing with bodies, versions and labels, so a page costs no request of its own. All
+ * workers share one {@link RequestPacer}, and requests rejected with 429 or a server error are
+ * retried with exponential backoff. Progress is checkpointed to the sync state directory: each
+ * checkpoint appends the pages changed since the last one to the mirror's change log and then
+ * records the listing offsets, so after a crash or redeploy the crawl resumes at the offset it had
+ * reached instead of starting over. The full mirror is only rewritten when a crawl pass ends.
+ * <p>
+ * A space walked from its first page in one run is a complete listing of it, so mirrored pages of
+ * that space the walk did not see have been deleted or moved and are removed. The incremental sync
+ * keeps the mirror current between crawls.
+ */
+@Service
+public class ConfluenceCrawlerService implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConfluenceCrawlerService.class);
+    private static final String PAGES_FILE = "pages.json";
+    private static final String CHECKPOINT_FILE = "crawl-checkpoint.json";
+    private static final int SPACES_PAGE_SIZE = 100;
+    private static final long DUE_CHECK_SECONDS = 60;
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(2);
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofMinutes(1);
+    
+    private static final String ANSI_MAGENTA = "\u001B[35m";
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    private final ConfluenceSpacesClient spacesClient;
+    private final ConfluencePagesClient pagesClient;
+    private final LocalPageStore pageStore;
+    private final CrawlerProperties crawlerProperties;
+    private final SyncProperties syncProperties;
+    private final ConfluenceProperties confluenceProperties;
+    private final ObjectMapper objectMapper;
+    private final RequestPacer pacer;
+    
+    private final AtomicLong requests = new AtomicLong(0);
+    private final AtomicLong retries = new AtomicLong(0);
+    private final AtomicLong failedRequests = new AtomicLong(0);
+    private final AtomicLong pagesMirrored = new AtomicLong(0);
+    private final AtomicLong pagesUnchanged = new AtomicLong(0);
+    private final AtomicLong pagesRemoved = new AtomicLong(0);
+    private final Object crawlLock = new Object();
+    private final Object checkpointLock = new Object();
+    
+    private volatile CrawlCheckpoint checkpoint;
+    private volatile CrawlProgress progress;
+    private volatile Instant lastCheckpointAt;
+    private ScheduledExecutorService scheduler;
+    
+    public ConfluenceCrawlerService(
+            ConfluenceSpacesClient spacesClient,
+            ConfluencePagesClient pagesClient,
+            LocalPageStore pageStore,
+            CrawlerProperties crawlerProperties,
+            SyncProperties syncProperties,
+            ConfluenceProperties confluenceProperties,
+            ObjectMapper objectMapper) {
+        this.spacesClient = spacesClient;
+        this.pagesClient = pagesClient;
+        this.pageStore = pageStore;
+        this.crawlerProperties = crawlerProperties;
+        this.syncProperties = syncProperties;
+        this.confluenceProperties = confluenceProperties;
+        this.objectMapper = objectMapper;
+        this.pacer = new RequestPacer(crawlerProperties.requestInterval());
+    }
+    
+    @Override
+    public synchronized void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!crawlerProperties.enabled() || scheduler != null) {
+            return;
+        }
+        
+        restoreState();
+        
+        // One thread runs the crawl, the other writes checkpoints while it is running
+        scheduler = Executors.newScheduledThreadPool(2, r -> {
+            Thread t = new Thread(r, "confluence-crawler");
+            t.setDaemon(true);
+            return t;
+        });
+        
+        long checkpointSeconds = Math.max(1, crawlerProperties.checkpointInterval().toSeconds());
+        logger.info("Starting Confluence crawler (concurrency: {}, request interval: {} ms, checkpoint: {})",
+            crawlerProperties.concurrency(), crawlerProperties.requestInterval().toMillis(), describe(checkpoint));
+        scheduler.scheduleWithFixedDelay(this::crawlSafely, 5, DUE_CHECK_SECONDS, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::checkpointSafely, checkpointSeconds, checkpointSeconds, TimeUnit.SECONDS);
+    }
+    
+    @Override
+    public synchronized void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            if (progress != null) {
+                // Keep what this run reached; the next start resumes from here
+                checkpointSafely();
+            }
+        }
+    }
+    
+    /**
+     * Whether a crawl is due: one is unfinished, none has completed yet, or the last is too old
+     */
+    public boolean isCrawlDue() {
+        CrawlCheckpoint current = checkpoint;
+        return current == null
+            || !current.isComplete()
+            || current.completedAt().plus(crawlerProperties.recrawlInterval()).isBefore(Instant.now());
+    }
+    
+    public CrawlCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+    
+    /**
+     * Run or resume one crawl of the whole instance, blocking until every space is done or failed
+     */
+    public CrawlCheckpoint crawlNow() {
+        // Not the bean monitor: destroy() must be able to stop a running crawl
+        synchronized (crawlLock) {
+            return crawl();
+        }
+    }
+    
+    private CrawlCheckpoint crawl() {
+        CrawlCheckpoint current = checkpoint;
+        CrawlProgress run = current != null && !current.isComplete()
+            ? CrawlProgress.resume(current, requests.get())
+            : CrawlProgress.start(Instant.now(), requests.get());
+        progress = run;
+        logger.info("Crawl {} ({} spaces done, {} pages listed so far)",
+            run.pagesBefore > 0 || !run.completedSpaces.isEmpty() ? "resuming" : "starting",
+            run.completedSpaces.size(), run.pagesBefore);
+        
+        try {
+            if (run.spaces == null) {
+                run.spaces = listSpaceKeys();
+                checkpointSafely();
+            }
+            
+            List<String> pending = run.spaces.stream()
+                .filter(key -> !run.completedSpaces.contains(key))
+                .toList();
+            Flux.fromIterable(pending)
+                .flatMap(key -> crawlSpace(key, run.begin(key), run)
+                    .onErrorResume(error -> {
+                        // The offset stays where it was, so the next pass picks the space up again
+                        failedRequests.incrementAndGet();
+                        logger.warn("Crawl of space {} stopped at offset {}: {}",
+                            key, run.offsets.getOrDefault(key, 0), error.getMessage());
+                        return Mono.empty();
+                    }), crawlerProperties.concurrency())
+                .then()
+                .block();
+            
+            if (run.completedSpaces.containsAll(run.spaces)) {
+                run.completedAt = Instant.now();
+            }
+            checkpointSafely();
+            compactMirror();
+            logger.info("Crawl pass finished: {} of {} spaces complete, {} pages listed at {}/s",
+                run.completedSpaces.size(), run.spaces.size(), run.pagesBefore + run.pagesListed.get(),
+                String.format("%.1f", run.perSecond(run.pagesListed.get())));
+            return checkpoint;
+        } finally {
+            progress = null;
+        }
+    }
+    
+    /**
+     * Get formatted crawler statistics for the monitoring report
+     */
+    public String getFormattedStats() {
+        StringBuilder sb = new StringBuilder();
+        
+        sb.append(ANSI_BOLD).append(ANSI_MAGENTA).append("🕷️ Instance Crawler").append(ANSI_RESET).append("\n");
+        
+        if (!crawlerProperties.enabled()) {
+            sb.append("   └─ ").append(ANSI_CYAN).append("Instance crawler disabled").append(ANSI_RESET);
+            return sb.toString();
+        }
+        
+        CrawlProgress run = progress;
+        CrawlCheckpoint current = checkpoint;
+        sb.append("   ├─ Status: ");
+        if (run != null) {
+            int total = run.spaces != null ? run.spaces.size() : 0;
+            sb.append(ANSI_YELLOW).append("crawling").append(ANSI_RESET).append(", ")
+              .append(run.completedSpaces.size()).append("/").append(total).append(" spaces, ")
+              .append(run.pagesBefore + run.pagesListed.get()).append(" pages listed\n");
+            sb.append("   ├─ Throughput: ").append(ANSI_YELLOW)
+              .append(String.format("%.1f", run.perSecond(run.pagesListed.get()))).append(ANSI_RESET).append(" pages/s, ")
+              .append(String.format("%.1f", run.perSecond(requests.get() - run.requestsAtStart))).append(" requests/s\n");
+        } else if (current != null && current.isComplete()) {
+            sb.append(ANSI_YELLOW).append("idle").append(ANSI_RESET).append(", last crawl completed ")
+              .append(current.completedAt()).append(" (").append(current.pagesCrawled()).append(" pages)\n");
+        } else {
+            sb.append(ANSI_YELLOW).append("pending").append(ANSI_RESET).append("\n");
+        }
+        sb.append("   ├─ Requests: ").append(ANSI_YELLOW).append(requests.get()).append(ANSI_RESET)
+          .append(" (").append(retries.get()).append(" retried, ").append(failedRequests.get()).append(" failed)\n");
+        sb.append("   ├─ Pages: ").append(ANSI_YELLOW).append(pagesMirrored.get()).append(ANSI_RESET)
+          .append(" mirrored, ").append(pagesUnchanged.get()).append(" unchanged, ")
+          .append(pagesRemoved.get()).append(" removed\n");
+        sb.append("   └─ Checkpoint: ");
+        if (lastCheckpointAt == null) {
+            sb.append(ANSI_CYAN).append("none yet").append(ANSI_RESET);
+        } else {
+            sb.append(ANSI_YELLOW).append(lastCheckpointAt).append(ANSI_RESET);
+        }
+        
+        return sb.toString();
+    }
+    
+    /**
+     * Walk one space listing page by listing page from {@code start}, mirroring each page as it arrives.
+     * Confluence may return fewer pages than asked for, so the walk follows the next link rather than
+     * the page size, and only a listing that ran out of next links is complete enough to prune by.
+     */
+    private Mono<Void> crawlSpace(String spaceKey, int start, CrawlProgress run) {
+        int pageSize = crawlerProperties.pageSize();
+        return paced(() -> pagesClient.listSpacePagesForMirror(spaceKey, start, pageSize))
+            .flatMap(response -> {
+                List<PageDetailed> listed = response.results() != null ? response.results() : List.of();
+                listed.forEach(page -> {
+                    mirror(page, spaceKey);
+                    run.seen(spaceKey, page.id());
+                });
+                run.pagesListed.addAndGet(listed.size());
+                
+                int next = start + listed.size();
+                if (response.links() == null || response.links().next() == null) {
+                    removeUnseen(spaceKey, run.complete(spaceKey));
+                    return Mono.<Void>empty();
+                }
+                if (listed.isEmpty()) {
+                    // A next link after an empty page would walk in place; finish without pruning
+                    logger.warn("Crawl of space {} got an empty page at offset {} with more announced", spaceKey, start);
+                    run.complete(spaceKey);
+                    return Mono.<Void>empty();
+                }
+                // Record the offset only after the pages are in the store, so a checkpoint never skips any
+                run.offsets.put(spaceKey, next);
+                return crawlSpace(spaceKey, next, run);
+            });
+    }
+    
+    private void mirror(PageDetailed page, String spaceKey) {
+        if (page.id() == null) {
+            return;
+        }
+        int version = page.version() != null ? page.version().number() : 0;
+        MirroredPage mirrored = pageStore.get(page.id());
+        // A page moved to another space keeps its version, so the space is compared as well
+        if (mirrored != null && version > 0 && mirrored.version() >= version && spaceKey.equals(mirrored.spaceKey())) {
+            pagesUnchanged.incrementAndGet();
+            return;
+        }
+        
+        Instant lastModified = page.version() != null && page.version().when() != null
+            ? page.version().when().toInstant() : null;
+        String body = page.body() != null && page.body().storage() != null ? page.body().storage().value() : null;
+        pageStore.upsert(new MirroredPage(
+            page.id(),
+            page.title(),
+            spaceKey,
+            "current",
+            version,
+            lastModified,
+            body,
+            Instant.now(),
+            page.allLabels().stream().map(Label::name).toList(),
+            page.version() != null ? page.version().authorAccountId() : null
+        ));
+        pagesMirrored.incrementAndGet();
+    }
+    
+    /**
+     * Remove the mirrored pages of a space its complete walk did not list. Pages mirrored after the
+     * walk started are kept, since the sync may have added them behind the walk's offset.
+     */
+    private void removeUnseen(String spaceKey, SpacePass pass) {
+        if (pass == null) {
+            // Resumed part-way, so the pages listed before the restart are unknown; the next pass removes them
+            return;
+        }
+        List<String> unseen = pageStore.all().stream()
+            .filter(page -> spaceKey.equals(page.spaceKey()) && !pass.seen().contains(page.id()))
+            .filter(page -> page.syncedAt() == null || page.syncedAt().isBefore(pass.startedAt()))
+            .map(MirroredPage::id)
+            .toList();
+        unseen.forEach(pageStore::remove);
+        if (!unseen.isEmpty()) {
+            pagesRemoved.addAndGet(unseen.size());
+            logger.info("Removed {} pages of space {} that are no longer listed", unseen.size(), spaceKey);
+        }
+    }
+    
+    private List<String> listSpaceKeys() {
+        List<String> configured = crawlerProperties.spaceKeys();
+        if (configured != null && !configured.isEmpty()) {
+            return configured.stream().map(String::trim).filter(key -> !key.isEmpty()).distinct().toList();
+        }
+        
+        List<String> keys = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int offset = start;
+            PaginatedResponse<Space> response = paced(() -> spacesClient.listSpacesPage(offset, SPACES_PAGE_SIZE))
+                .block(confluenceProperties.api().timeout().multipliedBy(crawlerProperties.maxRetries() + 1L));
+            List<Space> spaces = response != null && response.results() != null ? response.results() : List.of();
+            spaces.stream().map(Space::key).filter(Objects::nonNull).forEach(keys::add);
+            if (spaces.isEmpty() || response.links() == null || response.links().next() == null) {
+                break;
+            }
+            start += spaces.size();
+        }
+        logger.info("Crawler found {} spaces", keys.size());
+        return keys;
+    }
+    
+    /**
+     * Send a request in the next free pacing slot, retrying throttled and failed requests with backoff
+     */
+    private <T> Mono<T> paced(Supplier<Mono<T>> request) {
+        return Mono.defer(() -> Mono.delay(pacer.reserve())
+                .then(Mono.defer(() -> {
+                    requests.incrementAndGet();
+                    return request.get();
+                })))
+            .retryWhen(Retry.backoff(crawlerProperties.maxRetries(), RETRY_BACKOFF)
+                .maxBackoff(MAX_RETRY_BACKOFF)
+                .filter(ConfluenceCrawlerService::isTransient)
+                .doBeforeRetry(signal -> retries.incrementAndGet()));
+    }
+    
+    private static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == 429 || response.getStatusCode().is5xxServerError();
+        }
+        return error instanceof WebClientRequestException;
+    }
+    
+    private void crawlSafely() {
+        if (!isCrawlDue()) {
+            return;
+        }
+        try {
+            crawlNow();
+        } catch (Exception e) {
+            failedRequests.incrementAndGet();
+            logger.error("Confluence crawl failed: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Log the pages changed since the last checkpoint, then write the progress reached before they
+     * were logged. Offsets only advance after their pages are in the store, so the checkpoint never
+     * points past a page that is missing from the persisted mirror; at worst a resume lists a few
+     * pages again.
+     */
+    private void checkpointSafely() {
+        CrawlProgress run = progress;
+        if (run == null) {
+            return;
+        }
+        synchronized (checkpointLock) {
+            CrawlCheckpoint snapshot = run.toCheckpoint();
+            Path stateDir = Paths.get(syncProperties.stateDir());
+            try {
+                pageStore.appendChanges(stateDir.resolve(PAGES_FILE));
+                Path checkpointFile = stateDir.resolve(CHECKPOINT_FILE);
+                Path temp = stateDir.resolve(CHECKPOINT_FILE + ".tmp");
+                objectMapper.writeValue(temp.toFile(), snapshot);
+                Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                checkpoint = snapshot;
+                lastCheckpointAt = Instant.now();
+            } catch (IOException e) {
+                logger.warn("Could not write crawl checkpoint to {}: {}", stateDir, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Fold the change log written by this pass's checkpoints into a fresh snapshot of the mirror
+     */
+    private void compactMirror() {
+        Path pagesFile = Paths.get(syncProperties.stateDir()).resolve(PAGES_FILE);
+        try {
+            pageStore.save(pagesFile);
+        } catch (IOException e) {
+            // The change log still holds every checkpointed change
+            logger.warn("Could not rewrite the mirror at {}: {}", pagesFile, e.getMessage());
+        }
+    }
+    
+    private void restoreState() {
+        Path stateDir = Paths.get(syncProperties.stateDir());
+        try {
+            Path checkpointFile = stateDir.resolve(CHECKPOINT_FILE);
+            if (Files.exists(checkpointFile)) {
+                checkpoint = objectMapper.readValue(checkpointFile.toFile(), CrawlCheckpoint.class);
+            }
+            // With the sync enabled it restores the mirror itself
+            if (!syncProperties.enabled()) {
+                pageStore.load(stateDir.resolve(PAGES_FILE));
+            }
+        } catch (IOException e) {
+            // Without a usable checkpoint the crawl starts over; pages already mirrored are skipped cheaply
+            logger.warn("Could not restore crawl checkpoint from {}, starting a new crawl: {}", stateDir, e.getMessage());
+            checkpoint = null;
+        }
+    }
+    
+    private static String describe(CrawlCheckpoint checkpoint) {
+        if (checkpoint == null) {
+            return "none";
+        }
+        return checkpoint.isComplete()
+            ? "complete at " + checkpoint.completedAt()
+            : (checkpoint.completedSpaces() != null ? checkpoint.completedSpaces().size() : 0) + " spaces done";
+    }
+    
+    /**
+     * Pages listed so far by a walk of one space that started at its first page
+     */
+    private record SpacePass(Instant startedAt, Set<String> seen) {}
+    
+    /**
+     * Live progress of the running crawl, updated by the concurrent space workers
+     */
+    private static final class CrawlProgress {
+        
+        private final Instant startedAt;
+        private final long pagesBefore;
+        private final Map<String, Integer> offsets = new ConcurrentHashMap<>();
+        private final Set<String> completedSpaces = ConcurrentHashMap.newKeySet();
+        // Not checkpointed: a space resumed part-way is not a complete listing
+        private final Map<String, SpacePass> passes = new ConcurrentHashMap<>();
+        private final AtomicLong pagesListed = new AtomicLong(0);
+        private final long runStartNanos = System.nanoTime();
+        private final long requestsAtStart;
+        private volatile List<String> spaces;
+        private volatile Instant completedAt;
+        
+        private CrawlProgress(Instant startedAt, long pagesBefore, long requestsAtStart) {
+            this.startedAt = startedAt;
+            this.pagesBefore = pagesBefore;
+            this.requestsAtStart = requestsAtStart;
+        }
+        
+        static CrawlProgress start(Instant now, long requestsAtStart) {
+            return new CrawlProgress(now, 0, requestsAtStart);
+        }
+        
+        static CrawlProgress resume(CrawlCheckpoint checkpoint, long requestsAtStart) {
+            CrawlProgress run = new CrawlProgress(checkpoint.startedAt(), checkpoint.pagesCrawled(), requestsAtStart);
+            run.spaces = checkpoint.spaces();
+            if (checkpoint.offsets() != null) {
+                run.offsets.putAll(checkpoint.offsets());
+            }
+            if (checkpoint.completedSpaces() != null) {
+                run.completedSpaces.addAll(checkpoint.completedSpaces());
+            }
+            return run;
+        }
+        
+        /**
+         * Offset to walk a space from; a walk from the start tracks the pages it lists
+         */
+        int begin(String spaceKey) {
+            int offset = offsets.getOrDefault(spaceKey, 0);
+            if (offset == 0) {
+                passes.put(spaceKey, new SpacePass(Instant.now(), ConcurrentHashMap.newKeySet()));
+            }
+            return offset;
+        }
+        
+        void seen(String spaceKey, String pageId) {
+            SpacePass pass = passes.get(spaceKey);
+            if (pass != null && pageId != null) {
+                pass.seen().add(pageId);
+            }
+        }
+        
+        /**
+         * Mark a space done and hand back its pass, or null if the walk was resumed part-way
+         */
+        SpacePass complete(String spaceKey) {
+            completedSpaces.add(spaceKey);
+            offsets.remove(spaceKey);
+            return passes.remove(spaceKey);
+        }
+        
+        /**
+         * Rate of {@code count} events since this run started
+         */
+        double perSecond(long count) {
+            double seconds = (System.nanoTime() - runStartNanos) / 1e9;
+            return seconds > 0 ? count / seconds : 0;
+        }
+        
+        CrawlCheckpoint toCheckpoint() {
+            return new CrawlCheckpoint(startedAt, spaces != null ? List.copyOf(spaces) : null,
+                new HashMap<>(offsets), new HashSet<>(completedSpaces), pagesBefore + pagesListed.get(), completedAt);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,494 @@
+package io.github.greenstevester.confluencemcpsvr.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.greenstevester.confluencemcpsvr.client.ConfluencePagesClient;
+import io.github.greenstevester.confluencemcpsvr.client.ConfluenceSearchClient;
+import io.github.greenstevester.confluencemcpsvr.config.ConfluenceProperties;
+import io.github.greenstevester.confluencemcpsvr.config.SyncProperties;
+import io.github.greenstevester.confluencemcpsvr.model.common.Label;
+import io.github.greenstevester.confluencemcpsvr.model.dto.GetPageRequest;
+import io.github.greenstevester.confluencemcpsvr.model.enums.BodyFormat;
+import io.github.greenstevester.confluencemcpsvr.model.enums.ExcerptStrategy;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageDetailed;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchRequest;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchResponse;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchResult;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchResultContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Background sync that keeps {@link LocalPageStore} in step with Confluence.
+ * Each run asks CQL for pages with {@code lastModified >= watermark}, fetches only those whose
+ * version is newer than the mirrored copy, and persists the mirror and watermark to the state directory.
+ * Deleted pages never show up in that query, so every deletion check interval the run also asks
+ * CQL which mirrored pages still exist and removes the rest.
+ */
+@Service
+public class ConfluenceSyncService implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConfluenceSyncService.class);
+    private static final DateTimeFormatter CQL_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    // CQL reads lastModified dates in the calling user's profile timezone, which may be anywhere from UTC-12 to UTC+14
+    private static final Duration MAX_ZONE_OFFSET = Duration.ofHours(14);
+    private static final String SEARCH_EXPAND = "content.space,content.version";
+    private static final String PAGES_FILE = "pages.json";
+    private static final String STATE_FILE = "sync-state.json";
+    
+    private static final String ANSI_MAGENTA = "\u001B[35m";
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    
+    private final ConfluenceSearchClient searchClient;
+    private final ConfluencePagesClient pagesClient;
+    private final LocalPageStore pageStore;
+    private final SyncProperties syncProperties;
+    private final ConfluenceProperties confluenceProperties;
+    private final ObjectMapper objectMapper;
+    
+    private final AtomicLong runs = new AtomicLong(0);
+    private final AtomicLong failedRuns = new AtomicLong(0);
+    private final AtomicLong pagesFetched = new AtomicLong(0);
+    
+    private volatile SyncState state = SyncState.initial();
+    private volatile SyncResult lastResult;
+    private ScheduledExecutorService scheduler;
+    
+    public ConfluenceSyncService(
+            ConfluenceSearchClient searchClient,
+            ConfluencePagesClient pagesClient,
+            LocalPageStore pageStore,
+            SyncProperties syncProperties,
+            ConfluenceProperties confluenceProperties,
+            ObjectMapper objectMapper) {
+        this.searchClient = searchClient;
+        this.pagesClient = pagesClient;
+        this.pageStore = pageStore;
+        this.syncProperties = syncProperties;
+        this.confluenceProperties = confluenceProperties;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public synchronized void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!syncProperties.enabled() || scheduler != null) {
+            return;
+        }
+        
+        restoreState();
+        
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "confluence-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        
+        long intervalSeconds = Math.max(1, syncProperties.interval().toSeconds());
+        logger.info("Starting Confluence sync (interval: {}s, watermark: {})", intervalSeconds, state.watermark());
+        scheduler.scheduleWithFixedDelay(this::syncSafely, 5, intervalSeconds, TimeUnit.SECONDS);
+    }
+    
+    @Override
+    public synchronized void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+    
+    /**
+     * Run one incremental sync pass
+     */
+    public synchronized SyncResult syncNow() {
+        long startTime = System.currentTimeMillis();
+        Instant previousWatermark = state.watermark();
+        String cql = buildChangedPagesCql(previousWatermark);
+        logger.debug("Sync scanning with CQL: {}", cql);
+        
+        List<SearchResult> changed = new ArrayList<>();
+        Instant newestModified = previousWatermark;
+        int scanned = 0;
+        int start = 0;
+        
+        while (true) {
+            SearchResponse response = searchClient.search(new SearchRequest(
+                cql, null, null, syncProperties.pageSize(), start, false, false, ExcerptStrategy.NONE, SEARCH_EXPAND))
+                .block(confluenceProperties.api().timeout());
+            List<SearchResult> results = response != null ? response.results() : null;
+            if (results == null || results.isEmpty()) {
+                break;
+            }
+            
+            for (SearchResult result : results) {
+                SearchResultContent content = result.content();
+                if (content == null || content.id() == null) {
+                    continue;
+                }
+                scanned++;
+                
+                Instant modified = toInstant(result);
+                if (modified != null && (newestModified == null || modified.isAfter(newestModified))) {
+                    newestModified = modified;
+                }
+                if (isNewerThanMirror(content)) {
+                    changed.add(result);
+                }
+            }
+            
+            start += results.size();
+            if (results.size() < syncProperties.pageSize()
+                    || (response.totalSize() != null && start >= response.totalSize())) {
+                break;
+            }
+        }
+        
+        AtomicInteger failures = new AtomicInteger(0);
+        Integer fetched = Flux.fromIterable(changed)
+            .flatMap(result -> fetchAndMirror(result, failures), syncProperties.concurrency())
+            .reduce(0, (count, page) -> count + 1)
+            .block();
+        int fetchedCount = fetched != null ? fetched : 0;
+        pagesFetched.addAndGet(fetchedCount);
+        
+        // Only move the watermark when every changed page made it into the mirror,
+        // otherwise the next run would never look at the failed ones again
+        Instant watermark = failures.get() == 0 ? newestModified : previousWatermark;
+        
+        int removed = 0;
+        Instant lastDeletionCheck = state.lastDeletionCheckAt();
+        if (failures.get() == 0 && isDeletionCheckDue(lastDeletionCheck)) {
+            Instant checkStarted = Instant.now();
+            removed = removeDeletedPages(failures);
+            if (failures.get() == 0) {
+                lastDeletionCheck = checkStarted;
+            }
+        }
+        
+        state = new SyncState(watermark, failures.get() == 0 ? Instant.now() : state.lastSuccessAt(), lastDeletionCheck);
+        persistState();
+        
+        SyncResult result = new SyncResult(scanned, fetchedCount, removed, failures.get(), pageStore.size(),
+            watermark, System.currentTimeMillis() - startTime);
+        lastResult = result;
+        runs.incrementAndGet();
+        
+        logger.info("Sync finished: {} scanned, {} fetched, {} removed, {} failed, {} mirrored in {} ms",
+            scanned, fetchedCount, removed, failures.get(), pageStore.size(), result.durationMillis());
+        return result;
+    }
+    
+    /**
+     * Whether the mirror is recent enough to answer queries instead of Confluence
+     */
+    public boolean isMirrorFresh() {
+        Instant lastSuccess = state.lastSuccessAt();
+        return syncProperties.enabled()
+            && lastSuccess != null
+            && lastSuccess.plus(syncProperties.maxStaleness()).isAfter(Instant.now());
+    }
+    
+    /**
+     * Whether the mirror is fresh and holds every page of the given spaces, or of every space when
+     * none are given, so that it can answer for them in full
+     */
+    public boolean coversSpaces(List<String> spaceKeys) {
+        if (!isMirrorFresh()) {
+            return false;
+        }
+        List<String> synced = getSyncedSpaceKeys();
+        if (synced.isEmpty()) {
+            return true;
+        }
+        return spaceKeys != null && !spaceKeys.isEmpty() && new HashSet<>(synced).containsAll(spaceKeys);
+    }
+    
+    /**
+     * Spaces the sync mirrors, or an empty list when it mirrors every space
+     */
+    public List<String> getSyncedSpaceKeys() {
+        List<String> spaceKeys = syncProperties.spaceKeys();
+        return spaceKeys != null ? spaceKeys.stream().map(String::trim).filter(key -> !key.isEmpty()).toList() : List.of();
+    }
+    
+    public SyncState getState() {
+        return state;
+    }
+    
+    public SyncResult getLastResult() {
+        return lastResult;
+    }
+    
+    /**
+     * Get formatted sync statistics for the monitoring report
+     */
+    public String getFormattedStats() {
+        StringBuilder sb = new StringBuilder();
+        
+        sb.append(ANSI_BOLD).append(ANSI_MAGENTA).append("🔄 Confluence Sync").append(ANSI_RESET).append("\n");
+        
+        if (!syncProperties.enabled()) {
+            sb.append("   └─ ").append(ANSI_CYAN).append("Background sync disabled").append(ANSI_RESET);
+            return sb.toString();
+        }
+        
+        SyncResult result = lastResult;
+        sb.append("   ├─ Mirrored Pages: ").append(ANSI_YELLOW).append(pageStore.size()).append(ANSI_RESET).append("\n");
+        sb.append("   ├─ Runs: ").append(ANSI_YELLOW).append(runs.get()).append(ANSI_RESET)
+          .append(" (").append(failedRuns.get()).append(" failed), ")
+          .append(pagesFetched.get()).append(" pages fetched\n");
+        sb.append("   ├─ Watermark: ").append(ANSI_YELLOW)
+          .append(state.watermark() != null ? state.watermark() : "none").append(ANSI_RESET).append("\n");
+        sb.append("   └─ Last Run: ");
+        if (result == null) {
+            sb.append(ANSI_CYAN).append("pending").append(ANSI_RESET);
+        } else {
+            sb.append(ANSI_YELLOW).append(result.scanned()).append(ANSI_RESET).append(" scanned, ")
+              .append(result.fetched()).append(" fetched, ").append(result.removed()).append(" removed, ")
+              .append(result.failed()).append(" failed in ")
+              .append(result.durationMillis()).append("ms");
+        }
+        
+        return sb.toString();
+    }
+    
+    /**
+     * Build the CQL selecting pages modified since the watermark.
+     * The watermark is written as UTC wall-clock time, but Confluence reads it in the calling user's
+     * timezone, so the window is widened by the largest possible zone offset on top of the overlap,
+     * which absorbs clock skew and CQL's minute resolution. Pages in that window are only re-fetched
+     * if their version changed.
+     */
+    String buildChangedPagesCql(Instant watermark) {
+        StringBuilder cql = new StringBuilder("type=page");
+        
+        List<String> spaceKeys = syncProperties.spaceKeys();
+        if (spaceKeys != null && !spaceKeys.isEmpty()) {
+            cql.append(" AND space in (")
+               .append(spaceKeys.stream().map(key -> "\"" + key + "\"").collect(Collectors.joining(",")))
+               .append(")");
+        }
+        
+        if (watermark != null) {
+            Instant since = watermark.minus(syncProperties.overlap()).minus(MAX_ZONE_OFFSET);
+            cql.append(" AND lastModified >= \"")
+               .append(CQL_DATE_FORMAT.format(since.atZone(ZoneOffset.UTC)))
+               .append("\"");
+        }
+        
+        return cql.append(" ORDER BY lastModified ASC").toString();
+    }
+    
+    /**
+     * Build the CQL asking which of the given pages still exist in the synced spaces
+     */
+    String buildExistingPagesCql(List<String> pageIds) {
+        StringBuilder cql = new StringBuilder("type=page");
+        
+        List<String> spaceKeys = syncProperties.spaceKeys();
+        if (spaceKeys != null && !spaceKeys.isEmpty()) {
+            cql.append(" AND space in (")
+               .append(spaceKeys.stream().map(key -> "\"" + key + "\"").collect(Collectors.joining(",")))
+               .append(")");
+        }
+        
+        return cql.append(" AND id in (").append(String.join(",", pageIds)).append(")").toString();
+    }
+    
+    private boolean isDeletionCheckDue(Instant lastCheck) {
+        return lastCheck == null || !lastCheck.plus(syncProperties.deletionCheckInterval()).isAfter(Instant.now());
+    }
+    
+    /**
+     * Ask CQL which mirrored pages of the synced spaces still exist, a page size of IDs per query, and
+     * remove those it no longer returns: they were deleted, trashed or moved out of the synced spaces.
+     * Pages of a chunk whose query failed or came back incomplete are kept.
+     *
+     * @return the number of pages removed
+     */
+    int removeDeletedPages(AtomicInteger failures) {
+        List<String> spaceKeys = getSyncedSpaceKeys();
+        // The crawler may mirror spaces the sync does not cover; those are its to prune
+        List<String> mirrored = pageStore.all().stream()
+            .filter(page -> spaceKeys.isEmpty() || spaceKeys.contains(page.spaceKey()))
+            .map(MirroredPage::id)
+            .toList();
+        
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < mirrored.size(); i += syncProperties.pageSize()) {
+            chunks.add(mirrored.subList(i, Math.min(i + syncProperties.pageSize(), mirrored.size())));
+        }
+        
+        Integer removed = Flux.fromIterable(chunks)
+            .flatMap(chunk -> searchClient.search(new SearchRequest(
+                    buildExistingPagesCql(chunk), null, null, chunk.size(), 0, false, false, ExcerptStrategy.NONE, null))
+                .map(response -> {
+                    if (!isComplete(response)) {
+                        // A clamped or partial answer says nothing about the IDs it left out
+                        failures.incrementAndGet();
+                        logger.warn("Sync got an incomplete answer checking {} mirrored pages for deletion; keeping them",
+                            chunk.size());
+                        return 0;
+                    }
+                    Set<String> existing = new HashSet<>();
+                    for (SearchResult result : response.results()) {
+                        if (result.content() != null && result.content().id() != null) {
+                            existing.add(result.content().id());
+                        }
+                    }
+                    return (int) chunk.stream().filter(id -> !existing.contains(id)).filter(pageStore::remove).count();
+                })
+                .onErrorResume(error -> {
+                    failures.incrementAndGet();
+                    logger.warn("Sync could not check {} mirrored pages for deletion: {}", chunk.size(), error.getMessage());
+                    return Mono.empty();
+                }), syncProperties.concurrency())
+            .reduce(0, Integer::sum)
+            .block();
+        return removed != null ? removed : 0;
+    }
+    
+    /**
+     * Whether a search response holds every match: no next link, and as many results as the total
+     */
+    private static boolean isComplete(SearchResponse response) {
+        if (response.results() == null || (response.links() != null && response.links().next() != null)) {
+            return false;
+        }
+        return response.totalSize() == null || response.totalSize() == response.results().size();
+    }
+    
+    private boolean isNewerThanMirror(SearchResultContent content) {
+        MirroredPage mirrored = pageStore.get(content.id());
+        if (mirrored == null || content.version() == null || content.version().number() == null) {
+            return true;
+        }
+        return content.version().number() > mirrored.version();
+    }
+    
+    private Mono<MirroredPage> fetchAndMirror(SearchResult result, AtomicInteger failures) {
+        String pageId = result.content().id();
+        GetPageRequest request = new GetPageRequest(
+            pageId, BodyFormat.STORAGE, false, null, null,
+            true, null, null, null, null, true, null, null, null);
+        
+        return pagesClient.getPage(pageId, request)
+            .map(page -> toMirroredPage(page, result))
+            .doOnNext(pageStore::upsert)
+            .onErrorResume(error -> {
+                failures.incrementAndGet();
+                logger.warn("Sync failed to fetch page {}: {}", pageId, error.getMessage());
+                return Mono.empty();
+            });
+    }
+    
+    private MirroredPage toMirroredPage(PageDetailed page, SearchResult result) {
+        SearchResultContent content = result.content();
+        
+        int version = page.version() != null ? page.version().number()
+            : content.version() != null && content.version().number() != null ? content.version().number() : 0;
+        Instant lastModified = page.version() != null && page.version().when() != null
+            ? page.version().when().toInstant() : toInstant(result);
+        String body = page.body() != null && page.body().storage() != null ? page.body().storage().value() : null;
+        
+        return new MirroredPage(
+            page.id(),
+            page.title(),
+            content.space() != null ? content.space().key() : null,
+            content.status(),
+            version,
+            lastModified,
+            body,
+            Instant.now(),
+            page.allLabels().stream().map(Label::name).toList(),
+            page.version() != null ? page.version().authorAccountId() : null
+        );
+    }
+    
+    private Instant toInstant(SearchResult result) {
+        return result.lastModified() != null ? result.lastModified().toInstant(ZoneOffset.UTC) : null;
+    }
+    
+    private void syncSafely() {
+        try {
+            syncNow();
+        } catch (Exception e) {
+            failedRuns.incrementAndGet();
+            logger.error("Confluence sync run failed: {}", e.getMessage());
+        }
+    }
+    
+    private void restoreState() {
+        Path stateDir = Paths.get(syncProperties.stateDir());
+        try {
+            Path stateFile = stateDir.resolve(STATE_FILE);
+            if (Files.exists(stateFile)) {
+                state = objectMapper.readValue(stateFile.toFile(), SyncState.class);
+            }
+            pageStore.load(stateDir.resolve(PAGES_FILE));
+        } catch (IOException e) {
+            // A corrupt mirror is rebuilt by a full sync rather than failing startup
+            logger.warn("Could not restore sync state from {}, starting a full sync: {}", stateDir, e.getMessage());
+            state = SyncState.initial();
+        }
+    }
+    
+    /**
+     * Write the watermark, and the mirror only when it changed since it was last saved:
+     * most runs find nothing new, and rewriting every page body for them would dwarf the run itself.
+     */
+    private void persistState() {
+        Path stateDir = Paths.get(syncProperties.stateDir());
+        try {
+            if (pageStore.hasUnsavedChanges()) {
+                pageStore.save(stateDir.resolve(PAGES_FILE));
+            }
+            Path stateFile = stateDir.resolve(STATE_FILE);
+            Path temp = stateDir.resolve(STATE_FILE + ".tmp");
+            objectMapper.writeValue(temp.toFile(), state);
+            Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not persist sync state to {}: {}", stateDir, e.getMessage());
+        }
+    }
+    
+    /**
+     * Outcome of a single sync run
+     */
+    public record SyncResult(
+        int scanned,
+        int fetched,
+        int removed,
+        int failed,
+        int mirrored,
+        Instant watermark,
+        long durationMillis
+    ) {}
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package io.github.greenstevester.confluencemcpsvr.sync;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persisted progress of a whole-instance crawl
+ *
+ * @param startedAt when the crawl started; resuming keeps the original time
+ * @param spaces every space the crawl covers, or null until the spaces have been listed
+ * @param offsets listing offset reached in each space that is partly crawled
+ * @param completedSpaces spaces whose pages have all been mirrored
+ * @param pagesCrawled pages listed so far, across resumes
+ * @param completedAt when the last space finished, or null while the crawl is unfinished
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CrawlCheckpoint(
+    Instant startedAt,
+    List<String> spaces,
+    Map<String, Integer> offsets,
+    Set<String> completedSpaces,
+    long pagesCrawled,
+    Instant completedAt
+) {
+    
+    @JsonIgnore
+    public boolean isComplete() {
+        return completedAt != null;
+    }
+}
\ No newline at end of file
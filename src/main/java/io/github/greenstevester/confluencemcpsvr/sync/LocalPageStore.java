@@ -0,0 +1,251 @@
+package io.github.greenstevester.confluencemcpsvr.sync;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Local mirror of Confluence pages kept up to date by the sync engine.
+ * Components that build derived structures (indexes, graphs) register a {@link PageChangeListener}
+ * and are notified of every change in the order it was applied.
+ * <p>
+ * The mirror is persisted as a snapshot file plus a change log beside it. {@link #appendChanges}
+ * appends only the pages changed since the last write, which keeps frequent checkpoints cheap on
+ * a large mirror; {@link #save} writes a fresh snapshot and drops the log; {@link #load} reads the
+ * snapshot and replays the log on top.
+ */
+@Component
+public class LocalPageStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LocalPageStore.class);
+    
+    private final Map<String, MirroredPage> pages = new ConcurrentHashMap<>();
+    private final List<PageChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final Object saveLock = new Object();
+    // IDs of pages added, replaced or removed since they were last written to the snapshot or the log
+    private final Set<String> unsaved = ConcurrentHashMap.newKeySet();
+    // Version each removed page had, logged with its removal until a snapshot supersedes it
+    private final Map<String, Integer> removedVersions = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * One line of the change log: a page as it now is, or the ID and last version of a removed page
+     */
+    record LoggedChange(MirroredPage page, String removedId, Integer removedVersion) {}
+    
+    public LocalPageStore(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Register a listener and replay the pages already mirrored to it
+     */
+    public synchronized void addListener(PageChangeListener listener) {
+        listeners.add(listener);
+        pages.values().forEach(page -> listener.onPageUpserted(page, null));
+    }
+    
+    public MirroredPage get(String pageId) {
+        return pageId != null ? pages.get(pageId) : null;
+    }
+    
+    public Collection<MirroredPage> all() {
+        return Collections.unmodifiableCollection(pages.values());
+    }
+    
+    public int size() {
+        return pages.size();
+    }
+    
+    public boolean isEmpty() {
+        return pages.isEmpty();
+    }
+    
+    /**
+     * Whether pages were added, replaced or removed since the mirror was last saved, logged or loaded
+     */
+    public boolean hasUnsavedChanges() {
+        return !unsaved.isEmpty();
+    }
+    
+    /**
+     * Add or replace a page and notify listeners
+     */
+    public synchronized void upsert(MirroredPage page) {
+        MirroredPage previous = pages.put(page.id(), page);
+        unsaved.add(page.id());
+        removedVersions.remove(page.id());
+        for (PageChangeListener listener : listeners) {
+            try {
+                listener.onPageUpserted(page, previous);
+            } catch (RuntimeException e) {
+                logger.warn("Page listener {} failed for page {}: {}",
+                    listener.getClass().getSimpleName(), page.id(), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Remove a page and notify listeners
+     *
+     * @return true if the page was mirrored
+     */
+    public synchronized boolean remove(String pageId) {
+        MirroredPage removed = pageId != null ? pages.remove(pageId) : null;
+        if (removed == null) {
+            return false;
+        }
+        unsaved.add(pageId);
+        removedVersions.put(pageId, removed.version());
+        for (PageChangeListener listener : listeners) {
+            try {
+                listener.onPageRemoved(removed);
+            } catch (RuntimeException e) {
+                logger.warn("Page listener {} failed removing page {}: {}",
+                    listener.getClass().getSimpleName(), pageId, e.getMessage());
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Load a previously saved mirror and replay its change log, notifying listeners of every page
+     */
+    public void load(Path file) throws IOException {
+        synchronized (saveLock) {
+            if (Files.exists(file)) {
+                List<MirroredPage> loaded = objectMapper.readValue(file.toFile(), new TypeReference<List<MirroredPage>>() {});
+                loaded.forEach(this::upsert);
+                logger.info("Loaded {} mirrored pages from {}", loaded.size(), file);
+            }
+            Path log = logFile(file);
+            if (Files.exists(log)) {
+                int replayed = replay(log);
+                logger.info("Replayed {} logged page changes from {}", replayed, log);
+            }
+            unsaved.clear();
+            removedVersions.clear();
+        }
+    }
+    
+    /**
+     * Save the mirror atomically so a crash mid-write never leaves a truncated file, then drop the
+     * change log it supersedes. Both the sync and the crawler write the mirror, so writes are
+     * serialised on their own lock to keep them off each other's files without blocking upserts.
+     */
+    public void save(Path file) throws IOException {
+        synchronized (saveLock) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            // Changes made while the copy is written stay unsaved and go out with the next write
+            List<String> saving = drainUnsaved();
+            try {
+                objectMapper.writeValue(temp.toFile(), new ArrayList<>(pages.values()));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                unsaved.addAll(saving);
+                throw e;
+            }
+            saving.stream().filter(pageId -> !unsaved.contains(pageId)).forEach(removedVersions::remove);
+            Files.deleteIfExists(logFile(file));
+        }
+    }
+    
+    /**
+     * Append the pages changed since the mirror was last written to the change log of {@code file}
+     *
+     * @return number of changes appended
+     */
+    public int appendChanges(Path file) throws IOException {
+        synchronized (saveLock) {
+            List<String> changed = drainUnsaved();
+            if (changed.isEmpty()) {
+                return 0;
+            }
+            try {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(logFile(file), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (String pageId : changed) {
+                        MirroredPage page = pages.get(pageId);
+                        writer.write(objectMapper.writeValueAsString(
+                            page != null ? new LoggedChange(page, null, null)
+                                : new LoggedChange(null, pageId, removedVersions.get(pageId))));
+                        writer.newLine();
+                    }
+                }
+            } catch (IOException e) {
+                unsaved.addAll(changed);
+                throw e;
+            }
+            return changed.size();
+        }
+    }
+    
+    private List<String> drainUnsaved() {
+        List<String> drained = new ArrayList<>(unsaved);
+        drained.forEach(unsaved::remove);
+        return drained;
+    }
+    
+    /**
+     * Apply the logged changes in order. A torn last line from a crash mid-append ends the replay;
+     * an upsert or removal older than the mirrored copy, left over if a save could not delete the log,
+     * is skipped.
+     */
+    private int replay(Path log) throws IOException {
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                LoggedChange change;
+                try {
+                    change = objectMapper.readValue(line, LoggedChange.class);
+                } catch (JsonProcessingException e) {
+                    logger.warn("Stopped replaying {} at an unreadable entry: {}", log, e.getOriginalMessage());
+                    break;
+                }
+                if (change.page() != null) {
+                    MirroredPage current = pages.get(change.page().id());
+                    if (current == null || current.version() <= change.page().version()) {
+                        upsert(change.page());
+                    }
+                } else {
+                    MirroredPage current = pages.get(change.removedId());
+                    if (current != null && (change.removedVersion() == null || current.version() <= change.removedVersion())) {
+                        remove(change.removedId());
+                    }
+                }
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+    
+    private static Path logFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".log");
+    }
+}
\ No newline at end of file
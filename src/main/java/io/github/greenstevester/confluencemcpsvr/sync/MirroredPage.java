@@ -0,0 +1,23 @@
+package io.github.greenstevester.confluencemcpsvr.sync;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Local copy of a Confluence page's metadata and storage-format body
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record MirroredPage(
+    String id,
+    String title,
+    String spaceKey,
+    String status,
+    int version,
+    Instant lastModified,
+    String body,
+    Instant syncedAt,
+    List<String> labels,
+    String authorId
+) {}
\ No newline at end of file
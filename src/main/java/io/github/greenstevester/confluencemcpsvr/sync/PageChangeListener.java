@@ -0,0 +1,20 @@
+package io.github.greenstevester.confluencemcpsvr.sync;
+
+/**
+ * Callback for components that derive state from the local page mirror
+ */
+public interface PageChangeListener {
+    
+    /**
+     * Called after a page was added to or replaced in the mirror
+     *
+     * @param page the new copy of the page
+     * @param previous the copy it replaced, or null if the page is new
+     */
+    void onPageUpserted(MirroredPage page, MirroredPage previous);
+    
+    /**
+     * Called after a page was removed from the mirror
+     */
+    void onPageRemoved(MirroredPage page);
+}
\ No newline at end of file
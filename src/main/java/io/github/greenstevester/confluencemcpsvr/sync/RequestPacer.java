@@ -0,0 +1,38 @@
+package io.github.greenstevester.confluencemcpsvr.sync;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spaces requests of concurrent workers evenly, so that together they send at most one request
+ * per interval. Each caller reserves the next free slot and waits until it comes up; an idle
+ * pacer grants the next request immediately rather than allowing a burst to catch up.
+ */
+public final class RequestPacer {
+    
+    private final long intervalNanos;
+    private final AtomicLong nextSlot = new AtomicLong(Long.MIN_VALUE);
+    
+    public RequestPacer(Duration interval) {
+        this.intervalNanos = Math.max(0, interval.toNanos());
+    }
+    
+    /**
+     * Reserve the next request slot
+     *
+     * @return how long to wait before sending the request
+     */
+    public Duration reserve() {
+        return Duration.ofNanos(reserve(System.nanoTime()));
+    }
+    
+    long reserve(long now) {
+        while (true) {
+            long slot = nextSlot.get();
+            long granted = Math.max(slot, now);
+            if (nextSlot.compareAndSet(slot, granted + intervalNanos)) {
+                return granted - now;
+            }
+        }
+    }
+}
\ No newline at end of file
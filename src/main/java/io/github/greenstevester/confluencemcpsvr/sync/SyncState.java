@@ -0,0 +1,24 @@
+package io.github.greenstevester.confluencemcpsvr.sync;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.Instant;
+
+/**
+ * Persisted progress of the incremental sync
+ *
+ * @param watermark latest lastModified already mirrored; the next run asks for pages modified since then
+ * @param lastSuccessAt when the last complete sync run finished
+ * @param lastDeletionCheckAt when mirrored pages were last checked for deletion in Confluence
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SyncState(
+    Instant watermark,
+    Instant lastSuccessAt,
+    Instant lastDeletionCheckAt
+) {
+    
+    public static SyncState initial() {
+        return new SyncState(null, null, null);
+    }
+}
\ No newline at end of file
@@ -5,6 +5,7 @@ import io.github.greenstevester.confluencemcpsvr.model.dto.UpdatePageRequest;
 import io.github.greenstevester.confluencemcpsvr.model.enums.ContentStatus;
 import io.github.greenstevester.confluencemcpsvr.model.enums.PageSortOrder;
 import io.github.greenstevester.confluencemcpsvr.service.ConfluencePagesService;
+import io.github.greenstevester.confluencemcpsvr.service.PageHierarchyService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import io.github.greenstevester.confluencemcpsvr.annotation.AITool;
@@ -21,9 +22,11 @@ public class ConfluencePagesTools {
     private static final Logger logger = LoggerFactory.getLogger(ConfluencePagesTools.class);
     
     private final ConfluencePagesService pagesService;
+    private final PageHierarchyService hierarchyService;
     
-    public ConfluencePagesTools(ConfluencePagesService pagesService) {
+    public ConfluencePagesTools(ConfluencePagesService pagesService, PageHierarchyService hierarchyService) {
         this.pagesService = pagesService;
+        this.hierarchyService = hierarchyService;
     }
     
     /**
@@ -116,6 +119,36 @@ public class ConfluencePagesTools {
         }
     }
     
+    /**
+     * Show the page tree of a space, or the subtree under one page, down to a depth limit.
+     * <p>
+     * The space's tree is crawled breadth-first through the child-page endpoints on first use
+     * and cached, so later calls for any subtree of the same space answer locally.
+     * <p>
+     * EXAMPLES:
+     * - Top of a space: { "spaceKey": "DEV", "maxDepth": 1 }
+     * - Everything under a page: { "rootPageId": "123456", "maxDepth": 10 }
+     * - Re-crawl after restructuring: { "spaceKey": "DEV", "refresh": true }
+     */
+    @AITool(name = "get-page-tree", description = "Show the page hierarchy of a space or of the pages under one page, down to a depth limit")
+    public String getPageTree(GetPageTreeRequest request) {
+        logger.debug("get_page_tree tool called with: {}", request);
+        
+        try {
+            return hierarchyService.getPageTree(
+                request.spaceKey(),
+                request.rootPageId(),
+                request.maxDepth(),
+                request.limit(),
+                request.refresh()
+            ).block(); // Block for synchronous tool execution
+            
+        } catch (Exception e) {
+            logger.error("Error in get_page_tree tool", e);
+            return "Error getting page tree: " + e.getMessage();
+        }
+    }
+    
     /**
      * Request object for list_pages tool
      */
@@ -159,4 +192,15 @@ public class ConfluencePagesTools {
         Integer version,
         String parentId
     ) {}
+    
+    /**
+     * Request object for get_page_tree tool
+     */
+    public record GetPageTreeRequest(
+        String spaceKey,
+        String rootPageId,
+        Integer maxDepth,
+        Integer limit,
+        Boolean refresh
+    ) {}
 }
\ No newline at end of file
@@ -3,11 +3,16 @@ package io.github.greenstevester.confluencemcpsvr.tool;
 import io.github.greenstevester.confluencemcpsvr.service.DocumentationMiningService;
 import io.github.greenstevester.confluencemcpsvr.service.DocumentationAuditService;
 import io.github.greenstevester.confluencemcpsvr.service.BatchProcessingService;
+import io.github.greenstevester.confluencemcpsvr.service.AsyncJobService;
+import io.github.greenstevester.confluencemcpsvr.service.ScheduledAuditService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import io.github.greenstevester.confluencemcpsvr.annotation.AITool;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * MCP Tools for Documentation Mining and Analysis
@@ -20,13 +25,19 @@ public class DocumentationMiningTools {
     private final DocumentationMiningService miningService;
     private final DocumentationAuditService auditService;
     private final BatchProcessingService batchProcessingService;
+    private final ScheduledAuditService scheduledAuditService;
+    private final AsyncJobService asyncJobService;
     
     public DocumentationMiningTools(DocumentationMiningService miningService, 
                                    DocumentationAuditService auditService,
-                                   BatchProcessingService batchProcessingService) {
+                                   BatchProcessingService batchProcessingService,
+                                   ScheduledAuditService scheduledAuditService,
+                                   AsyncJobService asyncJobService) {
         this.miningService = miningService;
         this.auditService = auditService;
         this.batchProcessingService = batchProcessingService;
+        this.scheduledAuditService = scheduledAuditService;
+        this.asyncJobService = asyncJobService;
     }
     
     /**
@@ -58,15 +69,25 @@ public class DocumentationMiningTools {
      * - Technology coverage analysis
      * - Prioritized recommendations for documentation maintenance
      * 
+     * PRECOMPUTED RESULTS: With confluence.audit.schedule enabled the audit runs in the background
+     * on a cron, and calls with the scheduled maxResults (or none) return the latest report at once,
+     * headed by its age. Pass forceRefresh=true to run it now instead.
+     * 
+     * ASYNC: A live audit of a large instance can outlast the client's request timeout. With
+     * async=true the call returns a job ID at once; follow it with job-status and read the report
+     * with job-result.
+     * 
      * EXAMPLES:
      * - Full audit: { "maxResults": 100 }
      * - Quick assessment: { "maxResults": 25 }
      * - Default scope: { }
+     * - Fresh run instead of the precomputed report: { "forceRefresh": true }
+     * - Fresh run in the background: { "forceRefresh": true, "async": true }
      * 
      * BEST PRACTICES:
      * - Run monthly for active documentation maintenance
      * - Use results to prioritize documentation update tasks
-     * - Track improvements over time by comparing reports
+     * - Track improvements over time with audit-spaces snapshots and compare-audits
      * - Share results with team leads and documentation owners
      */
     @AITool(name = "audit-documentation", description = "Perform comprehensive documentation audit and analysis")
@@ -74,7 +95,9 @@ public class DocumentationMiningTools {
         logger.debug("audit_documentation tool called with: {}", request);
         
         try {
-            return miningService.performDocumentationAudit(request.maxResults()).block();
+            return runOrQueue(request.async(), "audit-documentation", "maxResults=" + request.maxResults(),
+                () -> scheduledAuditService.documentationAudit(request.maxResults(),
+                    Boolean.TRUE.equals(request.forceRefresh())));
             
         } catch (Exception e) {
             logger.error("Error in audit_documentation tool", e);
@@ -215,19 +238,27 @@ public class DocumentationMiningTools {
      * - Priority-based action recommendations
      * - Suggested audit schedule for ongoing maintenance
      * 
+     * PRECOMPUTED RESULTS: Checklists listed in confluence.audit.schedule.checklists are run in
+     * the background; calls with the scheduled limitPerQuery (or none) return the latest report
+     * with its age unless forceRefresh=true.
+     * 
+     * ASYNC: Pass async=true to queue the audit as a job and get its ID back immediately. While it
+     * runs, job-status counts the finished queries and job-result returns the report so far.
+     * 
      * EXAMPLES:
      * - Quality audit: { "checklistType": "quality", "limitPerQuery": 25 }
      * - Architecture review: { "checklistType": "architecture", "limitPerQuery": 50 }
      * - Full comprehensive audit: { "checklistType": "full", "limitPerQuery": 30 }
+     * - Full audit as a background job: { "checklistType": "full", "async": true }
      */
     public String executeSystematicAudit(SystematicAuditRequest request) {
         logger.debug("execute_systematic_audit tool called with: {}", request);
         
         try {
-            List<DocumentationAuditService.AuditQuery> queries = 
-                auditService.getAuditChecklist(request.checklistType() != null ? request.checklistType() : "quality");
-            
-            return auditService.executeSystematicAudit(queries, request.limitPerQuery()).block();
+            String checklistType = request.checklistType() != null ? request.checklistType() : "quality";
+            return runOrQueue(request.async(), "execute-systematic-audit", "checklistType=" + checklistType, true,
+                progress -> scheduledAuditService.systematicAudit(checklistType, request.limitPerQuery(),
+                    Boolean.TRUE.equals(request.forceRefresh()), progress));
             
         } catch (Exception e) {
             logger.error("Error in execute_systematic_audit tool", e);
@@ -235,6 +266,89 @@ public class DocumentationMiningTools {
         }
     }
     
+    /**
+     * Audit every page of one or more spaces against a checklist in a single streamed pass
+     * 
+     * Reads each page of the chosen spaces once, bodies included, and evaluates all checklist
+     * queries against it, instead of running one result-capped CQL search per query.
+     * 
+     * PURPOSE: Complete audit results for whole spaces with far fewer Confluence requests.
+     * 
+     * WHEN TO USE:
+     * - Full or multi-query checklists where capped per-query results would miss pages
+     * - Auditing specific spaces end to end
+     * 
+     * REQUIRES: Nothing extra; when background sync keeps a fresh mirror of the spaces, the pass
+     * runs locally without any Confluence requests.
+     * 
+     * PARAMETERS:
+     * - checklistType: Same checklists as the systematic audit (default "quality")
+     * - spaceKeys: Spaces to audit (default: all spaces)
+     * - limitPerQuery: Pages listed per query in the report; counts are never capped (default 50)
+     * - async: true to run the pass as a background job and return its job ID at once; use
+     *   job-status and job-result to follow it and fetch the report
+     * 
+     * EXAMPLES:
+     * - Full audit of two spaces: { "checklistType": "full", "spaceKeys": ["DEV", "OPS"] }
+     * - Quality audit of everything mirrored: { "checklistType": "quality", "limitPerQuery": 20 }
+     * - Whole instance without blocking: { "checklistType": "full", "async": true }
+     */
+    @AITool(name = "audit-spaces", description = "Audit every page of the given spaces against a checklist in one streamed pass")
+    public String auditSpaces(SpaceAuditRequest request) {
+        logger.debug("audit_spaces tool called with: {}", request);
+        
+        try {
+            String checklistType = request.checklistType() != null ? request.checklistType() : "quality";
+            List<DocumentationAuditService.AuditQuery> queries = auditService.getAuditChecklist(checklistType);
+            
+            return runOrQueue(request.async(), "audit-spaces",
+                "checklistType=" + checklistType + ", spaceKeys=" + (request.spaceKeys() != null ? request.spaceKeys() : "all"),
+                () -> auditService.executeStreamedAudit(queries, request.spaceKeys(), request.limitPerQuery()));
+            
+        } catch (Exception e) {
+            logger.error("Error in audit_spaces tool", e);
+            return "Error auditing spaces: " + e.getMessage();
+        }
+    }
+    
+    /**
+     * Compare two saved audit snapshots to see what got fixed and what regressed
+     * 
+     * Every audit-spaces run saves a compact snapshot of the pages each query flagged. This tool
+     * diffs two snapshots query by query and space by space.
+     * 
+     * PURPOSE: Track documentation quality over time instead of re-reading whole reports.
+     * 
+     * WHEN TO USE:
+     * - After a clean-up effort, to confirm which findings were resolved
+     * - Regular reviews of whether a space is improving or regressing
+     * 
+     * REQUIRES: At least two audit-spaces runs; snapshots are kept under confluence.audit.state-dir.
+     * 
+     * PARAMETERS:
+     * - baselineId: Older snapshot ID (default: the snapshot before currentId)
+     * - currentId: Newer snapshot ID (default: the latest snapshot)
+     * 
+     * RETURNS: Resolved and new findings per query, totals per space, and the resolved and new
+     * page IDs; if a snapshot is missing, the list of available snapshots.
+     * 
+     * EXAMPLES:
+     * - Latest two audits: { }
+     * - Since a known baseline: { "baselineId": "20260101-090000" }
+     */
+    @AITool(name = "compare-audits", description = "Compare two saved audit snapshots and report resolved and new findings")
+    public String compareAudits(CompareAuditsRequest request) {
+        logger.debug("compare_audits tool called with: {}", request);
+        
+        try {
+            return auditService.compareAudits(request.baselineId(), request.currentId()).block();
+            
+        } catch (Exception e) {
+            logger.error("Error in compare_audits tool", e);
+            return "Error comparing audits: " + e.getMessage();
+        }
+    }
+    
     /**
      * Execute specific audit query for targeted analysis
      * 
@@ -308,6 +422,8 @@ public class DocumentationMiningTools {
         result.append("- **operations** - Operational and process documentation\n");
         result.append("- **compliance** - Compliance and governance documentation\n");
         result.append("- **full** - Complete audit using all available queries\n\n");
+        result.append("Use **audit-spaces** to run any checklist over every page of chosen spaces in one pass, ")
+              .append("and **compare-audits** to see what changed between two of those runs.\n\n");
         
         // Individual queries
         result.append("## Specific Audit Queries\n\n");
@@ -379,16 +495,22 @@ public class DocumentationMiningTools {
      * - Apply changes: { "pageIds": ["123", "456"], "updateTemplate": "standardization", "dryRun": false }
      * 
      * SAFETY: Always use dryRun=true first to preview changes before applying.
+     * Applied updates run as a journaled job whose ID heads the report; if the server restarts
+     * part-way, the job resumes on startup and pages already updated are not updated again.
+     * Pass async=true to queue the batch and poll job-status, which shows the batch job ID and how
+     * many pages are done, instead of waiting for every page. Queued batches that apply changes are
+     * never timed out or cancelled.
      */
     public String batchUpdatePages(BatchUpdateRequest request) {
         logger.debug("batch_update_pages tool called with: {}", request);
         
         try {
-            return batchProcessingService.batchUpdatePages(
-                request.pageIds(), 
-                request.updateTemplate(), 
-                request.dryRun() != null ? request.dryRun() : true
-            ).block();
+            boolean dryRun = request.dryRun() != null ? request.dryRun() : true;
+            // Applied updates are journaled and must not be cut off part-way, so they are never cancelled
+            return runOrQueue(request.async(), "batch-update-pages",
+                (request.pageIds() != null ? request.pageIds().size() : 0) + " pages, dryRun=" + dryRun, dryRun,
+                progress -> batchProcessingService.batchUpdatePages(request.pageIds(), request.updateTemplate(), dryRun,
+                    progress::update));
             
         } catch (Exception e) {
             logger.error("Error in batch_update_pages tool", e);
@@ -425,15 +547,15 @@ public class DocumentationMiningTools {
      * - Analyze freshness in specific spaces: { "spaceIds": ["DEV", "OPS"], "analysisType": "freshness" }
      * - Check completeness across all spaces: { "spaceIds": null, "analysisType": "completeness" }
      * - Consistency review: { "spaceIds": ["DOCS"], "analysisType": "consistency" }
+     * - Queued as a background job: { "spaceIds": ["DEV"], "analysisType": "freshness", "async": true }
      */
     public String batchAnalyzeContent(BatchAnalysisRequest request) {
         logger.debug("batch_analyze_content tool called with: {}", request);
         
         try {
-            return batchProcessingService.batchAnalyzeContent(
-                request.spaceIds(), 
-                request.analysisType() != null ? request.analysisType() : "freshness"
-            ).block();
+            String analysisType = request.analysisType() != null ? request.analysisType() : "freshness";
+            return runOrQueue(request.async(), "batch-analyze-content", "analysisType=" + analysisType,
+                () -> batchProcessingService.batchAnalyzeContent(request.spaceIds(), analysisType));
             
         } catch (Exception e) {
             logger.error("Error in batch_analyze_content tool", e);
@@ -455,6 +577,8 @@ public class DocumentationMiningTools {
      * - Improving user journey through related information
      * 
      * RELATIONSHIP DISCOVERY:
+     * - Pages ranked by TF-IDF cosine similarity to each keyword set when a fresh background-sync
+     *   mirror holds every space; otherwise one CQL text search per keyword set
      * - Keyword-based content correlation
      * - Topic clustering and similarity analysis
      * - Cross-reference opportunity identification
@@ -485,13 +609,33 @@ public class DocumentationMiningTools {
         }
     }
     
+    /**
+     * Run a tool call now, or queue it as an async job when the request asks for one
+     */
+    private String runOrQueue(Boolean async, String tool, String summary, Supplier<Mono<String>> call) {
+        return runOrQueue(async, tool, summary, true, progress -> call.get());
+    }
+    
+    /**
+     * Run a tool call now, or queue it as an async job whose progress {@code job-status} shows
+     */
+    private String runOrQueue(Boolean async, String tool, String summary, boolean cancellable,
+                              Function<AsyncJobService.Progress, Mono<String>> call) {
+        if (Boolean.TRUE.equals(async)) {
+            return asyncJobService.submit(tool, summary, call, cancellable);
+        }
+        return call.apply(AsyncJobService.Progress.NONE).block();
+    }
+    
     // Request objects for all tools
     
     /**
      * Request object for documentation audit tool
      */
     public record DocumentationAuditRequest(
-        Integer maxResults
+        Integer maxResults,
+        Boolean forceRefresh,
+        Boolean async
     ) {}
     
     /**
@@ -506,7 +650,27 @@ public class DocumentationMiningTools {
      */
     public record SystematicAuditRequest(
         String checklistType,
-        Integer limitPerQuery
+        Integer limitPerQuery,
+        Boolean forceRefresh,
+        Boolean async
+    ) {}
+    
+    /**
+     * Request object for streamed space audit
+     */
+    public record SpaceAuditRequest(
+        String checklistType,
+        List<String> spaceKeys,
+        Integer limitPerQuery,
+        Boolean async
+    ) {}
+    
+    /**
+     * Request object for audit snapshot comparison
+     */
+    public record CompareAuditsRequest(
+        String baselineId,
+        String currentId
     ) {}
     
     /**
@@ -523,7 +687,8 @@ public class DocumentationMiningTools {
     public record BatchUpdateRequest(
         List<String> pageIds,
         String updateTemplate,
-        Boolean dryRun
+        Boolean dryRun,
+        Boolean async
     ) {}
     
     /**
@@ -531,7 +696,8 @@ public class DocumentationMiningTools {
      */
     public record BatchAnalysisRequest(
         List<String> spaceIds,
-        String analysisType
+        String analysisType,
+        Boolean async
     ) {}
     
     /**
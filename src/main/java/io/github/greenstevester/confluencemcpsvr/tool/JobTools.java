@@ -0,0 +1,105 @@
+package io.github.greenstevester.confluencemcpsvr.tool;
+
+import io.github.greenstevester.confluencemcpsvr.annotation.AITool;
+import io.github.greenstevester.confluencemcpsvr.service.AsyncJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * MCP Tools for following and collecting asynchronous jobs
+ */
+@Service
+public class JobTools {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobTools.class);
+    
+    private final AsyncJobService asyncJobService;
+    
+    public JobTools(AsyncJobService asyncJobService) {
+        this.asyncJobService = asyncJobService;
+    }
+    
+    /**
+     * Report the state of an asynchronous job, or list all recent jobs
+     *
+     * PURPOSE: Follow a long-running tool call started with "async": true without holding a request open.
+     *
+     * WHEN TO USE:
+     * - After a tool returned a job ID instead of its report
+     * - To see whether the job queue has room before submitting more work
+     *
+     * PARAMETERS:
+     * - jobId: The job ID returned when the job was queued; omit it to list every job still retained
+     *
+     * RETURNS: State (queued, running, succeeded, failed), queue position or run time, and for a
+     * finished job the output size and number of parts, or the error.
+     *
+     * EXAMPLES:
+     * - One job: { "jobId": "async-20260115-101500-3fa2" }
+     * - All jobs and queue depth: { }
+     */
+    @AITool(name = "job-status", description = "Report the state, queue position and run time of an async job, or list recent jobs. PURPOSE: Poll long tool calls started with async=true.")
+    public String jobStatus(JobStatusRequest request) {
+        logger.debug("job_status tool called with: {}", request);
+        
+        try {
+            return asyncJobService.status(request != null ? request.jobId() : null);
+        
+        } catch (Exception e) {
+            logger.error("Error in job_status tool", e);
+            return "Error getting job status: " + e.getMessage();
+        }
+    }
+    
+    /**
+     * Fetch the output of a finished asynchronous job, one part at a time
+     *
+     * PURPOSE: Retrieve the report of a long-running tool call in parts small enough for the client.
+     *
+     * WHEN TO USE:
+     * - Once job-status shows the job has succeeded
+     * - To page through a large audit report part by part
+     *
+     * PARAMETERS:
+     * - jobId: The job ID returned when the job was queued
+     * - part: Which part of the output to return, starting at 1 (default 1); each part ends with
+     *   the call for the next one
+     *
+     * RETURNS: The Markdown report the tool would have returned, or the requested part of it;
+     * the error if the job failed; a reminder to wait if it has not finished.
+     *
+     * EXAMPLES:
+     * - First part: { "jobId": "async-20260115-101500-3fa2" }
+     * - Third part: { "jobId": "async-20260115-101500-3fa2", "part": 3 }
+     */
+    @AITool(name = "job-result", description = "Fetch the output of a finished async job, split into parts for large reports. PURPOSE: Collect the report of a tool call started with async=true.")
+    public String jobResult(JobResultRequest request) {
+        logger.debug("job_result tool called with: {}", request);
+        
+        try {
+            return asyncJobService.result(request.jobId(), request.part());
+        
+        } catch (Exception e) {
+            logger.error("Error in job_result tool", e);
+            return "Error getting job result: " + e.getMessage();
+        }
+    }
+    
+    // Request objects for all tools
+    
+    /**
+     * Request object for job-status tool
+     */
+    public record JobStatusRequest(
+        String jobId
+    ) {}
+    
+    /**
+     * Request object for job-result tool
+     */
+    public record JobResultRequest(
+        String jobId,
+        Integer part
+    ) {}
+}
\ No newline at end of file
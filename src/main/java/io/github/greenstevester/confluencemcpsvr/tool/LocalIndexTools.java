@@ -0,0 +1,307 @@
+package io.github.greenstevester.confluencemcpsvr.tool;
+
+import io.github.greenstevester.confluencemcpsvr.annotation.AITool;
+import io.github.greenstevester.confluencemcpsvr.service.LocalIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * MCP Tools answered from the local page mirror without calling Confluence
+ */
+@Service
+public class LocalIndexTools {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LocalIndexTools.class);
+    
+    private final LocalIndexService localIndexService;
+    
+    public LocalIndexTools(LocalIndexService localIndexService) {
+        this.localIndexService = localIndexService;
+    }
+    
+    /**
+     * Find pages by label, space and status using the local bitmap index
+     *
+     * PURPOSE: Answer label-based lookups instantly without a CQL round trip per combination.
+     *
+     * WHEN TO USE:
+     * - Finding all pages tagged with a label, e.g. every "runbook" in the OPS space
+     * - Combining labels: pages that carry all of several labels, or any of them
+     * - Excluding labels, e.g. runbooks that are not labelled "deprecated"
+     *
+     * REQUIRES: Background sync (confluence.sync.enabled=true) so the local mirror is populated.
+     *
+     * PARAMETERS:
+     * - labels: Labels to match (case-insensitive)
+     * - matchAll: true (default) requires every label, false requires at least one
+     * - excludeLabels: Pages carrying any of these labels are left out
+     * - spaceKeys: Restrict to these spaces (exact keys)
+     * - statuses: Page statuses to include (default: current)
+     * - limit: Maximum pages to list (default 25, max 200); the total match count is always reported
+     *
+     * EXAMPLES:
+     * - Runbooks in OPS: { "labels": ["runbook"], "spaceKeys": ["OPS"] }
+     * - Either label: { "labels": ["howto", "tutorial"], "matchAll": false }
+     * - Exclude: { "labels": ["api"], "excludeLabels": ["deprecated", "draft"] }
+     */
+    @AITool(name = "query-by-labels", description = "Find pages by label, space and status from the local index. PURPOSE: Instantly combine label filters (all/any/exclude) with space and status without CQL round trips. Requires background sync to be enabled.")
+    public String queryByLabels(QueryByLabelsRequest request) {
+        logger.debug("query_by_labels tool called with: {}", request);
+        
+        try {
+            return localIndexService.queryByLabels(
+                request.labels(),
+                request.matchAll(),
+                request.excludeLabels(),
+                request.spaceKeys(),
+                request.statuses(),
+                request.limit()
+            ).block();
+        
+        } catch (Exception e) {
+            logger.error("Error in query_by_labels tool", e);
+            return "Error querying pages by label: " + e.getMessage();
+        }
+    }
+    
+    /**
+     * Find pages by approximate title using the local trigram index
+     *
+     * PURPOSE: Resolve a remembered or guessed page title to page IDs without trial-and-error CQL.
+     *
+     * WHEN TO USE:
+     * - You know roughly what a page is called but not its ID
+     * - The title may be misspelled, abbreviated or only partially remembered
+     * - Before get-page, to turn a title into a page ID
+     *
+     * REQUIRES: Background sync (confluence.sync.enabled=true); pages created or updated through
+     * this server are indexed immediately as well.
+     *
+     * PARAMETERS:
+     * - title: The title or title fragment to look for
+     * - spaceKeys: Restrict to these spaces (optional)
+     * - minScore: Similarity threshold from 0 to 1 (default 0.3); 1 means an exact title
+     * - limit: Maximum matches to return (default 10)
+     *
+     * EXAMPLES:
+     * - Typo-tolerant: { "title": "deploymnet guide" }
+     * - Fragment in a space: { "title": "onboarding", "spaceKeys": ["HR"] }
+     */
+    @AITool(name = "find-page-by-title", description = "Find pages by approximate title (typos and fragments allowed) from the local index. PURPOSE: Turn a guessed page title into page IDs instantly, without repeated title~ CQL searches.")
+    public String findPageByTitle(FindPageByTitleRequest request) {
+        logger.debug("find_page_by_title tool called with: {}", request);
+        
+        try {
+            return localIndexService.findPageByTitle(
+                request.title(),
+                request.spaceKeys(),
+                request.minScore(),
+                request.limit()
+            ).block();
+            
+        } catch (Exception e) {
+            logger.error("Error in find_page_by_title tool", e);
+            return "Error finding page by title: " + e.getMessage();
+        }
+    }
+    
+    /**
+     * Find orphaned, dead-end and most-linked pages from the local page link graph
+     *
+     * PURPOSE: Show how well documentation is connected, using the links inside page bodies.
+     *
+     * WHEN TO USE:
+     * - Finding orphaned pages that nothing links to and readers cannot navigate to
+     * - Finding dead-end pages that link nowhere else
+     * - Identifying hub pages that many other pages depend on
+     *
+     * REQUIRES: Background sync (confluence.sync.enabled=true) so page bodies are mirrored locally.
+     *
+     * PARAMETERS:
+     * - spaceKeys: Report on pages in these spaces (links from any space count); default all
+     * - limit: Maximum pages listed per category (default 15, max 200); totals are always reported
+     *
+     * EXAMPLES:
+     * - Whole mirror: {}
+     * - One space: { "spaceKeys": ["DEV"], "limit": 50 }
+     */
+    @AITool(name = "analyze-page-links", description = "Find orphaned, dead-end and hub pages from the local page link graph. PURPOSE: Measure documentation connectivity from links in page bodies without fetching pages. Requires background sync to be enabled.")
+    public String analyzePageLinks(AnalyzePageLinksRequest request) {
+        logger.debug("analyze_page_links tool called with: {}", request);
+        
+        try {
+            return localIndexService.analyzePageLinks(request.spaceKeys(), request.limit()).block();
+            
+        } catch (Exception e) {
+            logger.error("Error in analyze_page_links tool", e);
+            return "Error analyzing page links: " + e.getMessage();
+        }
+    }
+    
+    /**
+     * List the link neighbourhood of a page from the local page link graph
+     *
+     * PURPOSE: Suggest related content by following links in and out of a page.
+     *
+     * WHEN TO USE:
+     * - Finding what a page links to and which pages link back to it
+     * - Suggesting related pages that share links with this one
+     * - Checking the impact of moving or deleting a page
+     *
+     * REQUIRES: Background sync (confluence.sync.enabled=true) so page bodies are mirrored locally.
+     *
+     * PARAMETERS:
+     * - pageId: The page to look up
+     * - limit: Maximum pages listed per section (default 15, max 200)
+     *
+     * EXAMPLES:
+     * - { "pageId": "123456789" }
+     */
+    @AITool(name = "get-page-links", description = "List pages linked to and from a page, plus related pages that share its links, from the local link graph. PURPOSE: Related-content suggestions and impact checks without fetching pages.")
+    public String getPageLinks(GetPageLinksRequest request) {
+        logger.debug("get_page_links tool called with: {}", request);
+        
+        try {
+            return localIndexService.getPageLinks(request.pageId(), request.limit()).block();
+            
+        } catch (Exception e) {
+            logger.error("Error in get_page_links tool", e);
+            return "Error getting page links: " + e.getMessage();
+        }
+    }
+    
+    /**
+     * Find near-duplicate pages across spaces using MinHash signatures of the mirrored page bodies
+     *
+     * PURPOSE: Surface copy-pasted and drifting duplicate documentation that keyword search cannot find.
+     *
+     * WHEN TO USE:
+     * - Finding pages copied between spaces that should be consolidated
+     * - Cleaning up duplicated how-tos, runbooks or templates
+     * - Before creating a page, checking whether similar content already exists elsewhere
+     *
+     * REQUIRES: Background sync (confluence.sync.enabled=true) so page bodies are mirrored locally.
+     * Pages under 20 words are not compared.
+     *
+     * PARAMETERS:
+     * - threshold: Minimum estimated similarity from 0.1 to 1 (default 0.8); 1 means identical text
+     * - spaceKeys: Only report clusters that include a page in these spaces (optional)
+     * - limit: Maximum clusters to return (default 20, max 200)
+     *
+     * EXAMPLES:
+     * - Close copies anywhere: {}
+     * - Looser matches involving DEV: { "threshold": 0.6, "spaceKeys": ["DEV"] }
+     */
+    @AITool(name = "find-duplicate-pages", description = "Find clusters of near-duplicate pages across all spaces from the local MinHash index. PURPOSE: Detect copy-pasted or diverging copies of documentation above a similarity threshold, in roughly linear time.")
+    public String findDuplicatePages(FindDuplicatePagesRequest request) {
+        logger.debug("find_duplicate_pages tool called with: {}", request);
+        
+        try {
+            return localIndexService.findDuplicatePages(request.threshold(), request.spaceKeys(), request.limit()).block();
+            
+        } catch (Exception e) {
+            logger.error("Error in find_duplicate_pages tool", e);
+            return "Error finding duplicate pages: " + e.getMessage();
+        }
+    }
+    
+    /**
+     * Find pages with similar content using local TF-IDF vectors
+     *
+     * PURPOSE: Suggest related content by what pages are about, not just by links or titles.
+     *
+     * WHEN TO USE:
+     * - Finding pages related to one you are reading or editing
+     * - Finding existing pages about a topic described in a sentence or a few keywords
+     * - Choosing cross-links for a new page
+     *
+     * REQUIRES: Background sync (confluence.sync.enabled=true) so page bodies are mirrored locally.
+     *
+     * PARAMETERS:
+     * - pageId: Find pages similar to this mirrored page
+     * - text: Or find pages similar to this text or keyword set (used when pageId is not given)
+     * - spaceKeys: Only return pages from these spaces (optional)
+     * - limit: Maximum pages to return (default 10, max 200)
+     *
+     * EXAMPLES:
+     * - Like a page: { "pageId": "123456789" }
+     * - About a topic: { "text": "kafka consumer lag alerting", "spaceKeys": ["OPS"] }
+     */
+    @AITool(name = "find-similar-pages", description = "Find pages with similar content to a page or to free text, ranked by local TF-IDF cosine similarity. PURPOSE: Related-content suggestions in milliseconds without a remote search per query.")
+    public String findSimilarPages(FindSimilarPagesRequest request) {
+        logger.debug("find_similar_pages tool called with: {}", request);
+        
+        try {
+            return localIndexService.findSimilarPages(
+                request.pageId(),
+                request.text(),
+                request.spaceKeys(),
+                request.limit()
+            ).block();
+            
+        } catch (Exception e) {
+            logger.error("Error in find_similar_pages tool", e);
+            return "Error finding similar pages: " + e.getMessage();
+        }
+    }
+    
+    /**
+     * Request object for query-by-labels tool
+     */
+    public record QueryByLabelsRequest(
+        List<String> labels,
+        Boolean matchAll,
+        List<String> excludeLabels,
+        List<String> spaceKeys,
+        List<String> statuses,
+        Integer limit
+    ) {}
+    
+    /**
+     * Request object for find-page-by-title tool
+     */
+    public record FindPageByTitleRequest(
+        String title,
+        List<String> spaceKeys,
+        Double minScore,
+        Integer limit
+    ) {}
+    
+    /**
+     * Request object for analyze-page-links tool
+     */
+    public record AnalyzePageLinksRequest(
+        List<String> spaceKeys,
+        Integer limit
+    ) {}
+    
+    /**
+     * Request object for get-page-links tool
+     */
+    public record GetPageLinksRequest(
+        String pageId,
+        Integer limit
+    ) {}
+    
+    /**
+     * Request object for find-duplicate-pages tool
+     */
+    public record FindDuplicatePagesRequest(
+        Double threshold,
+        List<String> spaceKeys,
+        Integer limit
+    ) {}
+    
+    /**
+     * Request object for find-similar-pages tool
+     */
+    public record FindSimilarPagesRequest(
+        String pageId,
+        String text,
+        List<String> spaceKeys,
+        Integer limit
+    ) {}
+}
\ No newline at end of file
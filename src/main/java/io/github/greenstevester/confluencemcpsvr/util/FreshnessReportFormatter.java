@@ -0,0 +1,156 @@
+package io.github.greenstevester.confluencemcpsvr.util;
+
+import io.github.greenstevester.confluencemcpsvr.index.PageMetadataColumns;
+import io.github.greenstevester.confluencemcpsvr.index.PageMetadataColumns.MetadataRow;
+import io.github.greenstevester.confluencemcpsvr.index.PageMetadataColumns.SpaceStaleness;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Formats freshness analytics from the page metadata columns as Markdown
+ */
+@Component
+public class FreshnessReportFormatter {
+    
+    private static final List<Duration> AGE_BUCKETS = List.of(
+        Duration.ofDays(30), Duration.ofDays(90), Duration.ofDays(180),
+        Duration.ofDays(365), Duration.ofDays(730)
+    );
+    
+    private static final List<String> AGE_BUCKET_LABELS = List.of(
+        "🟩 < 1 month", "🟩 1-3 months", "🟩 3-6 months",
+        "🟨 6-12 months", "🟥 1-2 years", "🟥 > 2 years"
+    );
+    
+    // Buckets from this index on are older than 6 months
+    private static final int FIRST_STALE_BUCKET = 3;
+    private static final int BAR_WIDTH = 20;
+    private static final int MAX_SPACES = 10;
+    
+    private final PageMetadataColumns metadataColumns;
+    private final MarkdownFormatter markdownFormatter;
+    
+    public FreshnessReportFormatter(PageMetadataColumns metadataColumns, MarkdownFormatter markdownFormatter) {
+        this.metadataColumns = metadataColumns;
+        this.markdownFormatter = markdownFormatter;
+    }
+    
+    /**
+     * Table of page counts per age bucket
+     *
+     * @param spaceKeys spaces to include, or null/empty for all
+     */
+    public String formatAgeDistribution(Collection<String> spaceKeys) {
+        int[] counts = metadataColumns.ageHistogram(Instant.now(), AGE_BUCKETS, spaceKeys);
+        int total = 0;
+        int max = 1;
+        for (int count : counts) {
+            total += count;
+            max = Math.max(max, count);
+        }
+        
+        StringBuilder result = new StringBuilder();
+        result.append("**Age Distribution** (").append(total).append(" pages):\n\n")
+              .append("| Age | Pages | Share | |\n")
+              .append("|-----|------:|------:|---|\n");
+        for (int i = 0; i < counts.length; i++) {
+            int share = total > 0 ? Math.round(100f * counts[i] / total) : 0;
+            result.append("| ").append(AGE_BUCKET_LABELS.get(i))
+                  .append(" | ").append(counts[i])
+                  .append(" | ").append(share).append("%")
+                  .append(" | ").append("█".repeat(Math.round((float) BAR_WIDTH * counts[i] / max)))
+                  .append(" |\n");
+        }
+        return result.toString();
+    }
+    
+    /**
+     * Number of pages not modified for more than 6 months
+     *
+     * @param spaceKeys spaces to include, or null/empty for all
+     */
+    public int countStalePages(Collection<String> spaceKeys) {
+        int[] counts = metadataColumns.ageHistogram(Instant.now(), AGE_BUCKETS, spaceKeys);
+        int stale = 0;
+        for (int i = FIRST_STALE_BUCKET; i < counts.length; i++) {
+            stale += counts[i];
+        }
+        return stale;
+    }
+    
+    /**
+     * Table of the stalest spaces by 90th percentile page age
+     *
+     * @param spaceKeys spaces to include, or null/empty for all
+     */
+    public String formatSpaceStaleness(Collection<String> spaceKeys) {
+        List<SpaceStaleness> staleness = metadataColumns.spaceStaleness(Instant.now()).stream()
+            .filter(space -> spaceKeys == null || spaceKeys.isEmpty() || spaceKeys.contains(space.spaceKey()))
+            .limit(MAX_SPACES)
+            .toList();
+        if (staleness.isEmpty()) {
+            return "";
+        }
+        
+        StringBuilder result = new StringBuilder();
+        result.append("**Staleness by Space:**\n\n")
+              .append("| Space | Pages | Median Age | p90 Age | Oldest |\n")
+              .append("|-------|------:|-----------:|--------:|-------:|\n");
+        for (SpaceStaleness space : staleness) {
+            result.append("| ").append(space.spaceKey())
+                  .append(" | ").append(space.pages())
+                  .append(" | ").append(formatAge(space.medianAge()))
+                  .append(" | ").append(formatAge(space.p90Age()))
+                  .append(" | ").append(formatAge(space.maxAge()))
+                  .append(" |\n");
+        }
+        return result.toString();
+    }
+    
+    /**
+     * Numbered list of the least recently modified pages
+     *
+     * @param spaceKeys spaces to include, or null/empty for all
+     */
+    public String formatOldestPages(int limit, Collection<String> spaceKeys) {
+        List<MetadataRow> oldest = metadataColumns.oldest(limit, spaceKeys);
+        if (oldest.isEmpty()) {
+            return "";
+        }
+        
+        Instant now = Instant.now();
+        StringBuilder result = new StringBuilder();
+        result.append("**Oldest Pages (by last modification):**\n\n");
+        for (int i = 0; i < oldest.size(); i++) {
+            MetadataRow row = oldest.get(i);
+            result.append(i + 1).append(". Page ").append(markdownFormatter.formatInlineCode(row.pageId()))
+                  .append(row.spaceKey() != null ? " in " + row.spaceKey() : "")
+                  .append(" - last modified ")
+                  .append(markdownFormatter.formatDate(LocalDateTime.ofInstant(row.lastModified(), ZoneOffset.UTC)))
+                  .append(" (").append(formatAge(Duration.between(row.lastModified(), now))).append(" ago")
+                  .append(", v").append(row.version());
+            if (row.authorId() != null) {
+                result.append(", by ").append(row.authorId());
+            }
+            result.append(")\n");
+        }
+        return result.toString();
+    }
+    
+    private String formatAge(Duration age) {
+        long days = age.toDays();
+        if (days < 60) {
+            return days + "d";
+        }
+        if (days < 730) {
+            return (days / 30) + " months";
+        }
+        return String.format("%.1f years", days / 365.0);
+    }
+}
\ No newline at end of file
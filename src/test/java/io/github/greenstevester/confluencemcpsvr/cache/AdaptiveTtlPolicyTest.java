@@ -0,0 +1,80 @@
+package io.github.greenstevester.confluencemcpsvr.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdaptiveTtlPolicy
+ */
+@DisplayName("AdaptiveTtlPolicy Tests")
+class AdaptiveTtlPolicyTest {
+    
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final long DAY = Duration.ofDays(1).toMillis();
+    
+    private final AdaptiveTtlPolicy policy = new AdaptiveTtlPolicy(
+        Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofHours(24), 0.1);
+    
+    @Test
+    @DisplayName("Should use default TTL for a page seen once without modification date")
+    void testDefaultTtlWithoutHistory() {
+        PageChangeHistory history = PageChangeHistory.first(3, 1_000, 0);
+        
+        assertEquals(Duration.ofMinutes(5).toMillis(), policy.ttlMillis(history, 1_000));
+    }
+    
+    @Test
+    @DisplayName("Should give frequently edited pages the minimum TTL")
+    void testFastChangingPage() {
+        long start = 10 * DAY;
+        PageChangeHistory history = PageChangeHistory.first(1, start, 0)
+            .observe(21, start + HOUR, 0);
+        
+        assertEquals(Duration.ofSeconds(30).toMillis(), policy.ttlMillis(history, start + HOUR));
+    }
+    
+    @Test
+    @DisplayName("Should give long-untouched pages the maximum TTL")
+    void testStaticPage() {
+        long now = 400 * DAY;
+        PageChangeHistory history = PageChangeHistory.first(7, now, now - 365 * DAY);
+        
+        assertEquals(DAY, policy.ttlMillis(history, now));
+    }
+    
+    @Test
+    @DisplayName("Should scale TTL inversely with the observed change rate")
+    void testTtlScalesWithChangeRate() {
+        long start = 10 * DAY;
+        PageChangeHistory daily = PageChangeHistory.first(1, start, 0).observe(2, start + DAY, 0);
+        PageChangeHistory twiceDaily = PageChangeHistory.first(1, start, 0).observe(3, start + DAY, 0);
+        
+        long dailyTtl = policy.ttlMillis(daily, start + DAY);
+        long twiceDailyTtl = policy.ttlMillis(twiceDaily, start + DAY);
+        
+        // -ln(0.9) of a day is roughly 2.5 hours
+        assertEquals((long) (-Math.log(0.9) * DAY), dailyTtl);
+        assertTrue(twiceDailyTtl < dailyTtl, "More edits should shorten the TTL");
+        assertEquals(dailyTtl / 2, twiceDailyTtl, 1);
+    }
+    
+    @Test
+    @DisplayName("Should restart history when the version number goes backwards")
+    void testVersionReset() {
+        PageChangeHistory history = PageChangeHistory.first(10, 0, 0).observe(2, HOUR, 0);
+        
+        assertEquals(2, history.firstVersion());
+        assertEquals(HOUR, history.firstSeenAt());
+    }
+    
+    @Test
+    @DisplayName("Should reject target staleness outside (0, 1)")
+    void testInvalidTargetStaleness() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveTtlPolicy(
+            Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofHours(24), 1.0));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package io.github.greenstevester.confluencemcpsvr.cql;
+
+import io.github.greenstevester.confluencemcpsvr.index.InvertedIndex;
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.builder;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.newStore;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the CQL parser, planner and local evaluator
+ */
+@DisplayName("LocalCqlEvaluator Tests")
+class LocalCqlEvaluatorTest {
+    
+    private LocalCqlEvaluator evaluator;
+    
+    @BeforeEach
+    void setUp() {
+        LocalPageStore store = newStore();
+        InvertedIndex index = new InvertedIndex(store);
+        evaluator = new LocalCqlEvaluator(store, index);
+        
+        store.upsert(builder("1").title("API Reference").space("DEV").lastModified(Instant.parse("2024-05-01T09:00:00Z"))
+            .labels(List.of("api", "reference")).body("<p>REST API endpoints. TODO document pagination.</p>").build());
+        store.upsert(builder("2").title("Architecture Overview").space("DEV").lastModified(Instant.parse("2022-01-15T12:00:00Z"))
+            .labels(List.of("architecture")).body("<p>System design of the platform.</p>").build());
+        store.upsert(builder("3").title("Release Checklist").space("OPS").lastModified(Instant.parse("2023-11-20T08:30:00Z"))
+            .labels(List.of("process")).body("<p>Deployment steps. FIXME: update rollback section.</p>").build());
+    }
+    
+    @Test
+    @DisplayName("Should parse nested boolean expressions, IN lists and ordering")
+    void testParser() {
+        CqlQuery query = CqlParser.parse(
+            "type=page AND (space in (DEV, \"OPS\") OR label != draft) AND NOT title~'old' ORDER BY lastModified DESC");
+        
+        CqlNode.And and = assertInstanceOf(CqlNode.And.class, query.where());
+        assertEquals(3, and.children().size());
+        CqlNode.Or or = assertInstanceOf(CqlNode.Or.class, and.children().get(1));
+        assertEquals(new CqlNode.Clause("space", CqlOperator.IN, List.of("DEV", "OPS")), or.children().get(0));
+        assertInstanceOf(CqlNode.Not.class, and.children().get(2));
+        assertEquals(List.of(new CqlQuery.OrderBy("lastmodified", false)), query.orderBy());
+        
+        assertEquals("now(-4w)", ((CqlNode.Clause) CqlParser.parse("lastModified > now(\"-4w\")").where()).value());
+        assertThrows(CqlParseException.class, () -> CqlParser.parse("type=page AND (space=DEV"));
+    }
+    
+    @Test
+    @DisplayName("Should only plan page queries over mirrored fields locally")
+    void testPlanner() {
+        assertTrue(plan("type=page AND text~'TODO OR FIXME'").local());
+        assertTrue(plan("type=page AND (title~'API' OR text~'REST API') AND lastModified >= now(\"-1y\")").local());
+        
+        assertFalse(plan("text~'TODO'").local());
+        assertFalse(plan("type=page OR type=blogpost").local());
+        assertFalse(plan("type=page AND creator=currentUser()").local());
+        assertFalse(plan("type in (page, blogpost) AND text~'api'").local());
+        assertFalse(plan("type=page ORDER BY created").local());
+    }
+    
+    @Test
+    @DisplayName("Should only plan locally for spaces a scoped mirror holds")
+    void testPlannerWithScopedMirror() {
+        List<String> synced = List.of("OPS", "DEV");
+        
+        assertTrue(plan("type=page AND text~'TODO'", List.of()).local());
+        assertTrue(plan("type=page AND space=ops AND text~'TODO'", synced).local());
+        assertTrue(plan("type=page AND space.key in (OPS, DEV)", synced).local());
+        assertTrue(plan("type=page AND (space=OPS OR space=DEV AND label=api)", synced).local());
+        
+        assertFalse(plan("type=page AND text~'TODO'", synced).local());
+        assertFalse(plan("type=page AND space in (OPS, HR)", synced).local());
+        assertFalse(plan("type=page AND space != HR", synced).local());
+        assertFalse(plan("type=page AND (space=OPS OR label=api)", synced).local());
+        assertFalse(plan("type=page AND NOT space=HR", synced).local());
+    }
+    
+    @Test
+    @DisplayName("Should evaluate text clauses with metadata filters")
+    void testTextWithFilters() {
+        assertEquals(List.of("1", "3"), ids("type=page AND text~'TODO OR FIXME' ORDER BY title"));
+        assertEquals(List.of("3"), ids("type=page AND text~'TODO OR FIXME' AND space=OPS"));
+        assertEquals(List.of("1"), ids("type=page AND text~'TODO OR FIXME' AND label in (api, howto)"));
+    }
+    
+    @Test
+    @DisplayName("Should evaluate title, label, negation and date clauses")
+    void testMetadataClauses() {
+        assertEquals(List.of("2"), ids("type=page AND title~'architecture'"));
+        assertEquals(List.of("1"), ids("type=page AND title=\"api reference\""));
+        assertEquals(List.of("2", "3"), ids("type=page AND label != api ORDER BY title ASC"));
+        assertEquals(List.of("2", "3"), ids("type=page AND NOT text~'endpoints' ORDER BY lastModified"));
+        assertEquals(List.of("2"), ids("type=page AND lastModified <= '2022-01-15'"));
+        assertEquals(List.of("3", "1"), ids("type=page AND lastModified > \"2022/01/15\" ORDER BY lastModified ASC"));
+    }
+    
+    private CqlPlanner.QueryPlan plan(String cql, List<String> mirroredSpaces) {
+        return CqlPlanner.plan(CqlParser.parse(cql), mirroredSpaces);
+    }
+    
+    private CqlPlanner.QueryPlan plan(String cql) {
+        return CqlPlanner.plan(CqlParser.parse(cql));
+    }
+    
+    private List<String> ids(String cql) {
+        CqlQuery query = CqlParser.parse(cql);
+        assertTrue(CqlPlanner.plan(query).local(), "Expected local plan for " + cql);
+        return evaluator.evaluate(query).stream().map(scored -> scored.page().id()).toList();
+    }
+}
\ No newline at end of file
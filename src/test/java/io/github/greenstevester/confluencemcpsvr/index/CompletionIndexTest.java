@@ -0,0 +1,99 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.newStore;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.page;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompletionIndex and RadixTrie
+ */
+@DisplayName("CompletionIndex Tests")
+class CompletionIndexTest {
+    
+    private LocalPageStore store;
+    private CompletionIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        store = newStore();
+        index = new CompletionIndex(store);
+        
+        store.upsert(page("101", "Deployment Guide", "DEV", ""));
+        store.upsert(page("102", "Deployment Checklist", "DEV", ""));
+        store.upsert(page("205", "Team Onboarding", "HR", ""));
+        index.recordSpace("DEV", "Developer Handbook");
+        index.recordSpace("DOCS", "Documentation");
+    }
+    
+    @Test
+    @DisplayName("Should split, re-compress and prune trie edges")
+    void testRadixTrie() {
+        RadixTrie trie = new RadixTrie();
+        trie.insert("deploy", "a");
+        trie.insert("deployment", "b");
+        trie.insert("design", "c");
+        trie.insert("design", "c");
+        assertEquals(3, trie.size());
+        
+        assertEquals(Set.of("a", "b", "c"), collect(trie, "de", 10));
+        assertEquals(Set.of("a", "b"), collect(trie, "depl", 10));
+        assertEquals(Set.of("b"), collect(trie, "deploym", 10));
+        assertEquals(Set.of(), collect(trie, "dex", 10));
+        
+        Set<String> limited = new LinkedHashSet<>();
+        assertTrue(trie.collect("de", 2, limited));
+        assertEquals(2, limited.size());
+        
+        int nodesBefore = trie.nodeCount();
+        trie.remove("deploy", "a");
+        trie.remove("design", "c");
+        assertEquals(Set.of("b"), collect(trie, "d", 10));
+        assertTrue(trie.nodeCount() < nodesBefore);
+        assertEquals(2, trie.nodeCount());
+    }
+    
+    @Test
+    @DisplayName("Should complete space keys from keys and any word of the name")
+    void testSpaceKeyCompletion() {
+        assertEquals(List.of("DEV", "DOCS"), index.completeSpaceKey("d", 10).values());
+        assertEquals(List.of("DEV"), index.completeSpaceKey("handb", 10).values());
+        assertEquals(Set.of("DEV", "HR"), Set.copyOf(index.completeSpaceKey("h", 10).values()));
+        assertEquals(List.of(), index.completeSpaceKey("zzz", 10).values());
+    }
+    
+    @Test
+    @DisplayName("Should complete page IDs from IDs and titles and follow renames and removals")
+    void testPageIdCompletion() {
+        assertEquals(List.of("101", "102"), index.completePageId("10", 10).values());
+        assertEquals(Set.of("101", "102"), Set.copyOf(index.completePageId("deployment", 10).values()));
+        assertEquals(List.of("101"), index.completePageId("guide", 10).values());
+        
+        CompletionIndex.Completion limited = index.completePageId("deployment", 1);
+        assertEquals(1, limited.values().size());
+        assertTrue(limited.hasMore());
+        
+        store.upsert(page("101", "Release Guide", "DEV", ""));
+        store.remove("205");
+        
+        assertEquals(List.of("102"), index.completePageId("deployment", 10).values());
+        assertEquals(List.of("101"), index.completePageId("release", 10).values());
+        assertEquals(List.of(), index.completePageId("onboarding", 10).values());
+        assertEquals(List.of(), index.completePageId("205", 10).values());
+        assertEquals("Release Guide", index.pageTitle("101"));
+    }
+    
+    private Set<String> collect(RadixTrie trie, String prefix, int limit) {
+        Set<String> out = new LinkedHashSet<>();
+        trie.collect(prefix, limit, out);
+        return out;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.newStore;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.page;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InvertedIndex
+ */
+@DisplayName("InvertedIndex Tests")
+class InvertedIndexTest {
+    
+    private LocalPageStore store;
+    private InvertedIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        store = newStore();
+        index = new InvertedIndex(store);
+        
+        store.upsert(page("1", "Deployment Guide", "DEV", "<p>Deploy with <b>Docker</b> and Kubernetes. TODO: add rollback.</p>"));
+        store.upsert(page("2", "Runbook", "DEV", "<p>This page is under construction. Docker restart steps coming soon.</p>"));
+        store.upsert(page("3", "Team Onboarding", "DEV", "<p>Getting started guide. Construction of the new office is under way.</p>"));
+    }
+    
+    @Test
+    @DisplayName("Should match any keyword of an OR query")
+    void testOrQuery() {
+        InvertedIndex.SearchHits hits = index.search(InvertedIndex.Field.TEXT, "TODO OR FIXME OR onboarding", 10);
+        
+        assertEquals(2, hits.totalHits());
+        assertEquals(List.of("1", "3"), hits.hits().stream().map(InvertedIndex.Hit::pageId).sorted().toList());
+    }
+    
+    @Test
+    @DisplayName("Should treat multi-word clauses as phrases")
+    void testPhraseQuery() {
+        InvertedIndex.SearchHits hits = index.search(InvertedIndex.Field.TEXT, "under construction OR coming soon", 10);
+        
+        // Page 3 has both words, but not next to each other
+        assertEquals(List.of("2"), hits.hits().stream().map(InvertedIndex.Hit::pageId).toList());
+    }
+    
+    @Test
+    @DisplayName("Should rank pages with more occurrences higher")
+    void testBm25Ranking() {
+        store.upsert(page("4", "Docker Notes", "DEV", "<p>Docker images, docker compose and docker networking.</p>"));
+        
+        InvertedIndex.SearchHits hits = index.search(InvertedIndex.Field.TEXT, "docker", 10);
+        
+        assertEquals(3, hits.totalHits());
+        assertEquals("4", hits.hits().get(0).pageId());
+        assertTrue(hits.hits().get(0).score() > hits.hits().get(1).score());
+    }
+    
+    @Test
+    @DisplayName("Should reflect page updates and removals")
+    void testIncrementalUpdates() {
+        store.upsert(page("1", "Deployment Guide", "DEV", "<p>Rollback procedure documented.</p>"));
+        store.remove("2");
+        
+        assertEquals(0, index.search(InvertedIndex.Field.TEXT, "docker", 10).totalHits());
+        assertEquals(List.of("1"), index.search(InvertedIndex.Field.TEXT, "rollback", 10).hits().stream()
+            .map(InvertedIndex.Hit::pageId).toList());
+        assertEquals(2, index.documentCount());
+        assertEquals(2, index.getStats().tombstones());
+    }
+    
+    @Test
+    @DisplayName("Should search titles separately from body text")
+    void testTitleField() {
+        assertEquals(List.of("2"), index.search(InvertedIndex.Field.TITLE, "runbook", 10).hits().stream()
+            .map(InvertedIndex.Hit::pageId).toList());
+        assertEquals(0, index.search(InvertedIndex.Field.TITLE, "docker", 10).totalHits());
+    }
+    
+    @Test
+    @DisplayName("Should require every phrase of an AND clause")
+    void testAndClause() {
+        assertEquals(List.of("1"), index.search(InvertedIndex.Field.TEXT, "docker AND kubernetes", 10).hits().stream()
+            .map(InvertedIndex.Hit::pageId).toList());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeywordAutomaton
+ */
+@DisplayName("KeywordAutomaton Tests")
+class KeywordAutomatonTest {
+    
+    private static final int QUALITY = 0;
+    private static final int DRAFT = 1;
+    private static final int API = 2;
+    
+    private KeywordAutomaton automaton;
+    private KeywordAutomaton.Hits hits;
+    
+    @BeforeEach
+    void setUp() {
+        automaton = KeywordAutomaton.builder()
+            .add("TODO", QUALITY)
+            .add("FIXME", QUALITY)
+            .add("work in progress", DRAFT)
+            .add("progress", DRAFT)
+            .add("API", API)
+            .add("REST API", API)
+            .build();
+        hits = automaton.newHits(3);
+    }
+    
+    @Test
+    @DisplayName("Should count hits per category with positions in one pass")
+    void shouldCountHitsPerCategory() {
+        String text = "TODO: fix this. Another todo here and a FIXME.";
+        automaton.scan(text, hits);
+        
+        assertEquals(3, hits.count(QUALITY));
+        assertEquals(0, hits.position(QUALITY, 0));
+        assertEquals(text.indexOf("todo"), hits.position(QUALITY, 1));
+        assertEquals(text.indexOf("FIXME"), hits.position(QUALITY, 2));
+        assertFalse(hits.hit(DRAFT));
+    }
+    
+    @Test
+    @DisplayName("Should match overlapping keywords and collapse whitespace runs")
+    void shouldMatchOverlappingKeywords() {
+        String text = "Status: work \n  in\tprogress. See the REST API docs.";
+        automaton.scan(text, hits);
+        
+        // "work in progress" and its suffix "progress" both match
+        assertEquals(2, hits.count(DRAFT));
+        assertEquals(text.indexOf("work"), hits.position(DRAFT, 0));
+        assertEquals(2, hits.count(API));
+    }
+    
+    @Test
+    @DisplayName("Should only match whole words, allowing a plural s")
+    void shouldRespectWordBoundaries() {
+        automaton.scan("capital todos rapid progressive APIs", hits);
+        
+        assertEquals(1, hits.count(QUALITY));
+        assertEquals(1, hits.count(API));
+        assertFalse(hits.hit(DRAFT));
+    }
+    
+    @Test
+    @DisplayName("Should reuse hits across scans and cap stored positions")
+    void shouldReuseHits() {
+        automaton.scan("TODO TODO TODO TODO TODO", hits);
+        assertEquals(5, hits.count(QUALITY));
+        assertEquals(3, hits.positionCount(QUALITY));
+        
+        hits.clear();
+        hits.setOffset(100);
+        automaton.scan("FIXME", hits);
+        assertEquals(1, hits.count(QUALITY));
+        assertEquals(100, hits.position(QUALITY, 0));
+    }
+}
\ No newline at end of file
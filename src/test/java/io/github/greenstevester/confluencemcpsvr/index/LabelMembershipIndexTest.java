@@ -0,0 +1,61 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.index.LabelMembershipIndex.MembershipQuery;
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.builder;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.newStore;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LabelMembershipIndex
+ */
+@DisplayName("LabelMembershipIndex Tests")
+class LabelMembershipIndexTest {
+    
+    private LocalPageStore store;
+    private LabelMembershipIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        store = newStore();
+        index = new LabelMembershipIndex(store);
+        
+        store.upsert(builder("1").space("OPS").labels(List.of("runbook", "database")).build());
+        store.upsert(builder("2").space("OPS").labels(List.of("runbook", "deprecated")).build());
+        store.upsert(builder("3").space("DEV").labels(List.of("runbook")).build());
+        store.upsert(builder("4").space("OPS").status("archived").labels(List.of("runbook")).build());
+        store.upsert(builder("5").space("OPS").labels(List.of("howto")).build());
+    }
+    
+    @Test
+    @DisplayName("Should combine label, space and status filters")
+    void testCombinedQuery() {
+        assertEquals(List.of("1", "2"), ids(new MembershipQuery(List.of("Runbook"), null, null, List.of("OPS"), List.of("current"))));
+        assertEquals(List.of("1"), ids(new MembershipQuery(List.of("runbook"), null, List.of("deprecated"), List.of("OPS"), List.of("current"))));
+        assertEquals(List.of("1", "2", "3", "5"), ids(new MembershipQuery(null, List.of("runbook", "howto"), null, null, List.of("current"))));
+        assertEquals(List.of(), ids(new MembershipQuery(List.of("runbook", "howto"), null, null, null, null)));
+    }
+    
+    @Test
+    @DisplayName("Should follow label changes and removals")
+    void testUpdatesAndRemovals() {
+        store.upsert(builder("5").space("OPS").version(2).labels(List.of("runbook")).build());
+        store.remove("1");
+        
+        assertEquals(List.of("2", "5"), ids(new MembershipQuery(List.of("runbook"), null, null, List.of("OPS"), List.of("current"))));
+        assertEquals(List.of(), ids(new MembershipQuery(List.of("howto"), null, null, null, null)));
+        assertEquals(Integer.valueOf(4), index.topLabels(10).get("runbook"));
+    }
+    
+    private List<String> ids(MembershipQuery query) {
+        LabelMembershipIndex.MembershipResult result = index.query(query, 10);
+        assertEquals(result.pageIds().size(), result.totalMatches());
+        return result.pageIds();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.builder;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.newStore;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.page;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MinHashIndex
+ */
+@DisplayName("MinHashIndex Tests")
+class MinHashIndexTest {
+    
+    private static final String RUNBOOK = "<p>To restart the payment service first drain traffic from the load balancer "
+        + "then stop the worker pods and wait for in flight jobs to finish before scaling the deployment to zero "
+        + "replicas and back up again while watching the error dashboards for any spike in failed transactions "
+        + "and finally re enable traffic once the health checks report green across every availability zone</p>";
+    
+    private LocalPageStore store;
+    private MinHashIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        store = newStore();
+        index = new MinHashIndex(store);
+        
+        store.upsert(page("1", "Restart Payments", "OPS", RUNBOOK));
+        store.upsert(page("2", "Restart Payments (copy)", "DEV", RUNBOOK.replace("finally", "then")));
+        store.upsert(page("3", "Restart Payments", "OPS2", RUNBOOK));
+        store.upsert(page("4", "Team Lunch", "HR", "<p>Our quarterly team lunch happens on the last Friday of "
+            + "every quarter at the usual place near the office with vegetarian options available for everyone who "
+            + "signs up on the shared sheet before Wednesday noon</p>"));
+        store.upsert(page("5", "Stub", "DEV", "<p>TODO</p>"));
+    }
+    
+    @Test
+    @DisplayName("Should cluster identical and lightly edited copies across spaces")
+    void testFindsNearDuplicates() {
+        MinHashIndex.DuplicateReport report = index.findDuplicates(0.7, null, 10);
+        
+        assertEquals(1, report.totalClusters());
+        MinHashIndex.DuplicateCluster cluster = report.clusters().get(0);
+        assertEquals(Set.of("1", "2", "3"), pageIds(cluster));
+        assertEquals("1", cluster.pages().get(0).pageId());
+        assertTrue(cluster.crossSpace());
+        assertEquals(1.0, cluster.pages().stream().filter(p -> p.pageId().equals("3")).findFirst().orElseThrow().similarity());
+        assertEquals(4, report.pagesCompared());
+        assertEquals(1, index.getStats().skippedShortPages());
+    }
+    
+    @Test
+    @DisplayName("Should honour the threshold and the space filter")
+    void testThresholdAndSpaces() {
+        assertEquals(Set.of("1", "3"), pageIds(index.findDuplicates(1.0, null, 10).clusters().get(0)));
+        assertEquals(0, index.findDuplicates(0.7, List.of("HR"), 10).totalClusters());
+        assertEquals(1, index.findDuplicates(0.7, List.of("DEV"), 10).totalClusters());
+    }
+    
+    @Test
+    @DisplayName("Should drop edited and removed pages from clusters")
+    void testIncrementalUpdates() {
+        store.upsert(builder("2").title("Restart Payments (copy)").version(2)
+            .body("<p>This page moved, see the operations space runbook for the current procedure which is maintained "
+                + "by the platform team and reviewed after every incident involving the payment service</p>")
+            .build());
+        store.remove("3");
+        
+        assertEquals(0, index.findDuplicates(0.7, null, 10).totalClusters());
+        assertEquals(3, index.size());
+    }
+    
+    private Set<String> pageIds(MinHashIndex.DuplicateCluster cluster) {
+        return cluster.pages().stream().map(MinHashIndex.DuplicatePage::pageId).collect(Collectors.toSet());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.index.PageHierarchy.HierarchyEntry;
+import io.github.greenstevester.confluencemcpsvr.index.PageHierarchy.HierarchyStats;
+import io.github.greenstevester.confluencemcpsvr.index.PageHierarchy.PageTree;
+import io.github.greenstevester.confluencemcpsvr.index.PageHierarchy.TreeNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PageHierarchy
+ */
+@DisplayName("PageHierarchy Tests")
+class PageHierarchyTest {
+    
+    private PageHierarchy hierarchy;
+    
+    @BeforeEach
+    void setUp() {
+        hierarchy = new PageHierarchy();
+        // Children listed before their parents, as a concurrent crawl may deliver them
+        hierarchy.replaceSpace("DEV", List.of(
+            new HierarchyEntry("4", "2", "Deploy"),
+            new HierarchyEntry("1", null, "Home"),
+            new HierarchyEntry("2", "1", "Runbooks"),
+            new HierarchyEntry("3", "1", "Architecture"),
+            new HierarchyEntry("5", "4", "Rollback"),
+            new HierarchyEntry("6", null, "Archive")
+        ), false);
+    }
+    
+    @Test
+    @DisplayName("Should look up parents and ancestors")
+    void shouldLookUpParentsAndAncestors() {
+        assertEquals("4", hierarchy.parentOf("5"));
+        assertNull(hierarchy.parentOf("1"));
+        assertEquals("DEV", hierarchy.spaceOf("5"));
+        assertEquals(List.of("1", "2", "4"), hierarchy.ancestors("5").stream().map(TreeNode::pageId).toList());
+    }
+    
+    @Test
+    @DisplayName("Should answer subtree membership from tour intervals")
+    void shouldAnswerSubtreeMembership() {
+        assertTrue(hierarchy.isInSubtree("1", "5"));
+        assertTrue(hierarchy.isInSubtree("2", "2"));
+        assertFalse(hierarchy.isInSubtree("3", "5"));
+        assertFalse(hierarchy.isInSubtree("6", "1"));
+        assertFalse(hierarchy.isInSubtree("1", "unknown"));
+    }
+    
+    @Test
+    @DisplayName("Should list subtrees in pre-order and respect the depth limit")
+    void shouldListSubtreeWithDepthLimit() {
+        PageTree full = hierarchy.subtree("DEV", "1", 10, 100);
+        assertEquals(List.of("1", "2", "4", "5", "3"), full.nodes().stream().map(TreeNode::pageId).toList());
+        assertEquals(5, full.totalPages());
+        assertFalse(full.truncated());
+        
+        PageTree shallow = hierarchy.subtree("DEV", "1", 1, 100);
+        assertEquals(List.of("1", "2", "3"), shallow.nodes().stream().map(TreeNode::pageId).toList());
+        assertTrue(shallow.truncated());
+        assertEquals(3, shallow.nodes().get(1).subtreeSize());
+        
+        PageTree space = hierarchy.subtree("DEV", null, 0, 100);
+        assertEquals(List.of("1", "6"), space.nodes().stream().map(TreeNode::pageId).toList());
+        assertNull(hierarchy.subtree("OPS", null, 3, 100));
+    }
+    
+    @Test
+    @DisplayName("Should record created and moved pages in a cached tree")
+    void shouldRecordCreatedAndMovedPages() {
+        assertTrue(hierarchy.recordPage("DEV", "7", "3", "Diagrams"));
+        assertTrue(hierarchy.isInSubtree("3", "7"));
+        
+        // Moving Runbooks under Archive carries its subtree along
+        hierarchy.recordPage("DEV", "2", "6", "Runbooks");
+        assertTrue(hierarchy.isInSubtree("6", "5"));
+        assertFalse(hierarchy.isInSubtree("1", "5"));
+        
+        // A move under its own descendant would create a cycle and leaves the page a root
+        hierarchy.recordPage("DEV", "6", "5", "Archive");
+        assertNull(hierarchy.parentOf("6"));
+        
+        assertFalse(hierarchy.recordPage("OPS", "8", null, "Not cached"));
+    }
+    
+    @Test
+    @DisplayName("Should report depth and size statistics")
+    void shouldReportStats() {
+        HierarchyStats stats = hierarchy.stats("DEV");
+        assertEquals(6, stats.pages());
+        assertEquals(2, stats.roots());
+        assertEquals(3, stats.maxDepth());
+        assertEquals(3, stats.leaves());
+        assertEquals("1", stats.largestSubtrees().get(0).pageId());
+        assertEquals(Integer.valueOf(5), Integer.valueOf(stats.largestSubtrees().get(0).subtreeSize()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.builder;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.newStore;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.page;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PageLinkGraph and LinkExtractor
+ */
+@DisplayName("PageLinkGraph Tests")
+class PageLinkGraphTest {
+    
+    private LocalPageStore store;
+    private PageLinkGraph graph;
+    
+    @BeforeEach
+    void setUp() {
+        store = newStore();
+        graph = new PageLinkGraph(store);
+        
+        // 1 -> 2, 1 -> 3, 2 -> 3, 4 -> 3 (by ID); 5 links only to a page that is not mirrored
+        store.upsert(page("1", "Home", "DEV", link("Setup Guide") + link("API Reference")));
+        store.upsert(page("2", "Setup Guide", "DEV", link("API Reference")));
+        store.upsert(page("3", "API Reference", "DEV", "<p>No links here</p>"));
+        store.upsert(page("4", "Release Notes", "OPS",
+            "<a href=\"https://example.atlassian.net/wiki/spaces/DEV/pages/3/API+Reference\">API</a>"));
+        store.upsert(page("5", "Scratch", "OPS", link("Missing Page")));
+    }
+    
+    @Test
+    @DisplayName("Should extract title, cross-space and ID link targets")
+    void testLinkExtraction() {
+        String body = "<ac:link><ri:page ri:space-key=\"OPS\" ri:content-title=\"Runbook &amp; Checklist\" /></ac:link>"
+            + link("Setup Guide")
+            + "<ac:link><ri:page ri:content-id=\"42\" /></ac:link>"
+            + "<a href=\"/wiki/pages/viewpage.action?pageId=77\">old</a>";
+        
+        assertEquals(Set.of(
+            LinkExtractor.titleKey("OPS", "Runbook & Checklist"),
+            LinkExtractor.titleKey("DEV", "setup guide"),
+            LinkExtractor.idKey("42"),
+            LinkExtractor.idKey("77")
+        ), LinkExtractor.extractTargets(body, "DEV"));
+    }
+    
+    @Test
+    @DisplayName("Should find orphans, dead ends, hubs and dangling links")
+    void testAnalysis() {
+        PageLinkGraph.LinkAnalysis analysis = graph.analyze(null, 10);
+        
+        assertEquals(5, analysis.pages());
+        assertEquals(4, analysis.links());
+        assertEquals(1, analysis.danglingLinks());
+        assertEquals(List.of("1", "4", "5"), ids(analysis.orphans()).stream().sorted().toList());
+        assertEquals(Set.of("3", "5"), Set.copyOf(ids(analysis.deadEnds())));
+        assertEquals("3", analysis.hubs().get(0).pageId());
+        assertEquals(3, analysis.hubs().get(0).count());
+        
+        assertEquals(List.of("4", "5"), ids(graph.analyze(List.of("OPS"), 10).orphans()).stream().sorted().toList());
+    }
+    
+    @Test
+    @DisplayName("Should follow edits, late targets, renames and removals across compactions")
+    void testIncrementalUpdates() {
+        store.upsert(page("6", "Missing Page", "OPS", ""));
+        assertEquals(0, graph.analyze(null, 10).danglingLinks());
+        
+        graph.compact();
+        store.upsert(builder("2").title("Install Guide").version(2).build());
+        store.remove("4");
+        
+        PageLinkGraph.LinkAnalysis analysis = graph.analyze(null, 10);
+        assertEquals(5, analysis.pages());
+        // Home's link to the old title of page 2 is now dangling, and page 2 no longer links to 3
+        assertEquals(2, analysis.links());
+        assertEquals(1, analysis.danglingLinks());
+        assertEquals(List.of("1", "2", "5"), ids(analysis.orphans()).stream().sorted().toList());
+        
+        graph.compact();
+        assertEquals(analysis.links(), graph.analyze(null, 10).links());
+    }
+    
+    @Test
+    @DisplayName("Should list outgoing, incoming and related pages")
+    void testNeighbourhood() {
+        PageLinkGraph.Neighbourhood neighbourhood = graph.neighbourhood("2", 10);
+        
+        assertEquals(List.of("3"), ids(neighbourhood.outgoing()));
+        assertEquals(List.of("1"), ids(neighbourhood.incoming()));
+        // Release Notes also links to API Reference
+        assertEquals(List.of("4"), ids(neighbourhood.related()));
+        assertEquals(List.of("1", "2", "4"), ids(graph.neighbourhood("3", 10).incoming()).stream().sorted().toList());
+        assertNull(graph.neighbourhood("404", 10));
+    }
+    
+    private static String link(String title) {
+        return "<ac:link><ri:page ri:content-title=\"" + title + "\" /></ac:link>";
+    }
+    
+    private List<String> ids(List<PageLinkGraph.LinkedPage> pages) {
+        return pages.stream().map(PageLinkGraph.LinkedPage::pageId).toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.builder;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.newStore;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PageMetadataColumns
+ */
+@DisplayName("PageMetadataColumns Tests")
+class PageMetadataColumnsTest {
+    
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+    
+    private LocalPageStore store;
+    private PageMetadataColumns columns;
+    
+    @BeforeEach
+    void setUp() {
+        store = newStore();
+        columns = new PageMetadataColumns(store);
+        
+        store.upsert(builder("1").space("DEV").lastModified(daysAgo(10)).author("author-1").build());
+        store.upsert(builder("2").space("DEV").version(3).lastModified(daysAgo(100)).author("author-2").build());
+        store.upsert(builder("3").space("DEV").version(2).lastModified(daysAgo(400)).author("author-3").build());
+        store.upsert(builder("4").space("OPS").lastModified(daysAgo(800)).author("author-4").build());
+    }
+    
+    @Test
+    @DisplayName("Should bucket pages by age")
+    void testAgeHistogram() {
+        List<Duration> buckets = List.of(Duration.ofDays(30), Duration.ofDays(365));
+        
+        assertArrayEquals(new int[] {1, 1, 2}, columns.ageHistogram(NOW, buckets, null));
+        assertArrayEquals(new int[] {1, 1, 1}, columns.ageHistogram(NOW, buckets, Set.of("DEV")));
+        assertArrayEquals(new int[] {0, 0, 0}, columns.ageHistogram(NOW, buckets, Set.of("UNKNOWN")));
+    }
+    
+    @Test
+    @DisplayName("Should compute per-space staleness percentiles, stalest first")
+    void testSpaceStaleness() {
+        List<PageMetadataColumns.SpaceStaleness> staleness = columns.spaceStaleness(NOW);
+        
+        assertEquals(List.of("OPS", "DEV"), staleness.stream().map(PageMetadataColumns.SpaceStaleness::spaceKey).toList());
+        PageMetadataColumns.SpaceStaleness dev = staleness.get(1);
+        assertEquals(3, dev.pages());
+        assertEquals(Duration.ofDays(100), dev.medianAge());
+        assertEquals(Duration.ofDays(400), dev.p90Age());
+        assertEquals(Duration.ofDays(400), dev.maxAge());
+    }
+    
+    @Test
+    @DisplayName("Should return the oldest pages first and honour the limit")
+    void testOldest() {
+        List<PageMetadataColumns.MetadataRow> oldest = columns.oldest(2, null);
+        
+        assertEquals(List.of("4", "3"), oldest.stream().map(PageMetadataColumns.MetadataRow::pageId).toList());
+        assertEquals("author-4", oldest.get(0).authorId());
+        assertEquals(List.of("3"), columns.oldest(1, List.of("DEV")).stream()
+            .map(PageMetadataColumns.MetadataRow::pageId).toList());
+    }
+    
+    @Test
+    @DisplayName("Should update rows in place, ignore older versions and drop removed pages")
+    void testUpdatesAndRemovals() {
+        store.upsert(builder("4").space("OPS").version(2).lastModified(daysAgo(1)).author("author-4").build());
+        assertFalse(columns.record("4", "OPS", NOW.minus(Duration.ofDays(900)), 1, "someone", 5));
+        
+        PageMetadataColumns.MetadataRow row = columns.get("4");
+        assertEquals(2, row.version());
+        assertEquals(NOW.minus(Duration.ofDays(1)), row.lastModified());
+        
+        store.remove("3");
+        assertNull(columns.get("3"));
+        assertEquals(3, columns.size());
+        assertEquals(List.of("2"), columns.oldest(1, null).stream().map(PageMetadataColumns.MetadataRow::pageId).toList());
+    }
+    
+    @Test
+    @DisplayName("Should compact removed rows without losing live pages")
+    void testCompaction() {
+        for (int i = 0; i < 3000; i++) {
+            columns.record("bulk-" + i, "BULK", NOW.minus(Duration.ofDays(i % 50)), 1, null, 10);
+        }
+        for (int i = 0; i < 2500; i++) {
+            columns.remove("bulk-" + i);
+        }
+        
+        assertEquals(504, columns.size());
+        assertTrue(columns.getStats().deadRows() < 1000);
+        assertEquals("bulk-2999", columns.get("bulk-2999").pageId());
+        assertArrayEquals(new int[] {2, 2}, columns.ageHistogram(NOW, List.of(Duration.ofDays(365)), Set.of("DEV", "OPS")));
+    }
+    
+    private static Instant daysAgo(int days) {
+        return NOW.minus(Duration.ofDays(days));
+    }
+}
\ No newline at end of file
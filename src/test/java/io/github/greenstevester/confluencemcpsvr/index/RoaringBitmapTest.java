@@ -0,0 +1,93 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RoaringBitmap
+ */
+@DisplayName("RoaringBitmap Tests")
+class RoaringBitmapTest {
+    
+    @Test
+    @DisplayName("Should add, remove and test membership across chunks")
+    void testBasicOperations() {
+        RoaringBitmap bitmap = RoaringBitmap.of(3, 70000, 5, 3);
+        
+        assertEquals(3, bitmap.cardinality());
+        assertArrayEquals(new int[] {3, 5, 70000}, bitmap.toArray());
+        assertTrue(bitmap.contains(70000));
+        assertFalse(bitmap.contains(4));
+        
+        bitmap.remove(70000);
+        bitmap.remove(12345);
+        assertArrayEquals(new int[] {3, 5}, bitmap.toArray());
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+    }
+    
+    @Test
+    @DisplayName("Should switch between array and bitmap containers without losing values")
+    void testContainerConversion() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < 10000; i += 2) {
+            bitmap.add(i);
+        }
+        long denseBytes = bitmap.sizeInBytes();
+        assertEquals(5000, bitmap.cardinality());
+        
+        for (int i = 0; i < 10000; i += 2) {
+            if (i % 20 != 0) {
+                bitmap.remove(i);
+            }
+        }
+        assertEquals(500, bitmap.cardinality());
+        assertTrue(bitmap.contains(9980));
+        assertFalse(bitmap.contains(9998));
+        assertTrue(bitmap.sizeInBytes() < denseBytes);
+    }
+    
+    @Test
+    @DisplayName("Should match BitSet for AND, OR and ANDNOT on random sets")
+    void testSetOperationsAgainstBitSet() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            // Mix sparse and dense chunks so every container pairing is exercised
+            BitSet expectedA = randomSet(random, round % 2 == 0 ? 8000 : 200);
+            BitSet expectedB = randomSet(random, round % 3 == 0 ? 9000 : 300);
+            RoaringBitmap a = toBitmap(expectedA);
+            RoaringBitmap b = toBitmap(expectedB);
+            
+            BitSet and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            BitSet or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+            BitSet andNot = (BitSet) expectedA.clone();
+            andNot.andNot(expectedB);
+            
+            assertArrayEquals(and.stream().toArray(), RoaringBitmap.and(a, b).toArray());
+            assertArrayEquals(or.stream().toArray(), RoaringBitmap.or(a, b).toArray());
+            assertArrayEquals(andNot.stream().toArray(), RoaringBitmap.andNot(a, b).toArray());
+            assertEquals(expectedA.cardinality(), a.cardinality());
+        }
+    }
+    
+    private BitSet randomSet(Random random, int count) {
+        BitSet set = new BitSet();
+        for (int i = 0; i < count; i++) {
+            // Two chunks of 2^16 values each
+            set.set(random.nextInt(1 << 17) / (count > 1000 ? 1 : 4));
+        }
+        return set;
+    }
+    
+    private RoaringBitmap toBitmap(BitSet set) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        set.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+}
\ No newline at end of file
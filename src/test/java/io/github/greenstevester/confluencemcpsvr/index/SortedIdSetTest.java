@@ -0,0 +1,55 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SortedIdSet
+ */
+@DisplayName("SortedIdSet Tests")
+class SortedIdSetTest {
+    
+    @Test
+    @DisplayName("Should sort, deduplicate and skip non-numeric page IDs")
+    void shouldBuildFromPageIds() {
+        SortedIdSet set = SortedIdSet.of(List.of("300", "100", "abc", "100", "4294967296"));
+        
+        assertEquals(3, set.size());
+        assertEquals(100, set.get(0));
+        assertEquals(4294967296L, set.get(2));
+        assertTrue(set.contains(300));
+        assertFalse(set.contains(200));
+    }
+    
+    @Test
+    @DisplayName("Should compute differences with a sorted merge")
+    void shouldComputeDifference() {
+        SortedIdSet before = SortedIdSet.of(1, 3, 5, 7);
+        SortedIdSet after = SortedIdSet.of(3, 7, 9);
+        
+        assertEquals(SortedIdSet.of(1, 5), SortedIdSet.difference(before, after));
+        assertEquals(SortedIdSet.of(9), SortedIdSet.difference(after, before));
+        assertSame(before, SortedIdSet.difference(before, SortedIdSet.empty()));
+    }
+    
+    @Test
+    @DisplayName("Should round-trip through the gap-encoded binary form")
+    void shouldRoundTrip() throws IOException {
+        SortedIdSet set = SortedIdSet.of(65537L, 65540L, 98305L, 5000000000L);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        set.writeTo(new DataOutputStream(bytes));
+        
+        // Count, two small gaps, one mid-sized gap and one large gap
+        assertTrue(bytes.size() < 16);
+        assertEquals(set, SortedIdSet.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.builder;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.newStore;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.page;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TfIdfIndex and IntFloatHashMap
+ */
+@DisplayName("TfIdfIndex Tests")
+class TfIdfIndexTest {
+    
+    private LocalPageStore store;
+    private TfIdfIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        store = newStore();
+        index = new TfIdfIndex(store);
+        
+        store.upsert(page("1", "Kafka Consumer Lag", "OPS", "<p>Alert when kafka consumer lag grows. Check the consumer group offsets.</p>"));
+        store.upsert(page("2", "Kafka Topic Retention", "OPS", "<p>Kafka topic retention and partition sizing for the cluster.</p>"));
+        store.upsert(page("3", "Consumer Group Rebalancing", "DEV", "<p>Why a kafka consumer group rebalances and how offsets are committed.</p>"));
+        store.upsert(page("4", "Expense Policy", "HR", "<p>Submit expenses within thirty days with receipts attached.</p>"));
+    }
+    
+    @Test
+    @DisplayName("Should accumulate, overwrite and grow a primitive-keyed map")
+    void testIntFloatHashMap() {
+        IntFloatHashMap map = new IntFloatHashMap(2);
+        for (int key = 0; key < 1000; key++) {
+            map.add(key, 1f);
+        }
+        map.add(7, 2f);
+        map.put(8, 0.5f);
+        
+        assertEquals(1000, map.size());
+        assertEquals(3f, map.get(7));
+        assertEquals(0.5f, map.get(8));
+        assertEquals(0f, map.get(5000));
+        assertFalse(map.containsKey(5000));
+        float[] sum = {0};
+        map.forEach((key, value) -> sum[0] += value);
+        assertEquals(1001.5f, sum[0], 0.001);
+    }
+    
+    @Test
+    @DisplayName("Should rank pages by cosine similarity to a keyword set")
+    void testSimilarToText() {
+        TfIdfIndex.SimilarityResult result = index.similarToText("consumer, offsets, kafka", null, 10);
+        
+        List<String> ids = ids(result);
+        assertEquals(3, ids.size());
+        assertTrue(ids.indexOf("1") < ids.indexOf("2"));
+        assertTrue(ids.indexOf("3") < ids.indexOf("2"));
+        assertFalse(ids.contains("4"));
+        assertTrue(result.matches().get(0).sharedTerms().contains("consumer"));
+        assertTrue(result.matches().get(0).similarity() <= 1.0);
+        
+        assertEquals(List.of("3"), ids(index.similarToText("consumer offsets", List.of("DEV"), 10)));
+        assertTrue(index.similarToText("unrelated gibberish", null, 10).matches().isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Should find pages similar to a page and follow edits and removals")
+    void testSimilarToPage() {
+        TfIdfIndex.SimilarityResult result = index.similarToPage("1", null, 10);
+        assertEquals("3", result.matches().get(0).pageId());
+        assertFalse(ids(result).contains("1"));
+        assertNull(index.similarToPage("404", null, 10));
+        
+        store.upsert(builder("3").title("Travel Policy").space("HR").version(2)
+            .body("<p>Book travel through the portal with receipts and expenses attached.</p>").build());
+        store.remove("2");
+        
+        assertEquals(List.of(), ids(index.similarToPage("1", null, 10)));
+        assertEquals("3", index.similarToPage("4", null, 10).matches().get(0).pageId());
+        assertEquals(3, index.size());
+    }
+    
+    @Test
+    @DisplayName("Should treat terms of removed pages as unknown after compaction")
+    void testQueryAfterCompaction() {
+        TfIdfIndex.SimilarityResult before = index.similarToText("kafka consumer", null, 10);
+        for (int i = 0; i < 1000; i++) {
+            store.upsert(page("m" + i, "Mainframe Batch", "OPS", "<p>Mainframe batch jobs on the legacy scheduler.</p>"));
+        }
+        for (int i = 0; i < 1000; i++) {
+            store.remove("m" + i);
+        }
+        
+        assertEquals(0, index.getStats().tombstones());
+        assertTrue(index.similarToText("mainframe scheduler", null, 10).matches().isEmpty());
+        TfIdfIndex.SimilarityResult mixed = index.similarToText("kafka consumer mainframe", null, 10);
+        assertEquals(ids(before), ids(mixed));
+    }
+    
+    private List<String> ids(TfIdfIndex.SimilarityResult result) {
+        return result.matches().stream().map(TfIdfIndex.SimilarPage::pageId).toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package io.github.greenstevester.confluencemcpsvr.index;
+
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.builder;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.newStore;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.page;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TrigramTitleIndex
+ */
+@DisplayName("TrigramTitleIndex Tests")
+class TrigramTitleIndexTest {
+    
+    private LocalPageStore store;
+    private TrigramTitleIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        store = newStore();
+        index = new TrigramTitleIndex(store);
+        
+        store.upsert(page("1", "Deployment Guide", "DEV", ""));
+        store.upsert(page("2", "Kubernetes Deployment Runbook", "OPS", ""));
+        store.upsert(page("3", "Team Onboarding", "HR", ""));
+        store.upsert(page("4", "Café Opening Hours", "HR", ""));
+    }
+    
+    @Test
+    @DisplayName("Should rank the closest title first despite typos")
+    void testTypoTolerance() {
+        List<String> ids = ids(index.search("deploymnet guide", null, 0.3, 10));
+        
+        assertEquals("1", ids.get(0));
+        assertFalse(ids.contains("3"));
+    }
+    
+    @Test
+    @DisplayName("Should score exact titles as 1 and match fragments and accents")
+    void testExactAndFragmentMatches() {
+        TrigramTitleIndex.TitleSearchResult exact = index.search("deployment GUIDE", null, 0.0, 10);
+        assertEquals(1.0, exact.matches().get(0).score());
+        
+        assertEquals(List.of("3"), ids(index.search("onboarding", null, 0.5, 10)));
+        assertEquals(List.of("4"), ids(index.search("cafe", null, 0.5, 10)));
+        assertEquals(List.of("2"), ids(index.search("deployment", List.of("OPS"), 0.3, 10)));
+    }
+    
+    @Test
+    @DisplayName("Should follow renames, writes through the server and removals")
+    void testIncrementalUpdates() {
+        store.upsert(builder("3").title("New Starter Checklist").space("HR").version(2).build());
+        index.record("9", "Incident Postmortem Template", "OPS");
+        index.record("9", "Incident Postmortem Template v2", null);
+        store.remove("1");
+        
+        assertEquals(List.of(), ids(index.search("onboarding", null, 0.5, 10)));
+        assertEquals(List.of("3"), ids(index.search("starter checklist", null, 0.5, 10)));
+        TrigramTitleIndex.TitleMatch postmortem = index.search("postmortem template", null, 0.3, 10).matches().get(0);
+        assertEquals("9", postmortem.pageId());
+        assertEquals("OPS", postmortem.spaceKey());
+        assertFalse(ids(index.search("deployment guide", null, 0.3, 10)).contains("1"));
+        assertEquals(4, index.size());
+    }
+    
+    private List<String> ids(TrigramTitleIndex.TitleSearchResult result) {
+        return result.matches().stream().map(TrigramTitleIndex.TitleMatch::pageId).toList();
+    }
+}
\ No newline at end of file
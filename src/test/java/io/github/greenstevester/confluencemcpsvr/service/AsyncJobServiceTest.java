@@ -0,0 +1,171 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.config.AsyncJobProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AsyncJobService
+ */
+@DisplayName("AsyncJobService Tests")
+class AsyncJobServiceTest {
+    
+    @Test
+    @DisplayName("Should split output into parts ending at line breaks")
+    void shouldSplitAtLineBreaks() {
+        String text = "aaaa\nbbbb\ncccc\n";
+        
+        assertArrayEquals(new int[] {0, 10, 15}, AsyncJobService.chunkBoundaries(text, 12));
+        assertArrayEquals(new int[] {0, 15}, AsyncJobService.chunkBoundaries(text, 100));
+    }
+    
+    @Test
+    @DisplayName("Should cut long lines at the part size")
+    void shouldCutLongLines() {
+        String text = "x".repeat(25);
+        
+        assertArrayEquals(new int[] {0, 10, 20, 25}, AsyncJobService.chunkBoundaries(text, 10));
+        assertArrayEquals(new int[] {0, 0}, AsyncJobService.chunkBoundaries("", 10));
+    }
+    
+    @Test
+    @DisplayName("Should reject submissions once the queue is full")
+    void shouldRejectWhenQueueFull() throws InterruptedException {
+        AsyncJobService service = new AsyncJobService(
+            new AsyncJobProperties(1, 1, Duration.ofMinutes(1), Duration.ofHours(1), 10, 1000));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            String running = service.submit("audit-spaces", "first", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return null;
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            String queued = service.submit("audit-spaces", "second", () -> null);
+            String rejected = service.submit("audit-spaces", "third", () -> null);
+            
+            assertTrue(running.contains("Job Queued"));
+            assertTrue(queued.contains("**Queue position:** 1"));
+            assertTrue(rejected.contains("Job queue full"));
+            assertTrue(service.status(null).contains("RUNNING"));
+        } finally {
+            release.countDown();
+            service.destroy();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should show a job's progress while it runs and keep it when it fails")
+    void shouldShowProgress() throws InterruptedException {
+        AsyncJobService service = new AsyncJobService(
+            new AsyncJobProperties(1, 1, Duration.ofMinutes(1), Duration.ofHours(1), 10, 1000));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            String jobId = jobId(service.submit("batch-update-pages", "2 pages", progress -> {
+                progress.update("Batch job `b-1`: 1 of 2 pages done");
+                started.countDown();
+                awaitQuietly(release);
+                return Mono.error(new IllegalStateException("journal lost"));
+            }, false));
+            String queuedId = jobId(service.submit("audit-spaces", "second", () -> Mono.just("report")));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            
+            String running = service.status(jobId);
+            assertTrue(running.contains("RUNNING"));
+            assertTrue(running.contains("**Progress:** Batch job `b-1`: 1 of 2 pages done"));
+            
+            release.countDown();
+            String failed = awaitFinished(service, jobId);
+            assertTrue(failed.contains("FAILED"));
+            assertTrue(failed.contains("journal lost"));
+            assertTrue(failed.contains("**Progress:** Batch job `b-1`: 1 of 2 pages done"));
+            
+            // The freed slot goes to the queued job
+            assertTrue(awaitFinished(service, queuedId).contains("SUCCEEDED"));
+            assertEquals("report", service.result(queuedId, null));
+        } finally {
+            release.countDown();
+            service.destroy();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should hand out a running job's output so far")
+    void shouldReturnPartialOutput() throws InterruptedException {
+        AsyncJobService service = new AsyncJobService(
+            new AsyncJobProperties(1, 1, Duration.ofMinutes(1), Duration.ofHours(1), 10, 1000));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            String jobId = jobId(service.submit("execute-systematic-audit", "checklistType=quality", progress -> {
+                progress.update("1 of 2 audit queries finished");
+                progress.partial("# Report\n\n## First query\n");
+                started.countDown();
+                awaitQuietly(release);
+                return Mono.just("# Report\n\n## First query\n## Second query\n");
+            }, true));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            
+            assertTrue(service.status(jobId).contains("**Output so far:** 25 characters"));
+            String partial = service.result(jobId, null);
+            assertTrue(partial.contains("still running"));
+            assertTrue(partial.endsWith("## First query\n"));
+            
+            release.countDown();
+            assertTrue(awaitFinished(service, jobId).contains("SUCCEEDED"));
+            assertEquals("# Report\n\n## First query\n## Second query\n", service.result(jobId, null));
+        } finally {
+            release.countDown();
+            service.destroy();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should report unknown jobs")
+    void shouldReportUnknownJob() {
+        AsyncJobService service = new AsyncJobService(
+            new AsyncJobProperties(1, 1, Duration.ofMinutes(1), Duration.ofHours(1), 10, 1000));
+        try {
+            assertTrue(service.status("async-missing").contains("Job not found"));
+            assertTrue(service.result("async-missing", null).contains("Job not found"));
+        } finally {
+            service.destroy();
+        }
+    }
+    
+    private static String jobId(String submitted) {
+        Matcher matcher = Pattern.compile("`(async-[^`]+)`").matcher(submitted);
+        assertTrue(matcher.find(), submitted);
+        return matcher.group(1);
+    }
+    
+    private static String awaitFinished(AsyncJobService service, String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            String status = service.status(jobId);
+            if (status.contains("SUCCEEDED") || status.contains("FAILED")) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish");
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
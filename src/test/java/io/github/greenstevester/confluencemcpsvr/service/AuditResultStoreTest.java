@@ -0,0 +1,120 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.greenstevester.confluencemcpsvr.config.AuditProperties;
+import io.github.greenstevester.confluencemcpsvr.service.DocumentationAuditService.AuditQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AuditResultStore
+ */
+@DisplayName("AuditResultStore Tests")
+class AuditResultStoreTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AuditKeywordMatcher keywordMatcher = new AuditKeywordMatcher();
+    
+    private AuditResultStore store;
+    private int[] counts;
+    
+    @BeforeEach
+    void setUp() {
+        store = newStore(true);
+        counts = new int[keywordMatcher.categoryCount()];
+    }
+    
+    @Test
+    @DisplayName("Should reuse results only for the stored page version")
+    void shouldReuseResultsForSameVersion() {
+        counts[1] = 3;
+        store.record("100", 4, "DEV", counts);
+        
+        int[] loaded = new int[counts.length];
+        assertTrue(store.lookup("100", 4, loaded));
+        assertArrayEquals(counts, loaded);
+        assertFalse(store.lookup("100", 5, loaded));
+        assertFalse(store.lookup("200", 1, loaded));
+        assertTrue(store.contains("100", 4));
+    }
+    
+    @Test
+    @DisplayName("Should drop unseen pages of scanned spaces on a complete scan")
+    void shouldPruneUnseenPages() {
+        store.record("1", 1, "DEV", counts);
+        store.record("2", 1, "DEV", counts);
+        store.record("3", 1, "OPS", counts);
+        
+        store.completeScan(List.of("DEV"), Set.of("1"));
+        
+        assertTrue(store.contains("1", 1));
+        assertFalse(store.contains("2", 1));
+        assertTrue(store.contains("3", 1));
+        assertTrue(store.hasScanned("DEV"));
+        assertFalse(store.hasScanned("OPS"));
+    }
+    
+    @Test
+    @DisplayName("Should persist results and scanned spaces across restarts")
+    void shouldPersistResults() {
+        counts[0] = 2;
+        store.record("1", 7, "DEV", counts);
+        store.completeScan(List.of("DEV"), Set.of("1"));
+        store.save();
+        
+        AuditResultStore reloaded = newStore(true);
+        int[] loaded = new int[counts.length];
+        assertTrue(reloaded.lookup("1", 7, loaded));
+        assertEquals(2, loaded[0]);
+        assertTrue(reloaded.hasScanned("DEV"));
+    }
+    
+    @Test
+    @DisplayName("Should keep stored results when the server restarts on a later day")
+    void shouldKeepResultsAcrossDays() {
+        AuditKeywordMatcher monday = new AuditKeywordMatcher(LocalDate.of(2026, 1, 12));
+        AuditKeywordMatcher tuesday = new AuditKeywordMatcher(LocalDate.of(2026, 1, 13));
+        assertNotEquals(AuditQuery.STALE_PAGES.getCql(LocalDate.of(2026, 1, 12)),
+            AuditQuery.STALE_PAGES.getCql(LocalDate.of(2026, 1, 13)));
+        assertEquals(monday.signature(), tuesday.signature());
+        
+        AuditResultStore stored = newStore(true, monday);
+        stored.record("1", 7, "DEV", counts);
+        stored.save();
+        
+        assertTrue(newStore(true, tuesday).contains("1", 7));
+    }
+    
+    @Test
+    @DisplayName("Should keep nothing when incremental audits are disabled")
+    void shouldIgnoreResultsWhenDisabled() {
+        AuditResultStore disabled = newStore(false);
+        disabled.record("1", 1, "DEV", counts);
+        
+        assertFalse(disabled.lookup("1", 1, counts));
+        assertEquals(0, disabled.size());
+    }
+    
+    private AuditResultStore newStore(boolean incremental) {
+        return newStore(incremental, keywordMatcher);
+    }
+    
+    private AuditResultStore newStore(boolean incremental, AuditKeywordMatcher matcher) {
+        AuditProperties properties = new AuditProperties(4, 50, 20000, 8, Duration.ofSeconds(20),
+            Duration.ofSeconds(30), incremental, tempDir.toString(), 400);
+        return new AuditResultStore(properties, matcher, objectMapper);
+    }
+}
\ No newline at end of file
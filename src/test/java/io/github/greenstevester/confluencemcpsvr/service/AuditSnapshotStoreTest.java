@@ -0,0 +1,81 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.config.AuditProperties;
+import io.github.greenstevester.confluencemcpsvr.index.SortedIdSet;
+import io.github.greenstevester.confluencemcpsvr.service.AuditSnapshotStore.AuditSnapshot;
+import io.github.greenstevester.confluencemcpsvr.service.AuditSnapshotStore.SnapshotInfo;
+import io.github.greenstevester.confluencemcpsvr.service.DocumentationAuditService.AuditQuery;
+import io.github.greenstevester.confluencemcpsvr.service.StreamingAuditEngine.AuditRun;
+import io.github.greenstevester.confluencemcpsvr.service.StreamingAuditEngine.PageHit;
+import io.github.greenstevester.confluencemcpsvr.service.StreamingAuditEngine.QueryResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AuditSnapshotStore
+ */
+@DisplayName("AuditSnapshotStore Tests")
+class AuditSnapshotStoreTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    @DisplayName("Should save, list and load snapshots with per-space aggregates")
+    void shouldRoundTripSnapshots() throws IOException {
+        AuditSnapshotStore store = newStore(10);
+        AuditSnapshot saved = store.save(run(List.of("12", "10"), List.of("11")));
+        
+        List<SnapshotInfo> listed = store.list();
+        assertEquals(1, listed.size());
+        assertEquals(saved.id(), listed.get(0).id());
+        assertEquals(2, listed.get(0).queryCount());
+        
+        AuditSnapshot loaded = store.load(saved.id());
+        assertEquals(SortedIdSet.of(10, 12), loaded.query("TODO_MARKERS").pages());
+        assertEquals(SortedIdSet.of(11), loaded.query("OLD_PAGES").pages());
+        assertEquals("DEV", loaded.spaces().get(0).spaceKey());
+        assertEquals(3, loaded.spaces().get(0).pages());
+        assertArrayEquals(new int[] {2, 1}, loaded.spaces().get(0).queryHits());
+        assertNull(store.load("../../etc/passwd"));
+    }
+    
+    @Test
+    @DisplayName("Should keep only the configured number of snapshots")
+    void shouldPruneOldSnapshots() throws IOException {
+        AuditSnapshotStore store = newStore(2);
+        AuditSnapshot oldest = store.save(run(List.of("1"), List.of()));
+        store.save(run(List.of("2"), List.of()));
+        AuditSnapshot latest = store.save(run(List.of("3"), List.of()));
+        
+        List<SnapshotInfo> listed = store.list();
+        assertEquals(2, listed.size());
+        assertEquals(latest.id(), listed.get(1).id());
+        assertNull(store.load(oldest.id()));
+    }
+    
+    private AuditSnapshotStore newStore(int retention) {
+        return new AuditSnapshotStore(new AuditProperties(4, 50, 20000, 8, Duration.ofSeconds(20),
+            Duration.ofSeconds(30), true, tempDir.toString(), retention));
+    }
+    
+    private static AuditRun run(List<String> todoPages, List<String> oldPages) {
+        return new AuditRun(List.of(
+            new QueryResult(AuditQuery.TODO_MARKERS, todoPages.stream().map(AuditSnapshotStoreTest::hit).toList()),
+            new QueryResult(AuditQuery.OLD_PAGES, oldPages.stream().map(AuditSnapshotStoreTest::hit).toList())),
+            List.of("DEV"), Map.of("DEV", 3), 3, 0, 1, false, false, 5);
+    }
+    
+    private static PageHit hit(String pageId) {
+        return new PageHit(pageId, "Page " + pageId, "DEV", null, 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.service.BatchJobJournal.JobState;
+import io.github.greenstevester.confluencemcpsvr.service.BatchUpdatePipeline.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BatchJobJournal
+ */
+@DisplayName("BatchJobJournal Tests")
+class BatchJobJournalTest {
+    
+    private static final Instant CREATED = Instant.parse("2026-01-15T10:00:00Z");
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    @DisplayName("Should replay completed and interrupted page updates")
+    void shouldReplayProgress() throws IOException {
+        Path file = tempDir.resolve("job.wal");
+        try (BatchJobJournal journal = BatchJobJournal.create(file, "job-1", CREATED, "add-disclaimer",
+                List.of("101", "102", "103"))) {
+            journal.started("101", 4);
+            journal.completed("101", Status.UPDATED, 5);
+            journal.started("102", 7);
+        }
+        
+        JobState state = BatchJobJournal.replay(file);
+        
+        assertEquals("job-1", state.jobId());
+        assertEquals(CREATED, state.createdAt());
+        assertEquals("add-disclaimer", state.template());
+        assertEquals(List.of("101", "102", "103"), state.pageIds());
+        assertEquals(Status.UPDATED, state.completed().get("101").status());
+        assertEquals(5, state.completed().get("101").toVersion());
+        assertEquals(List.of("102", "103"), state.pendingPageIds());
+        assertEquals(Map.of("102", 7), state.inDoubt());
+        assertFalse(state.finished());
+        assertEquals(Files.size(file), state.validLength());
+    }
+    
+    @Test
+    @DisplayName("Should ignore a torn last record and append after the intact ones")
+    void shouldRecoverFromTornRecord() throws IOException {
+        Path file = tempDir.resolve("job.wal");
+        try (BatchJobJournal journal = BatchJobJournal.create(file, "job-2", CREATED, "add-last-reviewed",
+                List.of("201", "202"))) {
+            journal.started("201", 1);
+        }
+        long intact = Files.size(file);
+        Files.write(file, new byte[] {3, 20, 0, 3}, StandardOpenOption.APPEND);
+        
+        JobState state = BatchJobJournal.replay(file);
+        assertEquals(intact, state.validLength());
+        assertEquals(Map.of("201", 1), state.inDoubt());
+        
+        try (BatchJobJournal journal = BatchJobJournal.reopen(file, state)) {
+            journal.completed("201", Status.SKIPPED, 2);
+            journal.completed("202", Status.NOT_FOUND, 0);
+            journal.finished();
+        }
+        
+        JobState resumed = BatchJobJournal.replay(file);
+        assertTrue(resumed.finished());
+        assertTrue(resumed.pendingPageIds().isEmpty());
+        assertEquals(Status.SKIPPED, resumed.completed().get("201").status());
+    }
+    
+    @Test
+    @DisplayName("Should replay a cancelled job as ended but not finished")
+    void shouldReplayCancelledJob() throws IOException {
+        Path file = tempDir.resolve("job.wal");
+        try (BatchJobJournal journal = BatchJobJournal.create(file, "job-4", CREATED, "custom", List.of("401", "402"))) {
+            journal.started("401", 3);
+            journal.cancelled();
+        }
+        
+        JobState state = BatchJobJournal.replay(file);
+        
+        assertTrue(state.cancelled());
+        assertTrue(state.ended());
+        assertFalse(state.finished());
+        assertEquals(Map.of("401", 3), state.inDoubt());
+    }
+    
+    @Test
+    @DisplayName("Should stop replay at a record whose checksum does not match")
+    void shouldStopAtCorruptRecord() throws IOException {
+        Path file = tempDir.resolve("job.wal");
+        try (BatchJobJournal journal = BatchJobJournal.create(file, "job-3", CREATED, "custom", List.of("301"))) {
+            journal.started("301", 9);
+        }
+        byte[] data = Files.readAllBytes(file);
+        data[data.length - 6] ^= 0x01;
+        Files.write(file, data);
+        
+        JobState state = BatchJobJournal.replay(file);
+        
+        assertTrue(state.inDoubt().isEmpty());
+        assertEquals(List.of("301"), state.pendingPageIds());
+    }
+    
+    @Test
+    @DisplayName("Should reject a file without an intact plan")
+    void shouldRejectFileWithoutPlan() throws IOException {
+        Path file = tempDir.resolve("job.wal");
+        Files.write(file, new byte[] {1, 2, 3});
+        
+        assertThrows(IOException.class, () -> BatchJobJournal.replay(file));
+    }
+}
\ No newline at end of file
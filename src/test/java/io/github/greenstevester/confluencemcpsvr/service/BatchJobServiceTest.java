@@ -0,0 +1,118 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.config.BatchProperties;
+import io.github.greenstevester.confluencemcpsvr.service.BatchJobService.JobResult;
+import io.github.greenstevester.confluencemcpsvr.service.BatchUpdatePipeline.PageOutcome;
+import io.github.greenstevester.confluencemcpsvr.service.BatchUpdatePipeline.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for resuming BatchJobService jobs from their journals
+ */
+@DisplayName("BatchJobService Tests")
+class BatchJobServiceTest {
+    
+    private static final Instant CREATED = Instant.parse("2026-01-15T10:00:00Z");
+    private static final String TEMPLATE = "<p>Reviewed</p>";
+    
+    @TempDir
+    Path tempDir;
+    
+    private final StubPagesService pagesService = new StubPagesService();
+    private BatchJobService service;
+    
+    @BeforeEach
+    void setUp() {
+        BatchProperties properties = new BatchProperties(2, 2, 2, Duration.ZERO, 2, tempDir.toString(), 5);
+        service = new BatchJobService(new BatchUpdatePipeline(pagesService, properties), new UpdateTemplates(),
+            pagesService, properties);
+    }
+    
+    @Test
+    @DisplayName("Should resume an interrupted job and settle the update it was in the middle of")
+    void shouldResumeInterruptedJob() throws IOException {
+        pagesService.page("101", 5, "<p>A</p>")
+            .page("102", 8, "<p>B</p>")
+            .page("103", 2, "<p>C</p>")
+            .page("104", 1, "<p>D</p>");
+        Path file = tempDir.resolve("job-1.wal");
+        try (BatchJobJournal journal = BatchJobJournal.create(file, "job-1", CREATED, TEMPLATE,
+                List.of("101", "102", "103", "104"))) {
+            journal.started("101", 4);
+            journal.completed("101", Status.UPDATED, 5);
+            // 102 moved on since its update started, 103 did not: the crash came before its write landed
+            journal.started("102", 7);
+            journal.started("103", 2);
+        }
+        
+        JobResult result = service.resume(file).block();
+        
+        assertNotNull(result);
+        assertEquals(1, result.completedBeforeResume());
+        assertEquals(List.of("101", "102", "103", "104"), result.outcomes().stream().map(PageOutcome::pageId).toList());
+        assertEquals(List.of(Status.UPDATED, Status.SKIPPED, Status.UPDATED, Status.UPDATED),
+            result.outcomes().stream().map(PageOutcome::status).toList());
+        assertTrue(result.outcomes().get(1).status().needsReview());
+        assertFalse(result.outcomes().get(1).status().isSuccess());
+        assertEquals(Set.of("103", "104"), Set.copyOf(pagesService.writes()));
+        assertEquals("<p>B</p>", pagesService.get("102").body().storage().value());
+        
+        BatchJobJournal.JobState state = BatchJobJournal.replay(file);
+        assertTrue(state.finished());
+        assertEquals(Status.SKIPPED, state.completed().get("102").status());
+    }
+    
+    @Test
+    @DisplayName("Should report the job ID and counts after every page")
+    void shouldReportProgress() {
+        pagesService.page("301", 1, "<p>A</p>").page("302", 1, "<p>B</p>");
+        List<BatchJobService.JobProgress> reports = new ArrayList<>();
+        
+        JobResult result = service.submit(List.of("301", "999", "302"), TEMPLATE, reports::add).block();
+        
+        assertNotNull(result);
+        assertEquals(4, reports.size());
+        assertTrue(reports.stream().allMatch(progress -> progress.jobId().equals(result.jobId())));
+        assertEquals(0, reports.get(0).done());
+        BatchJobService.JobProgress last = reports.get(3);
+        assertEquals(3, last.done());
+        assertEquals(3, last.total());
+        assertEquals(2, last.updated());
+        assertEquals(1, last.failed());
+        assertTrue(last.describe().startsWith("Batch job `" + result.jobId() + "`: 3 of 3 pages done"));
+    }
+    
+    @Test
+    @DisplayName("Should not resume finished or cancelled jobs")
+    void shouldNotResumeEndedJobs() throws IOException {
+        pagesService.page("201", 3, "<p>A</p>");
+        Path finished = tempDir.resolve("job-2.wal");
+        try (BatchJobJournal journal = BatchJobJournal.create(finished, "job-2", CREATED, TEMPLATE, List.of("201"))) {
+            journal.started("201", 3);
+            journal.completed("201", Status.UPDATED, 4);
+            journal.finished();
+        }
+        Path cancelled = tempDir.resolve("job-3.wal");
+        try (BatchJobJournal journal = BatchJobJournal.create(cancelled, "job-3", CREATED, TEMPLATE, List.of("201"))) {
+            journal.started("201", 3);
+            journal.cancelled();
+        }
+        
+        assertNull(service.resume(finished).block());
+        assertNull(service.resume(cancelled).block());
+        assertTrue(pagesService.writes().isEmpty());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.config.BatchProperties;
+import io.github.greenstevester.confluencemcpsvr.service.BatchUpdatePipeline.PageOutcome;
+import io.github.greenstevester.confluencemcpsvr.service.BatchUpdatePipeline.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BatchUpdatePipeline
+ */
+@DisplayName("BatchUpdatePipeline Tests")
+class BatchUpdatePipelineTest {
+    
+    private static final UnaryOperator<String> APPEND_NOTE = content -> content + "<p>Reviewed</p>";
+    
+    private final StubPagesService pagesService = new StubPagesService();
+    
+    @Test
+    @DisplayName("Should re-read and re-apply the template after a version conflict")
+    void shouldRetryConflict() {
+        pagesService.page("101", 4, "<p>Body</p>").concurrentEdits("101", 1);
+        
+        PageOutcome outcome = run(List.of("101"), false).get(0);
+        
+        assertEquals(Status.UPDATED, outcome.status());
+        assertEquals(2, outcome.attempts());
+        assertEquals(5, outcome.fromVersion());
+        assertEquals(6, outcome.toVersion());
+        assertEquals("<p>Body</p> (edited)<p>Reviewed</p>", pagesService.get("101").body().storage().value());
+    }
+    
+    @Test
+    @DisplayName("Should give up once the conflict retries are used up")
+    void shouldGiveUpAfterMaxConflictRetries() {
+        pagesService.page("101", 4, "<p>Body</p>").concurrentEdits("101", 10);
+        
+        PageOutcome outcome = run(List.of("101"), false).get(0);
+        
+        // One first attempt plus maxConflictRetries (2) re-reads
+        assertEquals(Status.CONFLICT, outcome.status());
+        assertEquals(3, outcome.attempts());
+        assertFalse(outcome.status().isSuccess());
+        assertTrue(pagesService.writes().isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Should report pages that cannot be read as not found")
+    void shouldReportMissingPage() {
+        pagesService.page("101", 1, "<p>Body</p>");
+        
+        List<PageOutcome> outcomes = run(List.of("999", "101"), false);
+        
+        assertEquals(Status.NOT_FOUND, outcomes.get(0).status());
+        assertEquals(Status.UPDATED, outcomes.get(1).status());
+        assertEquals(List.of("101"), pagesService.writes());
+    }
+    
+    @Test
+    @DisplayName("Should write repeated pages once and return outcomes in input order")
+    void shouldKeepInputOrderAndWriteDuplicatesOnce() {
+        pagesService.page("101", 1, "<p>A</p>").page("102", 1, "<p>B</p>").page("103", 1, "<p>C</p>");
+        
+        List<PageOutcome> outcomes = run(List.of("103", "101", "103", "102"), false);
+        
+        assertEquals(List.of("103", "101", "103", "102"), outcomes.stream().map(PageOutcome::pageId).toList());
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.status() == Status.UPDATED));
+        assertEquals(3, pagesService.writes().size());
+        assertEquals("<p>C</p><p>Reviewed</p>", pagesService.get("103").body().storage().value());
+    }
+    
+    @Test
+    @DisplayName("Should only report changes in a dry run")
+    void shouldNotWriteInDryRun() {
+        pagesService.page("101", 1, "<p>A</p>");
+        
+        List<PageOutcome> outcomes = run(List.of("101", "101"), true);
+        
+        assertEquals(List.of(Status.WOULD_UPDATE, Status.WOULD_UPDATE), outcomes.stream().map(PageOutcome::status).toList());
+        assertTrue(pagesService.writes().isEmpty());
+    }
+    
+    private List<PageOutcome> run(List<String> pageIds, boolean dryRun) {
+        BatchProperties properties = new BatchProperties(2, 2, 4, Duration.ZERO, 2, "build/batch-jobs", 5);
+        return new BatchUpdatePipeline(pagesService, properties).run(pageIds, APPEND_NOTE, dryRun).block();
+    }
+}
\ No newline at end of file
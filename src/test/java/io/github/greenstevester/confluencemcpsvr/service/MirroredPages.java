@@ -0,0 +1,101 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import io.github.greenstevester.confluencemcpsvr.sync.MirroredPage;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Test fixture for mirrored pages. Index, CQL and audit tests build their corpus through it, so a
+ * new {@link MirroredPage} field only has to be filled in here.
+ */
+public final class MirroredPages {
+    
+    private MirroredPages() {
+    }
+    
+    /**
+     * An empty in-memory mirror
+     */
+    public static LocalPageStore newStore() {
+        return new LocalPageStore(new ObjectMapper().findAndRegisterModules());
+    }
+    
+    /**
+     * A current version 1 page modified now, with no labels
+     */
+    public static MirroredPage page(String id, String title, String spaceKey, String body) {
+        return builder(id).title(title).space(spaceKey).body(body).build();
+    }
+    
+    /**
+     * A page titled "Page {id}" in DEV with an empty body, to be adjusted field by field
+     */
+    public static Builder builder(String id) {
+        return new Builder(id);
+    }
+    
+    public static final class Builder {
+        
+        private final String id;
+        private String title;
+        private String spaceKey = "DEV";
+        private String status = "current";
+        private int version = 1;
+        private Instant lastModified = Instant.now();
+        private String body = "";
+        private List<String> labels = List.of();
+        private String authorId;
+        
+        private Builder(String id) {
+            this.id = id;
+            this.title = "Page " + id;
+        }
+        
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+        
+        public Builder space(String spaceKey) {
+            this.spaceKey = spaceKey;
+            return this;
+        }
+        
+        public Builder status(String status) {
+            this.status = status;
+            return this;
+        }
+        
+        public Builder version(int version) {
+            this.version = version;
+            return this;
+        }
+        
+        public Builder lastModified(Instant lastModified) {
+            this.lastModified = lastModified;
+            return this;
+        }
+        
+        public Builder body(String body) {
+            this.body = body;
+            return this;
+        }
+        
+        public Builder labels(List<String> labels) {
+            this.labels = labels;
+            return this;
+        }
+        
+        public Builder author(String authorId) {
+            this.authorId = authorId;
+            return this;
+        }
+        
+        public MirroredPage build() {
+            return new MirroredPage(id, title, spaceKey, status, version, lastModified, body, Instant.now(), labels, authorId);
+        }
+    }
+}
\ No newline at end of file
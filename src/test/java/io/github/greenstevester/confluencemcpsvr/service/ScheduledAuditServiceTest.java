@@ -0,0 +1,176 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.config.AuditScheduleProperties;
+import io.github.greenstevester.confluencemcpsvr.service.DocumentationAuditService.AuditQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScheduledAuditService
+ */
+@DisplayName("ScheduledAuditService Tests")
+class ScheduledAuditServiceTest {
+    
+    private static final String PRECOMPUTED = "> 🕒 **Precomputed report**";
+    
+    private final AtomicInteger documentationRuns = new AtomicInteger();
+    private final AtomicInteger checklistRuns = new AtomicInteger();
+    private final List<Integer> documentationLimits = new ArrayList<>();
+    private Supplier<Mono<String>> documentationReport = () -> Mono.just("Report " + documentationRuns.get());
+    private Supplier<Mono<String>> checklistReport = () -> Mono.just("run " + checklistRuns.get());
+    
+    private final DocumentationMiningService miningService = new DocumentationMiningService(
+            null, null, null, null, null, null, null, null, null, null) {
+        @Override
+        public Mono<String> performDocumentationAudit(Integer maxResults) {
+            return Mono.defer(() -> {
+                documentationRuns.incrementAndGet();
+                documentationLimits.add(maxResults);
+                return documentationReport.get();
+            });
+        }
+    };
+    
+    private final DocumentationAuditService auditService = new DocumentationAuditService(null, null, null, null, null) {
+        @Override
+        public Mono<String> executeSystematicAudit(List<AuditQuery> queries, Integer limitPerQuery,
+                                                   AsyncJobService.Progress progress) {
+            return Mono.defer(() -> {
+                checklistRuns.incrementAndGet();
+                progress.update("Running " + queries.size() + " queries");
+                return checklistReport.get().map(report -> "Checklist " + queries.size() + " queries, " + report);
+            });
+        }
+    };
+    
+    @Test
+    @DisplayName("Should serve the stored report until a refresh is forced")
+    void shouldServeStoredReport() {
+        ScheduledAuditService service = service(true);
+        
+        assertEquals("Report 1", service.documentationAudit(null, false).block());
+        String stored = service.documentationAudit(null, false).block();
+        assertTrue(stored.startsWith(PRECOMPUTED));
+        assertTrue(stored.endsWith("Report 1"));
+        assertEquals(1, documentationRuns.get());
+        
+        assertEquals("Report 2", service.documentationAudit(50, true).block());
+        assertTrue(service.documentationAudit(null, false).block().endsWith("Report 2"));
+        assertEquals(List.of(50, 50), documentationLimits);
+    }
+    
+    @Test
+    @DisplayName("Should run live for limits or checklists the schedule does not cover")
+    void shouldBypassStoreForOtherLimits() {
+        ScheduledAuditService service = service(true);
+        
+        assertEquals("Report 1", service.documentationAudit(10, false).block());
+        assertEquals("Report 2", service.documentationAudit(10, false).block());
+        // The live run with other limits did not become the stored report
+        assertEquals("Report 3", service.documentationAudit(null, false).block());
+        assertEquals(List.of(10, 10, 50), documentationLimits);
+        
+        assertEquals("Checklist 5 queries, run 1", service.systematicAudit("architecture", null, false).block());
+        assertEquals("Checklist 5 queries, run 2", service.systematicAudit("architecture", null, false).block());
+        assertEquals("Checklist 4 queries, run 3", service.systematicAudit("Quality", null, false).block());
+        assertTrue(service.systematicAudit("quality", 25, false).block().endsWith("run 4"));
+        assertTrue(service.systematicAudit("quality", null, false).block().startsWith(PRECOMPUTED));
+    }
+    
+    @Test
+    @DisplayName("Should run every call live when the schedule is disabled")
+    void shouldRunLiveWhenDisabled() {
+        ScheduledAuditService service = service(false);
+        
+        assertEquals("Report 1", service.documentationAudit(null, false).block());
+        assertEquals("Report 2", service.documentationAudit(null, false).block());
+    }
+    
+    @Test
+    @DisplayName("Should share one running refresh between concurrent callers")
+    void shouldShareRefreshInFlight() {
+        ScheduledAuditService service = service(true);
+        Sinks.One<String> pending = Sinks.one();
+        documentationReport = pending::asMono;
+        List<String> results = new ArrayList<>();
+        
+        service.documentationAudit(null, true).subscribe(results::add);
+        service.documentationAudit(null, true).subscribe(results::add);
+        pending.tryEmitValue("Shared report");
+        
+        assertEquals(1, documentationRuns.get());
+        assertEquals(List.of("Shared report", "Shared report"), results);
+        
+        // Once finished, the next refresh runs the audit again
+        documentationReport = () -> Mono.just("Report " + documentationRuns.get());
+        assertEquals("Report 2", service.documentationAudit(null, true).block());
+    }
+    
+    @Test
+    @DisplayName("Should not share a refresh that reports progress to a caller's job")
+    void shouldNotShareRefreshWithProgress() {
+        ScheduledAuditService service = service(true);
+        Sinks.One<String> pending = Sinks.one();
+        checklistReport = pending::asMono;
+        List<String> results = new ArrayList<>();
+        List<String> updates = new ArrayList<>();
+        
+        // A scheduled or untracked refresh is running when a job asks for its own
+        service.systematicAudit("quality", null, true).subscribe(results::add);
+        checklistReport = () -> Mono.just("run " + checklistRuns.get());
+        String tracked = service.systematicAudit("quality", null, true, updates::add).block();
+        
+        assertEquals(2, checklistRuns.get());
+        assertEquals("Checklist 4 queries, run 2", tracked);
+        assertEquals(List.of("Running 4 queries"), updates);
+        
+        pending.tryEmitValue("run 1");
+        assertEquals(List.of("Checklist 4 queries, run 1"), results);
+    }
+    
+    @Test
+    @DisplayName("Should keep the previous report when a scheduled run fails")
+    void shouldKeepPreviousReportOnFailure() {
+        ScheduledAuditService service = service(true);
+        service.runScheduledAudits();
+        
+        documentationReport = () -> Mono.error(new IllegalStateException("Confluence unavailable"));
+        service.runScheduledAudits();
+        
+        String served = service.documentationAudit(null, false).block();
+        assertTrue(served.startsWith(PRECOMPUTED));
+        assertTrue(served.endsWith("Report 1"));
+        assertEquals(2, documentationRuns.get());
+        assertTrue(service.getFormattedStats().contains("1 failed audits"));
+    }
+    
+    @Test
+    @DisplayName("Should evaluate the cron in the configured time zone")
+    void shouldScheduleInCronZone() {
+        ScheduledAuditService service = service(true);
+        
+        // 12:00 UTC is 07:00 in New York, so the 03:00 run there is next due the following night
+        ZonedDateTime next = service.nextRunAfter(Instant.parse("2026-01-15T12:00:00Z"));
+        
+        assertEquals(ZoneId.of("America/New_York"), next.getZone());
+        assertEquals(Instant.parse("2026-01-16T08:00:00Z"), next.toInstant());
+    }
+    
+    private ScheduledAuditService service(boolean enabled) {
+        AuditScheduleProperties properties = new AuditScheduleProperties(enabled, "0 0 3 * * *", true,
+            List.of("quality", "freshness"), 50, 50, false, ZoneId.of("America/New_York"));
+        return new ScheduledAuditService(miningService, auditService, properties);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,277 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.greenstevester.confluencemcpsvr.client.ConfluencePagesClient;
+import io.github.greenstevester.confluencemcpsvr.config.AuditProperties;
+import io.github.greenstevester.confluencemcpsvr.config.SyncProperties;
+import io.github.greenstevester.confluencemcpsvr.model.common.ContentRepresentation;
+import io.github.greenstevester.confluencemcpsvr.model.common.PaginatedResponse;
+import io.github.greenstevester.confluencemcpsvr.model.common.ResponseLinks;
+import io.github.greenstevester.confluencemcpsvr.model.common.Version;
+import io.github.greenstevester.confluencemcpsvr.model.dto.GetPageRequest;
+import io.github.greenstevester.confluencemcpsvr.model.enums.ContentStatus;
+import io.github.greenstevester.confluencemcpsvr.model.page.Page;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageBody;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageDetailed;
+import io.github.greenstevester.confluencemcpsvr.service.DocumentationAuditService.AuditQuery;
+import io.github.greenstevester.confluencemcpsvr.sync.ConfluenceSyncService;
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.newStore;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.page;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StreamingAuditEngine
+ */
+@DisplayName("StreamingAuditEngine Tests")
+class StreamingAuditEngineTest {
+    
+    private static final List<AuditQuery> QUERIES = List.of(AuditQuery.TODO_MARKERS);
+    
+    @TempDir
+    Path tempDir;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AuditKeywordMatcher keywordMatcher = new AuditKeywordMatcher();
+    private final Map<String, List<Page>> spaces = new HashMap<>();
+    private final Map<String, PageDetailed> fetched = new HashMap<>();
+    private final AtomicInteger bodyListings = new AtomicInteger();
+    private final AtomicInteger fetches = new AtomicInteger();
+    
+    private LocalPageStore pageStore;
+    private ConfluencePagesClient pagesClient;
+    private ConfluenceSyncService syncService;
+    private AuditResultStore resultStore;
+    private boolean mirrorFresh;
+    // Most pages the stubbed server returns per listing, whatever the limit asked for
+    private int maxPageSize = Integer.MAX_VALUE;
+    
+    @BeforeEach
+    void setUp() {
+        pageStore = newStore();
+        pagesClient = new ConfluencePagesClient(null) {
+            @Override
+            public Mono<PaginatedResponse<Page>> listSpacePagesWithBodies(String spaceKey, int start, int limit) {
+                bodyListings.incrementAndGet();
+                return Mono.just(listing(spaceKey, start, limit));
+            }
+            
+            @Override
+            public Mono<PaginatedResponse<Page>> listSpacePages(String spaceKey, int start, int limit) {
+                PaginatedResponse<Page> withBodies = listing(spaceKey, start, limit);
+                List<Page> listed = withBodies.results().stream()
+                    .map(page -> listedPage(page.id(), page.title(), page.version().number(), null))
+                    .toList();
+                return Mono.just(new PaginatedResponse<>(new ArrayList<>(listed), withBodies.links()));
+            }
+            
+            @Override
+            public Mono<PageDetailed> getPage(String pageId, GetPageRequest request) {
+                fetches.incrementAndGet();
+                return Mono.justOrEmpty(fetched.get(pageId));
+            }
+        };
+        SyncProperties syncProperties = new SyncProperties(true, Duration.ofMinutes(10), Duration.ofHours(1),
+            Duration.ofMinutes(30), Duration.ofHours(1), 4, 50, List.of(), tempDir.toString());
+        syncService = new ConfluenceSyncService(null, null, pageStore, syncProperties, null, objectMapper) {
+            @Override
+            public boolean isMirrorFresh() {
+                return mirrorFresh;
+            }
+        };
+        resultStore = new AuditResultStore(properties(20000), keywordMatcher, objectMapper);
+    }
+    
+    @Test
+    @DisplayName("Should audit a fresh mirror without calling Confluence")
+    void shouldAuditMirror() {
+        mirrorFresh = true;
+        pageStore.upsert(page("1", "Setup", "DEV", "<p>TODO: document the proxy.</p>"));
+        pageStore.upsert(page("2", "Runbook", "DEV", "<p>Nothing left to do.</p>"));
+        pageStore.upsert(page("3", "Release", "OPS", "<p>FIXME before the next release.</p>"));
+        
+        StreamingAuditEngine.AuditRun run = engine(20000).run(QUERIES, List.of()).block();
+        
+        assertTrue(run.fromMirror());
+        assertFalse(run.truncated());
+        assertEquals(0, run.upstreamCalls());
+        assertEquals(3, run.pagesScanned());
+        assertEquals(List.of("1", "3"), hitIds(run));
+    }
+    
+    @Test
+    @DisplayName("Should stream a space listing page by page when the mirror is not fresh")
+    void shouldAuditListing() {
+        spaces.put("DEV", List.of(
+            listedPage("1", "Setup", 1, "<p>TODO: document the proxy.</p>"),
+            listedPage("2", "Runbook", 1, "<p>Nothing left to do.</p>"),
+            listedPage("3", "Release", 1, "<p>HACK around the build.</p>")));
+        
+        StreamingAuditEngine.AuditRun run = engine(20000).run(QUERIES, List.of("DEV")).block();
+        
+        assertFalse(run.fromMirror());
+        assertFalse(run.truncated());
+        assertEquals(2, run.upstreamCalls());
+        assertEquals(3, run.pagesScanned());
+        assertEquals(Map.of("DEV", 3), run.spacePages());
+        assertEquals(List.of("1", "3"), hitIds(run));
+        assertTrue(resultStore.hasScanned("DEV"));
+    }
+    
+    @Test
+    @DisplayName("Should follow next links when the server returns fewer pages than asked")
+    void shouldWalkClampedListing() {
+        maxPageSize = 1;
+        spaces.put("DEV", List.of(
+            listedPage("1", "Setup", 1, "<p>TODO: document the proxy.</p>"),
+            listedPage("2", "Runbook", 1, "<p>Nothing left to do.</p>"),
+            listedPage("3", "Release", 1, "<p>HACK around the build.</p>")));
+        
+        StreamingAuditEngine.AuditRun run = engine(20000).run(QUERIES, List.of("DEV")).block();
+        
+        assertEquals(3, run.upstreamCalls());
+        assertEquals(3, run.pagesScanned());
+        assertEquals(List.of("1", "3"), hitIds(run));
+        
+        run = engine(20000).run(QUERIES, List.of("DEV")).block();
+        assertEquals(3, run.pagesReused());
+        assertTrue(resultStore.contains("3", 1));
+    }
+    
+    @Test
+    @DisplayName("Should flag a mirror pass cut at the page limit and keep stored results")
+    void shouldFlagTruncatedMirrorPass() {
+        mirrorFresh = true;
+        resultStore.record("9", 1, "DEV", new int[keywordMatcher.categoryCount()]);
+        pageStore.upsert(page("1", "Setup", "DEV", "<p>TODO</p>"));
+        pageStore.upsert(page("2", "Runbook", "DEV", "<p>Done</p>"));
+        
+        StreamingAuditEngine.AuditRun exact = engine(2).run(QUERIES, List.of()).block();
+        assertFalse(exact.truncated());
+        assertFalse(resultStore.contains("9", 1));
+        
+        resultStore.record("9", 1, "DEV", new int[keywordMatcher.categoryCount()]);
+        pageStore.upsert(page("3", "Release", "DEV", "<p>Done</p>"));
+        StreamingAuditEngine.AuditRun cut = engine(2).run(QUERIES, List.of()).block();
+        
+        assertTrue(cut.truncated());
+        assertEquals(2, cut.pagesScanned());
+        // A partial pass must not prune pages it never reached
+        assertTrue(resultStore.contains("9", 1));
+    }
+    
+    @Test
+    @DisplayName("Should flag a listing pass cut at the page limit")
+    void shouldFlagTruncatedListing() {
+        spaces.put("DEV", List.of(
+            listedPage("1", "Setup", 1, "<p>TODO</p>"),
+            listedPage("2", "Runbook", 1, "<p>Done</p>"),
+            listedPage("3", "Release", 1, "<p>Done</p>")));
+        
+        StreamingAuditEngine.AuditRun run = engine(2).run(QUERIES, List.of("DEV")).block();
+        
+        assertTrue(run.truncated());
+        assertEquals(2, run.pagesScanned());
+        assertEquals(2, run.spacePages().get("DEV"));
+        assertFalse(resultStore.hasScanned("DEV"));
+    }
+    
+    @Test
+    @DisplayName("Should reuse unchanged pages and fetch only edited ones")
+    void shouldReuseUnchangedPages() {
+        spaces.put("DEV", List.of(
+            listedPage("1", "Setup", 1, "<p>TODO: document the proxy.</p>"),
+            listedPage("2", "Runbook", 1, "<p>Nothing left to do.</p>"),
+            listedPage("3", "Release", 1, "<p>Done</p>")));
+        engine(20000).run(QUERIES, List.of("DEV")).block();
+        
+        // Page 2 was edited after the listing, so the fetch returns a newer version and title
+        spaces.put("DEV", List.of(
+            listedPage("1", "Setup", 1, "<p>TODO: document the proxy.</p>"),
+            listedPage("2", "Runbook", 2, null),
+            listedPage("3", "Release", 1, "<p>Done</p>")));
+        fetched.put("2", detailedPage("2", "Runbook (renamed)", 3, "<p>FIXME: restart steps.</p>"));
+        int listingsBefore = bodyListings.get();
+        
+        StreamingAuditEngine.AuditRun run = engine(20000).run(QUERIES, List.of("DEV")).block();
+        
+        assertEquals(listingsBefore, bodyListings.get());
+        assertEquals(1, fetches.get());
+        assertEquals(2, run.pagesReused());
+        assertEquals(List.of("1", "2"), hitIds(run));
+        StreamingAuditEngine.PageHit renamed = run.results().get(0).pages().stream()
+            .filter(hit -> hit.pageId().equals("2")).findFirst().orElseThrow();
+        assertEquals("Runbook (renamed)", renamed.title());
+        assertTrue(resultStore.contains("2", 3));
+    }
+    
+    @Test
+    @DisplayName("Should drop stored results of pages a complete pass no longer sees")
+    void shouldPruneDeletedPages() {
+        spaces.put("DEV", List.of(
+            listedPage("1", "Setup", 1, "<p>TODO</p>"),
+            listedPage("2", "Runbook", 1, "<p>Done</p>")));
+        engine(20000).run(QUERIES, List.of("DEV")).block();
+        assertTrue(resultStore.contains("2", 1));
+        
+        spaces.put("DEV", List.of(listedPage("1", "Setup", 1, "<p>TODO</p>")));
+        engine(20000).run(QUERIES, List.of("DEV")).block();
+        
+        assertTrue(resultStore.contains("1", 1));
+        assertFalse(resultStore.contains("2", 1));
+    }
+    
+    private StreamingAuditEngine engine(int maxPages) {
+        return new StreamingAuditEngine(pagesClient, null, pageStore, syncService, keywordMatcher, resultStore,
+            properties(maxPages));
+    }
+    
+    private AuditProperties properties(int maxPages) {
+        return new AuditProperties(2, 2, maxPages, 8, Duration.ofSeconds(20), Duration.ofSeconds(30), true,
+            tempDir.toString(), 400);
+    }
+    
+    private PaginatedResponse<Page> listing(String spaceKey, int start, int limit) {
+        List<Page> pages = spaces.getOrDefault(spaceKey, List.of());
+        int end = Math.min(start + Math.min(limit, maxPageSize), pages.size());
+        ResponseLinks links = end < pages.size()
+            ? new ResponseLinks("/wiki/rest/api/space/" + spaceKey + "/content/page?start=" + end, null, null, null) : null;
+        return new PaginatedResponse<>(new ArrayList<>(pages.subList(Math.min(start, pages.size()), end)), links);
+    }
+    
+    private static List<String> hitIds(StreamingAuditEngine.AuditRun run) {
+        return run.results().get(0).pages().stream().map(StreamingAuditEngine.PageHit::pageId).sorted().toList();
+    }
+    
+    private static Page listedPage(String id, String title, int version, String body) {
+        return new Page(id, ContentStatus.CURRENT, title, null, null, null, null, null, null, null, null,
+            version(version), body != null ? new PageBody(new ContentRepresentation(body, "storage"), null, null) : null,
+            null, null);
+    }
+    
+    private static PageDetailed detailedPage(String id, String title, int version, String body) {
+        return new PageDetailed(id, title, null, null,
+            new PageBody(new ContentRepresentation(body, "storage"), null, null),
+            version(version), List.of(), null, null, null);
+    }
+    
+    private static Version version(int number) {
+        return new Version(null, null, number, false, null, OffsetDateTime.now(ZoneOffset.UTC), null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import io.github.greenstevester.confluencemcpsvr.model.common.ContentRepresentation;
+import io.github.greenstevester.confluencemcpsvr.model.common.Version;
+import io.github.greenstevester.confluencemcpsvr.model.dto.UpdatePageRequest;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageBody;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageDetailed;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * In-memory pages service for batch update tests. Pages are versioned like Confluence: an update
+ * must name the next version, and a page can be set up to lose a number of writes to a concurrent
+ * editor, each of which bumps its version and answers the write with a 409.
+ */
+class StubPagesService extends ConfluencePagesService {
+    
+    private final Map<String, PageDetailed> pages = new HashMap<>();
+    private final Map<String, Integer> concurrentEdits = new HashMap<>();
+    private final List<String> writes = new ArrayList<>();
+    
+    StubPagesService() {
+        super(null, null, null, null, null, null, null, null, null);
+    }
+    
+    synchronized StubPagesService page(String id, int version, String body) {
+        pages.put(id, page(id, "Page " + id, version, body));
+        return this;
+    }
+    
+    /**
+     * Let someone else edit the page before each of the next {@code count} writes to it
+     */
+    synchronized StubPagesService concurrentEdits(String id, int count) {
+        concurrentEdits.put(id, count);
+        return this;
+    }
+    
+    synchronized PageDetailed get(String id) {
+        return pages.get(id);
+    }
+    
+    /**
+     * Page IDs of the accepted writes, in order
+     */
+    synchronized List<String> writes() {
+        return List.copyOf(writes);
+    }
+    
+    @Override
+    public Mono<List<PageDetailed>> getPageModels(List<String> pageIds) {
+        return Mono.fromSupplier(() -> {
+            synchronized (this) {
+                return pageIds.stream().map(pages::get).filter(Objects::nonNull).toList();
+            }
+        });
+    }
+    
+    @Override
+    public Mono<PageDetailed> refreshCachedPage(String pageId) {
+        return Mono.defer(() -> Mono.justOrEmpty(get(pageId)));
+    }
+    
+    @Override
+    public Mono<PageDetailed> updatePageModel(UpdatePageRequest request) {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                PageDetailed current = pages.get(request.pageId());
+                if (current == null) {
+                    return Mono.error(WebClientResponseException.create(404, "Not Found", null, null, null));
+                }
+                int edits = concurrentEdits.getOrDefault(request.pageId(), 0);
+                if (edits > 0) {
+                    concurrentEdits.put(request.pageId(), edits - 1);
+                    pages.put(current.id(), page(current.id(), current.title(), current.version().number() + 1,
+                        current.body().storage().value() + " (edited)"));
+                    return Mono.error(WebClientResponseException.create(409, "Conflict", null, null, null));
+                }
+                if (request.version() != current.version().number() + 1) {
+                    return Mono.error(WebClientResponseException.create(409, "Conflict", null, null, null));
+                }
+                PageDetailed updated = page(current.id(), request.title(), request.version(), request.content());
+                pages.put(updated.id(), updated);
+                writes.add(updated.id());
+                return Mono.just(updated);
+            }
+        });
+    }
+    
+    private static PageDetailed page(String id, String title, int version, String body) {
+        return new PageDetailed(id, title, null, null,
+            new PageBody(new ContentRepresentation(body, "storage"), null, null),
+            new Version(null, null, version, false, null, null, null),
+            List.of(), null, null, null);
+    }
+}
\ No newline at end of file
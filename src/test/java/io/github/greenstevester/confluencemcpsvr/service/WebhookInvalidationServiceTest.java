@@ -0,0 +1,95 @@
+package io.github.greenstevester.confluencemcpsvr.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.greenstevester.confluencemcpsvr.cache.PageCache;
+import io.github.greenstevester.confluencemcpsvr.config.CacheProperties;
+import io.github.greenstevester.confluencemcpsvr.config.WebhookProperties;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageDetailed;
+import io.github.greenstevester.confluencemcpsvr.model.webhook.WebhookEvent;
+import io.github.greenstevester.confluencemcpsvr.sync.LocalPageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WebhookInvalidationService, replaying recorded Confluence webhook payloads
+ */
+@DisplayName("WebhookInvalidationService Tests")
+class WebhookInvalidationServiceTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private PageCache pageCache;
+    private WebhookInvalidationService service;
+    
+    @BeforeEach
+    void setUp() {
+        pageCache = new PageCache(new CacheProperties(
+            true, 100, Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofHours(24), 0.1));
+        service = new WebhookInvalidationService(
+            pageCache, new LocalPageStore(objectMapper), null, new WebhookProperties(true, null, Duration.ofSeconds(2), false));
+    }
+    
+    @Test
+    @DisplayName("Should coalesce repeated events for the same page into one invalidation")
+    void testEventStormIsCoalesced() throws IOException {
+        cachePage("123456");
+        
+        for (int i = 0; i < 50; i++) {
+            assertTrue(service.submit(recorded("page_updated")));
+        }
+        assertTrue(service.submit(recorded("page_moved")));
+        assertEquals(1, service.pendingCount());
+        
+        WebhookInvalidationService.BatchResult result = service.flush();
+        
+        assertEquals(List.of("123456"), result.invalidatedPages());
+        assertNull(pageCache.get("123456"));
+        assertEquals(0, service.pendingCount());
+    }
+    
+    @Test
+    @DisplayName("Should evict removed pages and invalidate created ones")
+    void testRemovalAndCreation() throws IOException {
+        cachePage("123457");
+        
+        service.submit(recorded("page_removed"));
+        service.submit(recorded("page_created"));
+        WebhookInvalidationService.BatchResult result = service.flush();
+        
+        assertEquals(List.of("123457"), result.evictedPages());
+        assertEquals(List.of("123458"), result.invalidatedPages());
+        assertFalse(pageCache.contains("123457"));
+    }
+    
+    @Test
+    @DisplayName("Should queue space events and ignore unrelated events")
+    void testSpaceAndUnrelatedEvents() throws IOException {
+        assertTrue(service.submit(recorded("space_updated")));
+        assertFalse(service.submit(recorded("user_created")));
+        
+        WebhookInvalidationService.BatchResult result = service.flush();
+        
+        assertEquals(List.of("DEV"), result.changedSpaces());
+        assertTrue(service.flush().isEmpty());
+    }
+    
+    private void cachePage(String pageId) {
+        pageCache.put(new PageDetailed(pageId, "Page " + pageId, "98304", null, null, null, null, null, null, null));
+        assertTrue(pageCache.contains(pageId));
+    }
+    
+    private WebhookEvent recorded(String name) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/webhooks/" + name + ".json")) {
+            assertNotNull(in, "Missing recorded payload " + name);
+            return objectMapper.readValue(in, WebhookEvent.class);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package io.github.greenstevester.confluencemcpsvr.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.greenstevester.confluencemcpsvr.client.ConfluencePagesClient;
+import io.github.greenstevester.confluencemcpsvr.config.CrawlerProperties;
+import io.github.greenstevester.confluencemcpsvr.config.SyncProperties;
+import io.github.greenstevester.confluencemcpsvr.model.common.ContentRepresentation;
+import io.github.greenstevester.confluencemcpsvr.model.common.PaginatedResponse;
+import io.github.greenstevester.confluencemcpsvr.model.common.ResponseLinks;
+import io.github.greenstevester.confluencemcpsvr.model.common.Version;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageBody;
+import io.github.greenstevester.confluencemcpsvr.model.page.PageDetailed;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConfluenceCrawlerService
+ */
+@DisplayName("ConfluenceCrawlerService Tests")
+class ConfluenceCrawlerServiceTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Map<String, List<PageDetailed>> spaces = new HashMap<>();
+    // Most pages the stubbed server returns per listing, whatever the limit asked for
+    private int maxPageSize = Integer.MAX_VALUE;
+    
+    private LocalPageStore pageStore;
+    private ConfluenceCrawlerService crawler;
+    
+    @BeforeEach
+    void setUp() {
+        pageStore = new LocalPageStore(objectMapper);
+        ConfluencePagesClient pagesClient = new ConfluencePagesClient(null) {
+            @Override
+            public Mono<PaginatedResponse<PageDetailed>> listSpacePagesForMirror(String spaceKey, int start, int limit) {
+                List<PageDetailed> pages = spaces.getOrDefault(spaceKey, List.of());
+                int end = Math.min(start + Math.min(limit, maxPageSize), pages.size());
+                List<PageDetailed> listed = pages.subList(Math.min(start, pages.size()), end);
+                ResponseLinks links = end < pages.size() ? new ResponseLinks("/wiki/rest/api/space/" + spaceKey
+                    + "/content/page?start=" + end, null, null, null) : null;
+                return Mono.just(new PaginatedResponse<>(new ArrayList<>(listed), links));
+            }
+        };
+        CrawlerProperties crawlerProperties = new CrawlerProperties(true, 2, 2, Duration.ZERO, 0,
+            Duration.ofMinutes(1), Duration.ZERO, List.of("DEV", "OPS"));
+        SyncProperties syncProperties = new SyncProperties(false, Duration.ofMinutes(10), Duration.ofHours(1),
+            Duration.ofMinutes(30), Duration.ofHours(1), 4, 50, List.of(), tempDir.toString());
+        crawler = new ConfluenceCrawlerService(null, pagesClient, pageStore, crawlerProperties, syncProperties,
+            null, objectMapper);
+    }
+    
+    @Test
+    @DisplayName("Should remove pages a full walk of their space no longer lists")
+    void shouldRemoveUnlistedPages() {
+        spaces.put("DEV", List.of(page("1", 1), page("2", 1), page("3", 1)));
+        spaces.put("OPS", List.of(page("4", 1)));
+        assertTrue(crawler.crawlNow().isComplete());
+        assertEquals(4, pageStore.size());
+        
+        // Page 2 was deleted and page 4 moved to DEV without a new version
+        spaces.put("DEV", List.of(page("1", 1), page("3", 2), page("4", 1)));
+        spaces.put("OPS", List.of());
+        crawler.crawlNow();
+        
+        assertNull(pageStore.get("2"));
+        assertEquals(2, pageStore.get("3").version());
+        assertEquals("DEV", pageStore.get("4").spaceKey());
+        assertEquals(3, pageStore.size());
+    }
+    
+    @Test
+    @DisplayName("Should follow next links when the server returns fewer pages than asked")
+    void shouldWalkClampedListing() {
+        spaces.put("DEV", List.of(page("1", 1), page("2", 1), page("3", 1), page("4", 1), page("5", 1)));
+        assertTrue(crawler.crawlNow().isComplete());
+        
+        // The server now clamps every listing to one page, below the crawler's page size of two
+        maxPageSize = 1;
+        spaces.put("DEV", List.of(page("1", 1), page("2", 1), page("3", 1), page("5", 1)));
+        assertTrue(crawler.crawlNow().isComplete());
+        
+        assertNull(pageStore.get("4"));
+        assertEquals(4, pageStore.size());
+    }
+    
+    @Test
+    @DisplayName("Should keep the mirror on disk across a restart")
+    void shouldPersistMirror() throws IOException {
+        spaces.put("DEV", List.of(page("1", 1), page("2", 1), page("3", 1)));
+        crawler.crawlNow();
+        
+        // A finished pass folds its change log into the snapshot
+        assertTrue(Files.exists(tempDir.resolve("pages.json")));
+        assertFalse(Files.exists(tempDir.resolve("pages.json.log")));
+        assertTrue(Files.exists(tempDir.resolve("crawl-checkpoint.json")));
+        
+        LocalPageStore restored = new LocalPageStore(objectMapper);
+        restored.load(tempDir.resolve("pages.json"));
+        assertEquals(3, restored.size());
+    }
+    
+    private static PageDetailed page(String id, int version) {
+        return new PageDetailed(id, "Page " + id, null, null,
+            new PageBody(new ContentRepresentation("<p>Body " + id + "</p>", "storage"), null, null),
+            new Version(null, null, version, false, null, null, null),
+            List.of(), null, null, null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package io.github.greenstevester.confluencemcpsvr.sync;
+
+import io.github.greenstevester.confluencemcpsvr.client.ConfluenceSearchClient;
+import io.github.greenstevester.confluencemcpsvr.config.SyncProperties;
+import io.github.greenstevester.confluencemcpsvr.model.common.ResponseLinks;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchRequest;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchResponse;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchResult;
+import io.github.greenstevester.confluencemcpsvr.model.search.SearchResultContent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.newStore;
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.page;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConfluenceSyncService
+ */
+@DisplayName("ConfluenceSyncService Tests")
+class ConfluenceSyncServiceTest {
+    
+    private static final Pattern ID_LIST = Pattern.compile("id in \\(([^)]*)\\)");
+    
+    @Test
+    @DisplayName("Should scan every page on the first run")
+    void testInitialCql() {
+        ConfluenceSyncService service = service(List.of());
+        
+        assertEquals("type=page ORDER BY lastModified ASC", service.buildChangedPagesCql(null));
+    }
+    
+    @Test
+    @DisplayName("Should widen the watermark by the overlap and the largest timezone offset")
+    void testIncrementalCql() {
+        ConfluenceSyncService service = service(List.of("OPS", "DEV"));
+        
+        String cql = service.buildChangedPagesCql(Instant.parse("2026-01-15T12:00:00Z"));
+        
+        // 12:00 UTC less the 1h overlap and 14h for a user at UTC-12 reading the date as local time
+        assertEquals("type=page AND space in (\"OPS\",\"DEV\") AND lastModified >= \"2026-01-14 21:00\""
+            + " ORDER BY lastModified ASC", cql);
+    }
+    
+    @Test
+    @DisplayName("Should ask which pages still exist in the synced spaces")
+    void testExistingPagesCql() {
+        assertEquals("type=page AND space in (\"OPS\",\"DEV\") AND id in (1,2)",
+            service(List.of("OPS", "DEV")).buildExistingPagesCql(List.of("1", "2")));
+    }
+    
+    @Test
+    @DisplayName("Should remove mirrored pages Confluence no longer returns")
+    void testRemoveDeletedPages() {
+        LocalPageStore store = newStore();
+        for (String id : List.of("1", "2", "3", "4", "5")) {
+            store.upsert(page(id, "Page " + id, "DEV", ""));
+        }
+        store.upsert(page("9", "Crawled elsewhere", "HR", ""));
+        AtomicInteger queries = new AtomicInteger();
+        ConfluenceSearchClient searchClient = new ConfluenceSearchClient(null) {
+            @Override
+            public Mono<SearchResponse> search(SearchRequest request) {
+                queries.incrementAndGet();
+                return Mono.just(existing(request, Set.of("1", "3", "5")));
+            }
+        };
+        AtomicInteger failures = new AtomicInteger();
+        
+        int removed = service(List.of("DEV"), searchClient, store).removeDeletedPages(failures);
+        
+        assertEquals(2, removed);
+        assertEquals(0, failures.get());
+        assertEquals(3, queries.get());
+        assertNull(store.get("2"));
+        assertNull(store.get("4"));
+        assertNotNull(store.get("5"));
+        // Outside the synced spaces, so not the sync's to check
+        assertNotNull(store.get("9"));
+    }
+    
+    @Test
+    @DisplayName("Should keep pages whose deletion check failed")
+    void testRemoveDeletedPagesFailure() {
+        LocalPageStore store = newStore();
+        store.upsert(page("1", "Page 1", "DEV", ""));
+        ConfluenceSearchClient searchClient = new ConfluenceSearchClient(null) {
+            @Override
+            public Mono<SearchResponse> search(SearchRequest request) {
+                return Mono.error(new IllegalStateException("503 Service Unavailable"));
+            }
+        };
+        AtomicInteger failures = new AtomicInteger();
+        
+        assertEquals(0, service(List.of(), searchClient, store).removeDeletedPages(failures));
+        assertEquals(1, failures.get());
+        assertNotNull(store.get("1"));
+    }
+    
+    @Test
+    @DisplayName("Should keep pages when the deletion check answer is truncated")
+    void testRemoveDeletedPagesTruncated() {
+        LocalPageStore store = newStore();
+        for (String id : List.of("1", "2", "3", "4")) {
+            store.upsert(page(id, "Page " + id, "DEV", ""));
+        }
+        AtomicInteger queries = new AtomicInteger();
+        ConfluenceSearchClient searchClient = new ConfluenceSearchClient(null) {
+            @Override
+            public Mono<SearchResponse> search(SearchRequest request) {
+                // The server clamps the limit to one result though both pages of the chunk exist, and
+                // says so through the total size in one answer and a next link in the other
+                SearchResponse all = existing(request, Set.of("1", "2", "3", "4"));
+                List<SearchResult> first = all.results().subList(0, 1);
+                return Mono.just(queries.incrementAndGet() == 1
+                    ? new SearchResponse(first, 1, 1, 0, all.totalSize(), request.cql(), null, null)
+                    : new SearchResponse(first, 1, 1, 0, null, request.cql(), null,
+                        new ResponseLinks("/rest/api/search?cursor=next", null, null, null)));
+            }
+        };
+        AtomicInteger failures = new AtomicInteger();
+        
+        assertEquals(0, service(List.of("DEV"), searchClient, store).removeDeletedPages(failures));
+        assertEquals(2, failures.get());
+        for (String id : List.of("1", "2", "3", "4")) {
+            assertNotNull(store.get(id));
+        }
+    }
+    
+    @Test
+    @DisplayName("Should only cover spaces a fresh mirror holds in full")
+    void testCoversSpaces() {
+        assertTrue(freshService(List.of()).coversSpaces(List.of()));
+        assertTrue(freshService(List.of()).coversSpaces(List.of("HR")));
+        assertTrue(freshService(List.of("OPS", "DEV")).coversSpaces(List.of("DEV")));
+        
+        assertFalse(freshService(List.of("OPS", "DEV")).coversSpaces(List.of()));
+        assertFalse(freshService(List.of("OPS", "DEV")).coversSpaces(List.of("DEV", "HR")));
+        assertFalse(service(List.of()).coversSpaces(List.of()));
+    }
+    
+    private ConfluenceSyncService service(List<String> spaceKeys, ConfluenceSearchClient searchClient, LocalPageStore store) {
+        SyncProperties properties = new SyncProperties(true, Duration.ofMinutes(10), Duration.ofHours(1),
+            Duration.ofMinutes(30), Duration.ofHours(1), 4, 2, spaceKeys, "build/sync");
+        return new ConfluenceSyncService(searchClient, null, store, properties, null, null);
+    }
+    
+    private static SearchResponse existing(SearchRequest request, Set<String> existingIds) {
+        Matcher ids = ID_LIST.matcher(request.cql());
+        assertTrue(ids.find());
+        List<SearchResult> results = Arrays.stream(ids.group(1).split(","))
+            .filter(existingIds::contains)
+            .map(id -> new SearchResult(new SearchResultContent(id, "page", "current", null, null, null, null, null),
+                null, null, null, null, null, null, null, null, null, null))
+            .toList();
+        return new SearchResponse(results, null, results.size(), 0, results.size(), request.cql(), null, null);
+    }
+    
+    private ConfluenceSyncService freshService(List<String> spaceKeys) {
+        SyncProperties properties = new SyncProperties(true, Duration.ofMinutes(10), Duration.ofHours(1),
+            Duration.ofMinutes(30), Duration.ofHours(1), 4, 50, spaceKeys, "build/sync");
+        return new ConfluenceSyncService(null, null, null, properties, null, null) {
+            @Override
+            public boolean isMirrorFresh() {
+                return true;
+            }
+        };
+    }
+    
+    private ConfluenceSyncService service(List<String> spaceKeys) {
+        SyncProperties properties = new SyncProperties(true, Duration.ofMinutes(10), Duration.ofHours(1),
+            Duration.ofMinutes(30), Duration.ofHours(1), 4, 50, spaceKeys, "build/sync");
+        return new ConfluenceSyncService(null, null, null, properties, null, null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,192 @@
+package io.github.greenstevester.confluencemcpsvr.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.greenstevester.confluencemcpsvr.service.MirroredPages.builder;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LocalPageStore
+ */
+@DisplayName("LocalPageStore Tests")
+class LocalPageStoreTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<String> events = new ArrayList<>();
+    
+    private LocalPageStore store;
+    
+    @BeforeEach
+    void setUp() {
+        store = new LocalPageStore(objectMapper);
+        store.addListener(new PageChangeListener() {
+            @Override
+            public void onPageUpserted(MirroredPage page, MirroredPage previous) {
+                events.add((previous == null ? "add:" : "update:") + page.id());
+            }
+            
+            @Override
+            public void onPageRemoved(MirroredPage page) {
+                events.add("remove:" + page.id());
+            }
+        });
+    }
+    
+    @Test
+    @DisplayName("Should notify listeners of adds, updates and removals in order")
+    void testListenerNotifications() {
+        store.upsert(builder("1").version(1).build());
+        store.upsert(builder("1").version(2).build());
+        store.upsert(builder("2").version(1).build());
+        assertTrue(store.remove("1"));
+        assertFalse(store.remove("1"));
+        
+        assertEquals(List.of("add:1", "update:1", "add:2", "remove:1"), events);
+        assertEquals(1, store.size());
+    }
+    
+    @Test
+    @DisplayName("Should round-trip the mirror through its saved file")
+    void testSaveAndLoad() throws IOException {
+        MirroredPage saved = builder("2").version(5).labels(List.of("howto")).author("user-1").build();
+        store.upsert(builder("1").version(3).build());
+        store.upsert(saved);
+        Path file = tempDir.resolve("pages.json");
+        store.save(file);
+        
+        LocalPageStore restored = new LocalPageStore(objectMapper);
+        restored.load(file);
+        
+        assertEquals(2, restored.size());
+        assertEquals(saved, restored.get("2"));
+    }
+    
+    @Test
+    @DisplayName("Should only report unsaved changes after the mirror changed")
+    void testUnsavedChanges() throws IOException {
+        Path file = tempDir.resolve("pages.json");
+        store.upsert(builder("1").version(1).build());
+        assertTrue(store.hasUnsavedChanges());
+        
+        store.save(file);
+        assertFalse(store.hasUnsavedChanges());
+        assertFalse(store.remove("missing"));
+        assertFalse(store.hasUnsavedChanges());
+        
+        assertTrue(store.remove("1"));
+        assertTrue(store.hasUnsavedChanges());
+        
+        LocalPageStore restored = new LocalPageStore(objectMapper);
+        restored.load(file);
+        assertFalse(restored.hasUnsavedChanges());
+    }
+    
+    @Test
+    @DisplayName("Should append changes to the log and replay them on load")
+    void testChangeLog() throws IOException {
+        Path file = tempDir.resolve("pages.json");
+        store.upsert(builder("1").version(1).build());
+        store.upsert(builder("2").version(1).build());
+        store.save(file);
+        
+        store.upsert(builder("1").version(2).build());
+        store.upsert(builder("3").version(1).build());
+        assertTrue(store.remove("2"));
+        assertEquals(3, store.appendChanges(file));
+        assertFalse(store.hasUnsavedChanges());
+        assertEquals(0, store.appendChanges(file));
+        
+        store.upsert(builder("3").version(2).build());
+        assertEquals(1, store.appendChanges(file));
+        
+        LocalPageStore restored = new LocalPageStore(objectMapper);
+        restored.load(file);
+        assertEquals(2, restored.size());
+        assertEquals(2, restored.get("1").version());
+        assertEquals(2, restored.get("3").version());
+        assertNull(restored.get("2"));
+        assertFalse(restored.hasUnsavedChanges());
+        
+        // Saving folds the log into the snapshot
+        store.save(file);
+        assertFalse(Files.exists(tempDir.resolve("pages.json.log")));
+    }
+    
+    @Test
+    @DisplayName("Should skip logged removals older than the mirrored copy")
+    void testStaleRemovalReplay() throws IOException {
+        Path file = tempDir.resolve("pages.json");
+        store.upsert(builder("1").version(2).build());
+        store.upsert(builder("2").version(1).build());
+        store.save(file);
+        assertTrue(store.remove("1"));
+        assertTrue(store.remove("2"));
+        store.appendChanges(file);
+        
+        // A later snapshot holds page 1 again at a newer version, but the log beside it was never dropped
+        Path log = tempDir.resolve("pages.json.log");
+        Path staleLog = tempDir.resolve("stale.log");
+        Files.copy(log, staleLog);
+        store.upsert(builder("1").version(3).build());
+        store.upsert(builder("2").version(1).build());
+        store.save(file);
+        Files.copy(staleLog, log);
+        
+        LocalPageStore restored = new LocalPageStore(objectMapper);
+        restored.load(file);
+        
+        assertEquals(3, restored.get("1").version());
+        // Page 2 is still at the version that was removed, so its removal applies
+        assertNull(restored.get("2"));
+    }
+    
+    @Test
+    @DisplayName("Should stop replaying the log at a torn entry")
+    void testTornChangeLog() throws IOException {
+        Path file = tempDir.resolve("pages.json");
+        MirroredPage logged = builder("1").version(1).build();
+        store.upsert(logged);
+        store.appendChanges(file);
+        Files.writeString(tempDir.resolve("pages.json.log"), "{\"page\":{\"id\":\"2\",", StandardOpenOption.APPEND);
+        
+        LocalPageStore restored = new LocalPageStore(objectMapper);
+        restored.load(file);
+        
+        assertEquals(1, restored.size());
+        assertEquals(logged, restored.get("1"));
+    }
+    
+    @Test
+    @DisplayName("Should replay existing pages to late listeners")
+    void testLateListenerReplay() {
+        store.upsert(builder("1").version(1).build());
+        List<String> replayed = new ArrayList<>();
+        
+        store.addListener(new PageChangeListener() {
+            @Override
+            public void onPageUpserted(MirroredPage page, MirroredPage previous) {
+                replayed.add(page.id());
+            }
+            
+            @Override
+            public void onPageRemoved(MirroredPage page) {
+            }
+        });
+        
+        assertEquals(List.of("1"), replayed);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package io.github.greenstevester.confluencemcpsvr.sync;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RequestPacer
+ */
+@DisplayName("RequestPacer Tests")
+class RequestPacerTest {
+    
+    private static final long INTERVAL = Duration.ofMillis(200).toNanos();
+    
+    @Test
+    @DisplayName("Should space concurrent requests one interval apart")
+    void shouldSpaceConcurrentRequests() {
+        RequestPacer pacer = new RequestPacer(Duration.ofMillis(200));
+        
+        assertEquals(0, pacer.reserve(1_000));
+        assertEquals(INTERVAL, pacer.reserve(1_000));
+        assertEquals(2 * INTERVAL, pacer.reserve(1_000));
+        assertEquals(3 * INTERVAL - INTERVAL / 2, pacer.reserve(1_000 + INTERVAL / 2));
+    }
+    
+    @Test
+    @DisplayName("Should not let an idle pacer build up a burst")
+    void shouldNotAccumulateIdleSlots() {
+        RequestPacer pacer = new RequestPacer(Duration.ofMillis(200));
+        
+        assertEquals(0, pacer.reserve(0));
+        assertEquals(0, pacer.reserve(10 * INTERVAL));
+        assertEquals(INTERVAL, pacer.reserve(10 * INTERVAL));
+    }
+    
+    @Test
+    @DisplayName("Should never wait with a zero interval")
+    void shouldNotWaitWithoutInterval() {
+        RequestPacer pacer = new RequestPacer(Duration.ZERO);
+        
+        assertEquals(0, pacer.reserve(5));
+        assertEquals(0, pacer.reserve(5));
+    }
+}
\ No newline at end of file
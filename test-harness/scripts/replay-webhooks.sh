@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+
+# Webhook Replay
+# Posts recorded Confluence webhook payloads to a running server to exercise cache invalidation
+
+set -euo pipefail
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+# Script directory
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(dirname "$(dirname "$SCRIPT_DIR")")"
+
+SERVER_URL="http://localhost:8081"
+PAYLOAD_DIR="$PROJECT_ROOT/src/test/resources/webhooks"
+REPEAT=1
+SECRET="${CONFLUENCE_WEBHOOK_SECRET:-}"
+
+while [[ $# -gt 0 ]]; do
+    case $1 in
+        --url|-u)
+            SERVER_URL="$2"
+            shift 2
+            ;;
+        --dir|-d)
+            PAYLOAD_DIR="$2"
+            shift 2
+            ;;
+        --repeat|-r)
+            REPEAT="$2"
+            shift 2
+            ;;
+        --help|-h)
+            echo "Usage: $0 [OPTIONS]"
+            echo ""
+            echo "Options:"
+            echo "  --url, -u      Server base URL (default: http://localhost:8081)"
+            echo "  --dir, -d      Directory of recorded JSON payloads (default: src/test/resources/webhooks)"
+            echo "  --repeat, -r   Send every payload N times to simulate an event storm (default: 1)"
+            echo "  --help, -h     Show this help message"
+            echo ""
+            echo "Set CONFLUENCE_WEBHOOK_SECRET to sign requests with X-Hub-Signature."
+            exit 0
+            ;;
+        *)
+            echo -e "${RED}Unknown option: $1${NC}"
+            echo "Use --help for usage information"
+            exit 1
+            ;;
+    esac
+done
+
+echo -e "${BLUE}Replaying webhooks from ${PAYLOAD_DIR} to ${SERVER_URL}/webhooks/confluence${NC}"
+
+for payload in "$PAYLOAD_DIR"/*.json; do
+    for ((i = 1; i <= REPEAT; i++)); do
+        headers=(-H "Content-Type: application/json")
+        if [ -n "$SECRET" ]; then
+            signature=$(openssl dgst -sha256 -hmac "$SECRET" -hex < "$payload" | sed 's/^.*= //')
+            headers+=(-H "X-Hub-Signature: sha256=${signature}")
+        fi
+
+        response=$(curl -s -w " [%{http_code}]" "${headers[@]}" --data-binary "@$payload" \
+            "$SERVER_URL/webhooks/confluence")
+
+        if [[ "$response" == *"[202]" ]]; then
+            echo -e "${GREEN}✓${NC} $(basename "$payload") ${response}"
+        else
+            echo -e "${YELLOW}!${NC} $(basename "$payload") ${response}"
+        fi
+    done
+done